@@ -0,0 +1,119 @@
+package com.game.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.game.utils.GameSalesBatchInsert;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * {@link GameSalesBatchInsert#insertBatch(List, DuplicateMode, BulkWriteEngine)} with BATCH_INSERT into an in-memory H2 database in MySQL mode,
+ * with the daily rollup maintained as in the import and the columnar store disabled, its default.
+ *
+ * <p>Each batch gets new ids so every row is inserted. The tables are emptied after each iteration so they
+ * do not grow for the whole run. The score is the time per batch, divide the batch size by it for rows per second.
+ * H2 only shows the relative cost of the batch sizes and writer threads, not the absolute times of MySQL,
+ * and it divides the bound cents as integers, so the stored prices lose their cents, which does not change the work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Database {
+
+		@Param({"100", "1000", "5000"})
+		int batchSize;
+
+		@Param({"FAIL", "IGNORE"})
+		DuplicateMode duplicateMode;
+
+		private final AtomicLong nextId = new AtomicLong(1);
+
+		private HikariDataSource dataSource;
+
+		private JdbcTemplate jdbcTemplate;
+
+		private GameSalesBatchInsert batchInsert;
+
+		@Setup
+		public void setUp() {
+			dataSource = BenchmarkData.database(8);
+			jdbcTemplate = new JdbcTemplate(dataSource);
+			batchInsert = BenchmarkData.batchInsert(jdbcTemplate);
+		}
+
+		@TearDown(Level.Iteration)
+		public void truncate() {
+			jdbcTemplate.execute("TRUNCATE TABLE game_sales");
+			jdbcTemplate.execute("TRUNCATE TABLE game_sales_daily_rollup");
+		}
+
+		@TearDown
+		public void tearDown() {
+			jdbcTemplate.execute("DROP ALL OBJECTS");
+			dataSource.close();
+		}
+	}
+
+	/** The rows a writer thread inserts, renumbered before each batch. */
+	@State(Scope.Thread)
+	public static class Batch {
+
+		private List<GameSales> rows;
+
+		@Setup
+		public void setUp(Database database) {
+			rows = BenchmarkData.entities(database.batchSize);
+		}
+
+		@Setup(Level.Invocation)
+		public void renumber(Database database) {
+			long firstId = database.nextId.getAndAdd(rows.size());
+			for (int i = 0; i < rows.size(); i++) {
+				rows.get(i).setId(firstId + i);
+			}
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Object insertBatch(Database database, Batch batch) {
+		return database.batchInsert.insertBatch(batch.rows, database.duplicateMode, BulkWriteEngine.BATCH_INSERT);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Object insertBatch4Threads(Database database, Batch batch) {
+		return database.batchInsert.insertBatch(batch.rows, database.duplicateMode, BulkWriteEngine.BATCH_INSERT);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Object insertBatch8Threads(Database database, Batch batch) {
+		return database.batchInsert.insertBatch(batch.rows, database.duplicateMode, BulkWriteEngine.BATCH_INSERT);
+	}
+}
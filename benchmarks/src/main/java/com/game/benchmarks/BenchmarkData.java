@@ -0,0 +1,123 @@
+package com.game.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.game.config.ColumnarStoreProperties;
+import com.game.config.PartitionProperties;
+import com.game.entity.GameSales;
+import com.game.model.GameSalesDto;
+import com.game.utils.CommonsGameSalesRowReader;
+import com.game.utils.GameSalesBatchInsert;
+import com.game.utils.GameSalesColumnarStore;
+import com.game.utils.GameSalesCsvGenerator;
+import com.game.utils.GameSalesCsvParser;
+import com.game.utils.GameSalesDailyRollup;
+import com.game.utils.GameSalesInsertWriter;
+import com.game.utils.GameSalesMapper;
+import com.game.utils.GameSalesMetrics;
+import com.game.utils.GameSalesPartitions;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The csv of {@link GameSalesCsvGenerator} built in memory from a fixed seed, so every run and fork
+ * measures the same rows, and the same rows at each later stage of the import.
+ */
+final class BenchmarkData {
+
+	static final long SEED = 20250407L;
+
+	static final CSVFormat FORMAT = CSVFormat.RFC4180.builder()
+			.setHeader()
+			.setSkipHeaderRecord(true)
+			.get();
+
+	private BenchmarkData() {
+	}
+
+	static byte[] csv(int rowCount) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(rowCount * 64);
+		try {
+			GameSalesCsvGenerator.generate(GameSalesCsvGenerator.Options.builder().rows(rowCount).seed(SEED).build(),
+					Channels.newChannel(out));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	static List<CSVRecord> records(int rowCount) {
+		try (CSVParser parser = CSVParser.parse(new ByteArrayInputStream(csv(rowCount)), StandardCharsets.UTF_8, FORMAT)) {
+			return parser.getRecords();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static List<GameSalesDto> dtos(int rowCount) {
+		CommonsGameSalesRowReader rowReader = emptyRowReader();
+		List<GameSalesDto> dtos = new ArrayList<>(rowCount);
+		for (CSVRecord record : records(rowCount)) {
+			dtos.add(rowReader.mapCsvToDto(record));
+		}
+		return dtos;
+	}
+
+	static List<GameSales> entities(int rowCount) {
+		return dtos(rowCount).stream().map(GameSalesMapper::toEntity).toList();
+	}
+
+	/** A reader over a header only csv, used to map records parsed elsewhere. */
+	static CommonsGameSalesRowReader emptyRowReader() {
+		try {
+			return new CommonsGameSalesRowReader(new ByteArrayInputStream(
+					String.join(",", GameSalesCsvParser.HEADER).getBytes(StandardCharsets.UTF_8)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** An in-memory H2 database in MySQL mode with the tables of the import. */
+	static HikariDataSource database(int poolSize) {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:game_sales;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000");
+		config.setMaximumPoolSize(poolSize);
+		HikariDataSource dataSource = new HikariDataSource(config);
+		new ResourceDatabasePopulator(new ClassPathResource("benchmark-schema.sql")).execute(dataSource);
+		return dataSource;
+	}
+
+	/**
+	 * The batch insert of the import with the BATCH_INSERT engine only, maintaining the daily rollup, with the
+	 * columnar store disabled and an unpartitioned table. H2 has no LOAD DATA and the JPA engine needs an entity manager.
+	 */
+	static GameSalesBatchInsert batchInsert(JdbcTemplate jdbcTemplate) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(
+				new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+		return new GameSalesBatchInsert(jdbcTemplate, transactionTemplate,
+				new GameSalesDailyRollup(jdbcTemplate, transactionTemplate),
+				new GameSalesColumnarStore(jdbcTemplate, new ColumnarStoreProperties(), new SyncTaskExecutor()),
+				new GameSalesMetrics(new SimpleMeterRegistry()),
+				new GameSalesPartitions(jdbcTemplate, new PartitionProperties()),
+				List.of(new GameSalesInsertWriter(jdbcTemplate)));
+	}
+}
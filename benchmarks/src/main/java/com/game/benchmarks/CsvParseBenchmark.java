@@ -0,0 +1,75 @@
+package com.game.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.game.model.GameSalesCsvRow;
+import com.game.utils.CommonsGameSalesRowReader;
+import com.game.utils.GameSalesCsvParser;
+
+/**
+ * Reads a whole in-memory csv, the commons csv record parsing alone and the two row readers of the import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParseBenchmark {
+
+	@Param({"10000", "100000"})
+	int rows;
+
+	private byte[] csv;
+
+	@Setup
+	public void setUp() {
+		csv = BenchmarkData.csv(rows);
+	}
+
+	@Benchmark
+	public void commonsCsvRecords(Blackhole blackhole) throws IOException {
+		try (CSVParser parser = CSVParser.parse(new ByteArrayInputStream(csv), StandardCharsets.UTF_8,
+				BenchmarkData.FORMAT)) {
+			for (CSVRecord record : parser) {
+				blackhole.consume(record);
+			}
+		}
+	}
+
+	@Benchmark
+	public void commonsRowReader(Blackhole blackhole) throws IOException {
+		try (CommonsGameSalesRowReader rowReader = new CommonsGameSalesRowReader(new ByteArrayInputStream(csv))) {
+			for (GameSalesCsvRow row = rowReader.next(); row != null; row = rowReader.next()) {
+				blackhole.consume(row);
+			}
+		}
+	}
+
+	@Benchmark
+	public void fastRowReader(Blackhole blackhole) throws IOException {
+		try (GameSalesCsvParser rowReader = new GameSalesCsvParser(new ByteArrayInputStream(csv))) {
+			for (GameSalesCsvRow row = rowReader.next(); row != null; row = rowReader.next()) {
+				blackhole.consume(row);
+			}
+		}
+	}
+}
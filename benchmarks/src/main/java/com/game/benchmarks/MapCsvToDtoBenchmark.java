@@ -0,0 +1,52 @@
+package com.game.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.game.utils.CommonsGameSalesRowReader;
+
+/**
+ * {@link CommonsGameSalesRowReader#mapCsvToDto(CSVRecord)} over records parsed beforehand.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapCsvToDtoBenchmark {
+
+	@Param({"10000"})
+	int rows;
+
+	private List<CSVRecord> records;
+
+	private CommonsGameSalesRowReader rowReader;
+
+	@Setup
+	public void setUp() {
+		records = BenchmarkData.records(rows);
+		rowReader = BenchmarkData.emptyRowReader();
+	}
+
+	@Benchmark
+	public void mapCsvToDto(Blackhole blackhole) {
+		for (CSVRecord record : records) {
+			blackhole.consume(rowReader.mapCsvToDto(record));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.game.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.game.model.GameSalesDto;
+import com.game.utils.GameSalesMapper;
+
+/**
+ * {@link GameSalesMapper#toEntity(GameSalesDto)}, the mapping of a validated row before it is batched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapDtoToEntityBenchmark {
+
+	@Param({"10000"})
+	int rows;
+
+	private List<GameSalesDto> dtos;
+
+	@Setup
+	public void setUp() {
+		dtos = BenchmarkData.dtos(rows);
+	}
+
+	@Benchmark
+	public void mapDtoToEntity(Blackhole blackhole) {
+		for (GameSalesDto dto : dtos) {
+			blackhole.consume(GameSalesMapper.toEntity(dto));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.game.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.game.model.GameSalesDto;
+import com.game.utils.GameSalesDtoValidator;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * The row validation of the import, {@link GameSalesDtoValidator#isValid(GameSalesDto)}, against the bean
+ * validation of the same constraints it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateBenchmark {
+
+	@Param({"10000"})
+	int rows;
+
+	private List<GameSalesDto> dtos;
+
+	private ValidatorFactory validatorFactory;
+
+	private Validator validator;
+
+	@Setup
+	public void setUp() {
+		dtos = BenchmarkData.dtos(rows);
+		validatorFactory = Validation.buildDefaultValidatorFactory();
+		validator = validatorFactory.getValidator();
+	}
+
+	@TearDown
+	public void tearDown() {
+		validatorFactory.close();
+	}
+
+	@Benchmark
+	public void isValidGameSalesDto(Blackhole blackhole) {
+		for (GameSalesDto dto : dtos) {
+			blackhole.consume(GameSalesDtoValidator.isValid(dto));
+		}
+	}
+
+	@Benchmark
+	public void beanValidation(Blackhole blackhole) {
+		for (GameSalesDto dto : dtos) {
+			blackhole.consume(validator.validate(dto).isEmpty());
+		}
+	}
+}
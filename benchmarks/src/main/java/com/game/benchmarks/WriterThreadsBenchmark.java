@@ -0,0 +1,149 @@
+package com.game.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.game.config.ImportProperties;
+import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.game.utils.GameSalesBatchInsert;
+import com.game.utils.ImportPipeline;
+import com.game.utils.ImportWriteTuner;
+import com.game.utils.ImportWriterBudget;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A batch import through the {@link ImportPipeline} into an in-memory H2 database, with its writers on platform
+ * or on virtual threads. The writers take their turn from an {@link ImportWriteTuner} with fixed values, so at
+ * most half of the 16 connections write at once however many writer threads there are.
+ *
+ * <p>One operation imports {@value #BATCHES} batches of {@value #BATCH_SIZE} rows. The virtual runs need Java 21,
+ * on older versions their setup fails and JMH goes on with the next parameters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriterThreadsBenchmark {
+
+	private static final int BATCHES = 32;
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Param({"platform", "virtual"})
+	String threads;
+
+	@Param({"8", "64"})
+	int writerThreads;
+
+	private final AtomicLong nextId = new AtomicLong(1);
+
+	private HikariDataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private GameSalesBatchInsert batchInsert;
+
+	private ImportProperties importProperties;
+
+	private ImportWriterBudget budget;
+
+	private ThreadFactory writerThreadFactory;
+
+	private List<List<GameSales>> batches;
+
+	@Setup
+	public void setUp() {
+		writerThreadFactory = "virtual".equals(threads)
+				? new VirtualThreadTaskExecutor("import-writer-").getVirtualThreadFactory()
+				: new CustomizableThreadFactory("import-writer-");
+		dataSource = BenchmarkData.database(16);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		batchInsert = BenchmarkData.batchInsert(jdbcTemplate);
+
+		importProperties = new ImportProperties();
+		importProperties.setAdaptive(false);
+		importProperties.setBatchSize(BATCH_SIZE);
+		importProperties.setWriterThreads(writerThreads);
+		budget = new ImportWriterBudget(dataSource, importProperties);
+
+		List<GameSales> rows = BenchmarkData.entities(BATCHES * BATCH_SIZE);
+		batches = IntStream.range(0, BATCHES)
+				.mapToObj(i -> rows.subList(i * BATCH_SIZE, (i + 1) * BATCH_SIZE))
+				.toList();
+	}
+
+	@TearDown(Level.Iteration)
+	public void truncate() {
+		jdbcTemplate.execute("TRUNCATE TABLE game_sales");
+		jdbcTemplate.execute("TRUNCATE TABLE game_sales_daily_rollup");
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (dataSource != null) {
+			jdbcTemplate.execute("DROP ALL OBJECTS");
+			dataSource.close();
+		}
+	}
+
+	@Benchmark
+	public void importBatches() throws InterruptedException {
+		ImportWriteTuner writeTuner = new ImportWriteTuner(importProperties, budget);
+		try (ImportPipeline<GameSales, List<GameSales>> pipeline = new ImportPipeline<>(2, writerThreads, 20,
+				this::renumber, batch -> write(batch, writeTuner), writerThreadFactory)) {
+			for (List<GameSales> batch : batches) {
+				pipeline.submit(batch);
+			}
+			pipeline.finish();
+		}
+	}
+
+	/** Gives the rows new ids, so every row is inserted. */
+	private List<GameSales> renumber(List<GameSales> batch) {
+		long firstId = nextId.getAndAdd(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			batch.get(i).setId(firstId + i);
+		}
+		return batch;
+	}
+
+	private void write(List<GameSales> batch, ImportWriteTuner writeTuner) {
+		try {
+			writeTuner.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Import interrupted");
+		}
+		long start = System.nanoTime();
+		try {
+			batchInsert.insertBatch(batch, DuplicateMode.FAIL, BulkWriteEngine.BATCH_INSERT);
+		} finally {
+			writeTuner.release(batch.size(), System.nanoTime() - start);
+		}
+	}
+}
@@ -6,6 +6,15 @@ CREATE TABLE csv_import_info (
     total_records INT DEFAULT 0,
     successful_records INT DEFAULT 0,
     failed_records INT DEFAULT 0,
+    file_size BIGINT DEFAULT 0,
+    processed_bytes BIGINT DEFAULT 0,
+    error_file VARCHAR(255),
+    file_hash CHAR(64),
+    checkpoint_offset BIGINT DEFAULT 0,
+    checkpoint_line BIGINT DEFAULT 0,
+    checkpoint_row_id BIGINT DEFAULT 0,
+    checkpoint_successful_records INT DEFAULT 0,
+    checkpoint_failed_records INT DEFAULT 0,
     error_message TEXT,
 	start_time DATETIME,
     end_time DATETIME,
@@ -15,6 +24,19 @@ CREATE TABLE csv_import_info (
 	update_by VARCHAR(100)
 );
 
+-- For databases created by an earlier version of this script
+-- ALTER TABLE csv_import_info ADD COLUMN file_size BIGINT DEFAULT 0 AFTER failed_records;
+-- ALTER TABLE csv_import_info ADD COLUMN processed_bytes BIGINT DEFAULT 0 AFTER file_size;
+-- ALTER TABLE csv_import_info ADD COLUMN error_file VARCHAR(255) AFTER processed_bytes;
+-- ALTER TABLE csv_import_info ADD COLUMN file_hash CHAR(64) AFTER error_file,
+--     ADD COLUMN checkpoint_offset BIGINT DEFAULT 0 AFTER file_hash,
+--     ADD COLUMN checkpoint_line BIGINT DEFAULT 0 AFTER checkpoint_offset,
+--     ADD COLUMN checkpoint_row_id BIGINT DEFAULT 0 AFTER checkpoint_line,
+--     ADD COLUMN checkpoint_successful_records INT DEFAULT 0 AFTER checkpoint_row_id,
+--     ADD COLUMN checkpoint_failed_records INT DEFAULT 0 AFTER checkpoint_successful_records;
+-- CREATE INDEX idx_file_hash ON csv_import_info(file_hash);
+
 -- CREATE Index later
 CREATE INDEX idx_status ON csv_import_info(status);
-CREATE INDEX idx_file_name ON csv_import_info(file_name);
\ No newline at end of file
+CREATE INDEX idx_file_name ON csv_import_info(file_name);
+CREATE INDEX idx_file_hash ON csv_import_info(file_hash);
\ No newline at end of file
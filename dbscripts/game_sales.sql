@@ -1,6 +1,7 @@
 -- Store game records from the CSV
+-- Partitioned by month of sale, every unique key of a partitioned table includes the partitioning column
 CREATE TABLE game_sales (
-    id INT PRIMARY KEY,
+    id INT NOT NULL,
     game_no INT NOT NULL,
     game_name VARCHAR(20) NOT NULL,
     game_code VARCHAR(5) NOT NULL,
@@ -8,11 +9,27 @@ CREATE TABLE game_sales (
     cost_price DECIMAL(10, 2) NOT NULL,
     tax DECIMAL(3, 2) NOT NULL,
     sale_price DECIMAL(10, 2) NOT NULL,
-    date_of_sale DATETIME(0) NOT NULL
+    date_of_sale DATETIME(0) NOT NULL,
+    -- start of the hour of the sale, groups the hourly sales totals
+    sale_hour DATETIME GENERATED ALWAYS AS (DATE_FORMAT(date_of_sale, '%Y-%m-%d %H:00:00')) VIRTUAL,
+    PRIMARY KEY (id, date_of_sale)
+)
+-- the app splits pmax into monthly partitions at startup and ahead of each month, see GameSalesPartitions
+PARTITION BY RANGE COLUMNS (date_of_sale) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
 );
 
 -- Create Index for optimisation
 CREATE INDEX idx_sale_price ON game_sales(sale_price);
 CREATE INDEX idx_date_of_sale ON game_sales(date_of_sale);
 CREATE INDEX idx_date_price ON game_sales(date_of_sale, sale_price);
-CREATE INDEX idx_date_game_no ON game_sales(date_of_sale, game_no);
\ No newline at end of file
+CREATE INDEX idx_date_game_no ON game_sales(date_of_sale, game_no);
+-- covers the hourly totals, which also bound date_of_sale to trim the first and last hour
+CREATE INDEX idx_sale_hour ON game_sales(sale_hour, game_no, sale_price, date_of_sale);
+
+-- For databases created by an earlier version of this script
+-- ALTER TABLE game_sales ADD COLUMN sale_hour DATETIME GENERATED ALWAYS AS (DATE_FORMAT(date_of_sale, '%Y-%m-%d %H:00:00')) VIRTUAL;
+-- CREATE INDEX idx_sale_hour ON game_sales(sale_hour, game_no, sale_price, date_of_sale);
+-- or, if idx_sale_hour was created without date_of_sale:
+-- ALTER TABLE game_sales DROP INDEX idx_sale_hour, ADD INDEX idx_sale_hour (sale_hour, game_no, sale_price, date_of_sale);
+-- and dbscripts/migrations/partition_game_sales.sql to partition it
@@ -0,0 +1,14 @@
+-- Daily totals per game, maintained by the imports and read by the sales reports
+CREATE TABLE game_sales_daily_rollup (
+    sale_date DATE NOT NULL,
+    game_no INT NOT NULL,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    total_sales DECIMAL(20, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sale_date, game_no)
+);
+
+-- Fill it for existing data, or rebuild any range with POST /rollup/rebuild
+INSERT INTO game_sales_daily_rollup (sale_date, game_no, total_count, total_sales)
+SELECT DATE(date_of_sale), game_no, COUNT(*), SUM(sale_price)
+FROM game_sales
+GROUP BY DATE(date_of_sale), game_no;
@@ -0,0 +1,12 @@
+-- Rows rejected by an import, one row per problem found
+CREATE TABLE import_error (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    import_id INT NOT NULL,
+    line_number BIGINT NOT NULL,
+    column_name VARCHAR(50),
+    reason VARCHAR(500) NOT NULL,
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+-- CREATE Index later
+CREATE INDEX idx_import_line ON import_error(import_id, line_number);
@@ -0,0 +1,34 @@
+-- Partitions an unpartitioned game_sales by month of sale, for databases created before game_sales.sql did.
+--
+-- The primary key becomes (id, date_of_sale), as every unique key of a partitioned table must include
+-- date_of_sale. The app then checks the ids itself, see GameSalesBatchInsert.
+--
+-- ALTER TABLE copies the table once and blocks writes meanwhile, so stop the app or run it when no import runs.
+-- Restart the app afterwards so it sees the new key. Every month from the oldest sale to 3 months ahead gets
+-- its partition, later months go to pmax until the app splits them out.
+
+SET SESSION group_concat_max_len = 1048576;
+SET SESSION cte_max_recursion_depth = 10000;
+
+SET @first_month = DATE_FORMAT(COALESCE((SELECT MIN(date_of_sale) FROM game_sales), NOW()), '%Y-%m-01');
+SET @last_month = DATE_FORMAT(NOW() + INTERVAL 3 MONTH, '%Y-%m-01');
+
+WITH RECURSIVE months (month_start) AS (
+    SELECT CAST(@first_month AS DATE)
+    UNION ALL
+    SELECT month_start + INTERVAL 1 MONTH FROM months WHERE month_start < CAST(@last_month AS DATE)
+)
+SELECT GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+        ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, ''')') ORDER BY month_start SEPARATOR ', ')
+INTO @partitions
+FROM months;
+
+SET @ddl = CONCAT('ALTER TABLE game_sales DROP PRIMARY KEY, ADD PRIMARY KEY (id, date_of_sale) ',
+        'PARTITION BY RANGE COLUMNS (date_of_sale) (', @partitions, ', PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_game_sales FROM @ddl;
+EXECUTE partition_game_sales;
+DEALLOCATE PREPARE partition_game_sales;
+
+-- Check the partitions
+-- SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS
+-- WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game_sales' ORDER BY PARTITION_ORDINAL_POSITION;
@@ -0,0 +1,73 @@
+package com.game.config;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for work that outlives the http request.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+	/**
+	 * Runs import jobs in the background, jobs beyond {@code game.import.max-concurrent-jobs} wait in the queue.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor importJobExecutor(ImportProperties importProperties) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(importProperties.getMaxConcurrentJobs());
+		executor.setMaxPoolSize(importProperties.getMaxConcurrentJobs());
+		executor.setThreadNamePrefix("import-job-");
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		return executor;
+	}
+
+	/**
+	 * Creates the threads writing the import batches, virtual threads if {@code game.import.virtual-threads}.
+	 * The import jobs and the mappers parse and validate on platform threads, that work is cpu bound.
+	 */
+	@Bean
+	public ThreadFactory importWriterThreadFactory(ImportProperties importProperties) {
+		if (!importProperties.isVirtualThreads()) {
+			return new CustomizableThreadFactory("import-writer-");
+		}
+		if (!JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+			throw new IllegalStateException("game.import.virtual-threads requires Java 21, running on " + Runtime.version());
+		}
+		return new VirtualThreadTaskExecutor("import-writer-").getVirtualThreadFactory();
+	}
+
+	/**
+	 * Writes the streaming exports, exports beyond {@code game.export.max-concurrent-exports} wait in the queue.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor exportExecutor(ExportProperties exportProperties) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(exportProperties.getMaxConcurrentExports());
+		executor.setMaxPoolSize(exportProperties.getMaxConcurrentExports());
+		executor.setThreadNamePrefix("export-");
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		return executor;
+	}
+
+	/**
+	 * Loads the columnar store in the background, a reload requested meanwhile supersedes the running one.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor columnarLoadExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("columnar-load-");
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		return executor;
+	}
+}
@@ -0,0 +1,86 @@
+package com.game.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.game.utils.ReplicaReadGuard;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Separate connection pools for the writes and the reads, so running imports never leave the queries waiting for
+ * a connection.
+ *
+ * <p>The data source used by JPA and the {@code JdbcTemplate} takes its connection when a transaction first runs
+ * a statement: from the read pool for a {@code @Transactional(readOnly = true)} transaction, from the write pool
+ * otherwise. With {@code game.datasource.replica-url}, the read-only transactions read the replica instead,
+ * unless {@code game.datasource.read-consistency} requires the primary, see {@link ReplicaReadGuard}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+	/**
+	 * The pool of the writes and of the statements outside a read-only transaction, configured by
+	 * {@code spring.datasource.hikari.*}.
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource writeDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("write");
+		return dataSource;
+	}
+
+	/**
+	 * The pool of the read-only transactions on the primary.
+	 */
+	@Bean
+	public HikariDataSource readDataSource(DataSourceProperties properties, ReadDataSourceProperties readProperties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("read");
+		dataSource.setMaximumPoolSize(readProperties.getReadPoolSize());
+		dataSource.setConnectionTimeout(readProperties.getReadConnectionTimeoutMillis());
+		return dataSource;
+	}
+
+	/**
+	 * The pool of the read-only transactions on the replica.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "game.datasource", name = "replica-url")
+	public HikariDataSource replicaDataSource(DataSourceProperties properties, ReadDataSourceProperties readProperties) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName("replica");
+		dataSource.setDriverClassName(properties.determineDriverClassName());
+		dataSource.setJdbcUrl(readProperties.getReplicaUrl());
+		dataSource.setUsername(StringUtils.hasText(readProperties.getReplicaUsername())
+				? readProperties.getReplicaUsername() : properties.determineUsername());
+		dataSource.setPassword(StringUtils.hasText(readProperties.getReplicaPassword())
+				? readProperties.getReplicaPassword() : properties.determinePassword());
+		dataSource.setMaximumPoolSize(readProperties.getReplicaPoolSize());
+		dataSource.setConnectionTimeout(readProperties.getReadConnectionTimeoutMillis());
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	@Bean
+	@Primary
+	public LazyConnectionDataSourceProxy dataSource(@Qualifier("writeDataSource") HikariDataSource writeDataSource,
+			@Qualifier("readDataSource") HikariDataSource readDataSource,
+			@Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource, ReplicaReadGuard guard) {
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+		HikariDataSource replica = replicaDataSource.getIfAvailable();
+		DataSource readOnly = replica != null ? new ReplicaRoutingDataSource(readDataSource, replica, guard) : readDataSource;
+		dataSource.setReadOnlyDataSource(readOnly);
+		return dataSource;
+	}
+}
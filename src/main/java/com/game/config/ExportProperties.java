@@ -0,0 +1,25 @@
+package com.game.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Properties of the streaming game sales export, bound from {@code game.export.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "game.export")
+public class ExportProperties {
+
+	/**
+	 * Exports streaming at the same time, each holds a db connection until it ends. Further exports wait
+	 * for a free thread.
+	 */
+	private int maxConcurrentExports = 4;
+
+	/** Time an export may take before the response is aborted, 0 or less for no limit. */
+	private long timeoutMillis = 1_800_000;
+
+	/** Bytes buffered before they are written to the response. */
+	private int bufferSize = 65536;
+}
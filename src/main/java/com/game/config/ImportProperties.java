@@ -0,0 +1,100 @@
+package com.game.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.CsvParserType;
+import com.game.enums.DuplicateMode;
+
+import lombok.Data;
+
+/**
+ * Tuning properties for the csv import pipeline, bound from {@code game.import.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "game.import")
+public class ImportProperties {
+
+	/** Csv parser used by the batch import, FAST requires the exact game_sales column order. */
+	private CsvParserType parser = CsvParserType.COMMONS;
+
+	/** Number of rows handed from one pipeline stage to the next in a single batch, the starting size when adaptive. */
+	private int batchSize = 1000;
+
+	/** Engine writing the validated rows of a batch import, unless the request names another one. */
+	private BulkWriteEngine writeEngine = BulkWriteEngine.BATCH_INSERT;
+
+	/** Threads validating and mapping parsed rows. */
+	private int mapperThreads = 2;
+
+	/** Threads writing batches to the db, the most writers of an import when adaptive. */
+	private int writerThreads = 10;
+
+	/**
+	 * Tune the batch size and the number of writers of each import from the measured batch write latency
+	 * and throughput, see {@link com.game.utils.ImportWriteTuner}.
+	 */
+	private boolean adaptive = true;
+
+	/** Smallest batch size of an adaptive import. */
+	private int minBatchSize = 100;
+
+	/** Largest batch size of an adaptive import. */
+	private int maxBatchSize = 10000;
+
+	/** Write latency of a batch above which an adaptive import shrinks its batches. */
+	private long targetBatchMillis = 500;
+
+	/**
+	 * Share of the db connection pool the writers of all the imports may hold together,
+	 * the rest is left to the queries.
+	 */
+	private double maxPoolShare = 0.5;
+
+	/**
+	 * Write the batches on virtual threads instead of platform threads, requires Java 21. A writer waiting for
+	 * the db then holds no carrier thread, the number of batches written at once stays capped by the tuner
+	 * and {@code maxPoolShare}.
+	 */
+	private boolean virtualThreads = false;
+
+	/** Maximum number of batches waiting between two stages before the upstream stage blocks. */
+	private int queueCapacity = 20;
+
+	/**
+	 * Memory-map the spooled file and parse chunks of it in parallel instead of streaming it through
+	 * a single parser thread. Always uses the FAST parser.
+	 */
+	private boolean chunked = false;
+
+	/** Threads parsing chunks in chunked mode, 0 uses one per available core. */
+	private int chunkParallelism = 0;
+
+	/**
+	 * How the batch import treats a row whose id already exists, UPSERT also makes LOAD DATA replace it.
+	 * A resumed import always skips existing rows unless this is UPSERT, as the batches after its checkpoint
+	 * may already have been written.
+	 */
+	private DuplicateMode duplicateMode = DuplicateMode.FAIL;
+
+	/** Directory receiving the rejected rows file of each import. */
+	private String errorDir = System.getProperty("java.io.tmpdir") + "/game-sales-errors";
+
+	/** Rejected rows written to the side file and import_error table in one batch. */
+	private int errorBatchSize = 500;
+
+	/** Import jobs running at the same time, further jobs are queued. */
+	private int maxConcurrentJobs = 2;
+
+	/** How often the counters of running imports are written to csv_import_info. */
+	private long progressFlushMillis = 1000;
+
+	/**
+	 * Longest wait of a shadow import for the queries running on game_sales before it swaps its table in,
+	 * the queries arriving meanwhile wait for the swap too.
+	 */
+	private int shadowSwapLockSeconds = 5;
+
+	/** Swaps a shadow import tries before it fails, leaving game_sales as it was. */
+	private int shadowSwapAttempts = 12;
+}
@@ -0,0 +1,23 @@
+package com.game.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Properties of the monthly partitions of game_sales, bound from {@code game.partitions.*}. They only apply once
+ * the table is partitioned, see {@code dbscripts/migrations/partition_game_sales.sql}.
+ */
+@Data
+@ConfigurationProperties(prefix = "game.partitions")
+public class PartitionProperties {
+
+	/** Months after the current one that get their partition ahead of time. */
+	private int monthsAhead = 3;
+
+	/** Months kept before the current one, older partitions are dropped by the maintenance. 0 keeps them all. */
+	private int retentionMonths = 0;
+
+	/** When the partitions are created ahead and the expired ones dropped, also run at startup. */
+	private String maintenanceCron = "0 30 0 * * *";
+}
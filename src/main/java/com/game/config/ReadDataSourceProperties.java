@@ -0,0 +1,40 @@
+package com.game.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.game.enums.ReadConsistency;
+
+import lombok.Data;
+
+/**
+ * Pools of the read-only transactions, bound from {@code game.datasource.*}. The writes, the imports among them,
+ * use the pool of {@code spring.datasource.hikari.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "game.datasource")
+public class ReadDataSourceProperties {
+
+	/** Connections of the pool reading the primary, apart from those of the writes. */
+	private int readPoolSize = 10;
+
+	/** Longest wait of a query for a connection of the read pool. */
+	private long readConnectionTimeoutMillis = 30000;
+
+	/** Jdbc url of a read replica serving the read-only transactions, none if not set. */
+	private String replicaUrl;
+
+	/** User of the replica, that of {@code spring.datasource} if not set. */
+	private String replicaUsername;
+
+	/** Password of the replica, that of {@code spring.datasource} if not set. */
+	private String replicaPassword;
+
+	/** Connections of the pool reading the replica. */
+	private int replicaPoolSize = 10;
+
+	/** Whether the reads on the replica must see the latest imports. */
+	private ReadConsistency readConsistency = ReadConsistency.AFTER_IMPORT;
+
+	/** How long after an import the replica may still lag behind it, reads meanwhile go to the primary. */
+	private long replicaLagMillis = 5000;
+}
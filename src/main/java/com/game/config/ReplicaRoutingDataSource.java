@@ -0,0 +1,30 @@
+package com.game.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.game.utils.ReplicaReadGuard;
+
+/**
+ * Hands out the connections of the read-only transactions, from the replica unless the {@link ReplicaReadGuard}
+ * requires the primary. The choice is made when a transaction first runs a statement.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	private final ReplicaReadGuard guard;
+
+	ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaReadGuard guard) {
+		this.guard = guard;
+		setTargetDataSources(Map.of(Boolean.TRUE, replica, Boolean.FALSE, primary));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return guard.isReplicaReadable();
+	}
+}
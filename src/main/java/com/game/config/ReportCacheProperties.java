@@ -0,0 +1,25 @@
+package com.game.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Properties of the in-process cache of the sales totals, bound from {@code game.report-cache.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "game.report-cache")
+public class ReportCacheProperties {
+
+	/** False to query the db on every {@code /getTotalSales} request. */
+	private boolean enabled = true;
+
+	/** Cached reports kept, one per date range, game number and granularity. */
+	private long maximumSize = 1000;
+
+	/**
+	 * Time a report is kept after it was computed. Imports evict the reports they change, so this only
+	 * bounds staleness after changes made outside the application.
+	 */
+	private long ttlMillis = 300_000;
+}
@@ -1,12 +1,19 @@
 package com.game.controller;
 
+import static com.game.controller.constants.CommonConstants.DATE_FORMAT_YYYY_MM_DD;
 import static com.game.controller.constants.CommonConstants.DATE_FORMAT_YYYY_MM_DD_HH_MM_SS;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,30 +21,60 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.game.config.ExportProperties;
 import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.ContentCoding;
+import com.game.enums.ExportFormat;
+import com.game.enums.ImportMethod;
+import com.game.enums.ImportStatusEnums;
+import com.game.enums.ReportGranularity;
+import com.game.exception.ImportBusyException;
+import com.game.exception.ImportConflictException;
+import com.game.model.ColumnarStoreStatusDto;
 import com.game.model.GameSalesDto;
+import com.game.model.GameSalesPageDto;
 import com.game.model.GameSalesReportDto;
+import com.game.model.ImportJobStatusDto;
+import com.game.model.ReportCacheStatsDto;
+import com.game.model.RollupMismatchDto;
+import com.game.model.SalesPartitionDto;
 import com.game.service.GameSalesService;
-import com.game.utils.GameSalesCsvLoader;
+import com.game.service.ImportJobService;
+import com.game.utils.GameSalesMetrics;
 import com.game.utils.GameSalesSpecification;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * REST controller for handling GameSales requests.
- * Provides an endpoint to import from csv files by batch or using mysql LOAD DATA LOCAL INFILE into database.
+ * Provides an endpoint to import from csv files by batch, using mysql LOAD DATA LOCAL INFILE, or through a staging table into database.
+ * Provides an endpoint to import a csv streamed in the request body, optionally compressed.
+ * Provides endpoints to poll the progress of an import job and to cancel it.
  * Provides an endpoint to retrieve game sales by pagination.
+ * Provides an endpoint to stream all the filtered game sales as csv or ndjson.
  * Provides an endpoint to retrieve aggregated sales data based on the provided filters.
+ * Provides endpoints to check and rebuild the daily rollup backing the aggregated sales data.
+ * Provides an endpoint to read the statistics of the aggregated sales data cache.
+ * Provides endpoints to count filtered game sales and to manage the in-memory columnar store.
+ * Provides endpoints to list the monthly partitions of game sales and to purge the months past retention.
  */
 @RestController
 @RequiredArgsConstructor
@@ -46,88 +83,351 @@ public class GameSalesController {
 
 	private final GameSalesService gameSalesService;
 
-	private final GameSalesCsvLoader gameSalesCsvLoader;
+	private final ImportJobService importJobService;
+
+	private final GameSalesMetrics gameSalesMetrics;
+
+	private final ThreadPoolTaskExecutor exportExecutor;
+
+	private final ExportProperties exportProperties;
 
 	private static boolean enableBatchInsert = true;
 
+	private static final String IMPORT_METHODS_EXCLUSIVE = "Set at most one of useInFile, useStaging and useShadow";
+
+	/**
+	 * Queues the import and returns immediately, poll {@code GET /import/{id}} for its progress.
+	 *
+	 * @param file The csv file to import.
+	 * @param useInFile true to load the file using mysql LOAD DATA LOCAL INFILE instead of batch inserts.
+	 * @param useStaging true to load the file into a staging table, validate it and merge the valid rows with sql.
+	 * @param useShadow true to load the file into a copy of game_sales without secondary indexes, index the copy and
+	 *                  swap it in. For initial loads and backfills, no other import runs meanwhile.
+	 * @param writeEngine BATCH_INSERT, LOAD_DATA or JPA to write the validated rows of a batch import, defaults to
+	 *                    {@code game.import.write-engine}.
+	 * @return 202 with the import job status, its id is the csv_import_info id. Re-submitting a file resumes its
+	 *         failed or interrupted import, or returns 200 with the earlier import if the file was fully imported.
+	 *         409 if a shadow import is running, or if this is one and other imports are running.
+	 *         400 if more than one of useInFile, useStaging and useShadow is true.
+	 */
 	@PostMapping("/import")
-	public ResponseEntity<String> importCsv(
+	public ResponseEntity<?> importCsv(
 			@RequestParam("file") MultipartFile file,
-			@RequestHeader(name = "useInFile", required = false, defaultValue = "false") boolean useInFile
+			@RequestHeader(name = "useInFile", required = false, defaultValue = "false") boolean useInFile,
+			@RequestHeader(name = "useStaging", required = false, defaultValue = "false") boolean useStaging,
+			@RequestHeader(name = "useShadow", required = false, defaultValue = "false") boolean useShadow,
+			@RequestHeader(name = "writeEngine", required = false) BulkWriteEngine writeEngine
 			) {
 		log.info("importCsv start");
 		if (file.isEmpty()) {
 			return ResponseEntity.badRequest().body("File is empty");
 		}
-		if (useInFile) {
-			return importCsvUsingLocalInFile(file);
+		if (!isOneImportMethod(useInFile, useStaging, useShadow)) {
+			return ResponseEntity.badRequest().body(IMPORT_METHODS_EXCLUSIVE);
 		}
-		if (enableBatchInsert) {
-			log.info("importCsv using batch");
-			gameSalesService.importCsvDataToDbByBatch(file); // this is using batch insert
-			return ResponseEntity.ok("Game sales data imported successfully to Db.");
+		if (useInFile || useStaging || useShadow || enableBatchInsert) {
+			ImportJobStatusDto job;
+			try {
+				job = importJobService.submitImport(file, importMethod(useInFile, useStaging, useShadow), writeEngine);
+			} catch (ImportConflictException e) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+			}
+			if (ImportStatusEnums.COMPLETED.toString().equals(job.getStatus())) {
+				log.info("importCsv skipped, file already imported by job {}", job.getId());
+				return ResponseEntity.ok(job);
+			}
+			log.info("importCsv queued as job {}", job.getId());
+			return ResponseEntity.accepted()
+					.location(URI.create("/import/" + job.getId()))
+					.body(job);
 		} else {
-			if (gameSalesService.importCsvDataToDb(file)) {
-				log.info("Game sales data imported successfully to Db.");
-				return ResponseEntity.ok("Game sales data imported successfully to Db.");
+			try {
+				if (gameSalesService.importCsvDataToDb(file)) {
+					log.info("Game sales data imported successfully to Db.");
+					return ResponseEntity.ok("Game sales data imported successfully to Db.");
+				}
+			} catch (ImportConflictException e) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 			}
 			return ResponseEntity.internalServerError().body("Error importing game sales data to Db");
 		}
 	}
 
-	private ResponseEntity<String> importCsvUsingLocalInFile(@RequestParam("file") MultipartFile file) {
-		log.info("importCsvUsingLocalInFile start");
+	/**
+	 * Imports the csv sent as the raw request body, chunked or not, while it is received. The body is never
+	 * buffered whole nor written to disk, so there is no size limit. The request returns once the import is over,
+	 * meanwhile its counters are flushed to csv_import_info like those of a queued import.
+	 *
+	 * @param contentEncoding gzip or zstd for a compressed body.
+	 * @param fileName the name recorded for the import.
+	 * @param useInFile true to load the body using mysql LOAD DATA LOCAL INFILE instead of batch inserts.
+	 * @param useStaging true to load the body into a staging table, validate it and merge the valid rows with sql.
+	 * @param useShadow true to load the body into an unindexed copy of game_sales swapped in, as for {@code POST /import}.
+	 * @param writeEngine the engine writing the validated rows of a batch import, as for {@code POST /import}.
+	 * @return 200 with the final import status, 415 for an unsupported Content-Encoding, 409 as for {@code POST /import},
+	 *         429 when {@code game.import.max-concurrent-jobs} imports are already running, 400 as for
+	 *         {@code POST /import}.
+	 */
+	@PostMapping(value = "/import/stream", consumes = { "text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE })
+	public ResponseEntity<?> importCsvStream(InputStream body,
+			@RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+			@RequestParam(defaultValue = "stream.csv") String fileName,
+			@RequestHeader(name = "useInFile", required = false, defaultValue = "false") boolean useInFile,
+			@RequestHeader(name = "useStaging", required = false, defaultValue = "false") boolean useStaging,
+			@RequestHeader(name = "useShadow", required = false, defaultValue = "false") boolean useShadow,
+			@RequestHeader(name = "writeEngine", required = false) BulkWriteEngine writeEngine
+			) throws IOException {
+		if (!isOneImportMethod(useInFile, useStaging, useShadow)) {
+			return ResponseEntity.badRequest().body(IMPORT_METHODS_EXCLUSIVE);
+		}
+		ContentCoding coding = ContentCoding.of(contentEncoding).orElse(null);
+		if (coding == null) {
+			return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+					.body("Unsupported Content-Encoding " + contentEncoding + ", use gzip or zstd");
+		}
+		ImportJobStatusDto job;
 		try {
-			File tempFile = File.createTempFile("gamesales_", ".csv"); //Save the uploaded file to a temp location
-			file.transferTo(tempFile);
-			gameSalesCsvLoader.loadCsv(tempFile.getAbsolutePath(), file.getOriginalFilename()); // Load using LOAD DATA LOCAL INFILE
-			tempFile.delete();
-			return ResponseEntity.ok("Game sales data imported successfully to Db.");
-		} catch (Exception e) {
-			log.error("Error importing Csv into Db :{}", e.getMessage(), e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-					.body("Import failed: " + e.getMessage());
+			job = importJobService.importStream(body, coding, fileName, importMethod(useInFile, useStaging, useShadow),
+					writeEngine);
+		} catch (ImportConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		} catch (ImportBusyException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+		}
+		log.info("importCsvStream job {} ended {}", job.getId(), job.getStatus());
+		return ResponseEntity.ok().location(URI.create("/import/" + job.getId())).body(job);
+	}
+
+	/**
+	 * @param id The import job id returned by {@code POST /import}.
+	 * @return the live progress of the import, or 404 if the id is unknown.
+	 */
+	@GetMapping("/import/{id}")
+	public ResponseEntity<ImportJobStatusDto> getImportStatus(@PathVariable Long id) {
+		return ResponseEntity.of(importJobService.getImportStatus(id));
+	}
+
+	/**
+	 * Cancels a queued or running import, batches already written are kept.
+	 *
+	 * @param id The import job id returned by {@code POST /import}.
+	 * @return 202 if the import is being cancelled, 409 if it has already finished, 404 if the id is unknown.
+	 */
+	@DeleteMapping("/import/{id}")
+	public ResponseEntity<ImportJobStatusDto> cancelImport(@PathVariable Long id) {
+		if (importJobService.cancelImport(id)) {
+			return ResponseEntity.accepted().body(importJobService.getImportStatus(id).orElse(null));
 		}
+		return importJobService.getImportStatus(id)
+				.map(job -> ResponseEntity.status(HttpStatus.CONFLICT).body(job))
+				.orElseGet(() -> ResponseEntity.notFound().build());
 	}
 
+	/**
+	 * Offset pagination by default. With {@code keyset=true}, or when a cursor is passed, the page starts after the
+	 * given row instead and no total count is computed, so deep pages cost the same as the first one. Keyset pages
+	 * are ordered by (dateOfSale, id) when a date range is given, matching the date indexes, and by id otherwise.
+	 *
+	 * @param keyset true to use keyset pagination, {@code page} is then ignored.
+	 * @param afterId The {@code nextAfterId} of the previous keyset page, omitted for the first page.
+	 * @param afterDate The {@code nextAfterDate} of the previous keyset page when a date range is given.
+	 * @return A Page of GameSalesDto, or a GameSalesPageDto in keyset mode.
+	 */
 	@GetMapping("/getGameSales")
-	public ResponseEntity<Page<GameSalesDto>> getGameSales(
+	public ResponseEntity<?> getGameSales(
 			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime fromDate,
 			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime toDate,
 			@RequestParam(required = false) BigDecimal minPrice,
 			@RequestParam(required = false) BigDecimal maxPrice,
 			@RequestParam(defaultValue = "0") int page,
-			@RequestParam(defaultValue = "100") int size) {
+			@RequestParam(defaultValue = "100") int size,
+			@RequestParam(defaultValue = "false") boolean keyset,
+			@RequestParam(required = false) Long afterId,
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime afterDate) {
 		if (size > 100) {
 			log.warn("Page size cannot be more than 100, setting to 100");
 			size = 100;
 		}
+		if (keyset || afterId != null) {
+			boolean orderByDate = fromDate != null && toDate != null;
+			if (orderByDate && afterId != null && afterDate == null) {
+				return ResponseEntity.badRequest().body("afterDate is required with afterId when filtering by date");
+			}
+			Specification<GameSales> spec = GameSalesSpecification.filter(fromDate, toDate, minPrice, maxPrice,
+					orderByDate ? afterDate : null, afterId);
+			int pageSize = size;
+			GameSalesPageDto gameSalesPage = gameSalesMetrics.timeGameSalesQuery(fromDate != null || toDate != null,
+					minPrice != null || maxPrice != null, true, () -> gameSalesService.getGameSalesPageFromDb(spec, orderByDate, pageSize));
+			log.info("gameSalesList size: {}, hasNext: {}", gameSalesPage.getSize(), gameSalesPage.isHasNext());
+			return ResponseEntity.ok(gameSalesPage);
+		}
 		Specification<GameSales> spec = GameSalesSpecification.filter(fromDate, toDate, minPrice, maxPrice);
 		Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
-		Page<GameSalesDto> gameSalesPage = gameSalesService.getAllGamesSalesFromDb(spec, pageable);
+		Page<GameSalesDto> gameSalesPage = gameSalesMetrics.timeGameSalesQuery(fromDate != null || toDate != null,
+				minPrice != null || maxPrice != null, false, () -> gameSalesService.getAllGamesSalesFromDb(spec, pageable));
 		log.info("gameSalesList size: {}", gameSalesPage.getContent().size());
 		return ResponseEntity.ok(gameSalesPage);
 	}
 
+	/**
+	 * @return The number of rows matching the same filters as {@code /getGameSales}.
+	 */
+	@GetMapping("/countGameSales")
+	public long countGameSales(
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime fromDate,
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime toDate,
+			@RequestParam(required = false) BigDecimal minPrice,
+			@RequestParam(required = false) BigDecimal maxPrice) {
+		return gameSalesService.countGameSales(fromDate, toDate, minPrice, maxPrice);
+	}
+
+	/**
+	 * Streams every row matching the same filters as {@code /getGameSales}, in constant memory, ordered by
+	 * (dateOfSale, id) when a date range is given and by id otherwise. The export runs on the export executor and
+	 * is aborted after {@code game.export.timeout-millis}, other async requests keep the defaults of the app.
+	 *
+	 * @param format CSV, with the columns of the import file, or NDJSON, one GameSalesDto per line.
+	 * @return The rows as an attachment, written while they are read from the db.
+	 */
+	@GetMapping("/exportGameSales")
+	public WebAsyncTask<Void> exportGameSales(
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime fromDate,
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime toDate,
+			@RequestParam(required = false) BigDecimal minPrice,
+			@RequestParam(required = false) BigDecimal maxPrice,
+			@RequestParam(defaultValue = "CSV") ExportFormat format,
+			HttpServletResponse response) {
+		boolean csv = format == ExportFormat.CSV;
+		response.setContentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8).toString()
+				: MediaType.APPLICATION_NDJSON_VALUE);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"game_sales." + (csv ? "csv" : "ndjson") + "\"");
+		Callable<Void> export = () -> {
+			gameSalesService.exportGameSales(fromDate, toDate, minPrice, maxPrice, format, response.getOutputStream());
+			return null;
+		};
+		long timeout = exportProperties.getTimeoutMillis();
+		return new WebAsyncTask<>(timeout > 0 ? timeout : -1, exportExecutor, export);
+	}
+
 	/**
 	 * @param fromDate The start date of the range.
 	 * @param toDate The end date of the range.
 	 * @param gameNo The game number to filter records by.
-	 * @return A list of GameSalesDto that retrieve the total number of games sold or total sales generated.
+	 * @param granularity The bucket size, HOUR, DAY, WEEK (starting on Monday) or MONTH.
+	 * @return A list of GameSalesDto that retrieve the total number of games sold or total sales generated,
+	 *         one per bucket dated at the start of the bucket.
 	 */
 	@GetMapping("/getTotalSales")
 	public List<GameSalesReportDto> getTotalSales(
 			@RequestParam @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime fromDate,
 			@RequestParam @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS) LocalDateTime toDate,
-			@RequestParam(required = false) Integer gameNo) {
+			@RequestParam(required = false) Integer gameNo,
+			@RequestParam(defaultValue = "DAY") ReportGranularity granularity) {
 		if (Objects.nonNull(gameNo)) {
-			List<GameSalesReportDto> reportList = gameSalesService.getTotalSalesByDateAndGameNo(fromDate, toDate, gameNo);
+			List<GameSalesReportDto> reportList = gameSalesMetrics.timeTotalSalesQuery(true, granularity,
+					() -> gameSalesService.getTotalSalesByDateAndGameNo(fromDate, toDate, gameNo, granularity));
 			log.info("reportList size:{} for game no: {}", reportList.size(), gameNo);
 			return reportList;
 		} else {
-			List<GameSalesReportDto> reportList = gameSalesService.getTotalSalesByDate(fromDate, toDate);
+			List<GameSalesReportDto> reportList = gameSalesMetrics.timeTotalSalesQuery(false, granularity,
+					() -> gameSalesService.getTotalSalesByDate(fromDate, toDate, granularity));
 			log.info("reportList size:{}", reportList.size());
 			return reportList;
 		}
 	}
+
+	/**
+	 * Recomputes the daily rollup from the game_sales rows, e.g. after rows were changed outside the imports.
+	 *
+	 * @param fromDate The first day to rebuild, defaults to the first day in game_sales.
+	 * @param toDate The last day to rebuild, defaults to the last day in game_sales.
+	 * @return The number of rollup rows written.
+	 */
+	@PostMapping("/rollup/rebuild")
+	public ResponseEntity<String> rebuildDailyRollup(
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD) LocalDate fromDate,
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD) LocalDate toDate) {
+		int rows = gameSalesService.rebuildDailyRollup(fromDate, toDate);
+		return ResponseEntity.ok("Rebuilt " + rows + " daily rollup row(s)");
+	}
+
+	/**
+	 * @param fromDate The first day to check, defaults to no lower bound.
+	 * @param toDate The last day to check, defaults to no upper bound.
+	 * @return The days and games whose rollup totals differ from the game_sales rows, empty if consistent.
+	 */
+	@GetMapping("/rollup/check")
+	public List<RollupMismatchDto> checkDailyRollup(
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD) LocalDate fromDate,
+			@RequestParam(required = false) @DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD) LocalDate toDate) {
+		List<RollupMismatchDto> mismatches = gameSalesService.checkDailyRollup(fromDate, toDate);
+		log.info("rollup mismatches: {}", mismatches.size());
+		return mismatches;
+	}
+
+	/**
+	 * @return The size, hits, misses, hit rate, evictions and invalidations of the {@code /getTotalSales} cache.
+	 */
+	@GetMapping("/reportCache/stats")
+	public ReportCacheStatsDto getReportCacheStats() {
+		return gameSalesService.getReportCacheStats();
+	}
+
+	/**
+	 * @return Whether the columnar store is enabled and loaded, and its number of rows.
+	 */
+	@GetMapping("/columnar/status")
+	public ColumnarStoreStatusDto getColumnarStoreStatus() {
+		return gameSalesService.getColumnarStoreStatus();
+	}
+
+	/**
+	 * Reloads the columnar store from game_sales, e.g. after rows were changed outside the imports.
+	 *
+	 * @return 202 while the store loads in the background, 409 if the store is disabled.
+	 */
+	@PostMapping("/columnar/reload")
+	public ResponseEntity<ColumnarStoreStatusDto> reloadColumnarStore() {
+		if (!gameSalesService.getColumnarStoreStatus().isEnabled()) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(gameSalesService.getColumnarStoreStatus());
+		}
+		gameSalesService.reloadColumnarStore();
+		return ResponseEntity.accepted().body(gameSalesService.getColumnarStoreStatus());
+	}
+
+	/**
+	 * @return The monthly partitions of game_sales with their estimated rows, empty if the table is not partitioned.
+	 */
+	@GetMapping("/partitions")
+	public List<SalesPartitionDto> getSalesPartitions() {
+		return gameSalesService.getSalesPartitions();
+	}
+
+	/**
+	 * Purges the game sales before a month by dropping whole partitions, and their daily rollup.
+	 *
+	 * @param before The first month kept, as yyyy-MM.
+	 * @return The names of the partitions dropped, 409 if game_sales is not partitioned or a shadow import runs.
+	 */
+	@DeleteMapping("/partitions")
+	public ResponseEntity<?> dropSalesBefore(@RequestParam YearMonth before) {
+		try {
+			List<String> dropped = gameSalesService.dropSalesBefore(before);
+			log.info("dropped partitions: {}", dropped);
+			return ResponseEntity.ok(dropped);
+		} catch (IllegalStateException | ImportConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+	}
+
+	private static boolean isOneImportMethod(boolean useInFile, boolean useStaging, boolean useShadow) {
+		return (useInFile ? 1 : 0) + (useStaging ? 1 : 0) + (useShadow ? 1 : 0) <= 1;
+	}
+
+	private static ImportMethod importMethod(boolean useInFile, boolean useStaging, boolean useShadow) {
+		return useShadow ? ImportMethod.SHADOW
+				: useStaging ? ImportMethod.STAGING
+				: useInFile ? ImportMethod.LOAD_DATA
+				: ImportMethod.BATCH;
+	}
 }
@@ -3,6 +3,8 @@ package com.game.controller.constants;
 public class CommonConstants {
 
 	public static final String DATE_FORMAT_YYYY_MM_DD_HH_MM_SS = "yyyy-MM-dd HH:mm:ss";
+
+	public static final String DATE_FORMAT_YYYY_MM_DD = "yyyy-MM-dd";
 	
 	public static final String APP_NAME = "GAMER";
 }
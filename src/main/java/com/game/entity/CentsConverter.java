@@ -0,0 +1,25 @@
+package com.game.entity;
+
+import java.math.BigDecimal;
+
+import com.game.utils.Money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps an amount held as a long number of cents to a DECIMAL(n, 2) column.
+ */
+@Converter
+public class CentsConverter implements AttributeConverter<Long, BigDecimal> {
+
+	@Override
+	public BigDecimal convertToDatabaseColumn(Long cents) {
+		return cents != null ? Money.toBigDecimal(cents) : null;
+	}
+
+	@Override
+	public Long convertToEntityAttribute(BigDecimal amount) {
+		return amount != null ? Money.toCents(amount) : null;
+	}
+}
@@ -10,13 +10,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Entity
 @Table(name = "csv_import_info")
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class CsvImportInfo {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,14 +34,51 @@ public class CsvImportInfo {
 	private String status;
 
 	@Column(name = "total_records", nullable = false)
+	@Builder.Default
 	private int totalRecords = 0;
 
 	@Column(name = "successful_records", nullable = false)
+	@Builder.Default
 	private int successfulRecords = 0;
 
 	@Column(name = "failed_records", nullable = false)
+	@Builder.Default
 	private int failedRecords = 0;
 
+	@Column(name = "file_size", nullable = false)
+	@Builder.Default
+	private long fileSize = 0;
+
+	@Column(name = "processed_bytes", nullable = false)
+	@Builder.Default
+	private long processedBytes = 0;
+
+	@Column(name = "file_hash", length = 64)
+	private String fileHash;
+
+	@Column(name = "checkpoint_offset", nullable = false)
+	@Builder.Default
+	private long checkpointOffset = 0;
+
+	@Column(name = "checkpoint_line", nullable = false)
+	@Builder.Default
+	private long checkpointLine = 0;
+
+	@Column(name = "checkpoint_row_id", nullable = false)
+	@Builder.Default
+	private long checkpointRowId = 0;
+
+	@Column(name = "checkpoint_successful_records", nullable = false)
+	@Builder.Default
+	private int checkpointSuccessfulRecords = 0;
+
+	@Column(name = "checkpoint_failed_records", nullable = false)
+	@Builder.Default
+	private int checkpointFailedRecords = 0;
+
+	@Column(name = "error_file", length = 255)
+	private String errorFile;
+
 	@Column(name = "error_message", columnDefinition = "TEXT")
 	private String errorMessage;
 
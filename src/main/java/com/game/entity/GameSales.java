@@ -1,18 +1,24 @@
 package com.game.entity;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import org.springframework.data.domain.Persistable;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
 @Entity
 @Table(name = "game_sales")
-public class GameSales {
+public class GameSales implements Persistable<Long> {
 	@Id
 	@Column(name = "id", nullable = false)
 	private Long id;
@@ -29,15 +35,44 @@ public class GameSales {
 	@Column(name = "type", nullable = false)
 	private Integer type;
 
+	/** In cents, see {@link com.game.utils.Money}. */
 	@Column(name = "cost_price", nullable = false)
-	private BigDecimal costPrice;
+	@Convert(converter = CentsConverter.class)
+	private long costPrice;
 
+	/** In hundredths of a percent. */
 	@Column(name = "tax", nullable = false)
-	private BigDecimal tax;
+	@Convert(converter = CentsConverter.class)
+	private long tax;
 
+	/** In cents. */
 	@Column(name = "sale_price", nullable = false)
-	private BigDecimal salePrice;
+	@Convert(converter = CentsConverter.class)
+	private long salePrice;
 
 	@Column(name = "date_of_sale", nullable = false)
 	private LocalDateTime dateOfSale;
+
+	/** Csv line the row was imported from, only set during an import to report rejected rows. */
+	@Transient
+	private long lineNumber;
+
+	/**
+	 * Whether the row is stored, the repository then merges it instead of persisting it. The id is assigned, so
+	 * without this flag every save of a new row would select it first.
+	 */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	private boolean stored;
+
+	@Override
+	public boolean isNew() {
+		return !stored;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markStored() {
+		stored = true;
+	}
 }
@@ -0,0 +1,13 @@
+package com.game.enums;
+
+/**
+ * How a batch import writes its validated rows to game_sales, see {@link com.game.utils.BulkWriter}.
+ */
+public enum BulkWriteEngine {
+	/** A jdbc batch of INSERT statements, rewritten by the driver into multi-row INSERTs. */
+	BATCH_INSERT,
+	/** The rows encoded in memory and sent as the stream of a {@code LOAD DATA LOCAL INFILE}. */
+	LOAD_DATA,
+	/** {@code saveAll} of the JPA repository, one statement per row. */
+	JPA;
+}
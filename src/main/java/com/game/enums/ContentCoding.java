@@ -0,0 +1,30 @@
+package com.game.enums;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Content-Encoding of a streamed import body, decoded while the body is read.
+ */
+public enum ContentCoding {
+	/** Sent as is. */
+	IDENTITY,
+	GZIP,
+	ZSTD;
+
+	/**
+	 * @param header the Content-Encoding header, null or blank for an uncompressed body.
+	 * @return the coding, empty if it is not supported.
+	 */
+	public static Optional<ContentCoding> of(String header) {
+		if (header == null || header.isBlank()) {
+			return Optional.of(IDENTITY);
+		}
+		return switch (header.trim().toLowerCase(Locale.ROOT)) {
+			case "identity" -> Optional.of(IDENTITY);
+			case "gzip", "x-gzip" -> Optional.of(GZIP);
+			case "zstd" -> Optional.of(ZSTD);
+			default -> Optional.empty();
+		};
+	}
+}
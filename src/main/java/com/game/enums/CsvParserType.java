@@ -0,0 +1,8 @@
+package com.game.enums;
+
+public enum CsvParserType {
+	/** Apache Commons CSV, maps columns by header name. */
+	COMMONS,
+	/** Hand-rolled byte parser for the fixed game_sales column layout. */
+	FAST;
+}
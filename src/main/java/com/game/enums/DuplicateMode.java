@@ -0,0 +1,10 @@
+package com.game.enums;
+
+public enum DuplicateMode {
+	/** A row whose id already exists is rejected like any other db error. */
+	FAIL,
+	/** A row whose id already exists is skipped and the stored row is kept. */
+	IGNORE,
+	/** A row whose id already exists overwrites the stored row. */
+	UPSERT;
+}
@@ -0,0 +1,11 @@
+package com.game.enums;
+
+/**
+ * Formats of the game sales export.
+ */
+public enum ExportFormat {
+	/** Same columns as the import file, so an export can be imported again. */
+	CSV,
+	/** One json object per line, with the field names of {@code /getGameSales}. */
+	NDJSON;
+}
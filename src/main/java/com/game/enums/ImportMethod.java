@@ -0,0 +1,21 @@
+package com.game.enums;
+
+/**
+ * How an import job writes the csv file to game_sales.
+ */
+public enum ImportMethod {
+	/** Parsed, validated and inserted in batches by the app, resumable from its checkpoint. */
+	BATCH,
+	/**
+	 * {@code LOAD DATA LOCAL INFILE} straight into game_sales, without validation. Refused on a partitioned game_sales.
+	 */
+	LOAD_DATA,
+	/** {@code LOAD DATA LOCAL INFILE} into a staging table, validated and merged into game_sales by sql. */
+	STAGING,
+	/**
+	 * {@code LOAD DATA LOCAL INFILE} into a copy of game_sales without secondary indexes, which are built afterwards
+	 * before the copy replaces game_sales. Runs alone, for initial loads and backfills. Refused on a partitioned
+	 * game_sales.
+	 */
+	SHADOW;
+}
@@ -0,0 +1,15 @@
+package com.game.enums;
+
+/**
+ * Stages of a batch import, each timed per batch as {@code game.import.stage}.
+ */
+public enum ImportStage {
+	/** Reading the rows of a batch from the csv. */
+	PARSE,
+	/** Checking the parsed rows against the constraints of the dto. */
+	VALIDATE,
+	/** Turning the valid rows into entities. */
+	MAP,
+	/** Inserting the batch with its rollup update, bisecting it if the db rejects rows. */
+	WRITE;
+}
@@ -1,7 +1,7 @@
 package com.game.enums;
 
 public enum ImportStatusEnums {
-	PENDING, PROCESSING, COMPLETED, FAILED;
+	PENDING, PROCESSING, COMPLETED, FAILED, CANCELLED;
 	
     @Override
     public String toString() {
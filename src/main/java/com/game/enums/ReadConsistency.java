@@ -0,0 +1,14 @@
+package com.game.enums;
+
+/**
+ * What the read-only queries routed to the read replica may miss of the latest imports.
+ */
+public enum ReadConsistency {
+	/** Reads go to the replica whatever its lag, an import may show up there a moment after it ends. */
+	EVENTUAL,
+	/**
+	 * Reads go to the primary while an import runs and for {@code game.datasource.replica-lag-millis} after it ends,
+	 * so a client reading after its import returned sees the imported rows.
+	 */
+	AFTER_IMPORT;
+}
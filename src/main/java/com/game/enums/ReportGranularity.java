@@ -0,0 +1,10 @@
+package com.game.enums;
+
+/**
+ * Size of the time buckets the sales totals are grouped into.
+ */
+public enum ReportGranularity {
+	HOUR, DAY,
+	/** Weeks starting on Monday. */
+	WEEK, MONTH;
+}
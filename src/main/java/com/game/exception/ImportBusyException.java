@@ -0,0 +1,11 @@
+package com.game.exception;
+
+/**
+ * A streamed import cannot start as {@code game.import.max-concurrent-jobs} imports are already running.
+ */
+public class ImportBusyException extends RuntimeException {
+
+	public ImportBusyException(String message) {
+		super(message);
+	}
+}
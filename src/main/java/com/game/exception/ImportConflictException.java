@@ -0,0 +1,11 @@
+package com.game.exception;
+
+/**
+ * An import cannot start because of the imports already running, e.g. a shadow import replacing game_sales.
+ */
+public class ImportConflictException extends RuntimeException {
+
+	public ImportConflictException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,15 @@
+package com.game.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ColumnarStoreStatusDto {
+	private boolean enabled;
+
+	/** False while the store is loading, queries then go to the db. */
+	private boolean ready;
+
+	private int rows;
+}
@@ -0,0 +1,38 @@
+package com.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A csv row handed between the import pipeline stages.
+ * Either {@code dto} is set, or {@code error} explains why the row could not be parsed
+ * and {@code errorColumn} names the offending column when it is known.
+ * {@code lastLineNumber} is the line the row ends on, it differs from {@code lineNumber} when a quoted
+ * field spans lines, and {@code endOffset} is the byte offset after the row when the parser tracks it, -1 otherwise.
+ */
+@Data
+@AllArgsConstructor
+public class GameSalesCsvRow {
+	private long lineNumber;
+
+	private GameSalesDto dto;
+
+	private String errorColumn;
+
+	private String error;
+
+	@EqualsAndHashCode.Exclude
+	private long lastLineNumber;
+
+	@EqualsAndHashCode.Exclude
+	private long endOffset;
+
+	public static GameSalesCsvRow parsed(long lineNumber, GameSalesDto dto) {
+		return new GameSalesCsvRow(lineNumber, dto, null, null, lineNumber, -1);
+	}
+
+	public static GameSalesCsvRow failed(long lineNumber, String errorColumn, String error) {
+		return new GameSalesCsvRow(lineNumber, null, errorColumn, error, lineNumber, -1);
+	}
+}
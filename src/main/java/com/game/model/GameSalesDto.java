@@ -17,40 +17,82 @@ import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.Data;
 
+/**
+ * A game sale as read from a csv row.
+ *
+ * <p>The limits and messages of the constraints are constants, shared with {@code GameSalesDtoValidator} and the sql
+ * rules of {@code GameSalesStagingRules}.
+ */
 @Data
 @Builder
 public class GameSalesDto {
-	@Min(value = 1, message = "ID should start from 1")
+	public static final int MAX_GAME_NO = 100;
+
+	public static final int MAX_GAME_NAME_LENGTH = 20;
+
+	public static final int MAX_GAME_CODE_LENGTH = 5;
+
+	public static final String MAX_COST_PRICE = "100.0";
+
+	public static final String TAX = "9.0";
+
+	public static final String ID_MESSAGE = "ID should start from 1";
+
+	public static final String MIN_GAME_NO_MESSAGE = "Game number should be at least 1";
+
+	public static final String MAX_GAME_NO_MESSAGE = "Game number should not be more than " + MAX_GAME_NO;
+
+	public static final String BLANK_GAME_NAME_MESSAGE = "Game Name cannot be blank";
+
+	public static final String GAME_NAME_LENGTH_MESSAGE = "Game Name cannot exceed " + MAX_GAME_NAME_LENGTH + " characters";
+
+	public static final String BLANK_GAME_CODE_MESSAGE = "Game Code cannot be blank";
+
+	public static final String GAME_CODE_LENGTH_MESSAGE = "Game Code cannot exceed " + MAX_GAME_CODE_LENGTH + " characters";
+
+	public static final String TYPE_MESSAGE = "Type should be 1 (Online) or 2 (Offline)";
+
+	public static final String MAX_COST_PRICE_MESSAGE = "Cost Price cannot exceed 100.00";
+
+	public static final String MIN_COST_PRICE_MESSAGE = "Cost Price cannot be less than 0";
+
+	public static final String TAX_MESSAGE = "Tax should be exactly 9%";
+
+	public static final String SALE_PRICE_MESSAGE = "Sale Price cannot be less than 0";
+
+	public static final String DATE_OF_SALE_MESSAGE = "Date of Sale cannot be null";
+
+	@Min(value = 1, message = ID_MESSAGE)
 	private long id;
 
-	@Min(value = 1, message = "Game number should be at least 1")
-	@Max(value = 100, message = "Game number should not be more than 100")
+	@Min(value = 1, message = MIN_GAME_NO_MESSAGE)
+	@Max(value = MAX_GAME_NO, message = MAX_GAME_NO_MESSAGE)
 	private int gameNo;
 
-	@NotBlank(message = "Game Name cannot be blank")
-	@Size(max = 20, message = "Game Name cannot exceed 20 characters")
+	@NotBlank(message = BLANK_GAME_NAME_MESSAGE)
+	@Size(max = MAX_GAME_NAME_LENGTH, message = GAME_NAME_LENGTH_MESSAGE)
 	private String gameName;
 
-	@NotBlank(message = "Game Code cannot be blank")
-	@Size(max = 5, message = "Game Code cannot exceed 5 characters")
+	@NotBlank(message = BLANK_GAME_CODE_MESSAGE)
+	@Size(max = MAX_GAME_CODE_LENGTH, message = GAME_CODE_LENGTH_MESSAGE)
 	private String gameCode;
 
-	@Min(value = 1, message = "Type should be 1 (Online) or 2 (Offline)")
-	@Max(value = 2, message = "Type should be 1 (Online) or 2 (Offline)")
+	@Min(value = 1, message = TYPE_MESSAGE)
+	@Max(value = 2, message = TYPE_MESSAGE)
 	private int type;
 
-	@DecimalMax(value = "100.0", message = "Cost Price cannot exceed 100.00")
-	@DecimalMin(value = "0.0", inclusive = true, message = "Cost Price cannot be less than 0")
+	@DecimalMax(value = MAX_COST_PRICE, message = MAX_COST_PRICE_MESSAGE)
+	@DecimalMin(value = "0.0", inclusive = true, message = MIN_COST_PRICE_MESSAGE)
 	private BigDecimal costPrice;
 
-	@DecimalMin(value = "9.0", inclusive = true, message = "Tax should be exactly 9%")
-	@DecimalMax(value = "9.0", inclusive = true, message = "Tax should be exactly 9%")
+	@DecimalMin(value = TAX, inclusive = true, message = TAX_MESSAGE)
+	@DecimalMax(value = TAX, inclusive = true, message = TAX_MESSAGE)
 	private BigDecimal tax;
 
-	@DecimalMin(value = "0.0", inclusive = true, message = "Sale Price cannot be less than 0")
+	@DecimalMin(value = "0.0", inclusive = true, message = SALE_PRICE_MESSAGE)
 	private BigDecimal salePrice;
 
-	@NotNull(message = "Date of Sale cannot be null")
+	@NotNull(message = DATE_OF_SALE_MESSAGE)
 	@DateTimeFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS)
 	private LocalDateTime dateOfSale;
 }
@@ -0,0 +1,30 @@
+package com.game.model;
+
+import static com.game.controller.constants.CommonConstants.DATE_FORMAT_YYYY_MM_DD_HH_MM_SS;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A page of game sales read by keyset pagination. There is no total count, the next page is requested
+ * by passing {@code nextAfterId}, and {@code nextAfterDate} when set, back as {@code afterId} and {@code afterDate}.
+ */
+@Data
+@Builder
+public class GameSalesPageDto {
+	private List<GameSalesDto> content;
+
+	private int size;
+
+	private boolean hasNext;
+
+	private Long nextAfterId;
+
+	@JsonFormat(pattern = DATE_FORMAT_YYYY_MM_DD_HH_MM_SS)
+	private LocalDateTime nextAfterDate;
+}
@@ -0,0 +1,34 @@
+package com.game.model;
+
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportJobStatusDto {
+	private Long id;
+
+	private String fileName;
+
+	private String status;
+
+	private long parsedRecords;
+
+	private long successfulRecords;
+
+	private long failedRecords;
+
+	private double rowsPerSecond;
+
+	private Long etaSeconds;
+
+	private String errorMessage;
+
+	private String errorFile;
+
+	private LocalDateTime startTime;
+
+	private LocalDateTime endTime;
+}
@@ -0,0 +1,14 @@
+package com.game.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportRowError {
+	private long lineNumber;
+
+	private String columnName;
+
+	private String reason;
+}
@@ -0,0 +1,22 @@
+package com.game.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReportCacheStatsDto {
+	private long size;
+
+	private long hits;
+
+	private long misses;
+
+	private double hitRate;
+
+	/** Reports dropped for size or ttl. */
+	private long evictions;
+
+	/** Reports dropped because an import or rollup rebuild changed their date range. */
+	private long invalidations;
+}
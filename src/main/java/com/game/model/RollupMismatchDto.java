@@ -0,0 +1,26 @@
+package com.game.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A day and game whose rollup totals differ from the totals of the game_sales rows.
+ */
+@Data
+@Builder
+public class RollupMismatchDto {
+	private LocalDate saleDate;
+
+	private int gameNo;
+
+	private long rollupCount;
+
+	private BigDecimal rollupSales;
+
+	private long actualCount;
+
+	private BigDecimal actualSales;
+}
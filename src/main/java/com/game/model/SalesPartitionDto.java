@@ -0,0 +1,18 @@
+package com.game.model;
+
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SalesPartitionDto {
+	private String name;
+
+	/** The sales of this partition are before this day, null for the partition holding the rest. */
+	private LocalDate before;
+
+	/** Estimate of the innodb statistics. */
+	private long rows;
+}
@@ -1,8 +1,49 @@
 package com.game.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.game.entity.CsvImportInfo;
 
 public interface CsvImportInfoRepository extends JpaRepository<CsvImportInfo, Long> {
+
+	/**
+	 * Updates the running counters of an import without touching its status.
+	 *
+	 * @return the number of rows updated
+	 */
+	@Modifying
+	@Query("UPDATE CsvImportInfo c SET c.totalRecords = :totalRecords, c.successfulRecords = :successfulRecords, "
+			+ "c.failedRecords = :failedRecords, c.processedBytes = :processedBytes, c.updateTime = CURRENT_TIMESTAMP "
+			+ "WHERE c.id = :id")
+	int updateProgress(@Param("id") Long id,
+			@Param("totalRecords") int totalRecords,
+			@Param("successfulRecords") int successfulRecords,
+			@Param("failedRecords") int failedRecords,
+			@Param("processedBytes") long processedBytes);
+
+	/**
+	 * Saves the position up to which every row of an import has been committed.
+	 *
+	 * @return the number of rows updated
+	 */
+	@Modifying
+	@Query("UPDATE CsvImportInfo c SET c.checkpointOffset = :offset, c.checkpointLine = :lineNumber, "
+			+ "c.checkpointRowId = :rowId, c.checkpointSuccessfulRecords = :successfulRecords, "
+			+ "c.checkpointFailedRecords = :failedRecords, c.updateTime = CURRENT_TIMESTAMP WHERE c.id = :id")
+	int updateCheckpoint(@Param("id") Long id,
+			@Param("offset") long offset,
+			@Param("lineNumber") long lineNumber,
+			@Param("rowId") long rowId,
+			@Param("successfulRecords") int successfulRecords,
+			@Param("failedRecords") int failedRecords);
+
+	/**
+	 * @return the latest import of a file with the given content hash.
+	 */
+	Optional<CsvImportInfo> findFirstByFileHashOrderByIdDesc(String fileHash);
 }
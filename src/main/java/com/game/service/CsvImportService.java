@@ -1,10 +1,15 @@
 package com.game.service;
 
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.game.entity.CsvImportInfo;
 import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.utils.ImportProgress;
 
 /**
  * Service class for handling csv import business logic.
@@ -14,13 +19,29 @@ public interface CsvImportService {
 	
 	/**
 	 * Imports game sales data from a CSV file and inserts the records into the database in batches,
-	 * using a multithreaded executor for parallel processing.
+	 * using a staged parse -> validate/map -> write pipeline joined by bounded queues.
+	 * Parsing blocks while the db writers fall behind, so memory use stays flat regardless of the file size.
 	 * Records are processed in configurable batches and saved to the database using batch inserts to optimize performance.
-	 * The method waits for all tasks to complete before returning.
+	 * The method waits for all stages to complete before returning.
+	 * After each committed batch the position up to which the file is in the db is saved as a checkpoint.
 	 *
-	 * @param file the uploaded CSV file containing game sales data.
+	 * @param csvFile the spooled CSV file containing game sales data.
 	 *             The file must have a header row, and each row should match the expected format and data types.
-	 * @return a list of GameSales entities that were successfully validated and inserted into the database.
+	 * @param importInfo the csv_import_info row tracking this import, its final status is saved by this method.
+	 * @param progress the live counters of this import, cancelling it stops the import after the batches in flight.
+	 * @param resume true to continue a previous attempt from the checkpoint saved in {@code importInfo}.
+	 * @param writeEngine the engine writing the batches, null for {@code game.import.write-engine}.
 	 */
-	void importCsvToDbByBatch(MultipartFile file);
+	void importCsvToDbByBatch(Path csvFile, CsvImportInfo importInfo, ImportProgress progress, boolean resume,
+			BulkWriteEngine writeEngine);
+
+	/**
+	 * Same pipeline as {@link #importCsvToDbByBatch(Path, CsvImportInfo, ImportProgress, boolean, BulkWriteEngine)}, parsing the
+	 * csv as it is read from the stream. Nothing is kept on disk, so the import cannot resume and is never chunked.
+	 *
+	 * @param in the csv bytes, read up to the end.
+	 * @param writeEngine the engine writing the batches, null for {@code game.import.write-engine}.
+	 */
+	void importCsvStreamToDb(InputStream in, CsvImportInfo importInfo, ImportProgress progress,
+			BulkWriteEngine writeEngine);
 }
@@ -1,33 +1,140 @@
 package com.game.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import com.game.entity.CsvImportInfo;
 import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.game.enums.ExportFormat;
+import com.game.enums.ReportGranularity;
+import com.game.exception.ImportConflictException;
+import com.game.model.ColumnarStoreStatusDto;
 import com.game.model.GameSalesReportDto;
+import com.game.model.ImportRowError;
+import com.game.model.ReportCacheStatsDto;
+import com.game.model.RollupMismatchDto;
+import com.game.model.SalesPartitionDto;
+import com.game.utils.ImportCheckpointTracker;
+import com.game.utils.ImportProgress;
 
 /**
  * Service class for handling GameSales database transaction.
  */
 public interface GameSalesDbService {
+	/**
+	 * Saves the rows with the JPA engine, overwriting the rows whose id already exists.
+	 *
+	 * @return true if at least one row was saved.
+	 */
 	boolean saveGameSalesToDb(List<GameSales> gameSalesList);
 
-	void saveGameSalesToDbByBatch(List<GameSales> gameSalesList);
+	/**
+	 * @param engine the bulk write engine writing the rows.
+	 * @return the rows rejected by the db, empty if the whole batch was saved.
+	 */
+	List<ImportRowError> saveGameSalesToDbByBatch(List<GameSales> gameSalesList, DuplicateMode duplicateMode,
+			BulkWriteEngine engine);
+
+	void saveImportErrorsToDb(Long importId, List<ImportRowError> errors);
+
+	void deleteImportErrorsAfterLine(Long importId, long lineNumber);
 
 	Page<GameSales> getAllGameSales(Specification<GameSales> spec, Pageable pageable);
 
-	List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate);
+	/**
+	 * Counts the rows matching the same filters as {@link com.game.utils.GameSalesSpecification}, from the
+	 * columnar store when it is loaded.
+	 */
+	long countGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice);
+
+	/**
+	 * Reads the first {@code limit} rows in the given order without a count query, for keyset pagination.
+	 */
+	List<GameSales> getGameSales(Specification<GameSales> spec, Sort sort, int limit);
+
+	/**
+	 * Streams the rows matching the same filters as {@link com.game.utils.GameSalesSpecification} to the output.
+	 *
+	 * @return the number of rows written.
+	 */
+	long exportGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice,
+			ExportFormat format, OutputStream out) throws IOException;
+
+	/**
+	 * Reports are cached until a write changes their date range, see {@link com.game.utils.GameSalesReportCache},
+	 * and computed from the columnar store when it is loaded.
+	 * Day, week and month buckets are summed from the daily rollup, only the partial first and last day from game_sales.
+	 */
+	List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate, ReportGranularity granularity);
+
+	List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo,
+			ReportGranularity granularity);
+
+	/**
+	 * @return the number of rollup rows written, null bounds cover all of game_sales.
+	 */
+	int rebuildDailyRollup(LocalDate fromDate, LocalDate toDate);
+
+	List<RollupMismatchDto> checkDailyRollup(LocalDate fromDate, LocalDate toDate);
+
+	/**
+	 * Drops the cached sales totals covering the days, for writes that do not go through this service.
+	 * Null bounds are open.
+	 */
+	void invalidateTotalSales(LocalDate fromDate, LocalDate toDate);
 
-	List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo);
+	ReportCacheStatsDto getReportCacheStats();
+
+	/**
+	 * Reloads the columnar store in the background, for writes it cannot follow row by row. No-op when disabled.
+	 */
+	void reloadColumnarStore();
+
+	ColumnarStoreStatusDto getColumnarStoreStatus();
+
+	/**
+	 * @return the monthly partitions of game_sales in order, empty if the table is not partitioned.
+	 */
+	List<SalesPartitionDto> getSalesPartitions();
+
+	/**
+	 * Purges the sales before the month by dropping their partitions, and their daily rollup.
+	 *
+	 * @return the names of the partitions dropped.
+	 * @throws IllegalStateException if game_sales is not partitioned.
+	 * @throws ImportConflictException if a SHADOW import is replacing game_sales.
+	 */
+	List<String> dropSalesBefore(YearMonth month);
 
 	void upsertStatusToDb(CsvImportInfo importInfo, String status);
 
 	void updateSuccessInfoToDb(CsvImportInfo importInfo, int totalRecords, int successfulRecords, int failedRecords);
 
 	void updateFailedInfoToDb(CsvImportInfo importInfo, String errorMsg);
+
+	void updateCancelledInfoToDb(CsvImportInfo importInfo, int totalRecords, int successfulRecords, int failedRecords);
+
+	void updateProgressToDb(CsvImportInfo importInfo, ImportProgress progress);
+
+	void updateCheckpointToDb(CsvImportInfo importInfo, ImportCheckpointTracker.Checkpoint checkpoint);
+
+	Optional<CsvImportInfo> getImportInfo(Long id);
+
+	/**
+	 * @return the latest import of a file with the same content, used to resume or skip a re-submitted file.
+	 */
+	Optional<CsvImportInfo> getImportInfoByFileHash(String fileHash);
 }
@@ -1,6 +1,11 @@
 package com.game.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -9,20 +14,61 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.game.entity.GameSales;
+import com.game.enums.ExportFormat;
+import com.game.enums.ReportGranularity;
+import com.game.exception.ImportConflictException;
+import com.game.model.ColumnarStoreStatusDto;
 import com.game.model.GameSalesDto;
+import com.game.model.GameSalesPageDto;
 import com.game.model.GameSalesReportDto;
+import com.game.model.ReportCacheStatsDto;
+import com.game.model.RollupMismatchDto;
+import com.game.model.SalesPartitionDto;
 
 /**
  * Service class for handling GameSales business logic.
  */
 public interface GameSalesService {
+	/**
+	 * @throws ImportConflictException if a SHADOW import is replacing game_sales.
+	 */
 	boolean importCsvDataToDb(MultipartFile file);
 	
-	void importCsvDataToDbByBatch(MultipartFile file);
-
 	Page<GameSalesDto> getAllGamesSalesFromDb(Specification<GameSales> spec, Pageable pageable);
 
-	List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate);
+	long countGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice);
+
+	/**
+	 * Reads a page by keyset pagination, the spec must hold the seek predicate of the requested page.
+	 *
+	 * @param orderByDate true to order by (dateOfSale, id), false to order by id.
+	 */
+	GameSalesPageDto getGameSalesPageFromDb(Specification<GameSales> spec, boolean orderByDate, int size);
+
+	List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate, ReportGranularity granularity);
+
+	List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo,
+			ReportGranularity granularity);
+
+	int rebuildDailyRollup(LocalDate fromDate, LocalDate toDate);
+
+	List<RollupMismatchDto> checkDailyRollup(LocalDate fromDate, LocalDate toDate);
+
+	ReportCacheStatsDto getReportCacheStats();
+
+	void reloadColumnarStore();
+
+	ColumnarStoreStatusDto getColumnarStoreStatus();
+
+	List<SalesPartitionDto> getSalesPartitions();
+
+	/**
+	 * @return the names of the partitions dropped.
+	 * @throws IllegalStateException if game_sales is not partitioned.
+	 * @throws ImportConflictException if a SHADOW import is replacing game_sales.
+	 */
+	List<String> dropSalesBefore(YearMonth month);
 
-	List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo);
+	long exportGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice,
+			ExportFormat format, OutputStream out) throws IOException;
 }
@@ -0,0 +1,62 @@
+package com.game.service;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.ContentCoding;
+import com.game.enums.ImportMethod;
+import com.game.exception.ImportBusyException;
+import com.game.exception.ImportConflictException;
+import com.game.model.ImportJobStatusDto;
+
+/**
+ * Service class for running csv imports as background jobs.
+ */
+public interface ImportJobService {
+
+	/**
+	 * Spools the uploaded file to disk, records a PENDING csv_import_info row and
+	 * queues the import to run in the background.
+	 *
+	 * @param file the uploaded CSV file containing game sales data.
+	 * @param method how the file is written to the db, only BATCH imports resume from their checkpoint.
+	 * @param writeEngine the engine writing the rows of a BATCH import, null for {@code game.import.write-engine}.
+	 * @return the status of the queued job, its id is the csv_import_info id.
+	 * @throws ImportConflictException if a SHADOW import is active, or this is one and other imports are active.
+	 */
+	ImportJobStatusDto submitImport(MultipartFile file, ImportMethod method, BulkWriteEngine writeEngine);
+
+	/**
+	 * Imports a csv streamed in the request body on the calling thread, decompressing and parsing or loading it as
+	 * it arrives, without a copy on disk. Its progress can be polled and it can be cancelled like a queued job, but
+	 * it is not matched to earlier imports and cannot resume.
+	 *
+	 * @param body the request body.
+	 * @param coding the Content-Encoding of the body.
+	 * @param fileName the name recorded in csv_import_info.
+	 * @param method how the csv is written to the db.
+	 * @param writeEngine the engine writing the rows of a BATCH import, null for {@code game.import.write-engine}.
+	 * @return the final status of the import.
+	 * @throws ImportBusyException if {@code game.import.max-concurrent-jobs} imports are already running.
+	 * @throws ImportConflictException if a SHADOW import is active, or this is one and other imports are active.
+	 */
+	ImportJobStatusDto importStream(InputStream body, ContentCoding coding, String fileName, ImportMethod method,
+			BulkWriteEngine writeEngine);
+
+	/**
+	 * @param id the csv_import_info id of the job.
+	 * @return the live progress of a running job, or the recorded outcome of a finished one.
+	 */
+	Optional<ImportJobStatusDto> getImportStatus(Long id);
+
+	/**
+	 * Requests cancellation of a queued or running job. Batches already written are kept.
+	 *
+	 * @param id the csv_import_info id of the job.
+	 * @return true if the job was still active and has been flagged for cancellation.
+	 */
+	boolean cancelImport(Long id);
+}
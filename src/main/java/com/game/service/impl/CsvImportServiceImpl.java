@@ -1,41 +1,57 @@
 package com.game.service.impl;
 
-import static com.game.controller.constants.CommonConstants.APP_NAME;
-import static com.game.controller.constants.CommonConstants.DATE_FORMAT_YYYY_MM_DD_HH_MM_SS;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.AbstractMap;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
-
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.game.config.ImportProperties;
 import com.game.entity.CsvImportInfo;
 import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.CsvParserType;
+import com.game.enums.DuplicateMode;
+import com.game.enums.ImportStage;
 import com.game.enums.ImportStatusEnums;
+import com.game.model.GameSalesCsvRow;
 import com.game.model.GameSalesDto;
+import com.game.model.ImportRowError;
 import com.game.service.CsvImportService;
 import com.game.service.GameSalesDbService;
+import com.game.utils.ByteBufferInputStream;
+import com.game.utils.CommonsGameSalesRowReader;
+import com.game.utils.CsvChunkSplitter;
+import com.game.utils.GameSalesCsvParser;
+import com.game.utils.GameSalesDtoValidator;
+import com.game.utils.GameSalesMapper;
+import com.game.utils.GameSalesMetrics;
+import com.game.utils.GameSalesRowReader;
+import com.game.utils.ImportCheckpointTracker;
+import com.game.utils.ImportErrorSink;
+import com.game.utils.ImportPipeline;
+import com.game.utils.ImportProgress;
+import com.game.utils.ImportWriteTuner;
+import com.game.utils.ImportWriterBudget;
+import com.game.utils.Money;
 
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,31 +60,59 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class CsvImportServiceImpl implements CsvImportService {
 
-	private final Validator validator;
-
 	private final GameSalesDbService gameSalesDbService;
 
-	private static final int BATCH_SIZE = 1000; // to move to environment variables
+	private final ImportProperties importProperties;
+
+	private final GameSalesMetrics gameSalesMetrics;
+
+	private final ImportWriterBudget importWriterBudget;
+
+	private final ThreadFactory importWriterThreadFactory;
+
+	private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+
+	private static final BigDecimal MAX_PRICE = Money.toBigDecimal(Long.MAX_VALUE);
+
+	private static final long MAX_CHUNK_SIZE = 256 * 1024 * 1024;
+
+	/**
+	 * A validated batch on its way to the writers.
+	 *
+	 * @param lastLineNumber line the last parsed row of the batch ends on, identifies it for checkpointing.
+	 * @param gameSalesList the valid rows.
+	 * @param failedRecords rows of the batch dropped by parsing or validation.
+	 */
+	private record MappedBatch(long lastLineNumber, List<GameSales> gameSalesList, int failedRecords) {
+	}
 
-	private static final int THREAD_POOL_SIZE = 10; // this value cannot be more than db connection pool size
+	@FunctionalInterface
+	private interface RowReaderOpener {
+		GameSalesRowReader open() throws IOException;
+	}
 
 	@Override
 	public List<GameSales> importCsv(MultipartFile file) {
 		log.info("importing csv file...");
 
 		// Read from csv file, validate each record before saving to DB
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-				CSVParser csvParser = CSVParser.parse(reader, 
-						CSVFormat.RFC4180.builder()
-						.setHeader()
-						.setSkipHeaderRecord(true)
-						.get())) {
-			List<GameSales> gamesSalesList = csvParser.getRecords().stream()
-					.map(record -> new AbstractMap.SimpleEntry<>(record, mapCsvToDto(record)))
-					.filter(entry -> isValidGameSalesDto(entry.getValue(), entry.getKey()))
-					.map(Map.Entry::getValue)
-					.map(this::mapDtoToEntity)
-					.collect(Collectors.toList());
+		try (GameSalesRowReader rowReader = new CommonsGameSalesRowReader(file.getInputStream())) {
+			List<GameSales> gamesSalesList = new ArrayList<>();
+			GameSalesCsvRow row;
+			while ((row = rowReader.next()) != null) {
+				if (row.getError() != null) {
+					log.warn("Line: {}, Parse error: {}", row.getLineNumber(), row.getError());
+				} else if (isValidGameSalesDto(row.getDto(), row.getLineNumber())) {
+					GameSalesDtoValidator.Violation priceViolation = priceViolation(row.getDto());
+					if (priceViolation == null) {
+						GameSales entity = GameSalesMapper.toEntity(row.getDto());
+						entity.setLineNumber(row.getLineNumber());
+						gamesSalesList.add(entity);
+					} else {
+						log.warn("Line: {}, Validation error: {}", row.getLineNumber(), priceViolation.message());
+					}
+				}
+			}
 			if (!CollectionUtils.isEmpty(gamesSalesList)) {
 				log.debug("gamesSalesList: {}", gamesSalesList);
 				return gamesSalesList;
@@ -81,116 +125,422 @@ public class CsvImportServiceImpl implements CsvImportService {
 		return null;
 	}
 
-	private GameSalesDto mapCsvToDto(CSVRecord record) {
-		GameSalesDto gameSalesDto = 
-				GameSalesDto.builder()
-				.id(Long.parseLong(record.get("id")))
-				.gameNo(Integer.parseInt(record.get("game_no")))
-				.gameName(record.get("game_name"))
-				.gameCode(record.get("game_code"))
-				.type(Integer.parseInt(record.get("type")))
-				.costPrice(new BigDecimal(record.get("cost_price")))
-				.tax(new BigDecimal(record.get("tax")))
-				.salePrice(new BigDecimal(record.get("sale_price")))
-				.dateOfSale(LocalDateTime.parse(record.get("date_of_sale"), 
-						DateTimeFormatter.ofPattern(DATE_FORMAT_YYYY_MM_DD_HH_MM_SS)))
-				.build();
-		return gameSalesDto;
-	}
-
-	private GameSales mapDtoToEntity(GameSalesDto gameSalesDto) {
-		GameSales entity = new GameSales();
-		entity.setId(gameSalesDto.getId());
-		entity.setGameNo(gameSalesDto.getGameNo());
-		entity.setGameName(gameSalesDto.getGameName());
-		entity.setGameCode(gameSalesDto.getGameCode());
-		entity.setType(gameSalesDto.getType());
-		entity.setCostPrice(gameSalesDto.getCostPrice());
-		entity.setTax(gameSalesDto.getTax());
-		entity.setSalePrice(gameSalesDto.getSalePrice());
-		entity.setDateOfSale(gameSalesDto.getDateOfSale());
-		return entity;
-	}
-
-	private boolean isValidGameSalesDto(GameSalesDto gameSales, CSVRecord record) {
-		Set<ConstraintViolation<GameSalesDto>> violations = validator.validate(gameSales);
-		if (!violations.isEmpty()) {
-			violations.forEach(violation -> log.warn("Row: {}, Validation error: {}", 
-					record.getRecordNumber(), violation.getMessage()));
-			return false;
-		}
-		return true;
+	/**
+	 * The entity holds the prices as cents, so a missing price or one beyond a long number of cents is rejected
+	 * here instead of by the db, with the message mysql gives.
+	 *
+	 * @return the violation, null if the prices can be mapped.
+	 */
+	private static GameSalesDtoValidator.Violation priceViolation(GameSalesDto gameSalesDto) {
+		GameSalesDtoValidator.Violation violation = priceViolation("cost_price", gameSalesDto.getCostPrice());
+		if (violation == null) {
+			violation = priceViolation("tax", gameSalesDto.getTax());
+		}
+		return violation != null ? violation : priceViolation("sale_price", gameSalesDto.getSalePrice());
+	}
+
+	private static GameSalesDtoValidator.Violation priceViolation(String column, BigDecimal price) {
+		if (price == null) {
+			return new GameSalesDtoValidator.Violation(column, "Column '" + column + "' cannot be null");
+		}
+		if (price.abs().compareTo(MAX_PRICE) > 0) {
+			return new GameSalesDtoValidator.Violation(column, "Out of range value for column '" + column + "'");
+		}
+		return null;
+	}
+
+	private boolean isValidGameSalesDto(GameSalesDto gameSales, long lineNumber) {
+		if (GameSalesDtoValidator.isValid(gameSales)) {
+			return true;
+		}
+		GameSalesDtoValidator.validate(gameSales).forEach(violation -> log.warn("Line: {}, Validation error: {}", 
+				lineNumber, violation.message()));
+		return false;
 	}
 
 	@Override
-	public void importCsvToDbByBatch(MultipartFile file) {
-		log.info("importing csv file to db by batch...");
-		CsvImportInfo importInfo = CsvImportInfo.builder()
-				.fileName(file.getOriginalFilename())
-				.startTime(LocalDateTime.now())
-				.createBy(APP_NAME)
-				.build();
-		gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PENDING.toString());
-
-		ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-		AtomicInteger totalRecords = new AtomicInteger(0);
-		AtomicInteger successfulRecords = new AtomicInteger(0);
-		AtomicInteger failedRecords = new AtomicInteger(0);
-
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-				CSVParser csvParser = CSVParser.parse(reader, 
-						CSVFormat.RFC4180.builder()
-						.setHeader()
-						.setSkipHeaderRecord(true)
-						.get())) {
-			gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PROCESSING.toString());
+	public void importCsvToDbByBatch(Path csvFile, CsvImportInfo importInfo, ImportProgress progress, boolean resume,
+			BulkWriteEngine writeEngine) {
+		BulkWriteEngine engine = writeEngine != null ? writeEngine : importProperties.getWriteEngine();
+		if (importProperties.isChunked()) {
+			importCsvToDbByChunks(csvFile, importInfo, progress, resume, engine);
+			return;
+		}
+		log.info("importing csv file to db by batch using {} parser and {} writer...", importProperties.getParser(), engine);
+		importByBatch(() -> openRowReader(csvFile, importInfo, progress), importInfo, progress, resume, engine);
+	}
 
-			List<Map.Entry<CSVRecord, GameSalesDto>> currentBatchBuffer = new ArrayList<>(BATCH_SIZE);
+	@Override
+	public void importCsvStreamToDb(InputStream in, CsvImportInfo importInfo, ImportProgress progress,
+			BulkWriteEngine writeEngine) {
+		BulkWriteEngine engine = writeEngine != null ? writeEngine : importProperties.getWriteEngine();
+		log.info("importing csv stream to db by batch using {} parser and {} writer...", importProperties.getParser(), engine);
+		importByBatch(() -> importProperties.getParser() == CsvParserType.FAST
+				? new GameSalesCsvParser(progress.track(in)) : new CommonsGameSalesRowReader(progress.track(in)),
+				importInfo, progress, false, engine);
+	}
 
-			// handle batch processing in parallel
-			Consumer<List<Map.Entry<CSVRecord, GameSalesDto>>> processBatchLambda = batchList -> {
-				List<GameSales> gamesSalesList = batchList.parallelStream()
-						.peek(entry -> totalRecords.incrementAndGet())
-						.filter(entry -> {
-							boolean valid = isValidGameSalesDto(entry.getValue(), entry.getKey());
-							if (!valid) {
-								failedRecords.incrementAndGet();
+	private void importByBatch(RowReaderOpener rowReaderOpener, CsvImportInfo importInfo, ImportProgress progress,
+			boolean resume, BulkWriteEngine engine) {
+		ImportWriteTuner writeTuner = new ImportWriteTuner(importProperties, importWriterBudget);
+		DuplicateMode duplicateMode = duplicateMode(resume);
+		ImportCheckpointTracker checkpoints = openCheckpointTracker(importInfo, resume);
+
+		try (ImportErrorSink errorSink = openErrorSink(importInfo, resume);
+				GameSalesRowReader rowReader = rowReaderOpener.open();
+				ImportPipeline<GameSalesCsvRow, MappedBatch> pipeline = new ImportPipeline<>(
+						importProperties.getMapperThreads(),
+						importProperties.getWriterThreads(),
+						importProperties.getQueueCapacity(),
+						batchList -> {
+							List<GameSales> gamesSalesList = mapBatch(batchList, progress, errorSink);
+							return new MappedBatch(batchList.get(batchList.size() - 1).getLastLineNumber(), gamesSalesList,
+									batchList.size() - gamesSalesList.size());
+						},
+						mappedBatch -> {
+							List<GameSales> gamesSalesList = mappedBatch.gameSalesList();
+							int rejected = 0;
+							if (!gamesSalesList.isEmpty()) {
+								try {
+									rejected = writeBatch(gamesSalesList, duplicateMode, engine, progress, errorSink, writeTuner);
+								} catch (InterruptedException e) {
+									Thread.currentThread().interrupt();
+									throw new CancellationException("Import interrupted");
+								}
 							}
-							return valid;
-						})
-						.map(entry -> mapDtoToEntity(entry.getValue()))
-						.collect(Collectors.toList());
-
-				if (!CollectionUtils.isEmpty(gamesSalesList)) {
-					gameSalesDbService.saveGameSalesToDbByBatch(gamesSalesList); // Save to db in batch
-					successfulRecords.addAndGet(gamesSalesList.size());
+							checkpoints.complete(mappedBatch.lastLineNumber(), lastRowId(gamesSalesList),
+									gamesSalesList.size() - rejected, mappedBatch.failedRecords() + rejected);
+						},
+						importWriterThreadFactory);
+				GameSalesMetrics.Registration tracked = gameSalesMetrics.track(pipeline);
+				GameSalesMetrics.Registration tuned = gameSalesMetrics.track(writeTuner)) {
+			gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PROCESSING.toString());
+			progress.onCancel(() -> pipeline.abort(new CancellationException("Import cancelled")));
+
+			// Parse CSV rows in batches, submit blocks while the downstream stages are full.
+			// Rows up to the checkpoint of a previous attempt are already in the db.
+			long checkpointLine = importInfo.getCheckpointLine();
+			List<GameSalesCsvRow> currentBatchBuffer = new ArrayList<>(writeTuner.getBatchSize());
+			GameSalesCsvRow row;
+			long parseStart = System.nanoTime();
+			while ((row = rowReader.next()) != null) {
+				if (row.getLineNumber() <= checkpointLine) {
+					continue;
 				}
-			};
-
-			// Process CSV records in batches
-			for (CSVRecord record : csvParser) {
-				GameSalesDto dto = mapCsvToDto(record);
-				currentBatchBuffer.add(Map.entry(record, dto));
-
-				// Process when currentBatchBuffer size reached batch size
-				if (currentBatchBuffer.size() == BATCH_SIZE) {
-					List<Map.Entry<CSVRecord, GameSalesDto>> batchList = new ArrayList<>(currentBatchBuffer);
-					executor.submit(() -> processBatchLambda.accept(batchList));
-					currentBatchBuffer.clear();
+				currentBatchBuffer.add(row);
+				if (currentBatchBuffer.size() >= writeTuner.getBatchSize()) {
+					parseStart = submitBatch(pipeline, checkpoints, currentBatchBuffer, progress, parseStart);
+					currentBatchBuffer = new ArrayList<>(writeTuner.getBatchSize());
 				}
 			}
 
-			// Process any remaining records in the last batch
-			if (!currentBatchBuffer.isEmpty()) {
-				List<Map.Entry<CSVRecord, GameSalesDto>> batchList = new ArrayList<>(currentBatchBuffer);
-				executor.submit(() -> processBatchLambda.accept(batchList));
+			// Process any remaining records in the last batch and wait for all stages to drain
+			submitBatch(pipeline, checkpoints, currentBatchBuffer, progress, parseStart);
+			pipeline.finish();
+			errorSink.close();
+			completeImport(importInfo, progress, errorSink);
+		} catch (Exception e) {
+			failImport(importInfo, progress, e);
+		}
+	}
+
+	/**
+	 * Memory-maps the spooled file, splits it into chunks on row boundaries and parses, validates and
+	 * writes the chunks in parallel on a fork-join pool. Parsing scales with the number of cores while
+	 * writes are capped at {@code writerThreads} connections. Counters of every chunk roll up into the
+	 * same import progress, a failing chunk fails the whole import. The checkpoint advances one chunk at
+	 * a time, a resumed import only splits the file after the checkpoint.
+	 *
+	 * <p>With virtual threads the chunks run on a pool of {@code parallelism} plus the writer limit virtual threads,
+	 * so the chunks waiting for the db hold no carrier thread and leave the cores to the chunks parsing.
+	 */
+	private void importCsvToDbByChunks(Path csvFile, CsvImportInfo importInfo, ImportProgress progress, boolean resume,
+			BulkWriteEngine engine) {
+		int parallelism = importProperties.getChunkParallelism() > 0
+				? importProperties.getChunkParallelism() : Runtime.getRuntime().availableProcessors();
+		log.info("importing csv file to db by chunks with parallelism {} and {} writer...", parallelism, engine);
+		ImportWriteTuner writeTuner = new ImportWriteTuner(importProperties, importWriterBudget);
+		ExecutorService pool = importProperties.isVirtualThreads()
+				? Executors.newFixedThreadPool(parallelism + writeTuner.getWriterLimit(), importWriterThreadFactory)
+				: new ForkJoinPool(parallelism);
+		DuplicateMode duplicateMode = duplicateMode(resume);
+		ImportCheckpointTracker checkpoints = openCheckpointTracker(importInfo, resume);
+		try (ImportErrorSink errorSink = openErrorSink(importInfo, resume);
+				FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ);
+				GameSalesMetrics.Registration tracked = gameSalesMetrics.track(pool);
+				GameSalesMetrics.Registration tuned = gameSalesMetrics.track(writeTuner)) {
+			gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PROCESSING.toString());
+			progress.onCancel(() -> stop(pool));
+
+			// a few chunks per thread so a slow chunk does not leave the other threads idle
+			long startOffset = importInfo.getCheckpointOffset();
+			long checkpointLine = importInfo.getCheckpointLine();
+			long targetChunkSize = Math.min(MAX_CHUNK_SIZE,
+					Math.max(MIN_CHUNK_SIZE, (channel.size() - startOffset) / (parallelism * 4L)));
+			List<CsvChunkSplitter.Chunk> chunks = CsvChunkSplitter.split(channel, startOffset,
+					startOffset > 0 ? checkpointLine + 1 : 1, targetChunkSize);
+			log.info("Import {} split into {} chunk(s)", importInfo.getId(), chunks.size());
+			progress.addProcessedBytes(startOffset);
+
+			List<Callable<Void>> tasks = new ArrayList<>(chunks.size());
+			for (CsvChunkSplitter.Chunk chunk : chunks) {
+				if (chunk.nextLineNumber() - 1 <= checkpointLine) {
+					progress.addProcessedBytes(chunk.length()); // committed by a previous attempt
+					continue;
+				}
+				checkpoints.register(chunk.nextLineNumber() - 1, chunk.end());
+				tasks.add(() -> {
+					try {
+						importChunk(channel, chunk, checkpointLine, progress, errorSink, writeTuner, duplicateMode, engine, checkpoints);
+					} catch (Exception e) {
+						stop(pool); // stop the other chunks, the import fails as a whole
+						throw new IllegalStateException("Chunk starting at line " + chunk.firstLineNumber()
+								+ " failed: " + e.getMessage(), e);
+					}
+					return null;
+				});
+			}
+			Exception chunkFailure = null;
+			for (Future<Void> future : pool.invokeAll(tasks)) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					chunkFailure = chunkFailure != null ? chunkFailure : (Exception) e.getCause();
+				} catch (CancellationException e) {
+					// stopped because another chunk failed or the import was cancelled
+				}
+			}
+			if (chunkFailure != null) {
+				throw chunkFailure;
+			}
+			if (progress.isCancelled()) {
+				throw new CancellationException("Import cancelled");
 			}
-			executor.shutdown();
-			executor.awaitTermination(1, TimeUnit.HOURS);  // Wait up to 1 hour for all threads to finish
-			gameSalesDbService.updateSuccessInfoToDb(importInfo, totalRecords.get(), successfulRecords.get(), failedRecords.get());
+			errorSink.close();
+			completeImport(importInfo, progress, errorSink);
 		} catch (Exception e) {
+			failImport(importInfo, progress, e);
+		} finally {
+			stop(pool);
+		}
+	}
+
+	/**
+	 * Stops the chunk pool. The chunks not started yet are cancelled, a fork-join pool does it itself,
+	 * so that invokeAll returns.
+	 */
+	private static void stop(ExecutorService pool) {
+		for (Runnable queued : pool.shutdownNow()) {
+			if (queued instanceof Future<?> future) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	private void importChunk(FileChannel channel, CsvChunkSplitter.Chunk chunk, long checkpointLine, ImportProgress progress,
+			ImportErrorSink errorSink, ImportWriteTuner writeTuner, DuplicateMode duplicateMode, BulkWriteEngine engine,
+			ImportCheckpointTracker checkpoints) throws IOException, InterruptedException {
+		long parsedRecords = 0;
+		long failedRecords = 0;
+		long lastRowId = 0;
+		MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.length());
+		try (GameSalesRowReader rowReader = new GameSalesCsvParser(progress.track(new ByteBufferInputStream(region)),
+				GameSalesCsvParser.DEFAULT_BUFFER_SIZE, chunk.start() == 0, chunk.firstLineNumber(), chunk.start())) {
+			List<GameSalesCsvRow> batch = new ArrayList<>(writeTuner.getBatchSize());
+			GameSalesCsvRow row;
+			long parseStart = System.nanoTime();
+			do {
+				row = rowReader.next();
+				if (row != null && row.getLineNumber() > checkpointLine) {
+					batch.add(row);
+				}
+				if (batch.size() >= writeTuner.getBatchSize() || (row == null && !batch.isEmpty())) {
+					if (progress.isCancelled()) {
+						throw new CancellationException("Import cancelled");
+					}
+					gameSalesMetrics.recordStage(ImportStage.PARSE, System.nanoTime() - parseStart);
+					progress.addParsed(batch.size());
+					gameSalesMetrics.addParsedRows(batch.size());
+					List<GameSales> gamesSalesList = mapBatch(batch, progress, errorSink);
+					parsedRecords += batch.size();
+					failedRecords += batch.size() - gamesSalesList.size();
+					if (!gamesSalesList.isEmpty()) {
+						try (GameSalesMetrics.Registration writing = gameSalesMetrics.trackChunkWriter()) {
+							failedRecords += writeBatch(gamesSalesList, duplicateMode, engine, progress, errorSink, writeTuner);
+						}
+						lastRowId = lastRowId(gamesSalesList);
+					}
+					batch = new ArrayList<>(writeTuner.getBatchSize());
+					parseStart = System.nanoTime();
+				}
+			} while (row != null);
+		}
+		checkpoints.complete(chunk.nextLineNumber() - 1, lastRowId, parsedRecords - failedRecords, failedRecords);
+		log.debug("Chunk starting at line {} done, {} record(s), {} failed", chunk.firstLineNumber(), parsedRecords, failedRecords);
+	}
+
+	/**
+	 * Validates and maps a parsed batch, invalid rows are counted as failed and dropped.
+	 * Both are done in their own pass over the batch, so each is timed once per batch.
+	 */
+	private List<GameSales> mapBatch(List<GameSalesCsvRow> batchList, ImportProgress progress, ImportErrorSink errorSink) {
+		long start = System.nanoTime();
+		List<GameSalesCsvRow> validRows = new ArrayList<>(batchList.size());
+		for (GameSalesCsvRow row : batchList) {
+			if (row.getError() != null) {
+				errorSink.reject(row.getLineNumber(), row.getErrorColumn(), row.getError());
+				progress.addFailed(1);
+			} else if (GameSalesDtoValidator.isValid(row.getDto())) {
+				GameSalesDtoValidator.Violation priceViolation = priceViolation(row.getDto());
+				if (priceViolation != null) {
+					errorSink.reject(row.getLineNumber(), priceViolation.column(), priceViolation.message());
+					progress.addFailed(1);
+					continue;
+				}
+				validRows.add(row);
+			} else {
+				GameSalesDtoValidator.validate(row.getDto()).forEach(violation ->
+						errorSink.reject(row.getLineNumber(), violation.column(), violation.message()));
+				progress.addFailed(1);
+			}
+		}
+		long validated = System.nanoTime();
+		gameSalesMetrics.recordStage(ImportStage.VALIDATE, validated - start);
+		gameSalesMetrics.addFailedRows(batchList.size() - validRows.size());
+
+		List<GameSales> gamesSalesList = new ArrayList<>(validRows.size());
+		for (GameSalesCsvRow row : validRows) {
+			GameSales entity = GameSalesMapper.toEntity(row.getDto());
+			entity.setLineNumber(row.getLineNumber());
+			gamesSalesList.add(entity);
+		}
+		gameSalesMetrics.recordStage(ImportStage.MAP, System.nanoTime() - validated);
+		return gamesSalesList;
+	}
+
+	/**
+	 * Registers a parsed batch for checkpointing before handing it to the pipeline.
+	 *
+	 * @param parseStart when the parsing of the batch started.
+	 * @return when the parsing of the next batch starts, after waiting for the pipeline to take this one.
+	 */
+	private long submitBatch(ImportPipeline<GameSalesCsvRow, MappedBatch> pipeline, ImportCheckpointTracker checkpoints,
+			List<GameSalesCsvRow> batch, ImportProgress progress, long parseStart) throws InterruptedException {
+		if (batch.isEmpty()) {
+			return parseStart;
+		}
+		long parsed = System.nanoTime();
+		gameSalesMetrics.recordStage(ImportStage.PARSE, parsed - parseStart);
+		GameSalesCsvRow last = batch.get(batch.size() - 1);
+		checkpoints.register(last.getLastLineNumber(), last.getEndOffset());
+		progress.addParsed(batch.size());
+		gameSalesMetrics.addParsedRows(batch.size());
+		pipeline.submit(batch);
+		long submitted = System.nanoTime();
+		gameSalesMetrics.recordQueueWait(submitted - parsed);
+		return submitted;
+	}
+
+	/**
+	 * Writes the batch once the tuner gives it a writer slot and a connection of the budget.
+	 *
+	 * @return the number of rows rejected by the db.
+	 */
+	private int writeBatch(List<GameSales> gamesSalesList, DuplicateMode duplicateMode, BulkWriteEngine engine,
+			ImportProgress progress, ImportErrorSink errorSink, ImportWriteTuner writeTuner) throws InterruptedException {
+		long waitStart = System.nanoTime();
+		writeTuner.acquire();
+		long start = System.nanoTime();
+		gameSalesMetrics.recordWriterWait(start - waitStart);
+		List<ImportRowError> rejectedRows = null;
+		try {
+			rejectedRows = gameSalesDbService.saveGameSalesToDbByBatch(gamesSalesList, duplicateMode, engine); // Save to db in batch
+		} finally {
+			writeTuner.release(rejectedRows != null ? gamesSalesList.size() : 0, System.nanoTime() - start);
+		}
+		gameSalesMetrics.recordStage(ImportStage.WRITE, System.nanoTime() - start);
+		gameSalesMetrics.recordWrittenBatch(gamesSalesList.size(), rejectedRows.size());
+		rejectedRows.forEach(errorSink::reject);
+		progress.addSuccessful(gamesSalesList.size() - rejectedRows.size());
+		progress.addFailed(rejectedRows.size());
+		return rejectedRows.size();
+	}
+
+	private static long lastRowId(List<GameSales> gamesSalesList) {
+		return gamesSalesList.isEmpty() ? 0 : gamesSalesList.get(gamesSalesList.size() - 1).getId();
+	}
+
+	/**
+	 * Batches after the checkpoint of a previous attempt may already be in the db, so a resumed
+	 * import skips existing rows unless they are to be overwritten anyway.
+	 */
+	private DuplicateMode duplicateMode(boolean resume) {
+		DuplicateMode duplicateMode = importProperties.getDuplicateMode();
+		return resume && duplicateMode == DuplicateMode.FAIL ? DuplicateMode.IGNORE : duplicateMode;
+	}
+
+	private ImportCheckpointTracker openCheckpointTracker(CsvImportInfo importInfo, boolean resume) {
+		ImportCheckpointTracker.Checkpoint start = resume
+				? new ImportCheckpointTracker.Checkpoint(importInfo.getCheckpointOffset(), importInfo.getCheckpointLine(),
+						importInfo.getCheckpointRowId(), importInfo.getCheckpointSuccessfulRecords(),
+						importInfo.getCheckpointFailedRecords())
+				: ImportCheckpointTracker.Checkpoint.START;
+		return new ImportCheckpointTracker(start,
+				checkpoint -> gameSalesDbService.updateCheckpointToDb(importInfo, checkpoint));
+	}
+
+	/**
+	 * Rejected rows go to {@code <errorDir>/import_<id>_rejected.csv} and the import_error table.
+	 * A resumed import drops the errors recorded after its checkpoint, those rows are validated again.
+	 */
+	private ImportErrorSink openErrorSink(CsvImportInfo importInfo, boolean resume) {
+		if (resume) {
+			gameSalesDbService.deleteImportErrorsAfterLine(importInfo.getId(), importInfo.getCheckpointLine());
+		}
+		Path errorFile = Path.of(importProperties.getErrorDir(), "import_" + importInfo.getId() + "_rejected.csv");
+		return new ImportErrorSink(errorFile,
+				errors -> gameSalesDbService.saveImportErrorsToDb(importInfo.getId(), errors),
+				importProperties.getErrorBatchSize(), resume);
+	}
+
+	private void completeImport(CsvImportInfo importInfo, ImportProgress progress, ImportErrorSink errorSink) {
+		if (errorSink.getErrorFile() != null) {
+			importInfo.setErrorFile(errorSink.getErrorFile().toString());
+		}
+		gameSalesDbService.updateSuccessInfoToDb(importInfo, (int) progress.getParsedRecords(),
+				(int) progress.getSuccessfulRecords(), (int) progress.getFailedRecords());
+	}
+
+	private void failImport(CsvImportInfo importInfo, ImportProgress progress, Exception e) {
+		if (progress.isCancelled()) {
+			log.info("Import {} cancelled after {} record(s)", importInfo.getId(), progress.getParsedRecords());
+			gameSalesDbService.updateCancelledInfoToDb(importInfo, (int) progress.getParsedRecords(),
+					(int) progress.getSuccessfulRecords(), (int) progress.getFailedRecords());
+		} else {
 			log.error("Error importing CSV file: {}", e.getMessage(), e);
 			gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
 		}
 	}
+
+	/**
+	 * Opens the spooled file, the FAST parser seeks straight to the checkpoint offset while the
+	 * Commons parser reads from the start and the rows up to the checkpoint are skipped by line number.
+	 */
+	private GameSalesRowReader openRowReader(Path csvFile, CsvImportInfo importInfo, ImportProgress progress) throws IOException {
+		boolean fast = importProperties.getParser() == CsvParserType.FAST;
+		long offset = fast ? importInfo.getCheckpointOffset() : 0;
+		InputStream in = Files.newInputStream(csvFile);
+		try {
+			in.skipNBytes(offset);
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+		progress.addProcessedBytes(offset);
+		if (fast) {
+			return new GameSalesCsvParser(progress.track(in), GameSalesCsvParser.DEFAULT_BUFFER_SIZE, offset == 0,
+					offset == 0 ? 1 : importInfo.getCheckpointLine() + 1, offset);
+		}
+		return new CommonsGameSalesRowReader(progress.track(in));
+	}
 }
@@ -1,22 +1,58 @@
 package com.game.service.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import com.game.config.PartitionProperties;
 import com.game.entity.CsvImportInfo;
 import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.game.enums.ExportFormat;
+import com.game.enums.ReportGranularity;
 import com.game.enums.ImportStatusEnums;
+import com.game.model.ColumnarStoreStatusDto;
 import com.game.model.GameSalesReportDto;
+import com.game.model.ImportRowError;
+import com.game.model.ReportCacheStatsDto;
+import com.game.model.RollupMismatchDto;
+import com.game.model.SalesPartitionDto;
 import com.game.repository.CsvImportInfoRepository;
 import com.game.repository.GameSalesRepository;
 import com.game.service.GameSalesDbService;
 import com.game.utils.GameSalesBatchInsert;
+import com.game.utils.GameSalesColumnarStore;
+import com.game.utils.GameSalesDailyRollup;
+import com.game.utils.GameSalesExporter;
+import com.game.utils.GameSalesPartitions;
+import com.game.utils.GameSalesReportCache;
+import com.game.utils.GameSalesReportQuery;
+import com.game.utils.GameSalesSpecification;
+import com.game.utils.GameSalesWriteLock;
+import com.game.utils.ImportCheckpointTracker;
+import com.game.utils.ImportErrorBatchInsert;
+import com.game.utils.ImportProgress;
+import com.game.utils.ReplicaReadGuard;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,33 +68,191 @@ public class GameSalesDbServiceImpl implements GameSalesDbService{
 
 	private final CsvImportInfoRepository importInfoRepository;
 
+	private final ImportErrorBatchInsert importErrorBatchInsert;
+
+	private final GameSalesDailyRollup dailyRollup;
+
+	private final GameSalesReportQuery reportQuery;
+
+	private final GameSalesExporter exporter;
+
+	private final GameSalesReportCache reportCache;
+
+	private final GameSalesColumnarStore columnarStore;
+
+	private final GameSalesPartitions partitions;
+
+	private final PartitionProperties partitionProperties;
+
+	private final GameSalesWriteLock gameSalesWriteLock;
+
+	private final ReplicaReadGuard replicaReadGuard;
+
 	@Override
 	public boolean saveGameSalesToDb(List<GameSales> gameSalesList) {
-		List<GameSales> saveRecords = gameSalesRepository.saveAll(gameSalesList);
-		log.info("Successfully save {} record(s) to the database", saveRecords);
-		return !CollectionUtils.isEmpty(saveRecords) ? true : false;
+		if (CollectionUtils.isEmpty(gameSalesList)) {
+			return false;
+		}
+		List<ImportRowError> rejectedRows = saveGameSalesToDbByBatch(gameSalesList, DuplicateMode.UPSERT, BulkWriteEngine.JPA);
+		rejectedRows.forEach(error -> log.warn("Line: {}, Db error: {}", error.getLineNumber(), error.getReason()));
+		log.info("Successfully save {} record(s) to the database", gameSalesList.size() - rejectedRows.size());
+		return rejectedRows.size() < gameSalesList.size();
 	}
 
 	@Override
-	public void saveGameSalesToDbByBatch(List<GameSales> gameSalesList) {
-		gameSalesBatchInsert.insertBatch(gameSalesList);
+	public List<ImportRowError> saveGameSalesToDbByBatch(List<GameSales> gameSalesList, DuplicateMode duplicateMode,
+			BulkWriteEngine engine) {
+		try {
+			return gameSalesBatchInsert.insertBatch(gameSalesList, duplicateMode, engine);
+		} finally {
+			// also on failure, the rows committed before a rejected row stay in the table
+			if (!gameSalesList.isEmpty()) {
+				reportCache.invalidate(
+						gameSalesList.stream().map(GameSales::getDateOfSale).min(Comparator.naturalOrder()).get(),
+						gameSalesList.stream().map(GameSales::getDateOfSale).max(Comparator.naturalOrder()).get());
+			}
+		}
 	}
 
 	@Override
+	public void saveImportErrorsToDb(Long importId, List<ImportRowError> errors) {
+		importErrorBatchInsert.insertBatch(importId, errors);
+	}
+
+	@Override
+	public void deleteImportErrorsAfterLine(Long importId, long lineNumber) {
+		importErrorBatchInsert.deleteAfterLine(importId, lineNumber);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public Page<GameSales> getAllGameSales(Specification<GameSales> spec, Pageable pageable) {
 		return gameSalesRepository.findAll(spec, pageable);
 	}
 
 	@Override
-	public List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate) {
-		return gameSalesRepository.getTotalSalesByDate(fromDate, toDate);
+	@Transactional(readOnly = true)
+	public long countGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice) {
+		// the columnar store follows the primary, the count must match the pages read from a replica lagging behind it
+		OptionalLong count = replicaReadGuard.readsReplica()
+				? OptionalLong.empty() : columnarStore.count(fromDate, toDate, minPrice, maxPrice);
+		return count.orElseGet(() -> gameSalesRepository.count(GameSalesSpecification.filter(fromDate, toDate, minPrice, maxPrice)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<GameSales> getGameSales(Specification<GameSales> spec, Sort sort, int limit) {
+		return gameSalesRepository.findBy(spec, query -> query.sortBy(sort).limit(limit).all());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate,
+			ReportGranularity granularity) {
+		return reportCache.get(fromDate, toDate, null, granularity,
+				() -> columnarStore.getTotalSales(fromDate, toDate, null, granularity)
+						.orElseGet(() -> reportQuery.getTotalSales(fromDate, toDate, null, granularity)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo,
+			ReportGranularity granularity) {
+		return reportCache.get(fromDate, toDate, gameNo, granularity,
+				() -> columnarStore.getTotalSales(fromDate, toDate, gameNo, granularity)
+						.orElseGet(() -> reportQuery.getTotalSales(fromDate, toDate, gameNo, granularity)));
+	}
+
+	@Override
+	public int rebuildDailyRollup(LocalDate fromDate, LocalDate toDate) {
+		try {
+			return dailyRollup.rebuild(fromDate, toDate);
+		} finally {
+			reportCache.invalidate(fromDate != null ? fromDate.atStartOfDay() : null,
+					toDate != null ? toDate.atTime(LocalTime.MAX) : null);
+		}
+	}
+
+	@Override
+	public void invalidateTotalSales(LocalDate fromDate, LocalDate toDate) {
+		reportCache.invalidate(fromDate != null ? fromDate.atStartOfDay() : null,
+				toDate != null ? toDate.atTime(LocalTime.MAX) : null);
+	}
+
+	@Override
+	public ReportCacheStatsDto getReportCacheStats() {
+		return reportCache.getStats();
+	}
+
+	@Override
+	public void reloadColumnarStore() {
+		columnarStore.reload();
+	}
+
+	@Override
+	public ColumnarStoreStatusDto getColumnarStoreStatus() {
+		return columnarStore.getStatus();
+	}
+
+	@Override
+	public List<SalesPartitionDto> getSalesPartitions() {
+		return partitions.list();
+	}
+
+	@Override
+	public List<String> dropSalesBefore(YearMonth month) {
+		if (!partitions.isPartitioned()) {
+			throw new IllegalStateException("game_sales is not partitioned, see dbscripts/migrations/partition_game_sales.sql");
+		}
+		LocalDate firstKept = month.atDay(1);
+		try (GameSalesWriteLock.Hold hold = gameSalesWriteLock.acquireShared("purge of the sales before " + month)) {
+			List<String> dropped = partitions.dropBefore(firstKept);
+			if (!dropped.isEmpty()) {
+				int rollupRows = dailyRollup.deleteBefore(firstKept);
+				log.info("Purged the sales before {}, {} rollup row(s) removed", month, rollupRows);
+				reportCache.invalidate(null, firstKept.atStartOfDay());
+				columnarStore.reload();
+			}
+			return dropped;
+		}
+	}
+
+	/**
+	 * Creates the partitions of the coming months and drops those past {@code game.partitions.retention-months}.
+	 * A failure, e.g. no db at startup or a running shadow import, is logged and retried at the next run.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "${game.partitions.maintenance-cron:0 30 0 * * *}")
+	public void maintainPartitions() {
+		try {
+			if (!partitions.isPartitioned()) {
+				return;
+			}
+			try (GameSalesWriteLock.Hold hold = gameSalesWriteLock.acquireShared("partition maintenance")) {
+				partitions.createAhead();
+			}
+			if (partitionProperties.getRetentionMonths() > 0) {
+				dropSalesBefore(YearMonth.now().minusMonths(partitionProperties.getRetentionMonths()));
+			}
+		} catch (RuntimeException e) {
+			log.warn("Error maintaining the game_sales partitions: {}", e.getMessage());
+		}
 	}
 
 	@Override
-	public List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo) {
-		return gameSalesRepository.getTotalSalesByDateAndGameNo(fromDate, toDate, gameNo);
+	@Transactional(readOnly = true)
+	public List<RollupMismatchDto> checkDailyRollup(LocalDate fromDate, LocalDate toDate) {
+		return dailyRollup.check(fromDate, toDate);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public long exportGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice,
+			ExportFormat format, OutputStream out) throws IOException {
+		return exporter.export(fromDate, toDate, minPrice, maxPrice, format, out);
+	}
+
+
 	@Override
 	public void upsertStatusToDb(CsvImportInfo importInfo, String status) {
 		importInfo.setStatus(status);
@@ -82,4 +276,47 @@ public class GameSalesDbServiceImpl implements GameSalesDbService{
 		importInfo.setEndTime(LocalDateTime.now());
 		importInfoRepository.save(importInfo);
 	}
+
+	@Override
+	public void updateCancelledInfoToDb(CsvImportInfo importInfo, int totalRecords, int successfulRecords, int failedRecords) {
+		importInfo.setStatus(ImportStatusEnums.CANCELLED.toString());
+		importInfo.setTotalRecords(totalRecords);
+		importInfo.setSuccessfulRecords(successfulRecords);
+		importInfo.setFailedRecords(failedRecords);
+		importInfo.setEndTime(LocalDateTime.now());
+		importInfoRepository.save(importInfo);
+	}
+
+	@Override
+	@Transactional
+	public void updateProgressToDb(CsvImportInfo importInfo, ImportProgress progress) {
+		importInfoRepository.updateProgress(importInfo.getId(),
+				(int) progress.getParsedRecords(),
+				(int) progress.getSuccessfulRecords(),
+				(int) progress.getFailedRecords(),
+				progress.getProcessedBytes());
+	}
+
+	@Override
+	@Transactional
+	public void updateCheckpointToDb(CsvImportInfo importInfo, ImportCheckpointTracker.Checkpoint checkpoint) {
+		// keep the entity in step, the final status update saves the whole row
+		importInfo.setCheckpointOffset(checkpoint.offset());
+		importInfo.setCheckpointLine(checkpoint.lineNumber());
+		importInfo.setCheckpointRowId(checkpoint.rowId());
+		importInfo.setCheckpointSuccessfulRecords((int) checkpoint.successfulRecords());
+		importInfo.setCheckpointFailedRecords((int) checkpoint.failedRecords());
+		importInfoRepository.updateCheckpoint(importInfo.getId(), checkpoint.offset(), checkpoint.lineNumber(),
+				checkpoint.rowId(), (int) checkpoint.successfulRecords(), (int) checkpoint.failedRecords());
+	}
+
+	@Override
+	public Optional<CsvImportInfo> getImportInfo(Long id) {
+		return importInfoRepository.findById(id);
+	}
+
+	@Override
+	public Optional<CsvImportInfo> getImportInfoByFileHash(String fileHash) {
+		return importInfoRepository.findFirstByFileHashOrderByIdDesc(fileHash);
+	}
 }
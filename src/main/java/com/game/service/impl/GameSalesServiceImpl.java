@@ -1,21 +1,37 @@
 package com.game.service.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.game.entity.GameSales;
+import com.game.enums.ExportFormat;
+import com.game.enums.ReportGranularity;
+import com.game.model.ColumnarStoreStatusDto;
 import com.game.model.GameSalesDto;
+import com.game.model.GameSalesPageDto;
 import com.game.model.GameSalesReportDto;
+import com.game.model.ReportCacheStatsDto;
+import com.game.model.RollupMismatchDto;
+import com.game.model.SalesPartitionDto;
 import com.game.service.CsvImportService;
 import com.game.service.GameSalesDbService;
 import com.game.service.GameSalesService;
+import com.game.utils.GameSalesMapper;
+import com.game.utils.GameSalesWriteLock;
+import com.game.utils.ReplicaReadGuard;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,53 +45,113 @@ public class GameSalesServiceImpl implements GameSalesService {
 
 	private final GameSalesDbService gameSalesDbService;
 
+	private final ReplicaReadGuard replicaReadGuard;
+
+	private final GameSalesWriteLock gameSalesWriteLock;
+
 	@Override
 	public boolean importCsvDataToDb(MultipartFile file) {
 		log.info("Importing Game Sales data from Csv file to Db...");
-		List<GameSales> gamesSalesList = csvImportService.importCsv(file);
-		if (!CollectionUtils.isEmpty(gamesSalesList)) {
-			gameSalesDbService.saveGameSalesToDb(gamesSalesList);
-			return true;
+		try (GameSalesWriteLock.Hold hold = gameSalesWriteLock.acquireShared("import of " + file.getOriginalFilename())) {
+			List<GameSales> gamesSalesList = csvImportService.importCsv(file);
+			if (!CollectionUtils.isEmpty(gamesSalesList)) {
+				replicaReadGuard.importStarted();
+				try {
+					gameSalesDbService.saveGameSalesToDb(gamesSalesList);
+				} finally {
+					replicaReadGuard.importFinished();
+				}
+				return true;
+			}
+			return false;
 		}
-		return false;
-	}
-
-	@Override
-	public void importCsvDataToDbByBatch(MultipartFile file) {
-		log.info("Importing Game Sales data from Csv file to Db...");
-		csvImportService.importCsvToDbByBatch(file);
 	}
 
 	@Override
 	public Page<GameSalesDto> getAllGamesSalesFromDb(Specification<GameSales> spec, Pageable pageable) {
 		log.info("Getting game sales from Db...");
-		Page<GameSalesDto> gameSalesDtos = gameSalesDbService.getAllGameSales(spec, pageable).map(this::mapEntityToDto);
+		Page<GameSalesDto> gameSalesDtos = gameSalesDbService.getAllGameSales(spec, pageable).map(GameSalesMapper::toDto);
 		return gameSalesDtos;
 	}
 
 	@Override
-	public List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate) {
-		return gameSalesDbService.getTotalSalesByDate(fromDate, toDate);
+	public GameSalesPageDto getGameSalesPageFromDb(Specification<GameSales> spec, boolean orderByDate, int size) {
+		log.info("Getting game sales page from Db...");
+		Sort sort = orderByDate ? Sort.by("dateOfSale", "id").ascending() : Sort.by("id").ascending();
+		// one extra row tells whether there is a next page without counting
+		List<GameSales> rows = gameSalesDbService.getGameSales(spec, sort, size + 1);
+		boolean hasNext = rows.size() > size;
+		List<GameSales> pageRows = hasNext ? rows.subList(0, size) : rows;
+		GameSales last = pageRows.isEmpty() ? null : pageRows.get(pageRows.size() - 1);
+		return GameSalesPageDto.builder()
+				.content(pageRows.stream().map(GameSalesMapper::toDto).toList())
+				.size(pageRows.size())
+				.hasNext(hasNext)
+				.nextAfterId(hasNext ? last.getId() : null)
+				.nextAfterDate(hasNext && orderByDate ? last.getDateOfSale() : null)
+				.build();
 	}
 
 	@Override
-	public List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo) {
-		return gameSalesDbService.getTotalSalesByDateAndGameNo(fromDate, toDate, gameNo);
+	public List<GameSalesReportDto> getTotalSalesByDate(LocalDateTime fromDate, LocalDateTime toDate,
+			ReportGranularity granularity) {
+		return gameSalesDbService.getTotalSalesByDate(fromDate, toDate, granularity);
 	}
 
-	private GameSalesDto mapEntityToDto(GameSales entity) {
-		GameSalesDto gameSalesDto = 
-				GameSalesDto.builder()
-				.id(entity.getId())
-				.gameNo(entity.getGameNo())
-				.gameName(entity.getGameName())
-				.gameCode(entity.getGameCode())
-				.type(entity.getType())
-				.costPrice(entity.getCostPrice())
-				.tax(entity.getTax())
-				.salePrice(entity.getSalePrice())
-				.dateOfSale(entity.getDateOfSale())
-				.build();
-		return gameSalesDto;
+	@Override
+	public List<GameSalesReportDto> getTotalSalesByDateAndGameNo(LocalDateTime fromDate, LocalDateTime toDate, int gameNo,
+			ReportGranularity granularity) {
+		return gameSalesDbService.getTotalSalesByDateAndGameNo(fromDate, toDate, gameNo, granularity);
+	}
+
+	@Override
+	public int rebuildDailyRollup(LocalDate fromDate, LocalDate toDate) {
+		log.info("Rebuilding daily rollup from {} to {}...", fromDate, toDate);
+		return gameSalesDbService.rebuildDailyRollup(fromDate, toDate);
+	}
+
+	@Override
+	public List<RollupMismatchDto> checkDailyRollup(LocalDate fromDate, LocalDate toDate) {
+		log.info("Checking daily rollup from {} to {}...", fromDate, toDate);
+		return gameSalesDbService.checkDailyRollup(fromDate, toDate);
+	}
+
+	@Override
+	public ReportCacheStatsDto getReportCacheStats() {
+		return gameSalesDbService.getReportCacheStats();
+	}
+
+	@Override
+	public long countGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice) {
+		return gameSalesDbService.countGameSales(fromDate, toDate, minPrice, maxPrice);
+	}
+
+	@Override
+	public void reloadColumnarStore() {
+		log.info("Reloading columnar store...");
+		gameSalesDbService.reloadColumnarStore();
+	}
+
+	@Override
+	public ColumnarStoreStatusDto getColumnarStoreStatus() {
+		return gameSalesDbService.getColumnarStoreStatus();
+	}
+
+	@Override
+	public List<SalesPartitionDto> getSalesPartitions() {
+		return gameSalesDbService.getSalesPartitions();
+	}
+
+	@Override
+	public List<String> dropSalesBefore(YearMonth month) {
+		log.info("Dropping the game sales before {}...", month);
+		return gameSalesDbService.dropSalesBefore(month);
+	}
+
+	@Override
+	public long exportGameSales(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice,
+			ExportFormat format, OutputStream out) throws IOException {
+		log.info("Exporting game sales as {}...", format);
+		return gameSalesDbService.exportGameSales(fromDate, toDate, minPrice, maxPrice, format, out);
 	}
 }
@@ -0,0 +1,387 @@
+package com.game.service.impl;
+
+import static com.game.controller.constants.CommonConstants.APP_NAME;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.game.entity.CsvImportInfo;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.ContentCoding;
+import com.game.enums.ImportMethod;
+import com.game.enums.ImportStatusEnums;
+import com.game.exception.ImportBusyException;
+import com.game.exception.ImportConflictException;
+import com.game.model.ImportJobStatusDto;
+import com.game.service.CsvImportService;
+import com.game.service.GameSalesDbService;
+import com.game.service.ImportJobService;
+import com.game.utils.GameSalesCsvLoader;
+import com.game.utils.GameSalesShadowLoader;
+import com.game.utils.GameSalesStagingLoader;
+import com.game.utils.GameSalesWriteLock;
+import com.game.utils.ImportProgress;
+import com.game.utils.ImportSlots;
+import com.game.utils.ReplicaReadGuard;
+import com.github.luben.zstd.ZstdInputStream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ImportJobServiceImpl implements ImportJobService {
+
+	private final CsvImportService csvImportService;
+
+	private final GameSalesCsvLoader gameSalesCsvLoader;
+
+	private final GameSalesStagingLoader gameSalesStagingLoader;
+
+	private final GameSalesShadowLoader gameSalesShadowLoader;
+
+	private final GameSalesDbService gameSalesDbService;
+
+	private final TaskExecutor importJobExecutor;
+
+	private final ReplicaReadGuard replicaReadGuard;
+
+	private final ImportSlots importSlots;
+
+	private final GameSalesWriteLock gameSalesWriteLock;
+
+	private final Map<Long, ImportJob> activeJobs = new ConcurrentHashMap<>();
+
+	// makes the lookup of a previous import of the same file and the registration of the new job atomic. It is held
+	// over db round trips, a ReentrantLock rather than a monitor lets a virtual request thread unmount meanwhile
+	private final ReentrantLock submitLock = new ReentrantLock();
+
+	private record ImportJob(CsvImportInfo importInfo, ImportProgress progress, boolean resume,
+			GameSalesWriteLock.Hold writeHold) {
+	}
+
+	private record SpooledFile(Path path, String contentHash) {
+	}
+
+	/**
+	 * A file is matched to its previous imports by the SHA-256 of its content. If the same file is
+	 * still importing, or was imported completely, no new job is started and that import is returned.
+	 * If its last import failed, was cancelled or was interrupted by a restart, the import resumes
+	 * from the checkpoint of that attempt under the same id.
+	 */
+	@Override
+	public ImportJobStatusDto submitImport(MultipartFile file, ImportMethod method, BulkWriteEngine writeEngine) {
+		// the multipart temp file is removed once the request completes, so keep our own copy for the job
+		SpooledFile spooled = spool(file);
+		Path csvFile = spooled.path();
+		submitLock.lock();
+		try {
+			Optional<ImportJob> running = activeJobs.values().stream()
+					.filter(job -> spooled.contentHash().equals(job.importInfo().getFileHash()))
+					.findFirst();
+			if (running.isPresent()) {
+				deleteQuietly(csvFile);
+				log.info("File {} is already being imported by import {}", file.getOriginalFilename(),
+						running.get().importInfo().getId());
+				return toStatusDto(running.get().importInfo(), running.get().progress());
+			}
+			Optional<CsvImportInfo> previous = gameSalesDbService.getImportInfoByFileHash(spooled.contentHash());
+			if (previous.isPresent() && ImportStatusEnums.COMPLETED.toString().equals(previous.get().getStatus())) {
+				deleteQuietly(csvFile);
+				log.info("File {} was already imported by import {}", file.getOriginalFilename(), previous.get().getId());
+				return toStatusDto(previous.get(), null);
+			}
+			GameSalesWriteLock.Hold writeHold;
+			try {
+				writeHold = acquireWriteLock(method, file.getOriginalFilename());
+			} catch (ImportConflictException e) {
+				deleteQuietly(csvFile);
+				throw e;
+			}
+
+			boolean resume = previous.isPresent();
+			CsvImportInfo importInfo;
+			if (resume) {
+				importInfo = previous.get();
+				importInfo.setFileName(file.getOriginalFilename());
+				importInfo.setErrorMessage(null);
+				importInfo.setEndTime(null);
+				importInfo.setUpdateBy(APP_NAME);
+			} else {
+				importInfo = CsvImportInfo.builder()
+						.fileName(file.getOriginalFilename())
+						.fileSize(file.getSize())
+						.fileHash(spooled.contentHash())
+						.createBy(APP_NAME)
+						.build();
+			}
+			ImportProgress progress = new ImportProgress(file.getSize());
+			if (resume && method == ImportMethod.BATCH) {
+				progress.addParsed(importInfo.getCheckpointSuccessfulRecords() + importInfo.getCheckpointFailedRecords());
+				progress.addSuccessful(importInfo.getCheckpointSuccessfulRecords());
+				progress.addFailed(importInfo.getCheckpointFailedRecords());
+			}
+			try {
+				gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PENDING.toString());
+				ImportJob job = new ImportJob(importInfo, progress, resume, writeHold);
+				activeJobs.put(importInfo.getId(), job);
+				importJobExecutor.execute(() -> runImport(job, csvFile, method, writeEngine));
+			} catch (RuntimeException e) {
+				activeJobs.remove(importInfo.getId());
+				writeHold.close();
+				deleteQuietly(csvFile);
+				throw e;
+			}
+			if (resume) {
+				log.info("Queued import {} for file {}, resuming after line {}", importInfo.getId(),
+						importInfo.getFileName(), importInfo.getCheckpointLine());
+			} else {
+				log.info("Queued import {} for file {}", importInfo.getId(), importInfo.getFileName());
+			}
+			return toStatusDto(importInfo, progress);
+		} finally {
+			submitLock.unlock();
+		}
+	}
+
+	@Override
+	public ImportJobStatusDto importStream(InputStream body, ContentCoding coding, String fileName, ImportMethod method,
+			BulkWriteEngine writeEngine) {
+		CsvImportInfo importInfo = CsvImportInfo.builder()
+				.fileName(fileName)
+				.fileSize(0L)
+				.createBy(APP_NAME)
+				.build();
+		ImportProgress progress = new ImportProgress(0); // the size is only known at the end, no eta
+		// the import runs on this request thread, it takes a slot of the job executor instead of a thread of it
+		if (!importSlots.tryAcquire()) {
+			throw new ImportBusyException("Already running the most imports at a time, retry once one has finished");
+		}
+		GameSalesWriteLock.Hold writeHold = null;
+		try {
+			submitLock.lock();
+			try {
+				writeHold = acquireWriteLock(method, fileName);
+				gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PENDING.toString());
+				activeJobs.put(importInfo.getId(), new ImportJob(importInfo, progress, false, writeHold));
+			} finally {
+				submitLock.unlock();
+			}
+		} catch (RuntimeException e) {
+			if (writeHold != null) {
+				writeHold.close();
+			}
+			importSlots.release();
+			throw e;
+		}
+		log.info("Streaming import {} of {} ({} body)", importInfo.getId(), fileName, coding);
+		replicaReadGuard.importStarted();
+		try (InputStream in = decode(body, coding)) {
+			importInfo.setStartTime(LocalDateTime.now());
+			progress.start();
+			switch (method) {
+				case LOAD_DATA -> gameSalesCsvLoader.loadCsv(in, importInfo, progress);
+				case STAGING -> gameSalesStagingLoader.loadCsv(in, importInfo, progress);
+				case SHADOW -> gameSalesShadowLoader.loadCsv(in, importInfo, progress);
+				case BATCH -> csvImportService.importCsvStreamToDb(in, importInfo, progress, writeEngine);
+			}
+		} catch (Exception e) {
+			log.error("Error running import {}: {}", importInfo.getId(), e.getMessage(), e);
+			gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
+		} finally {
+			replicaReadGuard.importFinished();
+			activeJobs.remove(importInfo.getId());
+			writeHold.close();
+			importSlots.release();
+		}
+		return toStatusDto(importInfo, progress);
+	}
+
+	@Override
+	public Optional<ImportJobStatusDto> getImportStatus(Long id) {
+		ImportJob job = activeJobs.get(id);
+		if (job != null) {
+			return Optional.of(toStatusDto(job.importInfo(), job.progress()));
+		}
+		return gameSalesDbService.getImportInfo(id).map(importInfo -> toStatusDto(importInfo, null));
+	}
+
+	@Override
+	public boolean cancelImport(Long id) {
+		ImportJob job = activeJobs.get(id);
+		if (job == null) {
+			return false;
+		}
+		log.info("Cancelling import {}", id);
+		job.progress().cancel();
+		return true;
+	}
+
+	/**
+	 * Writes the counters of every running job to csv_import_info so progress survives in the db.
+	 */
+	@Scheduled(fixedDelayString = "${game.import.progress-flush-millis:1000}")
+	public void flushProgress() {
+		activeJobs.values().forEach(job -> {
+			try {
+				gameSalesDbService.updateProgressToDb(job.importInfo(), job.progress());
+			} catch (Exception e) {
+				log.warn("Error flushing progress of import {}: {}", job.importInfo().getId(), e.getMessage());
+			}
+		});
+	}
+
+	private void runImport(ImportJob job, Path csvFile, ImportMethod method, BulkWriteEngine writeEngine) {
+		CsvImportInfo importInfo = job.importInfo();
+		ImportProgress progress = job.progress();
+		boolean slotTaken = false;
+		boolean started = false;
+		try {
+			// streamed imports may hold slots this executor thread has
+			importSlots.acquire();
+			slotTaken = true;
+			if (progress.isCancelled()) {
+				gameSalesDbService.updateCancelledInfoToDb(importInfo, 0, 0, 0);
+				return;
+			}
+			importInfo.setStartTime(LocalDateTime.now());
+			progress.start();
+			replicaReadGuard.importStarted();
+			started = true;
+			switch (method) {
+				case LOAD_DATA -> {
+					log.info("import {} using LOAD DATA LOCAL INFILE", importInfo.getId());
+					gameSalesCsvLoader.loadCsv(csvFile.toAbsolutePath().toString(), importInfo, progress);
+				}
+				case STAGING -> {
+					log.info("import {} using a staging table", importInfo.getId());
+					gameSalesStagingLoader.loadCsv(csvFile.toAbsolutePath().toString(), importInfo, progress);
+				}
+				case SHADOW -> {
+					log.info("import {} using a shadow table", importInfo.getId());
+					gameSalesShadowLoader.loadCsv(csvFile.toAbsolutePath().toString(), importInfo, progress);
+				}
+				case BATCH -> {
+					log.info("import {} using batch", importInfo.getId());
+					csvImportService.importCsvToDbByBatch(csvFile, importInfo, progress, job.resume(), writeEngine);
+				}
+			}
+		} catch (Exception e) {
+			log.error("Error running import {}: {}", importInfo.getId(), e.getMessage(), e);
+			gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
+		} finally {
+			if (started) {
+				replicaReadGuard.importFinished();
+			}
+			if (slotTaken) {
+				importSlots.release();
+			}
+			activeJobs.remove(importInfo.getId());
+			job.writeHold().close();
+			deleteQuietly(csvFile);
+		}
+	}
+
+	/**
+	 * Holds the game_sales write lock from the submission to the end of the import, exclusively for a SHADOW import.
+	 */
+	private GameSalesWriteLock.Hold acquireWriteLock(ImportMethod method, String fileName) {
+		return method == ImportMethod.SHADOW
+				? gameSalesWriteLock.acquireExclusive("shadow import of " + fileName)
+				: gameSalesWriteLock.acquireShared("import of " + fileName);
+	}
+
+	private static InputStream decode(InputStream body, ContentCoding coding) throws IOException {
+		return switch (coding) {
+			case IDENTITY -> body;
+			case GZIP -> new GZIPInputStream(body, 64 * 1024);
+			case ZSTD -> new ZstdInputStream(body);
+		};
+	}
+
+	/**
+	 * Copies the upload to a temp file, hashing its content on the way.
+	 */
+	private SpooledFile spool(MultipartFile file) {
+		Path csvFile = null;
+		try {
+			csvFile = Files.createTempFile("gamesales_", ".csv");
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+				Files.copy(in, csvFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return new SpooledFile(csvFile, HexFormat.of().formatHex(digest.digest()));
+		} catch (IOException e) {
+			if (csvFile != null) {
+				deleteQuietly(csvFile);
+			}
+			throw new UncheckedIOException("Error saving uploaded file: " + e.getMessage(), e);
+		} catch (NoSuchAlgorithmException e) {
+			deleteQuietly(csvFile);
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void deleteQuietly(Path csvFile) {
+		try {
+			Files.deleteIfExists(csvFile);
+		} catch (IOException e) {
+			log.warn("Error deleting temp file {}: {}", csvFile, e.getMessage());
+		}
+	}
+
+	private ImportJobStatusDto toStatusDto(CsvImportInfo importInfo, ImportProgress progress) {
+		ImportJobStatusDto.ImportJobStatusDtoBuilder builder = ImportJobStatusDto.builder()
+				.id(importInfo.getId())
+				.fileName(importInfo.getFileName())
+				.status(importInfo.getStatus())
+				.errorMessage(importInfo.getErrorMessage())
+				.errorFile(importInfo.getErrorFile())
+				.startTime(importInfo.getStartTime())
+				.endTime(importInfo.getEndTime());
+		if (progress != null) {
+			return builder
+					.parsedRecords(progress.getParsedRecords())
+					.successfulRecords(progress.getSuccessfulRecords())
+					.failedRecords(progress.getFailedRecords())
+					.rowsPerSecond(progress.getRowsPerSecond())
+					.etaSeconds(progress.getEtaSeconds())
+					.build();
+		}
+		return builder
+				.parsedRecords(importInfo.getTotalRecords())
+				.successfulRecords(importInfo.getSuccessfulRecords())
+				.failedRecords(importInfo.getFailedRecords())
+				.rowsPerSecond(rowsPerSecond(importInfo))
+				.build();
+	}
+
+	private double rowsPerSecond(CsvImportInfo importInfo) {
+		if (importInfo.getStartTime() == null || importInfo.getEndTime() == null) {
+			return 0;
+		}
+		double seconds = Duration.between(importInfo.getStartTime(), importInfo.getEndTime()).toMillis() / 1000.0;
+		return seconds > 0 ? importInfo.getTotalRecords() / seconds : 0;
+	}
+}
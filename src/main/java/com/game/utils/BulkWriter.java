@@ -0,0 +1,27 @@
+package com.game.utils;
+
+import java.util.List;
+
+import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+
+/**
+ * An engine writing a batch of validated rows to game_sales. {@link GameSalesBatchInsert} runs it in the
+ * transaction of the batch, which also updates the daily rollup, and isolates the rows the db rejects.
+ */
+public interface BulkWriter {
+
+	BulkWriteEngine getEngine();
+
+	/**
+	 * Writes the rows in the current transaction.
+	 *
+	 * @param gameSalesList the rows to write.
+	 * @param duplicateMode how a row whose id already exists is handled, in the batch the db keeps the first
+	 *                      row of a repeated id when ignoring and the last one when upserting.
+	 * @throws org.springframework.dao.DataIntegrityViolationException if the db rejects a row, the transaction
+	 *                                                                  is then rolled back.
+	 */
+	void write(List<GameSales> gameSalesList, DuplicateMode duplicateMode);
+}
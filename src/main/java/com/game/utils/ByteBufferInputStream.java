@@ -0,0 +1,39 @@
+package com.game.utils;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link InputStream} over the remaining bytes of a {@link ByteBuffer}, e.g. a memory-mapped file region.
+ */
+public class ByteBufferInputStream extends InputStream {
+
+	private final ByteBuffer buffer;
+
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public int read() {
+		return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) {
+		if (length == 0) {
+			return 0;
+		}
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+		int n = Math.min(length, buffer.remaining());
+		buffer.get(bytes, offset, n);
+		return n;
+	}
+
+	@Override
+	public int available() {
+		return buffer.remaining();
+	}
+}
@@ -0,0 +1,94 @@
+package com.game.utils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a csv file into chunks that each start and end on a row boundary, so they can be parsed in parallel.
+ *
+ * <p>A line feed inside a quoted field is not a row boundary, so the splitter scans the file once from the
+ * start tracking the quote state with {@link CsvQuoteState}, as the parsers do. The scan only compares bytes
+ * through memory-mapped windows and is much cheaper than parsing, it also counts line breaks so each chunk knows
+ * the line number it starts at.
+ */
+public final class CsvChunkSplitter {
+
+	private static final int SCAN_WINDOW = 64 * 1024 * 1024;
+
+	/**
+	 * A region of the file, {@code [start, end)}, holding whole rows.
+	 *
+	 * @param start offset of the first byte of the chunk.
+	 * @param end offset after the last byte of the chunk.
+	 * @param firstLineNumber line number of the first row of the chunk, the header is line 1.
+	 * @param nextLineNumber line number of the first row after the chunk.
+	 */
+	public record Chunk(long start, long end, long firstLineNumber, long nextLineNumber) {
+		public long length() {
+			return end - start;
+		}
+	}
+
+	private CsvChunkSplitter() {
+	}
+
+	/**
+	 * @param channel the csv file.
+	 * @param targetChunkSize approximate chunk size in bytes, chunks are extended to the next row boundary.
+	 * @return the chunks covering the whole file in order, the first one starts with the header row.
+	 */
+	public static List<Chunk> split(FileChannel channel, long targetChunkSize) throws IOException {
+		return split(channel, 0, 1, targetChunkSize);
+	}
+
+	/**
+	 * Splits the file from a row boundary onwards, used to resume an import from its checkpoint.
+	 *
+	 * @param channel the csv file.
+	 * @param startOffset offset of a row boundary, 0 for the whole file.
+	 * @param startLineNumber line number of the row starting at {@code startOffset}.
+	 * @param targetChunkSize approximate chunk size in bytes, chunks are extended to the next row boundary.
+	 * @return the chunks covering the file from {@code startOffset} in order.
+	 */
+	public static List<Chunk> split(FileChannel channel, long startOffset, long startLineNumber,
+			long targetChunkSize) throws IOException {
+		long size = channel.size();
+		List<Chunk> chunks = new ArrayList<>();
+		long chunkStart = startOffset;
+		long chunkLine = startLineNumber;
+		long nextTarget = startOffset + targetChunkSize;
+		long line = startLineNumber;
+		int quoteState = CsvQuoteState.FIELD_START;
+		boolean endsWithLineFeed = true;
+		for (long windowStart = startOffset; windowStart < size; windowStart += SCAN_WINDOW) {
+			int windowLength = (int) Math.min(SCAN_WINDOW, size - windowStart);
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+			for (int i = 0; i < windowLength; i++) {
+				byte b = window.get(i);
+				boolean endsRow = CsvQuoteState.endsRow(quoteState, b);
+				quoteState = CsvQuoteState.next(quoteState, b);
+				if (endsRow) {
+					line++;
+					long rowEnd = windowStart + i + 1;
+					if (rowEnd >= nextTarget && rowEnd < size) {
+						chunks.add(new Chunk(chunkStart, rowEnd, chunkLine, line));
+						chunkStart = rowEnd;
+						chunkLine = line;
+						nextTarget = rowEnd + targetChunkSize;
+					}
+				} else if (b == '\n') {
+					line++;
+				}
+			}
+			endsWithLineFeed = window.get(windowLength - 1) == '\n';
+		}
+		if (chunkStart < size || chunks.isEmpty()) {
+			// a last row without a line feed still takes up a line
+			chunks.add(new Chunk(chunkStart, size, chunkLine, endsWithLineFeed ? line : line + 1));
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,51 @@
+package com.game.utils;
+
+/**
+ * Tracks whether a byte of a csv row is inside a quoted field, to tell the line feeds ending a row from those
+ * inside a field. Only a quote opening a field starts a quoted field, a quote inside an unquoted field such as
+ * {@code ab"c} is a literal, as Commons CSV reads it. The state is an int so the scanners keep it in a local.
+ */
+final class CsvQuoteState {
+
+	/** At the start of a row or after a comma. */
+	static final int FIELD_START = 0;
+
+	static final int UNQUOTED = 1;
+
+	static final int QUOTED = 2;
+
+	/** After a quote inside a quoted field, either the closing quote or the first of a doubled one. */
+	static final int QUOTE_IN_QUOTED = 3;
+
+	private CsvQuoteState() {
+	}
+
+	/**
+	 * @return true if the byte is a line feed ending the row.
+	 */
+	static boolean endsRow(int state, byte b) {
+		return b == '\n' && state != QUOTED;
+	}
+
+	/**
+	 * @return the state after the byte, {@link #FIELD_START} after a line feed ending the row.
+	 */
+	static int next(int state, byte b) {
+		switch (state) {
+			case QUOTED:
+				return b == '"' ? QUOTE_IN_QUOTED : QUOTED;
+			case QUOTE_IN_QUOTED:
+				if (b == '"') {
+					return QUOTED; // a doubled quote
+				}
+				return b == ',' || b == '\n' ? FIELD_START : UNQUOTED;
+			case FIELD_START:
+				if (b == '"') {
+					return QUOTED;
+				}
+				return b == ',' || b == '\n' ? FIELD_START : UNQUOTED;
+			default:
+				return b == ',' || b == '\n' ? FIELD_START : UNQUOTED;
+		}
+	}
+}
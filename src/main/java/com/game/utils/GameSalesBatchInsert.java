@@ -1,67 +1,193 @@
 package com.game.utils;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.game.model.ImportRowError;
 
-import lombok.RequiredArgsConstructor;
-
+/**
+ * Writes import batches with the {@link BulkWriter} of the requested engine. Whatever the engine, a batch is
+ * written in one transaction with its daily rollup, its rejected rows are isolated the same way and its
+ * throughput is recorded under the same meters, tagged with the engine.
+ *
+ * <p>When game_sales is partitioned its primary key is {@code (id, date_of_sale)}, so the duplicate mode is applied
+ * to the ids here before the engine writes: an existing id fails or is skipped, and an upserted row moving to
+ * another day replaces the stored one. Ids are then only unique among the writes of this app. The ids of a batch
+ * are read with {@code SELECT ... FOR UPDATE}, whose next-key locks under REPEATABLE READ, the MySQL default, also
+ * hold back the other transactions inserting one of them with any date until the batch commits. Two batches
+ * inserting the same new id at the same time deadlock instead, the one rolled back is retried and then finds it.
+ */
 @Service
-@RequiredArgsConstructor
 public class GameSalesBatchInsert {
 
+	// attempts of a batch rolled back by a deadlock or a lock wait timeout
+	private static final int LOCK_ATTEMPTS = 3;
+
 	private final JdbcTemplate jdbcTemplate;
 
-	@Transactional
-	public int[] insertBatch(List<GameSales> gameSalesList) {
-		String sql = "INSERT INTO game_sales (id, game_no, game_name, game_code, type, "
-				+ "cost_price, tax, sale_price, date_of_sale) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-		return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-			@Override
-			public void setValues(PreparedStatement ps, int i) throws SQLException {
-				GameSales game = gameSalesList.get(i);
-				ps.setLong(1, game.getId());
-				ps.setInt(2, game.getGameNo());
-				ps.setString(3, game.getGameName());
-				ps.setString(4, game.getGameCode());
-				ps.setInt(5, game.getType());
-				ps.setBigDecimal(6, game.getCostPrice());
-				ps.setBigDecimal(7, game.getTax());
-				ps.setBigDecimal(8, game.getSalePrice());
-				ps.setTimestamp(9, Timestamp.valueOf(game.getDateOfSale()));
+	private final TransactionTemplate transactionTemplate;
+
+	private final GameSalesDailyRollup dailyRollup;
+
+	private final GameSalesColumnarStore columnarStore;
+
+	private final GameSalesMetrics gameSalesMetrics;
+
+	private final GameSalesPartitions partitions;
+
+	private final Map<BulkWriteEngine, BulkWriter> writers = new EnumMap<>(BulkWriteEngine.class);
+
+	public GameSalesBatchInsert(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+			GameSalesDailyRollup dailyRollup, GameSalesColumnarStore columnarStore, GameSalesMetrics gameSalesMetrics,
+			GameSalesPartitions partitions, List<BulkWriter> writers) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.dailyRollup = dailyRollup;
+		this.columnarStore = columnarStore;
+		this.gameSalesMetrics = gameSalesMetrics;
+		this.partitions = partitions;
+		writers.forEach(writer -> this.writers.put(writer.getEngine(), writer));
+	}
+
+	/**
+	 * Inserts the batch in one transaction. If the db rejects the batch for a data error, e.g. a duplicate id
+	 * or a value too long for its column, the batch is bisected and each half retried in its own transaction
+	 * until the offending rows are isolated, so only those rows are rejected.
+	 * The daily rollup is updated in the same transaction as the rows, the columnar store once they committed.
+	 *
+	 * @param gameSalesList the rows to insert.
+	 * @param duplicateMode how a row whose id already exists is handled.
+	 * @param engine the engine writing the rows.
+	 * @return the rejected rows with the db error, empty if the whole batch was inserted.
+	 */
+	public List<ImportRowError> insertBatch(List<GameSales> gameSalesList, DuplicateMode duplicateMode,
+			BulkWriteEngine engine) {
+		BulkWriter writer = writers.get(engine);
+		if (writer == null) {
+			throw new IllegalArgumentException("No bulk writer for engine " + engine);
+		}
+		long start = System.nanoTime();
+		boolean partitioned = partitions.isPartitioned();
+		List<ImportRowError> rejectedRows = new ArrayList<>();
+		insertOrBisect(writer, duplicateMode, partitioned, gameSalesList, rejectedRows);
+		gameSalesMetrics.recordBulkWrite(engine, gameSalesList.size(), rejectedRows.size(), System.nanoTime() - start);
+		return rejectedRows;
+	}
+
+	private void insertOrBisect(BulkWriter writer, DuplicateMode duplicateMode, boolean partitioned,
+			List<GameSales> gameSalesList, List<ImportRowError> rejectedRows) {
+		try {
+			List<GameSales> existingRows = write(writer, duplicateMode, partitioned, gameSalesList);
+			columnarStore.applyBatch(gameSalesList, existingRows, duplicateMode);
+		} catch (DataIntegrityViolationException e) {
+			if (gameSalesList.size() == 1) {
+				rejectedRows.add(ImportRowError.builder()
+						.lineNumber(gameSalesList.get(0).getLineNumber())
+						.reason(NestedExceptionUtils.getMostSpecificCause(e).getMessage())
+						.build());
+				return;
+			}
+			int middle = gameSalesList.size() / 2;
+			insertOrBisect(writer, duplicateMode, partitioned, gameSalesList.subList(0, middle), rejectedRows);
+			insertOrBisect(writer, duplicateMode, partitioned, gameSalesList.subList(middle, gameSalesList.size()),
+					rejectedRows);
+		}
+	}
+
+	/**
+	 * Writes the batch and its rollup in one transaction, again if a lock conflict with another batch rolled it back.
+	 *
+	 * @return the stored rows of the ids of the batch, empty in FAIL mode.
+	 */
+	private List<GameSales> write(BulkWriter writer, DuplicateMode duplicateMode, boolean partitioned,
+			List<GameSales> gameSalesList) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return transactionTemplate.execute(status -> {
+					List<GameSales> existing = duplicateMode == DuplicateMode.FAIL
+							? List.of() : dailyRollup.lockExisting(gameSalesList);
+					List<GameSales> rows = partitioned ? resolveIds(gameSalesList, existing, duplicateMode) : gameSalesList;
+					if (!rows.isEmpty()) {
+						writer.write(rows, duplicateMode);
+					}
+					dailyRollup.addBatch(gameSalesList, existing, duplicateMode);
+					return existing;
+				});
+			} catch (PessimisticLockingFailureException e) {
+				if (attempt >= LOCK_ATTEMPTS) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the duplicate mode to the ids of a batch written to a partitioned game_sales, whose primary key only
+	 * catches an id stored with the same date of sale.
+	 *
+	 * @param existingRows the stored rows of the ids of the batch, locked, empty in FAIL mode where the ids are
+	 *                     locked here.
+	 * @return the rows the engine writes.
+	 */
+	private List<GameSales> resolveIds(List<GameSales> gameSalesList, List<GameSales> existingRows,
+			DuplicateMode duplicateMode) {
+		if (gameSalesList.isEmpty()) {
+			return gameSalesList;
+		}
+		Map<Long, GameSales> rows = new LinkedHashMap<>();
+		for (GameSales row : gameSalesList) {
+			GameSales earlier = rows.putIfAbsent(row.getId(), row);
+			if (earlier != null && duplicateMode == DuplicateMode.FAIL) {
+				throw duplicateEntry(row.getId());
+			} else if (earlier != null && duplicateMode == DuplicateMode.UPSERT) {
+				rows.put(row.getId(), row); // the last row of an id wins, as with ON DUPLICATE KEY UPDATE
+			}
+		}
+		switch (duplicateMode) {
+			case FAIL -> {
+				List<Long> stored = jdbcTemplate.queryForList("SELECT id FROM game_sales WHERE id IN ("
+						+ String.join(",", Collections.nCopies(rows.size(), "?")) + ") ORDER BY id FOR UPDATE",
+						Long.class, rows.keySet().toArray());
+				if (!stored.isEmpty()) {
+					throw duplicateEntry(stored.get(0));
+				}
 			}
-			@Override
-			public int getBatchSize() {
-				return gameSalesList.size();
+			case IGNORE -> existingRows.forEach(existing -> rows.remove(existing.getId()));
+			case UPSERT -> {
+				Map<Long, GameSales> stored = new HashMap<>();
+				existingRows.forEach(existing -> stored.put(existing.getId(), existing));
+				List<Object[]> moved = new ArrayList<>();
+				for (GameSales row : rows.values()) {
+					GameSales existing = stored.get(row.getId());
+					if (existing != null && !existing.getDateOfSale().equals(row.getDateOfSale())) {
+						moved.add(new Object[] { existing.getId(), Timestamp.valueOf(existing.getDateOfSale()) });
+					}
+				}
+				if (!moved.isEmpty()) {
+					jdbcTemplate.batchUpdate("DELETE FROM game_sales WHERE id = ? AND date_of_sale = ?", moved);
+				}
 			}
-		});
+		}
+		return new ArrayList<>(rows.values());
 	}
 
-	public void loadCsv(String csvFilePath) {
-		String sql = "LOAD DATA LOCAL INFILE ? " +
-				"INTO TABLE game_sales " +
-				"FIELDS TERMINATED BY ',' " +
-				"ENCLOSED BY '\"' " +
-				"LINES TERMINATED BY '\\n' " +
-				"IGNORE 1 LINES " +
-				"(id, game_no, game_name, game_code, type, cost_price, tax, sale_price, date_of_sale)";
-
-		jdbcTemplate.execute((Connection con) -> {
-		    try (PreparedStatement ps = con.prepareStatement(sql)) {
-		        ps.setString(1, csvFilePath);
-		        ps.execute();
-		    }
-		    return null;
-		});
+	private static DataIntegrityViolationException duplicateEntry(long id) {
+		return new DataIntegrityViolationException("Duplicate entry '" + id + "' for key 'game_sales.PRIMARY'");
 	}
 }
@@ -0,0 +1,427 @@
+package com.game.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.game.config.ColumnarStoreProperties;
+import com.game.entity.GameSales;
+import com.game.enums.DuplicateMode;
+import com.game.enums.ReportGranularity;
+import com.game.model.ColumnarStoreStatusDto;
+import com.game.model.GameSalesReportDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional in-memory copy of the game_sales columns used by the analytics queries, held in primitive arrays:
+ * game_no and type as int, date_of_sale as epoch seconds and the prices as {@link Money} cents. The sales totals and
+ * filtered counts are then a scan over the arrays instead of a db query.
+ *
+ * <p>The store is loaded in the background at startup by streaming game_sales, and kept up to date by the
+ * batch import, which applies each batch after it committed. Writes the store cannot follow row by row,
+ * LOAD DATA for instance, reload it. Until a load completes the queries return empty and callers fall back
+ * to the db.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameSalesColumnarStore {
+
+	private static final String LOAD_SQL = "SELECT id, game_no, type, cost_price, sale_price, date_of_sale FROM game_sales";
+
+	private static final int MAX_BUCKETS = 1 << 20;
+
+	private static final long SECONDS_PER_HOUR = 3600;
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final ColumnarStoreProperties properties;
+
+	private final TaskExecutor columnarLoadExecutor;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Incremented by each reload, a load stops once it is superseded. */
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile boolean ready;
+
+	/** Guarded by {@link #lock}, null when the store is disabled. */
+	private Columns columns;
+
+	/**
+	 * Column arrays growing by doubling. Rows are located by id through an open addressing hash index,
+	 * so a batch re-importing existing ids updates them in place.
+	 */
+	private static final class Columns {
+		private int size;
+		private int[] gameNo;
+		private int[] type;
+		private long[] dateOfSale;
+		private long[] costCents;
+		private long[] saleCents;
+		private long[] indexKeys;
+		private int[] indexRows;
+
+		private Columns(int capacity) {
+			gameNo = new int[capacity];
+			type = new int[capacity];
+			dateOfSale = new long[capacity];
+			costCents = new long[capacity];
+			saleCents = new long[capacity];
+			indexKeys = new long[tableSize(capacity)];
+			indexRows = new int[indexKeys.length];
+		}
+
+		/**
+		 * @param overwrite true to replace the values of an existing id, false to keep them.
+		 */
+		private void put(long id, int gameNo, int type, long dateOfSale, long costCents, long saleCents, boolean overwrite) {
+			int slot = slot(id);
+			int row;
+			if (indexRows[slot] != 0) {
+				if (!overwrite) {
+					return;
+				}
+				row = indexRows[slot] - 1;
+			} else {
+				if (size == this.gameNo.length) {
+					grow();
+					slot = slot(id);
+				}
+				row = size++;
+				indexKeys[slot] = id;
+				indexRows[slot] = row + 1;
+			}
+			this.gameNo[row] = gameNo;
+			this.type[row] = type;
+			this.dateOfSale[row] = dateOfSale;
+			this.costCents[row] = costCents;
+			this.saleCents[row] = saleCents;
+		}
+
+		/** The slot holding the id, or the empty slot where it belongs. */
+		private int slot(long id) {
+			int mask = indexKeys.length - 1;
+			long hash = id * 0x9E3779B97F4A7C15L;
+			int slot = (int) (hash ^ (hash >>> 32)) & mask;
+			while (indexRows[slot] != 0 && indexKeys[slot] != id) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private void grow() {
+			int capacity = gameNo.length * 2;
+			gameNo = Arrays.copyOf(gameNo, capacity);
+			type = Arrays.copyOf(type, capacity);
+			dateOfSale = Arrays.copyOf(dateOfSale, capacity);
+			costCents = Arrays.copyOf(costCents, capacity);
+			saleCents = Arrays.copyOf(saleCents, capacity);
+			long[] oldKeys = indexKeys;
+			int[] oldRows = indexRows;
+			indexKeys = new long[tableSize(capacity)];
+			indexRows = new int[indexKeys.length];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldRows[i] != 0) {
+					int slot = slot(oldKeys[i]);
+					indexKeys[slot] = oldKeys[i];
+					indexRows[slot] = oldRows[i];
+				}
+			}
+		}
+
+		/** Keeps the index at most half full. */
+		private static int tableSize(int capacity) {
+			return Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) * 2;
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+		if (properties.isEnabled()) {
+			reload();
+		}
+	}
+
+	/**
+	 * Empties the store and loads game_sales again in the background. Batches committed during the load are
+	 * applied as usual, the load does not overwrite the rows they wrote.
+	 */
+	public void reload() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		long loadGeneration;
+		lock.writeLock().lock();
+		try {
+			loadGeneration = generation.incrementAndGet();
+			ready = false;
+			columns = new Columns(properties.getInitialCapacity());
+		} finally {
+			lock.writeLock().unlock();
+		}
+		columnarLoadExecutor.execute(() -> load(loadGeneration));
+	}
+
+	/**
+	 * Applies a batch the import just committed.
+	 *
+	 * @param gameSalesList the rows of the batch.
+	 * @param existingRows the rows stored before the write, empty in FAIL mode.
+	 * @param duplicateMode how the write treated rows whose id already existed.
+	 */
+	public void applyBatch(List<GameSales> gameSalesList, List<GameSales> existingRows, DuplicateMode duplicateMode) {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		Set<Long> existingIds = new HashSet<>();
+		if (duplicateMode == DuplicateMode.IGNORE) {
+			existingRows.forEach(row -> existingIds.add(row.getId()));
+		}
+		lock.writeLock().lock();
+		try {
+			if (columns == null) {
+				return;
+			}
+			for (GameSales row : gameSalesList) {
+				if (!existingIds.contains(row.getId())) {
+					// the db keeps the first row of an id repeated in an ignoring batch
+					columns.put(row.getId(), row.getGameNo(), row.getType(), toEpochSecond(row.getDateOfSale()),
+							row.getCostPrice(), row.getSalePrice(), duplicateMode != DuplicateMode.IGNORE);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Same result as {@link GameSalesReportQuery#getTotalSales(LocalDateTime, LocalDateTime, Integer, ReportGranularity)}.
+	 *
+	 * @return the totals, or empty if the store is not loaded or the range has too many buckets.
+	 */
+	public Optional<List<GameSalesReportDto>> getTotalSales(LocalDateTime fromDate, LocalDateTime toDate, Integer gameNo,
+			ReportGranularity granularity) {
+		if (!ready) {
+			return Optional.empty();
+		}
+		long from = ceilEpochSecond(fromDate);
+		long to = toEpochSecond(toDate);
+		if (from > to) {
+			return Optional.of(List.of());
+		}
+		long unit = granularity == ReportGranularity.HOUR ? SECONDS_PER_HOUR : SECONDS_PER_DAY;
+		long firstBucket = Math.floorDiv(from, unit);
+		long bucketCount = Math.floorDiv(to, unit) - firstBucket + 1;
+		if (bucketCount > MAX_BUCKETS) {
+			return Optional.empty();
+		}
+		long[] counts = new long[(int) bucketCount];
+		long[] cents = new long[(int) bucketCount];
+		lock.readLock().lock();
+		try {
+			if (!ready) {
+				return Optional.empty();
+			}
+			Columns c = columns;
+			boolean allGames = gameNo == null;
+			int game = allGames ? 0 : gameNo;
+			for (int i = 0; i < c.size; i++) {
+				long date = c.dateOfSale[i];
+				if (date >= from && date <= to && (allGames || c.gameNo[i] == game)) {
+					int bucket = (int) (Math.floorDiv(date, unit) - firstBucket);
+					counts[bucket]++;
+					cents[bucket] += c.saleCents[i];
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		// hours and days are in order, so weeks and months are too
+		Map<LocalDateTime, long[]> totals = new LinkedHashMap<>();
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				LocalDateTime start = LocalDateTime.ofEpochSecond((firstBucket + i) * unit, 0, ZoneOffset.UTC);
+				LocalDateTime bucket = switch (granularity) {
+					case HOUR, DAY -> start;
+					case WEEK -> start.minusDays(start.getDayOfWeek().getValue() - 1);
+					case MONTH -> start.withDayOfMonth(1);
+				};
+				long[] total = totals.computeIfAbsent(bucket, key -> new long[2]);
+				total[0] += counts[i];
+				total[1] += cents[i];
+			}
+		}
+		List<GameSalesReportDto> report = new ArrayList<>(totals.size());
+		totals.forEach((bucket, total) -> report.add(GameSalesReportDto.builder()
+				.dateOfSale(new Date(Timestamp.valueOf(bucket).getTime()))
+				.totalCount(total[0])
+				.totalSales(Money.toBigDecimal(total[1]))
+				.build()));
+		return Optional.of(report);
+	}
+
+	/**
+	 * Counts the rows matching the same filters as {@link GameSalesSpecification}.
+	 *
+	 * @return the count, or empty if the store is not loaded.
+	 */
+	public OptionalLong count(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice) {
+		if (!ready) {
+			return OptionalLong.empty();
+		}
+		boolean byDate = fromDate != null && toDate != null;
+		long from = byDate ? ceilEpochSecond(fromDate) : Long.MIN_VALUE;
+		long to = byDate ? toEpochSecond(toDate) : Long.MAX_VALUE;
+		long minCents = minPrice != null ? Money.toCentsBound(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+		long maxCents = maxPrice != null ? Money.toCentsBound(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+		long count = 0;
+		lock.readLock().lock();
+		try {
+			if (!ready) {
+				return OptionalLong.empty();
+			}
+			Columns c = columns;
+			for (int i = 0; i < c.size; i++) {
+				long date = c.dateOfSale[i];
+				long price = c.saleCents[i];
+				if (date >= from && date <= to && price >= minCents && price <= maxCents) {
+					count++;
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return OptionalLong.of(count);
+	}
+
+	public ColumnarStoreStatusDto getStatus() {
+		lock.readLock().lock();
+		try {
+			return ColumnarStoreStatusDto.builder()
+					.enabled(properties.isEnabled())
+					.ready(ready)
+					.rows(columns != null ? columns.size : 0)
+					.build();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void load(long loadGeneration) {
+		long start = System.currentTimeMillis();
+		try {
+			boolean completed = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+				try (PreparedStatement ps = con.prepareStatement(LOAD_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+					// streams the rows instead of reading the whole table into memory
+					ps.setFetchSize(Integer.MIN_VALUE);
+					ResultSet rs = ps.executeQuery();
+					try {
+						int batchSize = properties.getLoadBatchSize();
+						long[] ids = new long[batchSize];
+						Columns batch = new Columns(batchSize);
+						while (rs.next()) {
+							ids[batch.size] = rs.getLong(1);
+							batch.gameNo[batch.size] = rs.getInt(2);
+							batch.type[batch.size] = rs.getInt(3);
+							batch.costCents[batch.size] = Money.toCents(rs.getBigDecimal(4));
+							batch.saleCents[batch.size] = Money.toCents(rs.getBigDecimal(5));
+							batch.dateOfSale[batch.size] = toEpochSecond(rs.getObject(6, LocalDateTime.class));
+							if (++batch.size == batchSize && !addLoaded(loadGeneration, ids, batch)) {
+								ps.cancel();
+								return false;
+							}
+						}
+						return addLoaded(loadGeneration, ids, batch) && markReady(loadGeneration);
+					} finally {
+						rs.close();
+					}
+				}
+			});
+			if (completed) {
+				log.info("Loaded {} row(s) into the columnar store in {} ms", getStatus().getRows(),
+						System.currentTimeMillis() - start);
+			} else {
+				log.info("Columnar store load superseded by a reload");
+			}
+		} catch (RuntimeException e) {
+			log.error("Error loading the columnar store, queries stay on the db: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Adds the rows read by the load, keeping the rows that batches applied in the meantime.
+	 *
+	 * @return false if the load was superseded.
+	 */
+	private boolean addLoaded(long loadGeneration, long[] ids, Columns batch) {
+		lock.writeLock().lock();
+		try {
+			if (generation.get() != loadGeneration) {
+				return false;
+			}
+			for (int i = 0; i < batch.size; i++) {
+				columns.put(ids[i], batch.gameNo[i], batch.type[i], batch.dateOfSale[i], batch.costCents[i],
+						batch.saleCents[i], false);
+			}
+			batch.size = 0;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private boolean markReady(long loadGeneration) {
+		lock.writeLock().lock();
+		try {
+			if (generation.get() != loadGeneration) {
+				return false;
+			}
+			ready = true;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** The wall clock time as seconds, both sides of every comparison use the same offset. */
+	private static long toEpochSecond(LocalDateTime dateTime) {
+		return dateTime.toEpochSecond(ZoneOffset.UTC);
+	}
+
+	/** date_of_sale has no fraction of a second, so a fractional lower bound starts at the next second. */
+	private static long ceilEpochSecond(LocalDateTime dateTime) {
+		return toEpochSecond(dateTime) + (dateTime.getNano() > 0 ? 1 : 0);
+	}
+
+}
@@ -1,15 +1,37 @@
 package com.game.utils;
 
-import static com.game.controller.constants.CommonConstants.DATE_FORMAT_YYYY_MM_DD_HH_MM_SS;
-
-import java.io.FileWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import lombok.Builder;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -23,57 +45,281 @@ import lombok.extern.slf4j.Slf4j;
  * 7. tax (9%)
  * 8. sale_price (decimal value, cost_price inclusive of tax)
  * 9. date_of_sale (a timestamp of the sale)
- * 
+ *
+ * <p>The rows are cut into shards of consecutive ids generated in parallel, each from its own random
+ * stream split in order from the seed, and written in order. The same options give the same bytes
+ * whatever the number of threads. Run with {@code --help} for the options.
+ *
  * @author Vincent Tay
  * Date: 18/05/2025
  */
 @Slf4j
 public class GameSalesCsvGenerator {
-	private static final int ROW_COUNT = 1_000_000; // change accordingly to the number of records
-	private static final String FILE_NAME = "game_sales_1_000_000.csv";
-	private static final LocalDateTime START_DATE = LocalDateTime.of(2025, 4, 1, 0, 0); // 1st April 2025
-	private static final LocalDateTime END_DATE = LocalDateTime.of(2025, 4, 30, 23, 59); // 30th April 2025
-	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT_YYYY_MM_DD_HH_MM_SS);
+
+	private static final byte[] HEADER = (String.join(",", GameSalesCsvParser.HEADER) + "\n")
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private static final String USAGE = """
+			Options, all optional:
+			  --rows=N              rows to generate, default 1000000
+			  --from=yyyy-MM-dd     first day of date_of_sale, default 2025-04-01
+			  --to=yyyy-MM-dd       last day of date_of_sale, default 2025-04-30
+			  --games=N             number of game_no values, at most 100, default 100
+			  --zipf=S              zipf exponent of game_no, game 1 being the most sold, default 0 for uniform
+			  --invalid-ratio=R     share of rows failing the import validation or parsing, default 0
+			  --seed=N              seed of the random values, default 1
+			  --threads=N           generating threads, default the number of processors
+			  --shard-rows=N        rows per shard, default 50000
+			  --output=FILE         csv file to write, - for stdout, default game_sales_<rows>.csv
+			  --url=URL             stream the csv to the import endpoint, e.g. http://localhost:8080/import/stream,
+			                        as it is generated instead of writing a file
+			""";
+
+	@Data
+	@Builder
+	public static class Options {
+		@Builder.Default
+		private long rows = 1_000_000;
+		@Builder.Default
+		private LocalDate fromDate = LocalDate.of(2025, 4, 1);
+		@Builder.Default
+		private LocalDate toDate = LocalDate.of(2025, 4, 30);
+		@Builder.Default
+		private int games = 100;
+		/** Exponent of the zipf distribution of game_no, 0 for uniform game numbers. */
+		@Builder.Default
+		private double zipfExponent = 0;
+		@Builder.Default
+		private double invalidRatio = 0;
+		@Builder.Default
+		private long seed = 1;
+		@Builder.Default
+		private int threads = Runtime.getRuntime().availableProcessors();
+		/** Rows per shard, part of the output definition as each shard has its own random stream. */
+		@Builder.Default
+		private int shardRows = 50_000;
+		private String output;
+		private String url;
+	}
 
 	public static void main(String[] args) {
-		Random random = new Random();
+		Options options;
+		try {
+			options = parseArgs(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.print(USAGE);
+			System.exit(2);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			if (options.getUrl() != null) {
+				upload(options);
+			} else if ("-".equals(options.getOutput())) {
+				generate(options, Channels.newChannel(System.out));
+				System.out.flush();
+			} else {
+				String fileName = options.getOutput() != null ? options.getOutput() : "game_sales_" + options.getRows() + ".csv";
+				try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+					generate(options, channel);
+				}
+				log.info("CSV file generated: {}", fileName);
+			}
+		} catch (IOException | InterruptedException e) {
+			log.error("Error while generating Csv file: {}", e.getMessage(), e);
+			System.exit(1);
+		}
+		if ("-".equals(options.getOutput())) {
+			return; // the log goes to stdout too
+		}
+		long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		log.info("Generated {} rows in {} ms, {} rows/s", options.getRows(), millis, options.getRows() * 1000 / millis);
+	}
 
-		try (FileWriter writer = new FileWriter(FILE_NAME)) {
-			writer.write("id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n");
+	/**
+	 * Writes the header and the rows to the channel, which is left open.
+	 *
+	 * @return the number of bytes written.
+	 */
+	public static long generate(Options options, WritableByteChannel channel) throws IOException {
+		check(options);
+		GameSalesShardWriter shardWriter = new GameSalesShardWriter(options);
+		int inFlight = options.getThreads() * 2;
+		Deque<ByteBuffer> buffers = new ArrayDeque<>(inFlight);
+		for (int i = 0; i < inFlight; i++) {
+			buffers.add(ByteBuffer.allocateDirect(options.getShardRows() * GameSalesShardWriter.MAX_ROW_BYTES));
+		}
+		Deque<Future<ByteBuffer>> shards = new ArrayDeque<>(inFlight);
+		SplittableRandom seed = new SplittableRandom(options.getSeed());
+		ExecutorService executor = Executors.newFixedThreadPool(options.getThreads(), daemonThreads());
+		try {
+			long written = write(channel, ByteBuffer.wrap(HEADER));
+			for (long firstRow = 0; firstRow < options.getRows(); firstRow += options.getShardRows()) {
+				if (shards.size() == inFlight) {
+					written += writeShard(channel, shards, buffers);
+				}
+				ByteBuffer buffer = buffers.poll();
+				SplittableRandom random = seed.split();
+				long firstId = firstRow + 1;
+				int rows = (int) Math.min(options.getShardRows(), options.getRows() - firstRow);
+				shards.add(executor.submit(() -> {
+					buffer.clear();
+					shardWriter.write(buffer, random, firstId, rows);
+					return buffer.flip();
+				}));
+			}
+			while (!shards.isEmpty()) {
+				written += writeShard(channel, shards, buffers);
+			}
+			return written;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 
-			for (int i = 1; i <= ROW_COUNT; i++) {
-				int gameNo = random.nextInt(100) + 1;
-				String gameName = randomString(random, 5 + random.nextInt(16));
-				String gameCode = randomString(random, 2 + random.nextInt(4));
-				int type = random.nextInt(2) + 1;
+	/**
+	 * Generates the csv on a background thread as it is read, e.g. to feed a row reader or an upload
+	 * without a file. If the generation fails the stream fails at its end instead of ending early.
+	 */
+	public static InputStream openStream(Options options) throws IOException {
+		check(options);
+		Pipe pipe = Pipe.open();
+		AtomicReference<IOException> failure = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try (Pipe.SinkChannel sink = pipe.sink()) {
+				generate(options, sink);
+			} catch (IOException e) {
+				failure.set(e);
+			}
+		}, "csv-generator-stream");
+		thread.setDaemon(true);
+		thread.start();
+		return new FilterInputStream(Channels.newInputStream(pipe.source())) {
+			@Override
+			public int read() throws IOException {
+				return checkEnd(super.read());
+			}
 
-				BigDecimal costPrice = BigDecimal.valueOf(1 + (99 * random.nextDouble())).setScale(2, RoundingMode.HALF_UP);
-				BigDecimal tax = BigDecimal.valueOf(9.0);
-				BigDecimal salePrice = costPrice.multiply(tax.divide(BigDecimal.valueOf(100.0)).add(BigDecimal.ONE)).setScale(2, RoundingMode.HALF_UP);
+			@Override
+			public int read(byte[] bytes, int offset, int length) throws IOException {
+				return checkEnd(super.read(bytes, offset, length));
+			}
 
-				LocalDateTime randomDate = START_DATE.plusSeconds(random.nextInt((int) java.time.Duration.between(START_DATE, END_DATE).getSeconds()));
+			private int checkEnd(int result) throws IOException {
+				if (result < 0 && failure.get() != null) {
+					throw new IOException("Error while generating Csv stream", failure.get());
+				}
+				return result;
+			}
+		};
+	}
 
-				writer.write(String.format("%d,%d,%s,%s,%d,%.2f,%.1f,%.2f,%s\n",
-						i, gameNo, gameName, gameCode, type,
-						costPrice.doubleValue(), tax.doubleValue(), salePrice.doubleValue(),
-						randomDate.format(FORMATTER)));
+	/**
+	 * Posts the csv as the body of the streaming import endpoint while it is generated, so neither side holds the
+	 * whole file and there is no upload size limit.
+	 */
+	public static void upload(Options options) throws IOException, InterruptedException {
+		String fileName = "game_sales_" + options.getRows() + "_seed_" + options.getSeed() + ".csv";
+		String url = options.getUrl() + (options.getUrl().contains("?") ? "&" : "?") + "fileName=" + fileName;
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "text/csv")
+				.POST(BodyPublishers.ofInputStream(() -> {
+					try {
+						return openStream(options);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}))
+				.build();
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() >= 300) {
+			throw new IOException("Import responded " + response.statusCode() + ": " + response.body());
+		}
+		log.info("Import responded {}: {}", response.statusCode(), response.body());
+	}
 
-				if (i % 100000 == 0) {
-					log.info("Generated {} records...", i);
+	static Options parseArgs(String[] args) {
+		Options options = Options.builder().build();
+		for (String arg : args) {
+			if (arg.equals("--help")) {
+				throw new IllegalArgumentException("Generates random game sales csv rows.");
+			}
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Invalid argument: " + arg);
+			}
+			String name = arg.substring(2, separator);
+			String value = arg.substring(separator + 1).replace("_", "");
+			try {
+				switch (name) {
+					case "rows" -> options.setRows(Long.parseLong(value));
+					case "from" -> options.setFromDate(LocalDate.parse(value));
+					case "to" -> options.setToDate(LocalDate.parse(value));
+					case "games" -> options.setGames(Integer.parseInt(value));
+					case "zipf" -> options.setZipfExponent(Double.parseDouble(value));
+					case "invalid-ratio" -> options.setInvalidRatio(Double.parseDouble(value));
+					case "seed" -> options.setSeed(Long.parseLong(value));
+					case "threads" -> options.setThreads(Integer.parseInt(value));
+					case "shard-rows" -> options.setShardRows(Integer.parseInt(value));
+					case "output" -> options.setOutput(arg.substring(separator + 1));
+					case "url" -> options.setUrl(arg.substring(separator + 1));
+					default -> throw new IllegalArgumentException("Unknown option: --" + name);
 				}
+			} catch (NumberFormatException | DateTimeParseException e) {
+				throw new IllegalArgumentException("Invalid value of --" + name + ": " + e.getMessage());
 			}
-			log.info("CSV file generated: {}", FILE_NAME);
-		} catch (IOException e) {
-			log.error("Error while generating Csv file: {}", e.getMessage(), e);
 		}
+		check(options);
+		return options;
 	}
 
-	private static String randomString(Random random, int length) {
-		String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-		StringBuilder result = new StringBuilder();
-		for (int i = 0; i < length; i++) {
-			result.append(characters.charAt(random.nextInt(characters.length())));
+	private static void check(Options options) {
+		if (options.getGames() > GameSalesDtoValidator.MAX_GAME_NO) {
+			throw new IllegalArgumentException("--games cannot exceed " + GameSalesDtoValidator.MAX_GAME_NO
+					+ ", the import rejects a higher game_no");
+		}
+		if (options.getRows() < 0 || options.getGames() < 1 || options.getThreads() < 1 || options.getShardRows() < 1
+				|| options.getZipfExponent() < 0 || options.getInvalidRatio() < 0 || options.getInvalidRatio() > 1
+				|| options.getToDate().isBefore(options.getFromDate())) {
+			throw new IllegalArgumentException("Invalid options: " + options);
 		}
-		return result.toString();
+		if ((long) options.getShardRows() * GameSalesShardWriter.MAX_ROW_BYTES > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Shards of " + options.getShardRows() + " rows do not fit in a buffer");
+		}
+	}
+
+	private static long writeShard(WritableByteChannel channel, Deque<Future<ByteBuffer>> shards, Deque<ByteBuffer> buffers)
+			throws IOException {
+		ByteBuffer buffer;
+		try {
+			buffer = shards.poll().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while generating rows", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Error while generating rows", e.getCause());
+		}
+		long written = write(channel, buffer);
+		buffers.add(buffer);
+		return written;
+	}
+
+	private static long write(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		long written = 0;
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer);
+		}
+		return written;
+	}
+
+	private static ThreadFactory daemonThreads() {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "csv-generator-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
 	}
 }
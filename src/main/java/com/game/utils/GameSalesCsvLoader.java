@@ -1,14 +1,13 @@
 package com.game.utils;
 
-import static com.game.controller.constants.CommonConstants.APP_NAME;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.time.LocalDateTime;
-
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import com.game.config.ImportProperties;
 import com.game.entity.CsvImportInfo;
 import com.game.enums.ImportStatusEnums;
 import com.game.service.GameSalesDbService;
@@ -20,14 +19,17 @@ import lombok.extern.slf4j.Slf4j;
  * Service for loading game sales data into the database using MySQL's
  * {@code LOAD DATA LOCAL INFILE} for fast and efficient bulk import.
  *
- * <p>This service expects a CSV file to be present on the local filesystem,
- * and the file must match the structure of the {@code game_sales} table.
+ * <p>The csv must match the structure of the {@code game_sales} table. It is read by the app, from the local
+ * filesystem or a request body, and handed to the driver as the stream of the {@code LOCAL INFILE}.
+ *
+ * <p>A partitioned game_sales is keyed on (id, date_of_sale), LOAD DATA would then store an id again under another
+ * date, so the import is refused, see {@link GameSalesLoadData#requireUnpartitioned(String)}.
  *
  * <p>To use this service:
  * <ol>
  *     <li>Ensure {@code local_infile} is enabled on the MySQL server</li>
  *     <li>Set {@code allowLoadLocalInfile=true} in the JDBC URL</li>
- *     <li>Provide an absolute path to a CSV file with the correct format</li>
+ *     <li>Provide an absolute path to a CSV file with the correct format, or the stream of one</li>
  * </ol>
  *
  * <p>Example CSV format:
@@ -44,38 +46,53 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class GameSalesCsvLoader {
 
-	private final JdbcTemplate jdbcTemplate;
+	private final GameSalesLoadData loadData;
 
 	private final GameSalesDbService gameSalesDbService;
 
-	public void loadCsv(String csvFilePath, String fileName) {
-		CsvImportInfo importInfo = CsvImportInfo.builder()
-				.fileName(fileName)
-				.startTime(LocalDateTime.now())
-				.createBy(APP_NAME)
-				.build();
-		gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PENDING.toString());
-		try {
-			gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PROCESSING.toString());
-			String sql = "LOAD DATA LOCAL INFILE ? " +
-					"INTO TABLE game_sales " +
-					"FIELDS TERMINATED BY ',' " +
-					"ENCLOSED BY '\"' " +
-					"LINES TERMINATED BY '\\n' " +
-					"IGNORE 1 LINES " +
-					"(id, game_no, game_name, game_code, type, cost_price, tax, sale_price, date_of_sale)";
+	private final ImportProperties importProperties;
 
-			jdbcTemplate.execute((Connection con) -> {
-				try (PreparedStatement ps = con.prepareStatement(sql)) {
-					ps.setString(1, csvFilePath);
-					int rowsInserted = ps.executeUpdate();
-					gameSalesDbService.updateSuccessInfoToDb(importInfo, rowsInserted, rowsInserted, 0);
-				}
-				return null;
-			});
-		} catch (Exception e) {
+	/**
+	 * @param csvFilePath absolute path of the csv file to load.
+	 * @param importInfo the csv_import_info row tracking this import, its final status is saved by this method.
+	 * @param progress the live counters of this import, cancelling it kills the running LOAD DATA statement.
+	 */
+	public void loadCsv(String csvFilePath, CsvImportInfo importInfo, ImportProgress progress) {
+		try (InputStream in = Files.newInputStream(Path.of(csvFilePath))) {
+			loadCsv(in, importInfo, progress);
+		} catch (IOException e) {
 			log.error("Error loading csv file :{}", e.getMessage(), e);
 			gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
 		}
 	}
+
+	/**
+	 * @param in the csv bytes, read up to the end.
+	 * @param importInfo the csv_import_info row tracking this import, its final status is saved by this method.
+	 * @param progress the live counters of this import, cancelling it kills the running LOAD DATA statement.
+	 */
+	public void loadCsv(InputStream in, CsvImportInfo importInfo, ImportProgress progress) {
+		SaleDayRangeInputStream days = new SaleDayRangeInputStream(progress.track(in));
+		GameSalesLoadData.Statements statements = loadData.statements(progress);
+		try {
+			loadData.requireUnpartitioned("A LOAD DATA import");
+			gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PROCESSING.toString());
+			int rowsInserted = statements.loadData(days,
+					GameSalesLoadData.loadCsvSql("game_sales", importProperties.getDuplicateMode()),
+					"import_" + importInfo.getId() + ".csv");
+			progress.addParsed(rowsInserted);
+			progress.addSuccessful(rowsInserted);
+			loadData.rebuildDailyRollup(days.getFirstDay(), days.getLastDay());
+			gameSalesDbService.reloadColumnarStore();
+			gameSalesDbService.updateSuccessInfoToDb(importInfo, rowsInserted, rowsInserted, 0);
+		} catch (Exception e) {
+			if (progress.isCancelled()) {
+				log.info("Import {} cancelled", importInfo.getId());
+				gameSalesDbService.updateCancelledInfoToDb(importInfo, 0, 0, 0);
+			} else {
+				log.error("Error loading csv file :{}", e.getMessage(), e);
+				gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
+			}
+		}
+	}
 }
@@ -0,0 +1,411 @@
+package com.game.utils;
+
+import static com.game.controller.constants.CommonConstants.DATE_FORMAT_YYYY_MM_DD_HH_MM_SS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import com.game.model.GameSalesCsvRow;
+import com.game.model.GameSalesDto;
+
+/**
+ * Csv parser specialised for the fixed 9 column game_sales layout:
+ * <pre>
+ * id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale
+ * </pre>
+ *
+ * <p>Rows are read into a reusable byte buffer and numbers, decimals and {@code yyyy-MM-dd HH:mm:ss}
+ * timestamps are decoded straight from the bytes, only the game name and code become Strings.
+ * Quoting follows RFC4180: fields may be enclosed in double quotes, which may contain commas,
+ * line breaks and doubled quotes, a quote inside an unquoted field is a literal. Rows end with LF or CRLF.
+ *
+ * <p>Values the fast decoders do not handle (e.g. exponent notation or an out of range date) fall back
+ * to the same JDK parsing as {@link CommonsGameSalesRowReader}, so both readers accept and reject
+ * exactly the same values with the same messages.
+ */
+public class GameSalesCsvParser implements GameSalesRowReader {
+
+	public static final String[] HEADER = {"id", "game_no", "game_name", "game_code", "type",
+			"cost_price", "tax", "sale_price", "date_of_sale"};
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT_YYYY_MM_DD_HH_MM_SS);
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private static final int COLUMNS = HEADER.length;
+
+	private static final int MAX_LONG_DIGITS = 18;
+
+	private final InputStream in;
+
+	private byte[] buffer;
+
+	private int position;
+
+	private int limit;
+
+	private boolean eof;
+
+	private long lineNumber;
+
+	// offset of buffer[0] within the whole file
+	private long bufferOffset;
+
+	// start and end offsets of each field of the current row, reused for every row
+	private final int[] fieldStart = new int[COLUMNS];
+
+	private final int[] fieldEnd = new int[COLUMNS];
+
+	private final boolean[] fieldEscaped = new boolean[COLUMNS];
+
+	private byte[] scratch = new byte[64];
+
+	// column being decoded, reported with the error when a value cannot be decoded
+	private int decodingColumn;
+
+	public GameSalesCsvParser(InputStream in) throws IOException {
+		this(in, DEFAULT_BUFFER_SIZE);
+	}
+
+	public GameSalesCsvParser(InputStream in, int bufferSize) throws IOException {
+		this(in, bufferSize, true, 1, 0);
+	}
+
+	/**
+	 * @param in the csv bytes, starting at a row boundary.
+	 * @param bufferSize initial size of the read buffer, it grows if a row does not fit.
+	 * @param hasHeader true if the input starts with the header row, which is then checked and skipped.
+	 * @param firstLineNumber line number of the first row of the input within the whole file.
+	 * @param firstOffset offset of the first byte of the input within the whole file.
+	 */
+	public GameSalesCsvParser(InputStream in, int bufferSize, boolean hasHeader, long firstLineNumber,
+			long firstOffset) throws IOException {
+		this.in = in;
+		this.buffer = new byte[bufferSize];
+		this.lineNumber = firstLineNumber;
+		this.bufferOffset = firstOffset;
+		if (hasHeader) {
+			readHeader();
+		}
+	}
+
+	@Override
+	public GameSalesCsvRow next() throws IOException {
+		int rowEnd = nextRowEnd();
+		if (rowEnd < 0) {
+			return null;
+		}
+		int rowStart = position;
+		long rowLine = lineNumber;
+		lineNumber += countLineBreaks(rowStart, rowEnd) + 1;
+		position = rowEnd < limit ? rowEnd + 1 : rowEnd;
+		long endOffset = bufferOffset + position;
+		if (rowEnd > rowStart && buffer[rowEnd - 1] == '\r') {
+			rowEnd--;
+		}
+		GameSalesCsvRow row;
+		try {
+			row = GameSalesCsvRow.parsed(rowLine, decodeRow(rowStart, rowEnd));
+		} catch (RuntimeException e) {
+			row = GameSalesCsvRow.failed(rowLine, decodingColumn >= 0 ? HEADER[decodingColumn] : null, e.getMessage());
+		}
+		row.setLastLineNumber(lineNumber - 1);
+		row.setEndOffset(endOffset);
+		return row;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private void readHeader() throws IOException {
+		int rowEnd = nextRowEnd();
+		if (rowEnd < 0) {
+			throw new IOException("Csv file is empty");
+		}
+		int rowStart = position;
+		lineNumber += countLineBreaks(rowStart, rowEnd) + 1;
+		position = rowEnd < limit ? rowEnd + 1 : rowEnd;
+		if (rowEnd > rowStart && buffer[rowEnd - 1] == '\r') {
+			rowEnd--;
+		}
+		if (rowEnd - rowStart >= 3 && (buffer[rowStart] & 0xFF) == 0xEF
+				&& (buffer[rowStart + 1] & 0xFF) == 0xBB && (buffer[rowStart + 2] & 0xFF) == 0xBF) {
+			rowStart += 3; // skip utf-8 byte order mark
+		}
+		int columns = splitFields(rowStart, rowEnd);
+		boolean matches = columns == COLUMNS;
+		for (int i = 0; matches && i < COLUMNS; i++) {
+			matches = HEADER[i].equals(decodeString(i));
+		}
+		if (!matches) {
+			throw new IOException("Unexpected csv header, expected: " + String.join(",", HEADER));
+		}
+	}
+
+	/**
+	 * Finds the end of the row starting at {@link #position}, refilling the buffer as needed.
+	 *
+	 * @return the offset of the terminating line feed, {@link #limit} for a last row without one,
+	 *         or -1 at the end of the input.
+	 */
+	private int nextRowEnd() throws IOException {
+		int scan = position;
+		int quoteState = CsvQuoteState.FIELD_START;
+		while (true) {
+			for (; scan < limit; scan++) {
+				byte b = buffer[scan];
+				if (CsvQuoteState.endsRow(quoteState, b)) {
+					return scan;
+				}
+				quoteState = CsvQuoteState.next(quoteState, b);
+			}
+			if (eof) {
+				return position < limit ? limit : -1;
+			}
+			scan -= position;
+			fill();
+		}
+	}
+
+	/**
+	 * Moves the unread bytes to the start of the buffer and reads more input after them,
+	 * growing the buffer when a single row does not fit.
+	 */
+	private void fill() throws IOException {
+		int remaining = limit - position;
+		if (remaining == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		} else if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, remaining);
+		}
+		bufferOffset += position;
+		position = 0;
+		limit = remaining;
+		int n = in.read(buffer, limit, buffer.length - limit);
+		if (n < 0) {
+			eof = true;
+		} else {
+			limit += n;
+		}
+	}
+
+	private int countLineBreaks(int from, int to) {
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			if (buffer[i] == '\n') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Splits the row into the first {@link #COLUMNS} fields, extra fields are ignored.
+	 *
+	 * @return the number of fields in the row.
+	 */
+	private int splitFields(int from, int to) {
+		int column = 0;
+		int i = from;
+		while (true) {
+			int start;
+			int end;
+			boolean escaped = false;
+			if (i < to && buffer[i] == '"') {
+				start = ++i;
+				while (true) {
+					if (i >= to) {
+						throw new IllegalArgumentException("Unterminated quoted field");
+					}
+					if (buffer[i] == '"') {
+						if (i + 1 < to && buffer[i + 1] == '"') {
+							escaped = true;
+							i += 2;
+							continue;
+						}
+						break;
+					}
+					i++;
+				}
+				end = i++;
+				if (i < to && buffer[i] != ',') {
+					throw new IllegalArgumentException("Invalid character after quoted field");
+				}
+			} else {
+				start = i;
+				while (i < to && buffer[i] != ',') {
+					i++;
+				}
+				end = i;
+			}
+			if (column < COLUMNS) {
+				fieldStart[column] = start;
+				fieldEnd[column] = end;
+				fieldEscaped[column] = escaped;
+			}
+			column++;
+			if (i >= to) {
+				return column;
+			}
+			i++; // skip the comma
+		}
+	}
+
+	private GameSalesDto decodeRow(int from, int to) {
+		decodingColumn = -1;
+		int columns = splitFields(from, to);
+		if (columns < COLUMNS) {
+			throw new IllegalArgumentException("Row has " + columns + " column(s), expected " + COLUMNS);
+		}
+		return GameSalesDto.builder()
+				.id(decodeLong(0))
+				.gameNo(decodeInt(1))
+				.gameName(decodeString(2))
+				.gameCode(decodeString(3))
+				.type(decodeInt(4))
+				.costPrice(decodeDecimal(5))
+				.tax(decodeDecimal(6))
+				.salePrice(decodeDecimal(7))
+				.dateOfSale(decodeDateTime(8))
+				.build();
+	}
+
+	private String decodeString(int column) {
+		decodingColumn = column;
+		int start = fieldStart[column];
+		int end = fieldEnd[column];
+		if (!fieldEscaped[column]) {
+			return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+		}
+		if (scratch.length < end - start) {
+			scratch = new byte[end - start];
+		}
+		int length = 0;
+		for (int i = start; i < end; i++) {
+			scratch[length++] = buffer[i];
+			if (buffer[i] == '"') {
+				i++; // skip the second quote of an escaped pair
+			}
+		}
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	private long decodeLong(int column) {
+		decodingColumn = column;
+		long value = parseDigits(fieldStart[column], fieldEnd[column]);
+		return value != Long.MIN_VALUE ? value : Long.parseLong(decodeString(column));
+	}
+
+	private int decodeInt(int column) {
+		decodingColumn = column;
+		long value = parseDigits(fieldStart[column], fieldEnd[column]);
+		return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE && value != Long.MIN_VALUE
+				? (int) value : Integer.parseInt(decodeString(column));
+	}
+
+	/**
+	 * @return the signed integer in the range, or {@link Long#MIN_VALUE} if it is not a plain number of at most 18 digits.
+	 */
+	private long parseDigits(int from, int to) {
+		boolean negative = false;
+		if (from < to && (buffer[from] == '-' || buffer[from] == '+')) {
+			negative = buffer[from] == '-';
+			from++;
+		}
+		if (from >= to || to - from > MAX_LONG_DIGITS) {
+			return Long.MIN_VALUE;
+		}
+		long value = 0;
+		for (int i = from; i < to; i++) {
+			int digit = buffer[i] - '0';
+			if (digit < 0 || digit > 9) {
+				return Long.MIN_VALUE;
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Decodes a plain decimal such as {@code 12.30} into an unscaled long and its scale,
+	 * which gives the same value and scale as {@code new BigDecimal("12.30")}.
+	 */
+	private BigDecimal decodeDecimal(int column) {
+		decodingColumn = column;
+		int from = fieldStart[column];
+		int to = fieldEnd[column];
+		boolean negative = false;
+		if (from < to && (buffer[from] == '-' || buffer[from] == '+')) {
+			negative = buffer[from] == '-';
+			from++;
+		}
+		long unscaled = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean fraction = false;
+		boolean plain = from < to;
+		for (int i = from; plain && i < to; i++) {
+			byte b = buffer[i];
+			if (b == '.' && !fraction) {
+				fraction = true;
+			} else if (b >= '0' && b <= '9' && digits < MAX_LONG_DIGITS) {
+				unscaled = unscaled * 10 + (b - '0');
+				digits++;
+				if (fraction) {
+					scale++;
+				}
+			} else {
+				plain = false;
+			}
+		}
+		if (!plain || digits == 0) {
+			return new BigDecimal(decodeString(column));
+		}
+		return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+	}
+
+	private LocalDateTime decodeDateTime(int column) {
+		decodingColumn = column;
+		int p = fieldStart[column];
+		if (fieldEnd[column] - p == 19 && buffer[p + 4] == '-' && buffer[p + 7] == '-' && buffer[p + 10] == ' '
+				&& buffer[p + 13] == ':' && buffer[p + 16] == ':') {
+			int year = digits(p, 4);
+			int month = digits(p + 5, 2);
+			int day = digits(p + 8, 2);
+			int hour = digits(p + 11, 2);
+			int minute = digits(p + 14, 2);
+			int second = digits(p + 17, 2);
+			if (year > 0 && (month | day | hour | minute | second) >= 0) {
+				try {
+					return LocalDateTime.of(year, month, day, hour, minute, second);
+				} catch (DateTimeException e) {
+					// fall through, the formatter resolves or reports it the same way as the commons reader
+				}
+			}
+		}
+		return LocalDateTime.parse(decodeString(column), FORMATTER);
+	}
+
+	/**
+	 * @return the value of a fixed width run of ascii digits, or -1 if any byte is not a digit.
+	 */
+	private int digits(int from, int width) {
+		int value = 0;
+		for (int i = from; i < from + width; i++) {
+			int digit = buffer[i] - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+}
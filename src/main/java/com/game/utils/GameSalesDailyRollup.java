@@ -0,0 +1,273 @@
+package com.game.utils;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.game.entity.GameSales;
+import com.game.enums.DuplicateMode;
+import com.game.model.RollupMismatchDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains {@code game_sales_daily_rollup}, the count and sum of sale_price of game_sales per day and game.
+ *
+ * <p>Batch imports add the partial sums of each batch in the transaction that inserts it, so the rollup
+ * commits or rolls back together with the rows. Imports that cannot see their rows, LOAD DATA for instance,
+ * rebuild the days they touched instead. {@link #check(LocalDate, LocalDate)} compares the rollup with the
+ * raw rows for a range and {@link #rebuild(LocalDate, LocalDate)} recomputes it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameSalesDailyRollup {
+
+	private static final int REBUILD_WINDOW_DAYS = 31;
+
+	private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+	private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private record Key(LocalDate saleDate, int gameNo) implements Comparable<Key> {
+		@Override
+		public int compareTo(Key other) {
+			int result = saleDate.compareTo(other.saleDate);
+			return result != 0 ? result : Integer.compare(gameNo, other.gameNo);
+		}
+	}
+
+	private static class Totals {
+		private long count;
+		private long salesCents;
+
+		private void add(long count, long salesCents) {
+			this.count += count;
+			this.salesCents += salesCents;
+		}
+
+		private boolean matches(Totals other) {
+			return other != null && count == other.count && salesCents == other.salesCents;
+		}
+	}
+
+	/**
+	 * Locks and returns the stored rows having the ids of the batch, needed to work out the rollup change
+	 * when existing rows are skipped or overwritten. Must run in the transaction writing the batch.
+	 */
+	public List<GameSales> lockExisting(List<GameSales> gameSalesList) {
+		if (gameSalesList.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String sql = "SELECT id, game_no, sale_price, date_of_sale FROM game_sales WHERE id IN ("
+				+ String.join(",", Collections.nCopies(gameSalesList.size(), "?")) + ") FOR UPDATE";
+		return jdbcTemplate.query(sql, (rs, i) -> {
+			GameSales row = new GameSales();
+			row.setId(rs.getLong("id"));
+			row.setGameNo(rs.getInt("game_no"));
+			row.setSalePrice(Money.toCents(rs.getBigDecimal("sale_price")));
+			row.setDateOfSale(rs.getTimestamp("date_of_sale").toLocalDateTime());
+			return row;
+		}, gameSalesList.stream().map(GameSales::getId).toArray());
+	}
+
+	/**
+	 * Adds the partial sums of a batch just written. Must run in the transaction writing the batch.
+	 *
+	 * @param gameSalesList the rows of the batch.
+	 * @param existingRows the rows stored before the write, from {@link #lockExisting(List)}, empty in FAIL mode.
+	 * @param duplicateMode how the write treated rows whose id already existed.
+	 */
+	public void addBatch(List<GameSales> gameSalesList, List<GameSales> existingRows, DuplicateMode duplicateMode) {
+		Map<Key, Totals> deltas = new TreeMap<>();
+		if (duplicateMode == DuplicateMode.FAIL) {
+			gameSalesList.forEach(row -> add(deltas, row, 1));
+		} else {
+			// the db keeps the first row of a repeated id when ignoring and the last one when upserting
+			Map<Long, GameSales> written = new LinkedHashMap<>();
+			for (GameSales row : gameSalesList) {
+				if (duplicateMode == DuplicateMode.UPSERT) {
+					written.put(row.getId(), row);
+				} else {
+					written.putIfAbsent(row.getId(), row);
+				}
+			}
+			Set<Long> existingIds = new HashSet<>();
+			for (GameSales row : existingRows) {
+				existingIds.add(row.getId());
+				if (duplicateMode == DuplicateMode.UPSERT) {
+					add(deltas, row, -1);
+				}
+			}
+			for (GameSales row : written.values()) {
+				if (duplicateMode == DuplicateMode.UPSERT || !existingIds.contains(row.getId())) {
+					add(deltas, row, 1);
+				}
+			}
+		}
+		deltas.values().removeIf(totals -> totals.count == 0 && totals.salesCents == 0);
+		if (!deltas.isEmpty()) {
+			applyDeltas(deltas);
+		}
+	}
+
+	/**
+	 * Recomputes the rollup of a range of days from game_sales, one transaction per month sized window.
+	 *
+	 * @param fromDate first day to rebuild, null for the first day in game_sales.
+	 * @param toDate last day to rebuild, null for the last day in game_sales.
+	 * @return the number of rollup rows written.
+	 */
+	public int rebuild(LocalDate fromDate, LocalDate toDate) {
+		if (fromDate == null || toDate == null) {
+			LocalDate[] range = jdbcTemplate.queryForObject(
+					"SELECT DATE(MIN(date_of_sale)), DATE(MAX(date_of_sale)) FROM game_sales",
+					(rs, i) -> new LocalDate[] { toLocalDate(rs.getDate(1)), toLocalDate(rs.getDate(2)) });
+			if (range[0] == null) {
+				int deleted = deleteRange(fromDate != null ? fromDate : MIN_DATE, toDate != null ? toDate : MAX_DATE);
+				log.info("game_sales is empty, removed {} rollup row(s)", deleted);
+				return 0;
+			}
+			if (fromDate == null) {
+				deleteRange(MIN_DATE, range[0].minusDays(1));
+				fromDate = range[0];
+			}
+			if (toDate == null) {
+				deleteRange(range[1].plusDays(1), MAX_DATE);
+				toDate = range[1];
+			}
+		}
+		int rows = 0;
+		for (LocalDate start = fromDate; !start.isAfter(toDate); start = start.plusDays(REBUILD_WINDOW_DAYS)) {
+			LocalDate windowStart = start;
+			LocalDate windowEnd = start.plusDays(REBUILD_WINDOW_DAYS - 1).isBefore(toDate)
+					? start.plusDays(REBUILD_WINDOW_DAYS - 1) : toDate;
+			rows += transactionTemplate.execute(status -> rebuildWindow(windowStart, windowEnd));
+		}
+		log.info("Rebuilt {} rollup row(s) from {} to {}", rows, fromDate, toDate);
+		return rows;
+	}
+
+	/**
+	 * Compares the rollup with the totals of the game_sales rows.
+	 *
+	 * @param fromDate first day to check, null for no lower bound.
+	 * @param toDate last day to check, null for no upper bound.
+	 * @return the days and games whose totals differ, empty if the rollup is consistent.
+	 */
+	public List<RollupMismatchDto> check(LocalDate fromDate, LocalDate toDate) {
+		LocalDate from = fromDate != null ? fromDate : MIN_DATE;
+		LocalDate to = toDate != null ? toDate : MAX_DATE;
+		Map<Key, Totals> rollup = new TreeMap<>();
+		jdbcTemplate.query("SELECT sale_date, game_no, total_count, total_sales FROM game_sales_daily_rollup "
+				+ "WHERE sale_date BETWEEN ? AND ?",
+				(ResultSet rs) -> {
+					collect(rollup, rs);
+				}, from, to);
+		Map<Key, Totals> actual = new TreeMap<>();
+		jdbcTemplate.query("SELECT DATE(date_of_sale), game_no, COUNT(*), SUM(sale_price) FROM game_sales "
+				+ "WHERE date_of_sale >= ? AND date_of_sale < ? GROUP BY DATE(date_of_sale), game_no",
+				(ResultSet rs) -> {
+					collect(actual, rs);
+				}, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+		Set<Key> keys = new HashSet<>(rollup.keySet());
+		keys.addAll(actual.keySet());
+		List<RollupMismatchDto> mismatches = new ArrayList<>();
+		keys.stream().sorted().forEach(key -> {
+			Totals stored = rollup.getOrDefault(key, new Totals());
+			Totals expected = actual.getOrDefault(key, new Totals());
+			if (!stored.matches(expected)) {
+				mismatches.add(RollupMismatchDto.builder()
+						.saleDate(key.saleDate())
+						.gameNo(key.gameNo())
+						.rollupCount(stored.count)
+						.rollupSales(Money.toBigDecimal(stored.salesCents))
+						.actualCount(expected.count)
+						.actualSales(Money.toBigDecimal(expected.salesCents))
+						.build());
+			}
+		});
+		log.info("Rollup check from {} to {} found {} mismatch(es)", from, to, mismatches.size());
+		return mismatches;
+	}
+
+	/**
+	 * Removes the rollup of the days before {@code day}, once their sales were purged.
+	 *
+	 * @return the number of rollup rows removed.
+	 */
+	public int deleteBefore(LocalDate day) {
+		return deleteRange(MIN_DATE, day.minusDays(1));
+	}
+
+	private int rebuildWindow(LocalDate fromDate, LocalDate toDate) {
+		deleteRange(fromDate, toDate);
+		return jdbcTemplate.update("INSERT INTO game_sales_daily_rollup (sale_date, game_no, total_count, total_sales) "
+				+ "SELECT DATE(date_of_sale), game_no, COUNT(*), SUM(sale_price) FROM game_sales "
+				+ "WHERE date_of_sale >= ? AND date_of_sale < ? GROUP BY DATE(date_of_sale), game_no",
+				fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
+	}
+
+	private int deleteRange(LocalDate fromDate, LocalDate toDate) {
+		return jdbcTemplate.update("DELETE FROM game_sales_daily_rollup WHERE sale_date BETWEEN ? AND ?", fromDate, toDate);
+	}
+
+	/**
+	 * Upserts the deltas in key order, so concurrent batches lock rollup rows in the same order and cannot deadlock.
+	 */
+	private void applyDeltas(Map<Key, Totals> deltas) {
+		String sql = "INSERT INTO game_sales_daily_rollup (sale_date, game_no, total_count, total_sales) "
+				+ "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE total_count = total_count + VALUES(total_count), "
+				+ "total_sales = total_sales + VALUES(total_sales)";
+		List<Map.Entry<Key, Totals>> entries = new ArrayList<>(deltas.entrySet());
+		jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				Map.Entry<Key, Totals> entry = entries.get(i);
+				ps.setDate(1, Date.valueOf(entry.getKey().saleDate()));
+				ps.setInt(2, entry.getKey().gameNo());
+				ps.setLong(3, entry.getValue().count);
+				ps.setBigDecimal(4, Money.toBigDecimal(entry.getValue().salesCents));
+			}
+			@Override
+			public int getBatchSize() {
+				return entries.size();
+			}
+		});
+	}
+
+	private static void add(Map<Key, Totals> totals, GameSales row, int sign) {
+		totals.computeIfAbsent(new Key(row.getDateOfSale().toLocalDate(), row.getGameNo()), key -> new Totals())
+				.add(sign, sign * row.getSalePrice());
+	}
+
+	private static void collect(Map<Key, Totals> totals, ResultSet rs) throws SQLException {
+		totals.computeIfAbsent(new Key(rs.getDate(1).toLocalDate(), rs.getInt(2)), key -> new Totals())
+				.add(rs.getLong(3), Money.toCents(rs.getBigDecimal(4)));
+	}
+
+	private static LocalDate toLocalDate(Date date) {
+		return date != null ? date.toLocalDate() : null;
+	}
+}
@@ -0,0 +1,122 @@
+package com.game.utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.game.model.GameSalesDto;
+
+/**
+ * Hand-compiled form of the bean validation constraints declared on {@link GameSalesDto}.
+ *
+ * <p>The import validates every csv row, and going through {@code jakarta.validation.Validator}
+ * means reflection plus a constraint violation set per row. {@link #isValid(GameSalesDto)} checks the
+ * same rules with plain comparisons and allocates nothing, {@link #validate(GameSalesDto)} is only
+ * needed to report the messages of an invalid row.
+ *
+ * <p>The limits and messages are the constants the annotations are declared with. A new constraint must be
+ * mirrored here and in {@link GameSalesStagingRules}, {@code GameSalesDtoValidationTest} checks the annotations
+ * and this class give identical results and {@code GameSalesStagingRulesTest} the sql rules and this class.
+ */
+public final class GameSalesDtoValidator {
+
+	/** Highest game_no of a valid row. */
+	public static final int MAX_GAME_NO = GameSalesDto.MAX_GAME_NO;
+
+	private static final BigDecimal MAX_COST_PRICE_VALUE = new BigDecimal(GameSalesDto.MAX_COST_PRICE);
+
+	private static final BigDecimal TAX_VALUE = new BigDecimal(GameSalesDto.TAX);
+
+	/**
+	 * A violated constraint.
+	 *
+	 * @param column the csv column of the offending field.
+	 * @param message the message declared on the constraint annotation.
+	 */
+	public record Violation(String column, String message) {
+	}
+
+	private GameSalesDtoValidator() {
+	}
+
+	/**
+	 * @return true if the dto satisfies every constraint of {@link GameSalesDto}.
+	 */
+	public static boolean isValid(GameSalesDto dto) {
+		return dto.getId() >= 1
+				&& dto.getGameNo() >= 1 && dto.getGameNo() <= MAX_GAME_NO
+				&& !isBlank(dto.getGameName()) && dto.getGameName().length() <= GameSalesDto.MAX_GAME_NAME_LENGTH
+				&& !isBlank(dto.getGameCode()) && dto.getGameCode().length() <= GameSalesDto.MAX_GAME_CODE_LENGTH
+				&& dto.getType() >= 1 && dto.getType() <= 2
+				&& (dto.getCostPrice() == null || dto.getCostPrice().signum() >= 0 && dto.getCostPrice().compareTo(MAX_COST_PRICE_VALUE) <= 0)
+				&& (dto.getTax() == null || dto.getTax().compareTo(TAX_VALUE) == 0)
+				&& (dto.getSalePrice() == null || dto.getSalePrice().signum() >= 0)
+				&& dto.getDateOfSale() != null;
+	}
+
+	/**
+	 * @return every violated constraint, empty if the dto is valid.
+	 */
+	public static List<Violation> validate(GameSalesDto dto) {
+		if (isValid(dto)) {
+			return Collections.emptyList();
+		}
+		List<Violation> violations = new ArrayList<>();
+		if (dto.getId() < 1) {
+			violations.add(new Violation("id", GameSalesDto.ID_MESSAGE));
+		}
+		if (dto.getGameNo() < 1) {
+			violations.add(new Violation("game_no", GameSalesDto.MIN_GAME_NO_MESSAGE));
+		}
+		if (dto.getGameNo() > MAX_GAME_NO) {
+			violations.add(new Violation("game_no", GameSalesDto.MAX_GAME_NO_MESSAGE));
+		}
+		if (isBlank(dto.getGameName())) {
+			violations.add(new Violation("game_name", GameSalesDto.BLANK_GAME_NAME_MESSAGE));
+		}
+		if (dto.getGameName() != null && dto.getGameName().length() > GameSalesDto.MAX_GAME_NAME_LENGTH) {
+			violations.add(new Violation("game_name", GameSalesDto.GAME_NAME_LENGTH_MESSAGE));
+		}
+		if (isBlank(dto.getGameCode())) {
+			violations.add(new Violation("game_code", GameSalesDto.BLANK_GAME_CODE_MESSAGE));
+		}
+		if (dto.getGameCode() != null && dto.getGameCode().length() > GameSalesDto.MAX_GAME_CODE_LENGTH) {
+			violations.add(new Violation("game_code", GameSalesDto.GAME_CODE_LENGTH_MESSAGE));
+		}
+		if (dto.getType() < 1 || dto.getType() > 2) {
+			violations.add(new Violation("type", GameSalesDto.TYPE_MESSAGE));
+		}
+		if (dto.getCostPrice() != null && dto.getCostPrice().compareTo(MAX_COST_PRICE_VALUE) > 0) {
+			violations.add(new Violation("cost_price", GameSalesDto.MAX_COST_PRICE_MESSAGE));
+		}
+		if (dto.getCostPrice() != null && dto.getCostPrice().signum() < 0) {
+			violations.add(new Violation("cost_price", GameSalesDto.MIN_COST_PRICE_MESSAGE));
+		}
+		if (dto.getTax() != null && dto.getTax().compareTo(TAX_VALUE) != 0) {
+			violations.add(new Violation("tax", GameSalesDto.TAX_MESSAGE));
+		}
+		if (dto.getSalePrice() != null && dto.getSalePrice().signum() < 0) {
+			violations.add(new Violation("sale_price", GameSalesDto.SALE_PRICE_MESSAGE));
+		}
+		if (dto.getDateOfSale() == null) {
+			violations.add(new Violation("date_of_sale", GameSalesDto.DATE_OF_SALE_MESSAGE));
+		}
+		return violations;
+	}
+
+	/**
+	 * Same rule as {@code @NotBlank}: null, or nothing left after {@link String#trim()}.
+	 */
+	private static boolean isBlank(String value) {
+		if (value == null) {
+			return true;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+}
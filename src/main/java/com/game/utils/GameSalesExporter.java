@@ -0,0 +1,191 @@
+package com.game.utils;
+
+import static com.game.controller.constants.CommonConstants.DATE_FORMAT_YYYY_MM_DD_HH_MM_SS;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.config.ExportProperties;
+import com.game.enums.ExportFormat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams the game_sales rows matching the {@link GameSalesSpecification} filters as csv or ndjson.
+ *
+ * <p>The rows are read through a forward only result set that Connector/J streams row by row, and written
+ * straight to the output without entities, so memory stays constant whatever the size of the export.
+ * The export holds its db connection until the last row is written.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameSalesExporter {
+
+	private static final String SELECT_SQL = "SELECT id, game_no, game_name, game_code, type, cost_price, tax, "
+			+ "sale_price, date_of_sale FROM game_sales";
+
+	private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+			.setHeader(GameSalesCsvParser.HEADER)
+			.setRecordSeparator('\n')
+			.get();
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT_YYYY_MM_DD_HH_MM_SS);
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper objectMapper;
+
+	private final ExportProperties exportProperties;
+
+	private interface RowWriter {
+		void writeRow(ResultSet rs) throws SQLException, IOException;
+
+		void flush() throws IOException;
+	}
+
+	/**
+	 * Writes the matching rows ordered by (date_of_sale, id) when a date range is given, following the date
+	 * index, and by id otherwise. The output stream is flushed but not closed.
+	 *
+	 * @return the number of rows written.
+	 * @throws IOException if writing to the output failed, the query is then cancelled.
+	 */
+	public long export(LocalDateTime fromDate, LocalDateTime toDate, BigDecimal minPrice, BigDecimal maxPrice,
+			ExportFormat format, OutputStream out) throws IOException {
+		List<Object> params = new ArrayList<>();
+		StringBuilder sql = new StringBuilder(SELECT_SQL);
+		List<String> conditions = new ArrayList<>();
+		boolean orderByDate = fromDate != null && toDate != null;
+		if (orderByDate) {
+			conditions.add("date_of_sale BETWEEN ? AND ?");
+			params.add(fromDate);
+			params.add(toDate);
+		}
+		if (minPrice != null) {
+			conditions.add("sale_price >= ?");
+			params.add(minPrice);
+		}
+		if (maxPrice != null) {
+			conditions.add("sale_price <= ?");
+			params.add(maxPrice);
+		}
+		if (!conditions.isEmpty()) {
+			sql.append(" WHERE ").append(String.join(" AND ", conditions));
+		}
+		sql.append(orderByDate ? " ORDER BY date_of_sale, id" : " ORDER BY id");
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), exportProperties.getBufferSize());
+		RowWriter rowWriter = format == ExportFormat.CSV ? csvWriter(writer) : jsonWriter(writer);
+		long start = System.currentTimeMillis();
+		try {
+			long rows = jdbcTemplate.execute((ConnectionCallback<Long>) con -> stream(con, sql.toString(), params, rowWriter));
+			rowWriter.flush();
+			log.info("Exported {} row(s) as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+			return rows;
+		} catch (UncheckedIOException e) {
+			log.warn("Export as {} aborted after {} ms: {}", format, System.currentTimeMillis() - start, e.getMessage());
+			throw e.getCause();
+		}
+	}
+
+	private long stream(Connection con, String sql, List<Object> params, RowWriter rowWriter) throws SQLException {
+		try (PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			// tells Connector/J to stream the rows instead of reading the whole result into memory
+			ps.setFetchSize(Integer.MIN_VALUE);
+			for (int i = 0; i < params.size(); i++) {
+				ps.setObject(i + 1, params.get(i));
+			}
+			long rows = 0;
+			ResultSet rs = ps.executeQuery();
+			try {
+				while (rs.next()) {
+					rowWriter.writeRow(rs);
+					rows++;
+				}
+			} catch (IOException e) {
+				// closing a streamed result set reads all the rows left, kill the query first when the client is gone
+				ps.cancel();
+				throw new UncheckedIOException(e);
+			} finally {
+				rs.close();
+			}
+			return rows;
+		}
+	}
+
+	private RowWriter csvWriter(Writer writer) throws IOException {
+		CSVPrinter printer = new CSVPrinter(writer, CSV_FORMAT);
+		return new RowWriter() {
+			@Override
+			public void writeRow(ResultSet rs) throws SQLException, IOException {
+				printer.print(rs.getLong(1));
+				printer.print(rs.getInt(2));
+				printer.print(rs.getString(3));
+				printer.print(rs.getString(4));
+				printer.print(rs.getInt(5));
+				printer.print(rs.getBigDecimal(6).toPlainString());
+				printer.print(rs.getBigDecimal(7).toPlainString());
+				printer.print(rs.getBigDecimal(8).toPlainString());
+				printer.print(rs.getObject(9, LocalDateTime.class).format(FORMATTER));
+				printer.println();
+			}
+
+			@Override
+			public void flush() throws IOException {
+				printer.flush();
+			}
+		};
+	}
+
+	private RowWriter jsonWriter(Writer writer) throws IOException {
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.setRootValueSeparator(null);
+		return new RowWriter() {
+			@Override
+			public void writeRow(ResultSet rs) throws SQLException, IOException {
+				generator.writeStartObject();
+				generator.writeNumberField("id", rs.getLong(1));
+				generator.writeNumberField("gameNo", rs.getInt(2));
+				generator.writeStringField("gameName", rs.getString(3));
+				generator.writeStringField("gameCode", rs.getString(4));
+				generator.writeNumberField("type", rs.getInt(5));
+				generator.writeNumberField("costPrice", rs.getBigDecimal(6));
+				generator.writeNumberField("tax", rs.getBigDecimal(7));
+				generator.writeNumberField("salePrice", rs.getBigDecimal(8));
+				generator.writeStringField("dateOfSale", rs.getObject(9, LocalDateTime.class).format(FORMATTER));
+				generator.writeEndObject();
+				generator.writeRaw('\n');
+			}
+
+			@Override
+			public void flush() throws IOException {
+				generator.flush();
+			}
+		};
+	}
+}
@@ -0,0 +1,72 @@
+package com.game.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes the rows as a jdbc batch of INSERT statements, which {@code rewriteBatchedStatements=true} in the jdbc url
+ * turns into multi-row INSERTs of up to {@code max_allowed_packet} bytes.
+ */
+@Service
+@RequiredArgsConstructor
+public class GameSalesInsertWriter implements BulkWriter {
+
+	// the prices are bound as exact decimals, dividing bound cents by 100 truncates on databases dividing integers
+	private static final String INSERT_SQL = "INSERT INTO game_sales (id, game_no, game_name, game_code, type, "
+			+ "cost_price, tax, sale_price, date_of_sale) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	// a no-op update instead of INSERT IGNORE, which would also silently truncate invalid values
+	private static final String IGNORE_DUPLICATES_SQL = INSERT_SQL + " ON DUPLICATE KEY UPDATE id = id";
+
+	private static final String UPSERT_SQL = INSERT_SQL + " ON DUPLICATE KEY UPDATE game_no = VALUES(game_no), "
+			+ "game_name = VALUES(game_name), game_code = VALUES(game_code), type = VALUES(type), "
+			+ "cost_price = VALUES(cost_price), tax = VALUES(tax), sale_price = VALUES(sale_price), "
+			+ "date_of_sale = VALUES(date_of_sale)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public BulkWriteEngine getEngine() {
+		return BulkWriteEngine.BATCH_INSERT;
+	}
+
+	@Override
+	public void write(List<GameSales> gameSalesList, DuplicateMode duplicateMode) {
+		String sql = switch (duplicateMode) {
+			case FAIL -> INSERT_SQL;
+			case IGNORE -> IGNORE_DUPLICATES_SQL;
+			case UPSERT -> UPSERT_SQL;
+		};
+		jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				GameSales game = gameSalesList.get(i);
+				ps.setLong(1, game.getId());
+				ps.setInt(2, game.getGameNo());
+				ps.setString(3, game.getGameName());
+				ps.setString(4, game.getGameCode());
+				ps.setInt(5, game.getType());
+				ps.setBigDecimal(6, Money.toBigDecimal(game.getCostPrice()));
+				ps.setBigDecimal(7, Money.toBigDecimal(game.getTax()));
+				ps.setBigDecimal(8, Money.toBigDecimal(game.getSalePrice()));
+				ps.setTimestamp(9, Timestamp.valueOf(game.getDateOfSale()));
+			}
+			@Override
+			public int getBatchSize() {
+				return gameSalesList.size();
+			}
+		});
+	}
+}
@@ -0,0 +1,66 @@
+package com.game.utils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.game.repository.GameSalesRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes the rows with {@code saveAll} of the JPA repository, one statement per row. The slowest engine, kept as
+ * the reference the others are measured against and for the synchronous import.
+ *
+ * <p>The existing rows are loaded with one query first. The new rows are then persisted, see
+ * {@link GameSales#isNew()}, and the stored ones merged into the loaded rows, so {@code saveAll} selects no row.
+ */
+@Service
+@RequiredArgsConstructor
+public class GameSalesJpaWriter implements BulkWriter {
+
+	private final GameSalesRepository gameSalesRepository;
+
+	@Override
+	public BulkWriteEngine getEngine() {
+		return BulkWriteEngine.JPA;
+	}
+
+	@Override
+	public void write(List<GameSales> gameSalesList, DuplicateMode duplicateMode) {
+		Set<Long> existingIds = gameSalesRepository.findAllById(gameSalesList.stream().map(GameSales::getId).toList())
+				.stream()
+				.map(GameSales::getId)
+				.collect(Collectors.toSet());
+		if (duplicateMode == DuplicateMode.UPSERT) {
+			// the last row of a repeated id wins, as with ON DUPLICATE KEY UPDATE
+			Map<Long, GameSales> rows = new LinkedHashMap<>();
+			for (GameSales row : gameSalesList) {
+				row.setStored(existingIds.contains(row.getId()));
+				rows.put(row.getId(), row);
+			}
+			gameSalesRepository.saveAllAndFlush(rows.values());
+			return;
+		}
+		// a merge would overwrite the row, so duplicates are checked here with the message mysql gives
+		Map<Long, GameSales> newRows = new LinkedHashMap<>();
+		for (GameSales row : gameSalesList) {
+			boolean duplicate = existingIds.contains(row.getId()) || newRows.containsKey(row.getId());
+			if (!duplicate) {
+				newRows.put(row.getId(), row);
+			} else if (duplicateMode == DuplicateMode.FAIL) {
+				throw new DataIntegrityViolationException(
+						"Duplicate entry '" + row.getId() + "' for key 'game_sales.PRIMARY'");
+			}
+		}
+		gameSalesRepository.saveAllAndFlush(newRows.values());
+	}
+}
@@ -0,0 +1,163 @@
+package com.game.utils;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.game.enums.DuplicateMode;
+import com.game.service.GameSalesDbService;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The statements shared by the imports loading a whole csv with {@code LOAD DATA LOCAL INFILE}:
+ * {@link GameSalesCsvLoader}, {@link GameSalesStagingLoader} and {@link GameSalesShadowLoader}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameSalesLoadData {
+
+	private static final String COLUMNS = "id, game_no, game_name, game_code, type, cost_price, tax, sale_price";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final GameSalesDbService gameSalesDbService;
+
+	private final GameSalesPartitions partitions;
+
+	/**
+	 * Runs the statements of one import one at a time, cancelling the import kills the running one.
+	 */
+	public final class Statements {
+
+		private final ImportProgress progress;
+
+		private final AtomicReference<PreparedStatement> running = new AtomicReference<>();
+
+		private Statements(ImportProgress progress) {
+			this.progress = progress;
+			progress.onCancel(() -> cancel(running.get()));
+		}
+
+		/**
+		 * @return the number of rows changed.
+		 * @throws CancellationException if the import is cancelled before the statement starts.
+		 */
+		public int execute(String sql, Object... args) {
+			return loadData(null, sql, args);
+		}
+
+		/**
+		 * @param in the stream the driver sends to a {@code LOAD DATA LOCAL INFILE} statement instead of opening the
+		 *        named file, null for other statements.
+		 * @return the number of rows loaded.
+		 * @throws CancellationException if the import is cancelled before the statement starts.
+		 */
+		public int loadData(InputStream in, String sql, Object... args) {
+			return jdbcTemplate.execute((Connection con) -> {
+				if (progress.isCancelled()) {
+					throw new CancellationException("Import cancelled");
+				}
+				try (PreparedStatement ps = con.prepareStatement(sql)) {
+					if (in != null) {
+						ps.unwrap(JdbcStatement.class).setLocalInfileInputStream(in);
+					}
+					for (int i = 0; i < args.length; i++) {
+						ps.setObject(i + 1, args[i]);
+					}
+					running.set(ps);
+					return ps.executeUpdate();
+				} finally {
+					running.set(null);
+				}
+			});
+		}
+	}
+
+	/**
+	 * @param progress the live counters of the import, its cancel hook is registered here.
+	 */
+	public Statements statements(ImportProgress progress) {
+		return new Statements(progress);
+	}
+
+	/**
+	 * The {@code LOAD DATA LOCAL INFILE} of an import csv, its file name as parameter, into game_sales or a table
+	 * like it. The values are stored as the columns convert them, without validation. With LOCAL, rows whose primary
+	 * key already exists are skipped unless REPLACE is given, so UPSERT replaces them. The primary key is the id only
+	 * on an unpartitioned game_sales, see {@link #requireUnpartitioned(String)}.
+	 */
+	public static String loadCsvSql(String table, DuplicateMode duplicateMode) {
+		return "LOAD DATA LOCAL INFILE ? " + (duplicateMode == DuplicateMode.UPSERT ? "REPLACE " : "")
+				+ "INTO TABLE " + table + " "
+				+ "CHARACTER SET utf8mb4 "
+				+ "FIELDS TERMINATED BY ',' ENCLOSED BY '\"' "
+				+ "LINES TERMINATED BY '\\n' "
+				+ "IGNORE 1 LINES "
+				// a csv written on windows ends its lines with \r\n
+				+ "(" + COLUMNS + ", @date_of_sale) "
+				+ "SET date_of_sale = TRIM(TRAILING '\\r' FROM @date_of_sale)";
+	}
+
+	/**
+	 * LOAD DATA only skips or replaces a row stored with the same id and date of sale, on a partitioned game_sales it
+	 * would store an id a second time under another date.
+	 *
+	 * @param method the import refused, for the message.
+	 * @throws IllegalStateException if game_sales is partitioned.
+	 */
+	public void requireUnpartitioned(String method) {
+		if (partitions.isPartitioned()) {
+			throw new IllegalStateException(method + " cannot keep the ids of a partitioned game_sales unique, "
+					+ "import the file with the staging or batch import");
+		}
+	}
+
+	/**
+	 * LOAD DATA does not tell which rows it stored, so the rollup of the days loaded is rebuilt. A failure leaves
+	 * the import successful, the rollup can be rebuilt later. The cached totals are dropped either way.
+	 *
+	 * @param firstDay null if no row was loaded.
+	 */
+	public void rebuildDailyRollup(LocalDate firstDay, LocalDate lastDay) {
+		if (firstDay == null) {
+			return;
+		}
+		try {
+			gameSalesDbService.rebuildDailyRollup(firstDay, lastDay);
+		} catch (RuntimeException e) {
+			log.error("Error updating the daily rollup, rebuild it from {} to {}: {}", firstDay, lastDay,
+					e.getMessage(), e);
+			gameSalesDbService.invalidateTotalSales(null, null);
+		}
+	}
+
+	public void dropQuietly(String table) {
+		try {
+			jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+		} catch (RuntimeException e) {
+			log.warn("Error dropping table {}: {}", table, e.getMessage());
+		}
+	}
+
+	private static void cancel(PreparedStatement ps) {
+		if (ps == null) {
+			return;
+		}
+		try {
+			ps.cancel();
+		} catch (SQLException e) {
+			log.warn("Error cancelling import statement: {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.game.utils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLWarning;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes the validated rows with {@code LOAD DATA LOCAL INFILE}, encoded in memory as tab separated lines and
+ * handed to the driver as the stream of the infile, so a batch gets the speed of LOAD DATA without skipping the
+ * validation of the app. Requires {@code allowLoadLocalInfile=true} like {@link GameSalesCsvLoader}.
+ *
+ * <p>With LOCAL, mysql turns the errors of a row into warnings and skips or truncates it instead of failing the
+ * statement. Any warning the duplicate mode does not expect is thrown as a data error, so the transaction is
+ * rolled back and the row isolated like a rejected INSERT.
+ */
+@Service
+@RequiredArgsConstructor
+public class GameSalesLoadDataWriter implements BulkWriter {
+
+	private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private static final int ER_DUP_ENTRY = 1062;
+
+	private static final String COLUMNS = "CHARACTER SET utf8mb4 "
+			+ "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' "
+			+ "LINES TERMINATED BY '\\n' "
+			+ "(id, game_no, game_name, game_code, type, @cost_price, @tax, @sale_price, date_of_sale) "
+			+ "SET cost_price = @cost_price / 100, tax = @tax / 100, sale_price = @sale_price / 100";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public BulkWriteEngine getEngine() {
+		return BulkWriteEngine.LOAD_DATA;
+	}
+
+	@Override
+	public void write(List<GameSales> gameSalesList, DuplicateMode duplicateMode) {
+		// with LOCAL, rows whose id already exists are skipped unless REPLACE is given
+		String sql = "LOAD DATA LOCAL INFILE ? " + (duplicateMode == DuplicateMode.UPSERT ? "REPLACE " : "")
+				+ "INTO TABLE game_sales " + COLUMNS;
+		byte[] lines = encode(gameSalesList);
+		jdbcTemplate.execute((Connection con) -> {
+			try (PreparedStatement ps = con.prepareStatement(sql)) {
+				// the driver sends this stream instead of opening the named file
+				ps.unwrap(JdbcStatement.class).setLocalInfileInputStream(new ByteArrayInputStream(lines));
+				ps.setString(1, "game_sales_batch.tsv");
+				ps.executeUpdate();
+				for (SQLWarning warning = ps.getWarnings(); warning != null; warning = warning.getNextWarning()) {
+					if (duplicateMode != DuplicateMode.IGNORE || warning.getErrorCode() != ER_DUP_ENTRY) {
+						throw new DataIntegrityViolationException(warning.getMessage());
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * @return the rows as the lines the LOAD DATA statement reads, the prices in cents.
+	 */
+	public static byte[] encode(List<GameSales> gameSalesList) {
+		StringBuilder lines = new StringBuilder(gameSalesList.size() * 80);
+		for (GameSales game : gameSalesList) {
+			lines.append(game.getId()).append('\t')
+					.append(game.getGameNo()).append('\t');
+			appendEscaped(lines, game.getGameName()).append('\t');
+			appendEscaped(lines, game.getGameCode()).append('\t')
+					.append(game.getType()).append('\t')
+					.append(game.getCostPrice()).append('\t')
+					.append(game.getTax()).append('\t')
+					.append(game.getSalePrice()).append('\t')
+					.append(DATE_TIME.format(game.getDateOfSale())).append('\n');
+		}
+		return lines.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static StringBuilder appendEscaped(StringBuilder lines, String value) {
+		if (value == null) {
+			return lines.append("\\N");
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\\' -> lines.append("\\\\");
+				case '\t' -> lines.append("\\t");
+				case '\n' -> lines.append("\\n");
+				case '\r' -> lines.append("\\r");
+				case '\0' -> lines.append("\\0");
+				default -> lines.append(c);
+			}
+		}
+		return lines;
+	}
+}
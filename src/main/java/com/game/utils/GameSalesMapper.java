@@ -0,0 +1,45 @@
+package com.game.utils;
+
+import com.game.entity.GameSales;
+import com.game.model.GameSalesDto;
+
+/**
+ * Maps between the api and csv {@link GameSalesDto} and the {@link GameSales} entity, converting the prices
+ * between {@link java.math.BigDecimal} and {@link Money} cents.
+ */
+public final class GameSalesMapper {
+
+	private GameSalesMapper() {
+	}
+
+	/**
+	 * The prices of the dto must be present and fit in a long number of cents.
+	 */
+	public static GameSales toEntity(GameSalesDto gameSalesDto) {
+		GameSales entity = new GameSales();
+		entity.setId(gameSalesDto.getId());
+		entity.setGameNo(gameSalesDto.getGameNo());
+		entity.setGameName(gameSalesDto.getGameName());
+		entity.setGameCode(gameSalesDto.getGameCode());
+		entity.setType(gameSalesDto.getType());
+		entity.setCostPrice(Money.toCents(gameSalesDto.getCostPrice()));
+		entity.setTax(Money.toCents(gameSalesDto.getTax()));
+		entity.setSalePrice(Money.toCents(gameSalesDto.getSalePrice()));
+		entity.setDateOfSale(gameSalesDto.getDateOfSale());
+		return entity;
+	}
+
+	public static GameSalesDto toDto(GameSales entity) {
+		return GameSalesDto.builder()
+				.id(entity.getId())
+				.gameNo(entity.getGameNo())
+				.gameName(entity.getGameName())
+				.gameCode(entity.getGameCode())
+				.type(entity.getType())
+				.costPrice(Money.toBigDecimal(entity.getCostPrice()))
+				.tax(Money.toBigDecimal(entity.getTax()))
+				.salePrice(Money.toBigDecimal(entity.getSalePrice()))
+				.dateOfSale(entity.getDateOfSale())
+				.build();
+	}
+}
@@ -0,0 +1,283 @@
+package com.game.utils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.springframework.stereotype.Service;
+
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.ImportStage;
+import com.game.enums.ReportGranularity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer meters of the csv imports and the sales queries, scraped from {@code /actuator/prometheus}.
+ *
+ * <p>Import stages are timed per batch, not per row, and the meters are looked up once, so the overhead is
+ * a few clock reads per batch. Rows per second is the rate of {@code game.import.rows}. The queue and thread
+ * gauges sum the imports running when they are read. The pool wait is {@code hikaricp.connections.acquire}
+ * and the executors are {@code executor.*}, both bound by spring boot. Every bulk write engine reports its batches
+ * under {@code game.import.bulk.*}, tagged with the engine, so their throughput can be compared side by side.
+ */
+@Service
+public class GameSalesMetrics {
+
+	private final MeterRegistry registry;
+
+	private final Map<ImportStage, Timer> stageTimers = new EnumMap<>(ImportStage.class);
+
+	private final Timer queueWait;
+
+	private final Timer writerWait;
+
+	private final Counter parsedRows;
+
+	private final Counter successfulRows;
+
+	private final Counter failedRows;
+
+	private final DistributionSummary batchSize;
+
+	private final Map<BulkWriteEngine, Timer> bulkWriteTimers = new EnumMap<>(BulkWriteEngine.class);
+
+	private final Map<BulkWriteEngine, Counter> bulkWrittenRows = new EnumMap<>(BulkWriteEngine.class);
+
+	private final Map<BulkWriteEngine, Counter> bulkRejectedRows = new EnumMap<>(BulkWriteEngine.class);
+
+	private final Set<ImportPipeline<?, ?>> pipelines = ConcurrentHashMap.newKeySet();
+
+	private final Set<ExecutorService> chunkPools = ConcurrentHashMap.newKeySet();
+
+	private final Set<ImportWriteTuner> writeTuners = ConcurrentHashMap.newKeySet();
+
+	private final AtomicInteger activeChunkWriters = new AtomicInteger();
+
+	private final Map<String, Timer> queryTimers = new ConcurrentHashMap<>();
+
+	/** Unregisters a running import from the gauges. */
+	public interface Registration extends AutoCloseable {
+		@Override
+		void close();
+	}
+
+	public GameSalesMetrics(MeterRegistry registry) {
+		this.registry = registry;
+		for (ImportStage stage : ImportStage.values()) {
+			stageTimers.put(stage, Timer.builder("game.import.stage")
+					.description("Time spent on a batch by an import stage")
+					.tag("stage", stage.name().toLowerCase())
+					.register(registry));
+		}
+		queueWait = Timer.builder("game.import.queue.wait")
+				.description("Time a batch waited for the next stage to take it")
+				.register(registry);
+		writerWait = Timer.builder("game.import.writer.wait")
+				.description("Time a batch waited for a writer slot of its import and a connection of the import budget")
+				.register(registry);
+		parsedRows = rowCounter("parsed");
+		successfulRows = rowCounter("successful");
+		failedRows = rowCounter("failed");
+		batchSize = DistributionSummary.builder("game.import.batch.size")
+				.description("Valid rows per batch written to the db")
+				.baseUnit("rows")
+				.register(registry);
+		for (BulkWriteEngine engine : BulkWriteEngine.values()) {
+			bulkWriteTimers.put(engine, Timer.builder("game.import.bulk.write")
+					.description("Time a bulk write engine took to write a batch, rejected rows included")
+					.tag("engine", engine.name().toLowerCase())
+					.register(registry));
+			bulkWrittenRows.put(engine, bulkRowCounter(engine, "written"));
+			bulkRejectedRows.put(engine, bulkRowCounter(engine, "rejected"));
+		}
+
+		queueGauge("parsed", ImportPipeline::getParsedQueueSize);
+		queueGauge("mapped", ImportPipeline::getMappedQueueSize);
+		Gauge.builder("game.import.queue.size", chunkPools, pools -> pools.stream()
+						.mapToLong(GameSalesMetrics::queuedChunks).sum())
+				.description("Batches or chunks waiting for an import stage")
+				.tag("queue", "chunk")
+				.register(registry);
+		threadGauge("map", pipelines, ImportPipeline::getActiveMappers);
+		Gauge.builder("game.import.threads.active", this, metrics -> activeChunkWriters.get()
+						+ pipelines.stream().mapToInt(ImportPipeline::getActiveWriters).sum())
+				.description("Import threads working on a batch")
+				.tag("stage", "write")
+				.register(registry);
+		threadGauge("chunk", chunkPools, GameSalesMetrics::activeChunkThreads);
+		Gauge.builder("game.import.writers.limit", writeTuners, tuners -> tuners.stream()
+						.mapToInt(ImportWriteTuner::getWriterLimit).sum())
+				.description("Batches the running imports may write at the same time")
+				.register(registry);
+		Gauge.builder("game.import.batch.target", writeTuners, tuners -> tuners.stream()
+						.mapToInt(ImportWriteTuner::getBatchSize).max().orElse(0))
+				.description("Largest batch size the running imports are parsing")
+				.baseUnit("rows")
+				.register(registry);
+	}
+
+	public void recordStage(ImportStage stage, long nanos) {
+		stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void recordQueueWait(long nanos) {
+		queueWait.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void recordWriterWait(long nanos) {
+		writerWait.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void addParsedRows(int rows) {
+		parsedRows.increment(rows);
+	}
+
+	public void addFailedRows(int rows) {
+		if (rows > 0) {
+			failedRows.increment(rows);
+		}
+	}
+
+	/**
+	 * Records a batch written to the db.
+	 *
+	 * @param rows the valid rows of the batch.
+	 * @param rejected the rows the db rejected.
+	 */
+	public void recordWrittenBatch(int rows, int rejected) {
+		batchSize.record(rows);
+		successfulRows.increment(rows - rejected);
+		addFailedRows(rejected);
+	}
+
+	/**
+	 * Records a batch written by a bulk write engine, the rows per second of an engine is the rate of its
+	 * {@code game.import.bulk.rows}.
+	 *
+	 * @param rows the rows of the batch.
+	 * @param rejected the rows the db rejected.
+	 * @param nanos the time the batch took, retries of its rejected rows included.
+	 */
+	public void recordBulkWrite(BulkWriteEngine engine, int rows, int rejected, long nanos) {
+		bulkWriteTimers.get(engine).record(nanos, TimeUnit.NANOSECONDS);
+		bulkWrittenRows.get(engine).increment(rows - rejected);
+		if (rejected > 0) {
+			bulkRejectedRows.get(engine).increment(rejected);
+		}
+	}
+
+	public Registration track(ImportPipeline<?, ?> pipeline) {
+		pipelines.add(pipeline);
+		return () -> pipelines.remove(pipeline);
+	}
+
+	/**
+	 * @param chunkPool the fork-join pool of a chunked import, or the thread pool of one on virtual threads.
+	 */
+	public Registration track(ExecutorService chunkPool) {
+		chunkPools.add(chunkPool);
+		return () -> chunkPools.remove(chunkPool);
+	}
+
+	public Registration track(ImportWriteTuner writeTuner) {
+		writeTuners.add(writeTuner);
+		return () -> writeTuners.remove(writeTuner);
+	}
+
+	/** Counts a chunk import thread writing to the db until the registration is closed. */
+	public Registration trackChunkWriter() {
+		activeChunkWriters.incrementAndGet();
+		return activeChunkWriters::decrementAndGet;
+	}
+
+	/**
+	 * Times a {@code /getGameSales} query.
+	 *
+	 * @param keyset true for keyset pagination, false for offset pagination.
+	 */
+	public <T> T timeGameSalesQuery(boolean byDate, boolean byPrice, boolean keyset, Supplier<T> query) {
+		return queryTimer("game.query.sales", filters(byDate ? "date" : null, byPrice ? "price" : null),
+				"pagination", keyset ? "keyset" : "offset").record(query);
+	}
+
+	/**
+	 * Times a {@code /getTotalSales} query, the date range is always given.
+	 */
+	public <T> T timeTotalSalesQuery(boolean byGameNo, ReportGranularity granularity, Supplier<T> query) {
+		return queryTimer("game.query.totals", filters("date", byGameNo ? "game" : null),
+				"granularity", granularity.name().toLowerCase()).record(query);
+	}
+
+	private Timer queryTimer(String name, String filters, String variantTag, String variant) {
+		return queryTimers.computeIfAbsent(name + '|' + filters + '|' + variant, key -> Timer.builder(name)
+				.description("Latency of the sales queries by filter shape")
+				.tag("filters", filters)
+				.tag(variantTag, variant)
+				.register(registry));
+	}
+
+	private static String filters(String first, String second) {
+		if (first == null) {
+			return second != null ? second : "none";
+		}
+		return second != null ? first + "+" + second : first;
+	}
+
+	private static long queuedChunks(ExecutorService pool) {
+		if (pool instanceof ForkJoinPool forkJoinPool) {
+			return forkJoinPool.getQueuedSubmissionCount() + forkJoinPool.getQueuedTaskCount();
+		}
+		return pool instanceof ThreadPoolExecutor threadPool ? threadPool.getQueue().size() : 0;
+	}
+
+	private static int activeChunkThreads(ExecutorService pool) {
+		if (pool instanceof ForkJoinPool forkJoinPool) {
+			return forkJoinPool.getActiveThreadCount();
+		}
+		return pool instanceof ThreadPoolExecutor threadPool ? threadPool.getActiveCount() : 0;
+	}
+
+	private Counter rowCounter(String result) {
+		return Counter.builder("game.import.rows")
+				.description("Csv rows processed by the imports")
+				.baseUnit("rows")
+				.tag("result", result)
+				.register(registry);
+	}
+
+	private Counter bulkRowCounter(BulkWriteEngine engine, String result) {
+		return Counter.builder("game.import.bulk.rows")
+				.description("Rows written or rejected by a bulk write engine")
+				.baseUnit("rows")
+				.tag("engine", engine.name().toLowerCase())
+				.tag("result", result)
+				.register(registry);
+	}
+
+	private void queueGauge(String queue, ToIntFunction<ImportPipeline<?, ?>> size) {
+		Gauge.builder("game.import.queue.size", pipelines, tracked -> tracked.stream().mapToInt(size).sum())
+				.description("Batches or chunks waiting for an import stage")
+				.tag("queue", queue)
+				.register(registry);
+	}
+
+	private <T> void threadGauge(String stage, Set<T> tracked, ToIntFunction<T> active) {
+		Gauge.builder("game.import.threads.active", tracked, sources -> sources.stream().mapToInt(active).sum())
+				.description("Import threads working on a batch")
+				.tag("stage", stage)
+				.register(registry);
+	}
+}
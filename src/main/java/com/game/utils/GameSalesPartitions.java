@@ -0,0 +1,163 @@
+package com.game.utils;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.game.config.PartitionProperties;
+import com.game.model.SalesPartitionDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manages the monthly {@code RANGE COLUMNS(date_of_sale)} partitions of game_sales. Partition {@code pYYYYMM} holds
+ * the sales before the first day of the next month, the last partition {@code pmax} the sales after the last month.
+ *
+ * <p>A query bounding date_of_sale only reads the partitions of its months, and a month is purged by dropping its
+ * partition instead of deleting its rows. Future months get their partition ahead of time by splitting pmax, which
+ * is empty then, so the split is a metadata change. The table is read from information_schema, an unpartitioned
+ * game_sales has no partitions and the methods do nothing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameSalesPartitions {
+
+	private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final PartitionProperties properties;
+
+	// one partition change at a time, held over the ALTER TABLE, which a monitor would pin to a virtual thread's carrier
+	private final ReentrantLock ddlLock = new ReentrantLock();
+
+	// null until game_sales was first read
+	private volatile Boolean partitioned;
+
+	/**
+	 * Whether game_sales is partitioned. Its primary key then includes date_of_sale, as every unique key of a
+	 * partitioned table must, so the db no longer rejects an id stored with another date of sale by itself.
+	 */
+	public boolean isPartitioned() {
+		Boolean known = partitioned;
+		return known != null ? known : !list().isEmpty();
+	}
+
+	/**
+	 * @return the partitions of game_sales in order, empty if the table is not partitioned.
+	 */
+	public List<SalesPartitionDto> list() {
+		List<SalesPartitionDto> partitions;
+		try {
+			partitions = jdbcTemplate.query("SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS "
+					+ "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game_sales' "
+					+ "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION",
+					(rs, i) -> SalesPartitionDto.builder()
+							.name(rs.getString(1))
+							.before(bound(rs.getString(2)))
+							.rows(rs.getLong(3))
+							.build());
+		} catch (BadSqlGrammarException e) {
+			partitions = List.of(); // not mysql, e.g. the benchmarks
+		}
+		partitioned = !partitions.isEmpty();
+		return partitions;
+	}
+
+	/**
+	 * Splits the months up to {@code monthsAhead} after the current one out of pmax. The first time, the months
+	 * start from the oldest sale in pmax, so a table migrated with pmax only gets a partition per month of data.
+	 *
+	 * @return the names of the partitions created.
+	 */
+	public List<String> createAhead() {
+		ddlLock.lock();
+		try {
+			List<SalesPartitionDto> partitions = list();
+			if (partitions.isEmpty()) {
+				return List.of();
+			}
+			SalesPartitionDto last = partitions.get(partitions.size() - 1);
+			boolean overflow = last.getBefore() == null;
+			LocalDate lastBound = overflow
+					? (partitions.size() > 1 ? partitions.get(partitions.size() - 2).getBefore() : null)
+					: last.getBefore();
+			YearMonth month = lastBound != null ? YearMonth.from(lastBound) : firstMonth(last.getName());
+			YearMonth horizon = YearMonth.now().plusMonths(properties.getMonthsAhead());
+
+			List<String> created = new ArrayList<>();
+			StringBuilder definitions = new StringBuilder();
+			for (; !month.isAfter(horizon); month = month.plusMonths(1)) {
+				String name = PARTITION_NAME.format(month);
+				definitions.append("PARTITION ").append(name)
+						.append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+				created.add(name);
+			}
+			if (created.isEmpty()) {
+				return created;
+			}
+			if (overflow) {
+				jdbcTemplate.execute("ALTER TABLE game_sales REORGANIZE PARTITION " + last.getName() + " INTO ("
+						+ definitions + "PARTITION " + last.getName() + " VALUES LESS THAN (MAXVALUE))");
+			} else {
+				// without pmax a sale after the last month fails, so there is nothing to split
+				jdbcTemplate.execute("ALTER TABLE game_sales ADD PARTITION ("
+						+ definitions.substring(0, definitions.length() - 2) + ")");
+			}
+			log.info("Created game_sales partition(s) {}", created);
+			return created;
+		} finally {
+			ddlLock.unlock();
+		}
+	}
+
+	/**
+	 * Drops the partitions holding only sales before the day. The first partition also holds the sales before its
+	 * month, so they go with it.
+	 *
+	 * @param day the first day kept, normally the first day of a month.
+	 * @return the names of the partitions dropped.
+	 */
+	public List<String> dropBefore(LocalDate day) {
+		ddlLock.lock();
+		try {
+			List<String> expired = list().stream()
+					.filter(partition -> partition.getBefore() != null && !partition.getBefore().isAfter(day))
+					.map(SalesPartitionDto::getName)
+					.toList();
+			if (!expired.isEmpty()) {
+				jdbcTemplate.execute("ALTER TABLE game_sales DROP PARTITION " + String.join(", ", expired));
+				log.info("Dropped game_sales partition(s) {} holding the sales before {}", expired, day);
+			}
+			return expired;
+		} finally {
+			ddlLock.unlock();
+		}
+	}
+
+	private YearMonth firstMonth(String overflow) {
+		Timestamp oldest = jdbcTemplate.queryForObject(
+				"SELECT MIN(date_of_sale) FROM game_sales PARTITION (" + overflow + ")", Timestamp.class);
+		return oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+	}
+
+	/**
+	 * @param description the bound of a RANGE COLUMNS partition, a quoted date time or MAXVALUE.
+	 */
+	private static LocalDate bound(String description) {
+		if (description == null || "MAXVALUE".equalsIgnoreCase(description)) {
+			return null;
+		}
+		return LocalDate.parse(description.replace("'", "").substring(0, 10));
+	}
+}
@@ -0,0 +1,186 @@
+package com.game.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.game.config.ReadDataSourceProperties;
+import com.game.config.ReportCacheProperties;
+import com.game.enums.ReportGranularity;
+import com.game.model.GameSalesReportDto;
+import com.game.model.ReportCacheStatsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of the sales totals, keyed by the report parameters and evicted by size and ttl.
+ *
+ * <p>Writes to game_sales report the range of date_of_sale they changed through
+ * {@link #invalidate(LocalDateTime, LocalDateTime)}, which drops only the reports whose range overlaps it.
+ * A report whose range was invalidated while it was being computed is returned but not cached, as it
+ * may have read the rows from before the change. With a read replica, the reports are computed on the replica,
+ * which may still miss the change for {@code game.datasource.replica-lag-millis}, so a report of an invalidated
+ * range computed meanwhile is not cached either.
+ */
+@Slf4j
+@Service
+public class GameSalesReportCache implements MeterBinder {
+
+	private final Cache<Key, List<GameSalesReportDto>> cache;
+
+	private final Set<Load> loads = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong invalidatedReports = new AtomicLong();
+
+	private final long replicaLagNanos;
+
+	// guarded by this, the invalidations the replica may still lag behind
+	private final List<Invalidation> lagging = new ArrayList<>();
+
+	private record Key(LocalDateTime fromDate, LocalDateTime toDate, Integer gameNo, ReportGranularity granularity) {
+		private boolean overlaps(LocalDateTime from, LocalDateTime to) {
+			return (to == null || !fromDate.isAfter(to)) && (from == null || !toDate.isBefore(from));
+		}
+	}
+
+	private record Invalidation(LocalDateTime fromDate, LocalDateTime toDate, long untilNanos) {
+	}
+
+	/** A report being computed, marked stale if its range is invalidated meanwhile. */
+	private static final class Load {
+		private final Key key;
+		private boolean stale;
+
+		private Load(Key key) {
+			this.key = key;
+		}
+	}
+
+	public GameSalesReportCache(ReportCacheProperties properties, ReadDataSourceProperties readProperties) {
+		this.replicaLagNanos = StringUtils.hasText(readProperties.getReplicaUrl())
+				? TimeUnit.MILLISECONDS.toNanos(readProperties.getReplicaLagMillis()) : 0;
+		this.cache = properties.isEnabled()
+				? Caffeine.newBuilder()
+						.maximumSize(properties.getMaximumSize())
+						.expireAfterWrite(Duration.ofMillis(properties.getTtlMillis()))
+						.recordStats()
+						.build()
+				: null;
+	}
+
+	/**
+	 * @param gameNo the game number, null for all games.
+	 * @param query computes the report on a miss.
+	 * @return the cached report, or the result of the query.
+	 */
+	public List<GameSalesReportDto> get(LocalDateTime fromDate, LocalDateTime toDate, Integer gameNo,
+			ReportGranularity granularity, Supplier<List<GameSalesReportDto>> query) {
+		if (cache == null) {
+			return query.get();
+		}
+		Key key = new Key(fromDate, toDate, gameNo, granularity);
+		List<GameSalesReportDto> report = cache.getIfPresent(key);
+		if (report != null) {
+			return report;
+		}
+		Load load = new Load(key);
+		synchronized (this) {
+			load.stale = isLagging(key);
+			loads.add(load);
+		}
+		try {
+			report = List.copyOf(query.get());
+			synchronized (this) {
+				if (!load.stale) {
+					cache.put(key, report);
+				}
+			}
+			return report;
+		} finally {
+			loads.remove(load);
+		}
+	}
+
+	/**
+	 * Drops the reports covering any date_of_sale in the range, both bounds inclusive.
+	 *
+	 * @param fromDate the first changed date_of_sale, null for no lower bound.
+	 * @param toDate the last changed date_of_sale, null for no upper bound.
+	 */
+	public void invalidate(LocalDateTime fromDate, LocalDateTime toDate) {
+		if (cache == null) {
+			return;
+		}
+		int removed = 0;
+		synchronized (this) {
+			for (Load load : loads) {
+				if (load.key.overlaps(fromDate, toDate)) {
+					load.stale = true;
+				}
+			}
+			for (Key key : cache.asMap().keySet()) {
+				if (key.overlaps(fromDate, toDate) && cache.asMap().remove(key) != null) {
+					removed++;
+				}
+			}
+			if (replicaLagNanos > 0) {
+				lagging.add(new Invalidation(fromDate, toDate, System.nanoTime() + replicaLagNanos));
+			}
+		}
+		if (removed > 0) {
+			invalidatedReports.addAndGet(removed);
+			log.debug("Invalidated {} cached report(s) from {} to {}", removed, fromDate, toDate);
+		}
+	}
+
+	/**
+	 * Called holding this, forgets the invalidations the replica has caught up with.
+	 */
+	private boolean isLagging(Key key) {
+		long now = System.nanoTime();
+		lagging.removeIf(invalidation -> now - invalidation.untilNanos() >= 0);
+		return lagging.stream().anyMatch(invalidation -> key.overlaps(invalidation.fromDate(), invalidation.toDate()));
+	}
+
+	/**
+	 * Publishes the caffeine statistics as the {@code cache.*} meters of the {@code gameSalesReports} cache.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (cache != null) {
+			CaffeineCacheMetrics.monitor(registry, cache, "gameSalesReports");
+		}
+		FunctionCounter.builder("game.report.cache.invalidations", invalidatedReports, AtomicLong::get)
+				.description("Cached reports dropped because an import changed their date range")
+				.register(registry);
+	}
+
+	public ReportCacheStatsDto getStats() {
+		CacheStats stats = cache != null ? cache.stats() : CacheStats.empty();
+		return ReportCacheStatsDto.builder()
+				.size(cache != null ? cache.estimatedSize() : 0)
+				.hits(stats.hitCount())
+				.misses(stats.missCount())
+				.hitRate(stats.hitRate())
+				.evictions(stats.evictionCount())
+				.invalidations(invalidatedReports.get())
+				.build();
+	}
+}
@@ -0,0 +1,129 @@
+package com.game.utils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.game.enums.ReportGranularity;
+import com.game.model.GameSalesReportDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sales totals per hour, day, week or month.
+ *
+ * <p>Day, week and month buckets are summed from {@code game_sales_daily_rollup}, only the rows of a partial
+ * first or last day of the range are read from game_sales. Hour buckets are grouped on the indexed
+ * {@code sale_hour} generated column. idx_sale_hour also holds game_no, sale_price and date_of_sale, every column
+ * the query reads, so the scan reads that index alone in bucket order.
+ */
+@Service
+@RequiredArgsConstructor
+public class GameSalesReportQuery {
+
+	private static final RowMapper<GameSalesReportDto> REPORT_MAPPER = (rs, i) -> GameSalesReportDto.builder()
+			.dateOfSale(new Date(rs.getTimestamp("bucket").getTime()))
+			.totalCount(rs.getLong("total_count"))
+			.totalSales(rs.getBigDecimal("total_sales"))
+			.build();
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * @param fromDate the start of the period, inclusive.
+	 * @param toDate the end of the period, inclusive.
+	 * @param gameNo the game number to filter sales by, null for all games.
+	 * @param granularity the size of the buckets.
+	 * @return one row per non-empty bucket in time order, dated at the start of the bucket.
+	 */
+	public List<GameSalesReportDto> getTotalSales(LocalDateTime fromDate, LocalDateTime toDate, Integer gameNo,
+			ReportGranularity granularity) {
+		if (granularity == ReportGranularity.HOUR) {
+			return getHourlyTotals(fromDate, toDate, gameNo);
+		}
+		LocalDate firstFullDay = firstFullDay(fromDate);
+		LocalDate endFullDay = endFullDay(firstFullDay, toDate);
+		String gameFilter = gameNo != null ? " AND game_no = ?" : "";
+		String sql = "SELECT CAST(" + bucket(granularity, "t.sale_date") + " AS DATETIME) AS bucket, "
+				+ "SUM(t.total_count) AS total_count, SUM(t.total_sales) AS total_sales FROM ("
+				+ "SELECT sale_date, total_count, total_sales FROM game_sales_daily_rollup "
+				+ "WHERE sale_date >= ? AND sale_date < ?" + gameFilter
+				+ " UNION ALL "
+				+ "SELECT DATE(date_of_sale), 1, sale_price FROM game_sales "
+				+ "WHERE date_of_sale >= ? AND date_of_sale < ? AND date_of_sale <= ?" + gameFilter
+				+ " UNION ALL "
+				+ "SELECT DATE(date_of_sale), 1, sale_price FROM game_sales "
+				+ "WHERE date_of_sale >= ? AND date_of_sale <= ?" + gameFilter
+				+ ") t GROUP BY bucket ORDER BY bucket";
+
+		List<Object> args = new ArrayList<>();
+		args.add(firstFullDay);
+		args.add(endFullDay);
+		addIfPresent(args, gameNo);
+		args.add(fromDate);
+		args.add(firstFullDay);
+		args.add(toDate);
+		addIfPresent(args, gameNo);
+		args.add(endFullDay);
+		args.add(toDate);
+		addIfPresent(args, gameNo);
+		return jdbcTemplate.query(sql, REPORT_MAPPER, args.toArray());
+	}
+
+	private List<GameSalesReportDto> getHourlyTotals(LocalDateTime fromDate, LocalDateTime toDate, Integer gameNo) {
+		// the sale_hour bound lets the range scan use idx_sale_hour, the date_of_sale bound, checked on the same
+		// index, trims the first and last hour
+		String sql = "SELECT sale_hour AS bucket, COUNT(*) AS total_count, SUM(sale_price) AS total_sales "
+				+ "FROM game_sales WHERE sale_hour >= ? AND sale_hour <= ? "
+				+ "AND date_of_sale BETWEEN ? AND ?" + (gameNo != null ? " AND game_no = ?" : "")
+				+ " GROUP BY sale_hour ORDER BY sale_hour";
+		List<Object> args = new ArrayList<>();
+		args.add(fromDate.truncatedTo(ChronoUnit.HOURS));
+		args.add(toDate);
+		args.add(fromDate);
+		args.add(toDate);
+		addIfPresent(args, gameNo);
+		return jdbcTemplate.query(sql, REPORT_MAPPER, args.toArray());
+	}
+
+	/**
+	 * @return the sql expression of the first day of the bucket holding {@code day}.
+	 */
+	private static String bucket(ReportGranularity granularity, String day) {
+		return switch (granularity) {
+			case WEEK -> "(" + day + " - INTERVAL WEEKDAY(" + day + ") DAY)";
+			case MONTH -> "(" + day + " - INTERVAL (DAYOFMONTH(" + day + ") - 1) DAY)";
+			default -> day;
+		};
+	}
+
+	/**
+	 * @return the first day entirely within a range starting at {@code fromDate}.
+	 */
+	private static LocalDate firstFullDay(LocalDateTime fromDate) {
+		return fromDate.toLocalTime().equals(LocalTime.MIDNIGHT) ? fromDate.toLocalDate() : fromDate.toLocalDate().plusDays(1);
+	}
+
+	/**
+	 * @return the day after the last day entirely within a range ending at {@code toDate} inclusive,
+	 *         never before {@code firstFullDay} so the range of whole days is empty rather than negative.
+	 */
+	private static LocalDate endFullDay(LocalDate firstFullDay, LocalDateTime toDate) {
+		LocalDate endFullDay = toDate.plusSeconds(1).toLocalDate(); // date_of_sale has second precision
+		return endFullDay.isAfter(firstFullDay) ? endFullDay : firstFullDay;
+	}
+
+	private static void addIfPresent(List<Object> args, Integer gameNo) {
+		if (gameNo != null) {
+			args.add(gameNo);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.game.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.game.model.GameSalesCsvRow;
+
+/**
+ * Reads game sales csv rows one by one, the header row is consumed by the reader.
+ */
+public interface GameSalesRowReader extends Closeable {
+
+	/**
+	 * @return the next row, or null at the end of the input.
+	 *         Rows that cannot be mapped are returned with an error instead of failing the whole read.
+	 */
+	GameSalesCsvRow next() throws IOException;
+}
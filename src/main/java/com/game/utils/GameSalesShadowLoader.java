@@ -0,0 +1,199 @@
+package com.game.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.game.config.ImportProperties;
+import com.game.entity.CsvImportInfo;
+import com.game.enums.ImportStatusEnums;
+import com.game.service.GameSalesDbService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads a large csv file without maintaining the secondary indexes of game_sales row by row, for initial loads and
+ * backfills.
+ *
+ * <p>{@code game_sales_shadow_<import id>} is created like game_sales, with its primary key and partitions but
+ * without its secondary indexes. The stored rows are copied into it in primary key order and the csv is loaded
+ * after them by {@code LOAD DATA LOCAL INFILE}, as by {@link GameSalesCsvLoader} and without validation. The
+ * secondary indexes are then added by one {@code ALTER TABLE}, InnoDB builds each of them from the sorted rows
+ * instead of inserting its entries one by one. {@code RENAME TABLE} finally swaps the shadow table in for game_sales
+ * atomically and the previous table is dropped.
+ *
+ * <p>game_sales is read as usual throughout. The rename waits for the queries running on game_sales, and holds the
+ * queries arriving meanwhile, for at most {@code game.import.shadow-swap-lock-seconds} per attempt. Rows written to
+ * game_sales after the copy are lost with the previous table, so no other writer runs with this one, see
+ * {@link GameSalesWriteLock}. As the LOAD DATA import, it is refused on a partitioned game_sales.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameSalesShadowLoader {
+
+	private static final String COLUMNS = "id, game_no, game_name, game_code, type, cost_price, tax, sale_price, date_of_sale";
+
+	private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+	/**
+	 * A secondary index of game_sales.
+	 *
+	 * @param columns the quoted columns, with their prefix length and order.
+	 */
+	private record Index(String name, boolean unique, List<String> columns) {
+
+		String addClause() {
+			return "ADD " + (unique ? "UNIQUE " : "") + "INDEX `" + name + "` (" + String.join(", ", columns) + ")";
+		}
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final GameSalesLoadData loadData;
+
+	private final GameSalesDbService gameSalesDbService;
+
+	private final ImportProperties importProperties;
+
+	/**
+	 * @param csvFilePath absolute path of the csv file to load.
+	 * @param importInfo the csv_import_info row tracking this import, its final status is saved by this method.
+	 * @param progress the live counters of this import, cancelling it before the swap kills the running statement.
+	 */
+	public void loadCsv(String csvFilePath, CsvImportInfo importInfo, ImportProgress progress) {
+		try (InputStream in = Files.newInputStream(Path.of(csvFilePath))) {
+			loadCsv(in, importInfo, progress);
+		} catch (IOException e) {
+			log.error("Error loading csv file :{}", e.getMessage(), e);
+			gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
+		}
+	}
+
+	/**
+	 * @param in the csv bytes, read up to the end.
+	 * @param importInfo the csv_import_info row tracking this import, its final status is saved by this method.
+	 * @param progress the live counters of this import, cancelling it before the swap kills the running statement.
+	 */
+	public void loadCsv(InputStream in, CsvImportInfo importInfo, ImportProgress progress) {
+		String shadow = "game_sales_shadow_" + importInfo.getId();
+		String previous = "game_sales_previous_" + importInfo.getId();
+		SaleDayRangeInputStream days = new SaleDayRangeInputStream(progress.track(in));
+		GameSalesLoadData.Statements statements = loadData.statements(progress);
+		try {
+			loadData.requireUnpartitioned("A shadow import");
+			gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PROCESSING.toString());
+			// a failed or cancelled attempt of the same file may leave its shadow table, and its previous table if it
+			// failed after the swap, the rename would then fail
+			jdbcTemplate.execute("DROP TABLE IF EXISTS " + shadow);
+			jdbcTemplate.execute("DROP TABLE IF EXISTS " + previous);
+			jdbcTemplate.execute("CREATE TABLE " + shadow + " LIKE game_sales");
+			List<Index> indexes = secondaryIndexes();
+			if (!indexes.isEmpty()) {
+				statements.execute("ALTER TABLE " + shadow + " " + indexes.stream()
+						.map(index -> "DROP INDEX `" + index.name() + "`")
+						.collect(Collectors.joining(", ")));
+			}
+
+			int copied = statements.execute("INSERT INTO " + shadow + " (" + COLUMNS + ") SELECT " + COLUMNS
+					+ " FROM game_sales ORDER BY id, date_of_sale");
+			int loaded = statements.loadData(days, GameSalesLoadData.loadCsvSql(shadow, importProperties.getDuplicateMode()),
+					"import_" + importInfo.getId() + ".csv");
+			progress.addParsed(loaded);
+			log.info("Import {} copied {} stored row(s) and loaded {} into {}", importInfo.getId(), copied, loaded, shadow);
+
+			if (!indexes.isEmpty()) {
+				long start = System.nanoTime();
+				statements.execute("ALTER TABLE " + shadow + " " + indexes.stream()
+						.map(Index::addClause)
+						.collect(Collectors.joining(", ")));
+				log.info("Import {} built {} index(es) in {} ms", importInfo.getId(), indexes.size(),
+						(System.nanoTime() - start) / 1_000_000);
+			}
+			if (progress.isCancelled()) {
+				throw new CancellationException("Import cancelled");
+			}
+			swap(shadow, previous);
+			progress.addSuccessful(loaded);
+			loadData.dropQuietly(previous);
+
+			// the copied rows are unchanged
+			loadData.rebuildDailyRollup(days.getFirstDay(), days.getLastDay());
+			gameSalesDbService.reloadColumnarStore();
+			gameSalesDbService.updateSuccessInfoToDb(importInfo, loaded, loaded, 0);
+		} catch (Exception e) {
+			if (progress.isCancelled()) {
+				log.info("Import {} cancelled", importInfo.getId());
+				gameSalesDbService.updateCancelledInfoToDb(importInfo, 0, 0, 0);
+			} else {
+				log.error("Error loading csv file through {}: {}", shadow, e.getMessage(), e);
+				gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
+			}
+		} finally {
+			loadData.dropQuietly(shadow);
+		}
+	}
+
+	/**
+	 * @return the secondary indexes of game_sales, in the order of their names.
+	 */
+	private List<Index> secondaryIndexes() {
+		Map<String, Index> indexes = new LinkedHashMap<>();
+		jdbcTemplate.query("SELECT INDEX_NAME, NON_UNIQUE, COLUMN_NAME, SUB_PART, COLLATION "
+				+ "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game_sales' "
+				+ "AND INDEX_NAME <> 'PRIMARY' ORDER BY INDEX_NAME, SEQ_IN_INDEX", rs -> {
+					boolean unique = rs.getInt("NON_UNIQUE") == 0;
+					int subPart = rs.getInt("SUB_PART");
+					indexes.computeIfAbsent(rs.getString("INDEX_NAME"), name -> new Index(name, unique, new ArrayList<>()))
+							.columns().add("`" + rs.getString("COLUMN_NAME") + "`"
+									+ (subPart > 0 ? "(" + subPart + ")" : "")
+									+ ("D".equals(rs.getString("COLLATION")) ? " DESC" : ""));
+				});
+		return List.copyOf(indexes.values());
+	}
+
+	/**
+	 * Renames game_sales to {@code previous} and the shadow table to game_sales in one statement. A rename waiting
+	 * for the metadata lock of game_sales holds the queries arriving after it, so each attempt gives up after
+	 * {@code game.import.shadow-swap-lock-seconds} and lets them run before the next one.
+	 */
+	private void swap(String shadow, String previous) {
+		String rename = "RENAME TABLE game_sales TO " + previous + ", " + shadow + " TO game_sales";
+		int attempts = Math.max(1, importProperties.getShadowSwapAttempts());
+		jdbcTemplate.execute((Connection con) -> {
+			try (Statement statement = con.createStatement()) {
+				statement.execute("SET SESSION lock_wait_timeout = " + Math.max(1, importProperties.getShadowSwapLockSeconds()));
+				try {
+					for (int attempt = 1; ; attempt++) {
+						try {
+							statement.execute(rename);
+							log.info("Swapped {} in for game_sales", shadow);
+							return null;
+						} catch (SQLException e) {
+							if (e.getErrorCode() != ER_LOCK_WAIT_TIMEOUT || attempt >= attempts) {
+								throw e;
+							}
+							log.warn("game_sales is busy, swap attempt {} of {} timed out", attempt, attempts);
+						}
+					}
+				} finally {
+					statement.execute("SET SESSION lock_wait_timeout = DEFAULT"); // the connection returns to the pool
+				}
+			}
+		});
+	}
+}
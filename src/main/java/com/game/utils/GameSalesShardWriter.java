@@ -0,0 +1,175 @@
+package com.game.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Encodes generated game sales rows as csv bytes straight into a buffer, without {@link String#format}
+ * or {@link java.math.BigDecimal}. Prices are drawn as cents and dates as seconds within the range of days.
+ *
+ * <p>Immutable, one instance is shared by the threads of {@link GameSalesCsvGenerator}, each writing
+ * its own shard with its own random stream.
+ */
+final class GameSalesShardWriter {
+
+	/** Longest row written, with a 19 digit id and the longest invalid values. */
+	static final int MAX_ROW_BYTES = 128;
+
+	private static final byte[] LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] TAX = "9.0".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] INVALID_TAX = "8.0".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] INVALID_DATE = "2025-02-30 25:61:00".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] INVALID_NUMBER = "N/A".getBytes(StandardCharsets.US_ASCII);
+
+	private static final int SECONDS_PER_DAY = 86_400;
+
+	/** The ways an invalid row breaks the validation or the parsing of the import. */
+	private enum Defect {
+		GAME_NO, BLANK_NAME, LONG_NAME, LONG_CODE, TYPE, COST_PRICE, TAX, DATE, NUMBER
+	}
+
+	private static final Defect[] DEFECTS = Defect.values();
+
+	private final int games;
+
+	/** Cumulative weights of the games by rank, null for uniform game numbers. */
+	private final double[] gameWeights;
+
+	/** {@code yyyy-MM-dd } of each day of the range. */
+	private final byte[][] days;
+
+	private final double invalidRatio;
+
+	GameSalesShardWriter(GameSalesCsvGenerator.Options options) {
+		this.games = options.getGames();
+		this.gameWeights = options.getZipfExponent() > 0 ? zipfWeights(games, options.getZipfExponent()) : null;
+		int dayCount = (int) (options.getToDate().toEpochDay() - options.getFromDate().toEpochDay() + 1);
+		this.days = new byte[dayCount][];
+		DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
+		for (int i = 0; i < dayCount; i++) {
+			LocalDate day = options.getFromDate().plusDays(i);
+			days[i] = (day.format(formatter) + " ").getBytes(StandardCharsets.US_ASCII);
+		}
+		this.invalidRatio = options.getInvalidRatio();
+	}
+
+	/**
+	 * @param buffer receives the rows, it must have {@link #MAX_ROW_BYTES} per row remaining.
+	 * @param firstId id of the first row, the ids of the shard follow each other.
+	 */
+	void write(ByteBuffer buffer, SplittableRandom random, long firstId, int rows) {
+		for (int i = 0; i < rows; i++) {
+			writeRow(buffer, random, firstId + i);
+		}
+	}
+
+	private void writeRow(ByteBuffer buffer, SplittableRandom random, long id) {
+		Defect defect = invalidRatio > 0 && random.nextDouble() < invalidRatio
+				? DEFECTS[random.nextInt(DEFECTS.length)] : null;
+
+		putNumber(buffer, id);
+		buffer.put((byte) ',');
+		putNumber(buffer, defect == Defect.GAME_NO ? (random.nextBoolean() ? 0 : 101) : nextGame(random));
+		buffer.put((byte) ',');
+		putLetters(buffer, random, defect == Defect.BLANK_NAME ? 0 : defect == Defect.LONG_NAME ? 21 : 5 + random.nextInt(16));
+		buffer.put((byte) ',');
+		putLetters(buffer, random, defect == Defect.LONG_CODE ? 6 : 2 + random.nextInt(4));
+		buffer.put((byte) ',');
+		putNumber(buffer, defect == Defect.TYPE ? 3 : 1 + random.nextInt(2));
+		buffer.put((byte) ',');
+
+		long costCents = defect == Defect.COST_PRICE ? random.nextLong(10_001, 100_000) : random.nextLong(100, 10_001);
+		if (defect == Defect.NUMBER) {
+			buffer.put(INVALID_NUMBER);
+		} else {
+			putCents(buffer, costCents);
+		}
+		buffer.put((byte) ',');
+		buffer.put(defect == Defect.TAX ? INVALID_TAX : TAX);
+		buffer.put((byte) ',');
+		// cost price plus 9% tax, rounded half up
+		putCents(buffer, (costCents * 109 + 50) / 100);
+		buffer.put((byte) ',');
+
+		if (defect == Defect.DATE) {
+			buffer.put(INVALID_DATE);
+		} else {
+			long second = random.nextLong((long) days.length * SECONDS_PER_DAY);
+			buffer.put(days[(int) (second / SECONDS_PER_DAY)]);
+			int secondOfDay = (int) (second % SECONDS_PER_DAY);
+			putTwoDigits(buffer, secondOfDay / 3600);
+			buffer.put((byte) ':');
+			putTwoDigits(buffer, secondOfDay / 60 % 60);
+			buffer.put((byte) ':');
+			putTwoDigits(buffer, secondOfDay % 60);
+		}
+		buffer.put((byte) '\n');
+	}
+
+	/** Game 1 is the most sold with a zipf distribution, game 2 the second and so on. */
+	private int nextGame(SplittableRandom random) {
+		if (gameWeights == null) {
+			return 1 + random.nextInt(games);
+		}
+		double target = random.nextDouble() * gameWeights[games - 1];
+		int low = 0;
+		int high = games - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (gameWeights[middle] <= target) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low + 1;
+	}
+
+	private static double[] zipfWeights(int games, double exponent) {
+		double[] weights = new double[games];
+		double sum = 0;
+		for (int rank = 1; rank <= games; rank++) {
+			sum += 1 / Math.pow(rank, exponent);
+			weights[rank - 1] = sum;
+		}
+		return weights;
+	}
+
+	private static void putLetters(ByteBuffer buffer, SplittableRandom random, int length) {
+		for (int i = 0; i < length; i++) {
+			buffer.put(LETTERS[random.nextInt(LETTERS.length)]);
+		}
+	}
+
+	private static void putCents(ByteBuffer buffer, long cents) {
+		putNumber(buffer, cents / 100);
+		buffer.put((byte) '.');
+		putTwoDigits(buffer, (int) (cents % 100));
+	}
+
+	private static void putTwoDigits(ByteBuffer buffer, int value) {
+		buffer.put((byte) ('0' + value / 10));
+		buffer.put((byte) ('0' + value % 10));
+	}
+
+	/** Writes a non negative number, its digits are filled in from the last one. */
+	private static void putNumber(ByteBuffer buffer, long value) {
+		int digits = 1;
+		for (long rest = value; rest >= 10; rest /= 10) {
+			digits++;
+		}
+		int start = buffer.position();
+		for (int i = start + digits - 1; i >= start; i--) {
+			buffer.put(i, (byte) ('0' + value % 10));
+			value /= 10;
+		}
+		buffer.position(start + digits);
+	}
+}
@@ -1,6 +1,7 @@
 package com.game.utils;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,28 +21,57 @@ import jakarta.persistence.criteria.Predicate;
 public class GameSalesSpecification {
 
 	/**
+	 * Same as {@link #filter(LocalDateTime, LocalDateTime, BigDecimal, BigDecimal, LocalDateTime, Long)} without a seek predicate.
+	 */
+	public static Specification<GameSales> filter(
+			LocalDateTime fromDate,
+			LocalDateTime toDate,
+			BigDecimal minPrice,
+			BigDecimal maxPrice
+			) {
+		return filter(fromDate, toDate, minPrice, maxPrice, null, null);
+	}
+
+	/**
+	 * The seek predicate restricts the result to the rows after the last row of the previous page, for keyset
+	 * pagination ordered by {@code (dateOfSale, id)} when {@code afterDate} is given, or by {@code id} otherwise.
+	 *
 	 * @param fromDate The start date of the range.
 	 * @param toDate The end date of the range.
 	 * @param minPrice The minimum sale price to filter records by (inclusive).
 	 * @param maxPrice The maximum sale price to filter records by (inclusive).
+	 * @param afterDate The date of sale of the last row of the previous page, null when ordered by id only.
+	 * @param afterId The id of the last row of the previous page, null for the first page.
 	 * @return A Specification that can be used for filtering GameSales entities based on the provided parameters.
 	 */
 	public static Specification<GameSales> filter(
 			LocalDateTime fromDate,
 			LocalDateTime toDate,
 			BigDecimal minPrice,
-			BigDecimal maxPrice
+			BigDecimal maxPrice,
+			LocalDateTime afterDate,
+			Long afterId
 			) {
 		return (root, query, cb) -> {
 			List<Predicate> predicates = new ArrayList<>();
 			if (fromDate != null && toDate != null) {
 				predicates.add(cb.between(root.get("dateOfSale"), fromDate, toDate));
 			}
+			// salePrice is held in cents, the bounds are rounded inwards to whole cents
 			if (minPrice != null) {
-				predicates.add(cb.greaterThanOrEqualTo(root.get("salePrice"), minPrice));
+				predicates.add(cb.greaterThanOrEqualTo(root.get("salePrice"), Money.toCentsBound(minPrice, RoundingMode.CEILING)));
 			}
 			if (maxPrice != null) {
-				predicates.add(cb.lessThanOrEqualTo(root.get("salePrice"), maxPrice));
+				predicates.add(cb.lessThanOrEqualTo(root.get("salePrice"), Money.toCentsBound(maxPrice, RoundingMode.FLOOR)));
+			}
+			if (afterId != null && afterDate != null) {
+				// (dateOfSale, id) > (afterDate, afterId), the redundant bound lets the date index seek to the start
+				predicates.add(cb.greaterThanOrEqualTo(root.get("dateOfSale"), afterDate));
+				predicates.add(cb.or(
+						cb.greaterThan(root.get("dateOfSale"), afterDate),
+						cb.and(cb.equal(root.get("dateOfSale"), afterDate), cb.greaterThan(root.get("id"), afterId))));
+			} else if (afterId != null) {
+				predicates.add(cb.greaterThan(root.get("id"), afterId));
 			}
 			return cb.and(predicates.toArray(new Predicate[0]));
 		};
@@ -0,0 +1,227 @@
+package com.game.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.game.config.ImportProperties;
+import com.game.entity.CsvImportInfo;
+import com.game.enums.DuplicateMode;
+import com.game.enums.ImportStatusEnums;
+import com.game.service.GameSalesDbService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports a csv file at {@code LOAD DATA} speed with the validation of the batch import, all of it done by MySQL.
+ *
+ * <p>The csv, from a file or a request body, is streamed by the app to the driver and loaded as text into {@code game_sales_staging_<import id>}, a table without secondary
+ * indexes. The set-based statements of {@link GameSalesStagingRules} then check the rows in three passes: the
+ * values that cannot be parsed, the constraints of {@link GameSalesDtoValidator} and, unless duplicates are ignored
+ * or upserted, the ids already stored or repeated in the file. Each problem becomes an import_error row and the rows
+ * with a problem leave the staging table after each pass. The rows left are copied into game_sales by one
+ * {@code INSERT ... SELECT} in one transaction, so the import stores all its valid rows or none. The transaction
+ * first locks the staged ids in game_sales with {@code SELECT ... FOR UPDATE}, as the batch import does, and checks
+ * again the ids another import stored since the checks. The staging table is dropped at the end.
+ *
+ * <p>Line numbers count one line per row, a quoted field spanning lines shifts the line numbers of the rows after it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameSalesStagingLoader {
+
+	private static final String COLUMNS = "id, game_no, game_name, game_code, type, cost_price, tax, sale_price, date_of_sale";
+
+	private static final String MERGE_SQL = "INSERT INTO game_sales (" + COLUMNS + ") "
+			+ "SELECT CAST(id AS SIGNED), CAST(game_no AS SIGNED), game_name, game_code, CAST(type AS SIGNED), "
+			+ GameSalesStagingRules.storedPrice("cost_price") + ", " + GameSalesStagingRules.storedPrice("tax") + ", "
+			+ GameSalesStagingRules.storedPrice("sale_price") + ", "
+			+ "CAST(date_of_sale AS DATETIME) FROM %1$s ORDER BY line_number";
+
+	/**
+	 * @param valid the rows merged, and the repeated ids dropped from them.
+	 * @param days the first and last day of the rows merged or overwritten, null if there are none.
+	 */
+	private record Merge(int valid, LocalDate[] days) {
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final GameSalesLoadData loadData;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final GameSalesDbService gameSalesDbService;
+
+	private final ImportProperties importProperties;
+
+	/**
+	 * @param csvFilePath absolute path of the csv file to load.
+	 * @param importInfo the csv_import_info row tracking this import, its final status is saved by this method.
+	 * @param progress the live counters of this import, cancelling it kills the running statement.
+	 */
+	public void loadCsv(String csvFilePath, CsvImportInfo importInfo, ImportProgress progress) {
+		try (InputStream in = Files.newInputStream(Path.of(csvFilePath))) {
+			loadCsv(in, importInfo, progress);
+		} catch (IOException e) {
+			log.error("Error loading csv file :{}", e.getMessage(), e);
+			gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
+		}
+	}
+
+	/**
+	 * @param in the csv bytes, read up to the end.
+	 * @param importInfo the csv_import_info row tracking this import, its final status is saved by this method.
+	 * @param progress the live counters of this import, cancelling it kills the running statement.
+	 */
+	public void loadCsv(InputStream in, CsvImportInfo importInfo, ImportProgress progress) {
+		String table = "game_sales_staging_" + importInfo.getId();
+		GameSalesLoadData.Statements statements = loadData.statements(progress);
+		try {
+			gameSalesDbService.upsertStatusToDb(importInfo, ImportStatusEnums.PROCESSING.toString());
+			// a failed or cancelled attempt of the same file leaves its errors and maybe its staging table
+			gameSalesDbService.deleteImportErrorsAfterLine(importInfo.getId(), 0);
+			jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+			jdbcTemplate.execute("CREATE TABLE " + table + " ("
+					+ "line_number BIGINT AUTO_INCREMENT PRIMARY KEY, "
+					+ "id VARCHAR(255), game_no VARCHAR(255), game_name VARCHAR(255), game_code VARCHAR(255), "
+					+ "type VARCHAR(255), cost_price VARCHAR(255), tax VARCHAR(255), sale_price VARCHAR(255), "
+					+ "date_of_sale VARCHAR(255)) AUTO_INCREMENT = 2"); // the header is line 1
+
+			// text columns take any value, so a bad value becomes an import error instead of a truncated one
+			int loaded = statements.loadData(progress.track(in), "LOAD DATA LOCAL INFILE ? INTO TABLE " + table + " "
+					+ "CHARACTER SET utf8mb4 "
+					+ "FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' "
+					+ "LINES TERMINATED BY '\\n' "
+					+ "IGNORE 1 LINES "
+					+ "(id, game_no, game_name, game_code, type, cost_price, tax, sale_price, @date_of_sale) "
+					+ "SET date_of_sale = TRIM(TRAILING '\\r' FROM @date_of_sale)", "import_" + importInfo.getId() + ".csv");
+			progress.addParsed(loaded);
+			log.info("Import {} staged {} row(s) in {}", importInfo.getId(), loaded, table);
+
+			reject(statements, importInfo, table, GameSalesStagingRules.PARSE);
+			reject(statements, importInfo, table, GameSalesStagingRules.VALIDATION);
+			DuplicateMode duplicateMode = importProperties.getDuplicateMode();
+			if (duplicateMode == DuplicateMode.FAIL) {
+				reject(statements, importInfo, table, GameSalesStagingRules.DUPLICATE);
+			}
+			int checked = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+			dropRepeatedIds(statements, table, duplicateMode);
+
+			Merge merge = transactionTemplate.execute(status -> {
+				// an import may have stored one of the ids since the checks above, it is checked again while the
+				// stored rows of the ids and the gaps where a new one would go are locked
+				jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " s STRAIGHT_JOIN game_sales g "
+						+ "ON g.id = CAST(s.id AS SIGNED) FOR UPDATE OF g", Integer.class);
+				int rejected = 0;
+				if (duplicateMode == DuplicateMode.FAIL) {
+					rejected = reject(statements, importInfo, table, List.of(GameSalesStagingRules.STORED));
+				} else if (duplicateMode == DuplicateMode.IGNORE) {
+					statements.execute("DELETE s FROM " + table + " s JOIN game_sales g ON g.id = CAST(s.id AS SIGNED)");
+				}
+				LocalDate[] touched = stagedDays(table, duplicateMode);
+				if (duplicateMode == DuplicateMode.UPSERT) {
+					// a partitioned game_sales is keyed on (id, date_of_sale), a row moving to another day replaces it
+					statements.execute("DELETE g FROM game_sales g JOIN " + table + " s "
+							+ "ON g.id = CAST(s.id AS SIGNED) AND g.date_of_sale <> CAST(s.date_of_sale AS DATETIME)");
+				}
+				statements.execute(mergeSql(table, duplicateMode));
+				return new Merge(checked - rejected, touched);
+			});
+			int valid = merge.valid();
+			progress.addFailed(loaded - valid);
+			progress.addSuccessful(valid);
+			log.info("Import {} merged {} valid row(s), {} rejected", importInfo.getId(), valid, loaded - valid);
+
+			if (merge.days() != null) {
+				loadData.rebuildDailyRollup(merge.days()[0], merge.days()[1]);
+			}
+			gameSalesDbService.reloadColumnarStore();
+			gameSalesDbService.updateSuccessInfoToDb(importInfo, loaded, valid, loaded - valid);
+		} catch (Exception e) {
+			if (progress.isCancelled()) {
+				log.info("Import {} cancelled", importInfo.getId());
+				gameSalesDbService.updateCancelledInfoToDb(importInfo, 0, 0, 0);
+			} else {
+				log.error("Error loading csv file through {}: {}", table, e.getMessage(), e);
+				gameSalesDbService.updateFailedInfoToDb(importInfo, e.getMessage());
+			}
+		} finally {
+			loadData.dropQuietly(table);
+		}
+	}
+
+	/**
+	 * Records an import_error row for every problem the rules find, then drops the rows having one.
+	 *
+	 * @return the number of rows dropped.
+	 */
+	private int reject(GameSalesLoadData.Statements statements, CsvImportInfo importInfo, String table,
+			List<GameSalesStagingRules.Rule> rules) {
+		for (GameSalesStagingRules.Rule rule : rules) {
+			List<Object> args = new ArrayList<>(List.of(importInfo.getId(), rule.column()));
+			args.addAll(rule.args());
+			statements.execute("INSERT INTO import_error (import_id, line_number, column_name, reason) "
+					+ "SELECT ?, line_number, ?, LEFT(" + rule.reason() + ", 500) FROM " + table + " s WHERE "
+					+ rule.where(table), args.toArray());
+		}
+		return statements.execute("DELETE s FROM " + table + " s JOIN import_error e "
+				+ "ON e.import_id = ? AND e.line_number = s.line_number", importInfo.getId());
+	}
+
+	/**
+	 * Leaves one staged row per id to merge, the first when ignoring and the last when upserting. The merge
+	 * transaction then drops those of the ids already stored when ignoring. ON DUPLICATE KEY UPDATE would do the same
+	 * on an unpartitioned game_sales, but a partitioned one is keyed on (id, date_of_sale) and would store a repeated
+	 * id with another date twice. The dropped rows still count as successful.
+	 */
+	private void dropRepeatedIds(GameSalesLoadData.Statements statements, String table, DuplicateMode duplicateMode) {
+		if (duplicateMode == DuplicateMode.FAIL) {
+			return; // rejected by GameSalesStagingRules.DUPLICATE
+		}
+		String kept = duplicateMode == DuplicateMode.IGNORE ? "MIN(line_number)" : "MAX(line_number)";
+		statements.execute("DELETE s FROM " + table + " s JOIN (SELECT CAST(id AS SIGNED) AS id, " + kept
+				+ " AS line_number FROM " + table + " GROUP BY CAST(id AS SIGNED)) k "
+				+ "ON k.id = CAST(s.id AS SIGNED) AND k.line_number <> s.line_number");
+	}
+
+	/**
+	 * The db keeps the first row of a repeated id when ignoring and the last one when upserting, as the batch import.
+	 */
+	private static String mergeSql(String table, DuplicateMode duplicateMode) {
+		String sql = String.format(MERGE_SQL, table);
+		return switch (duplicateMode) {
+			case FAIL -> sql;
+			case IGNORE -> sql + " ON DUPLICATE KEY UPDATE game_sales.id = game_sales.id";
+			case UPSERT -> sql + " ON DUPLICATE KEY UPDATE game_sales.game_no = VALUES(game_no), "
+					+ "game_sales.game_name = VALUES(game_name), game_sales.game_code = VALUES(game_code), "
+					+ "game_sales.type = VALUES(type), game_sales.cost_price = VALUES(cost_price), "
+					+ "game_sales.tax = VALUES(tax), game_sales.sale_price = VALUES(sale_price), "
+					+ "game_sales.date_of_sale = VALUES(date_of_sale)";
+		};
+	}
+
+	/**
+	 * @return the first and last day of the staged rows, and of the stored rows they overwrite when upserting,
+	 *         null if there are none.
+	 */
+	private LocalDate[] stagedDays(String table, DuplicateMode duplicateMode) {
+		String sql = "SELECT MIN(d), MAX(d) FROM (SELECT DATE(CAST(date_of_sale AS DATETIME)) AS d FROM " + table
+				+ (duplicateMode == DuplicateMode.UPSERT
+						? " UNION ALL SELECT DATE(g.date_of_sale) FROM game_sales g JOIN " + table
+								+ " s ON g.id = CAST(s.id AS SIGNED)" : "")
+				+ ") days";
+		return jdbcTemplate.queryForObject(sql, (rs, i) -> rs.getDate(1) == null ? null
+				: new LocalDate[] { rs.getDate(1).toLocalDate(), rs.getDate(2).toLocalDate() });
+	}
+}
@@ -0,0 +1,124 @@
+package com.game.utils;
+
+import java.util.List;
+
+import com.game.model.GameSalesDto;
+
+/**
+ * The set-based checks {@link GameSalesStagingLoader} runs over a staging table, whose columns hold the csv values
+ * as text and whose {@code line_number} is the csv line of the row.
+ *
+ * <p>{@link #VALIDATION} is the sql form of {@link GameSalesDtoValidator}, built from the limits and messages of
+ * {@link GameSalesDto}, {@code GameSalesStagingRulesTest} checks both report the same problems for the same rows.
+ */
+public final class GameSalesStagingRules {
+
+	private static final String INTEGER = "'^[+-]?[0-9]{1,18}$'";
+
+	private static final String DECIMAL = "'^[+-]?([0-9]{1,20}([.][0-9]{0,30})?|[.][0-9]{1,30})$'";
+
+	private static final String DATE_TIME =
+			"'^[1-9][0-9]{3}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]|3[01]) ([01][0-9]|2[0-3]):[0-5][0-9]:[0-5][0-9]$'";
+
+	// as @NotBlank, nothing but characters up to the space, which String.trim() removes. Bound as a parameter,
+	// mysql and java read the escapes of a literal differently
+	private static final String BLANK = "^[\\x{0}-\\x{20}]*$";
+
+	private static final String DUPLICATE_REASON =
+			"CONCAT('Duplicate entry ''', CAST(id AS SIGNED), ''' for key ''game_sales.PRIMARY''')";
+
+	/**
+	 * A check run over the whole staging table.
+	 *
+	 * @param column the csv column reported with the problem.
+	 * @param condition selects the staging rows having the problem, {@code %1$s} is the staging table, aliased s
+	 *        in the outer query.
+	 * @param reason the sql expression of the message.
+	 * @param args the parameters of the condition.
+	 */
+	public record Rule(String column, String condition, String reason, List<Object> args) {
+
+		public String where(String table) {
+			return String.format(condition, table);
+		}
+	}
+
+	/**
+	 * The values that cannot be parsed, with their own messages rather than those of the java parsers. Unlike
+	 * {@link java.math.BigDecimal}, decimals in exponent notation are not parsed: the cast of such a value beyond
+	 * {@code DECIMAL(65, 30)} would fail the statement under strict mode rather than reject the row.
+	 */
+	public static final List<Rule> PARSE = List.of(
+			parseRule("id", INTEGER, "a whole number"),
+			parseRule("game_no", INTEGER, "a whole number"),
+			parseRule("type", INTEGER, "a whole number"),
+			parseRule("cost_price", DECIMAL, "a decimal number"),
+			parseRule("tax", DECIMAL, "a decimal number"),
+			parseRule("sale_price", DECIMAL, "a decimal number"),
+			parseRule("date_of_sale", DATE_TIME, "a yyyy-MM-dd HH:mm:ss date"),
+			// CASE keeps the date functions away from the values that are no date, strict mode would fail the statement
+			new Rule("date_of_sale", "CASE WHEN date_of_sale REGEXP " + DATE_TIME + " THEN CAST(SUBSTRING(date_of_sale, 9, 2) "
+					+ "AS SIGNED) > DAY(LAST_DAY(CONCAT(SUBSTRING(date_of_sale, 1, 7), '-01'))) ELSE FALSE END",
+					"CONCAT('Invalid date ''', date_of_sale, '''')", List.of()));
+
+	/**
+	 * The constraints on {@link GameSalesDto}, and the messages of mysql for the values beyond the columns of
+	 * game_sales. Only run on parsed values, so the casts are exact. The constraints check the value read, as
+	 * {@link GameSalesDtoValidator} does, and the bounds of cost_price and tax keep its rounded value in its column.
+	 */
+	public static final List<Rule> VALIDATION = List.of(
+			rule("id", "CAST(id AS SIGNED) < 1", GameSalesDto.ID_MESSAGE),
+			rule("id", "CAST(id AS SIGNED) > 2147483647", "Out of range value for column 'id'"),
+			rule("game_no", "CAST(game_no AS SIGNED) < 1", GameSalesDto.MIN_GAME_NO_MESSAGE),
+			rule("game_no", "CAST(game_no AS SIGNED) > " + GameSalesDto.MAX_GAME_NO, GameSalesDto.MAX_GAME_NO_MESSAGE),
+			new Rule("game_name", "game_name IS NULL OR game_name REGEXP ?",
+					literal(GameSalesDto.BLANK_GAME_NAME_MESSAGE), List.of(BLANK)),
+			rule("game_name", "CHAR_LENGTH(game_name) > " + GameSalesDto.MAX_GAME_NAME_LENGTH,
+					GameSalesDto.GAME_NAME_LENGTH_MESSAGE),
+			new Rule("game_code", "game_code IS NULL OR game_code REGEXP ?",
+					literal(GameSalesDto.BLANK_GAME_CODE_MESSAGE), List.of(BLANK)),
+			rule("game_code", "CHAR_LENGTH(game_code) > " + GameSalesDto.MAX_GAME_CODE_LENGTH,
+					GameSalesDto.GAME_CODE_LENGTH_MESSAGE),
+			rule("type", "CAST(type AS SIGNED) NOT IN (1, 2)", GameSalesDto.TYPE_MESSAGE),
+			rule("cost_price", "CAST(cost_price AS DECIMAL(65, 30)) > " + GameSalesDto.MAX_COST_PRICE,
+					GameSalesDto.MAX_COST_PRICE_MESSAGE),
+			rule("cost_price", "CAST(cost_price AS DECIMAL(65, 30)) < 0", GameSalesDto.MIN_COST_PRICE_MESSAGE),
+			rule("tax", "CAST(tax AS DECIMAL(65, 30)) <> " + GameSalesDto.TAX, GameSalesDto.TAX_MESSAGE),
+			rule("sale_price", "CAST(sale_price AS DECIMAL(65, 30)) < 0", GameSalesDto.SALE_PRICE_MESSAGE),
+			// on the value stored, 99999999.995 passes a check of the raw value and would fail the whole merge
+			rule("sale_price", storedPrice("sale_price") + " >= 100000000", "Out of range value for column 'sale_price'"));
+
+	/** The ids already stored. */
+	public static final Rule STORED = new Rule("id",
+			"EXISTS (SELECT 1 FROM game_sales g WHERE g.id = CAST(s.id AS SIGNED))", DUPLICATE_REASON, List.of());
+
+	/** The ids already stored or repeated in the file, as the batch import in FAIL mode, which keeps the first row. */
+	public static final List<Rule> DUPLICATE = List.of(
+			STORED,
+			new Rule("id", "line_number IN (SELECT line_number FROM (SELECT line_number, ROW_NUMBER() OVER "
+					+ "(PARTITION BY CAST(id AS SIGNED) ORDER BY line_number) AS occurrence FROM %1$s) o WHERE occurrence > 1)",
+					DUPLICATE_REASON, List.of()));
+
+	private GameSalesStagingRules() {
+	}
+
+	/**
+	 * @return the sql expression of the value a price column of the staging table is stored as in game_sales.
+	 */
+	public static String storedPrice(String column) {
+		return "ROUND(CAST(" + column + " AS DECIMAL(65, 30)), 2)";
+	}
+
+	private static Rule rule(String column, String condition, String message) {
+		return new Rule(column, condition, literal(message), List.of());
+	}
+
+	private static Rule parseRule(String column, String pattern, String expected) {
+		return new Rule(column, column + " IS NULL OR " + column + " NOT REGEXP " + pattern,
+				"CONCAT('Cannot parse ''', IFNULL(" + column + ", ''), ''' as " + expected + "')", List.of());
+	}
+
+	private static String literal(String message) {
+		return "'" + message.replace("'", "''") + "'";
+	}
+}
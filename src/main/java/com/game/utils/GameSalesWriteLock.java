@@ -0,0 +1,119 @@
+package com.game.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Service;
+
+import com.game.exception.ImportConflictException;
+
+/**
+ * The one registry every writer of game_sales goes through: the imports of every method, the synchronous import and
+ * the partition maintenance. A SHADOW import replaces game_sales by a copy taken when it starts, so the rows written
+ * or partitions changed meanwhile would be lost. It holds the lock exclusively, the other writers share it.
+ *
+ * <p>Nothing waits for the lock, a writer that cannot take it gets an {@link ImportConflictException}. A hold is not
+ * bound to a thread, a queued import takes it when submitted and releases it once run.
+ */
+@Service
+public class GameSalesWriteLock {
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	// guarded by lock, a writer holding the lock more than once is listed as many times
+	private final List<String> writers = new ArrayList<>();
+
+	private String exclusiveWriter;
+
+	/**
+	 * A hold of the lock, released once whatever the number of calls to {@link #close()}.
+	 */
+	public final class Hold implements AutoCloseable {
+
+		private final String writer;
+
+		private final boolean exclusive;
+
+		private boolean released;
+
+		private Hold(String writer, boolean exclusive) {
+			this.writer = writer;
+			this.exclusive = exclusive;
+		}
+
+		@Override
+		public void close() {
+			release(this);
+		}
+	}
+
+	/**
+	 * @param writer the name of the writer, shown to the writers it keeps out.
+	 * @throws ImportConflictException if a SHADOW import holds the lock.
+	 */
+	public Hold acquireShared(String writer) {
+		lock.lock();
+		try {
+			if (exclusiveWriter != null) {
+				throw new ImportConflictException(exclusiveWriter + " is replacing game_sales, retry " + writer
+						+ " once it has finished");
+			}
+			writers.add(writer);
+			return new Hold(writer, false);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param writer the name of the writer, shown to the writers it keeps out.
+	 * @throws ImportConflictException if any other writer holds the lock.
+	 */
+	public Hold acquireExclusive(String writer) {
+		lock.lock();
+		try {
+			if (exclusiveWriter != null) {
+				throw new ImportConflictException(exclusiveWriter + " is replacing game_sales, retry " + writer
+						+ " once it has finished");
+			}
+			if (!writers.isEmpty()) {
+				throw new ImportConflictException(writer + " runs alone, retry once " + String.join(", ", writers)
+						+ " have finished");
+			}
+			exclusiveWriter = writer;
+			return new Hold(writer, true);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the writers holding the lock, the exclusive one alone if any.
+	 */
+	public List<String> getWriters() {
+		lock.lock();
+		try {
+			return exclusiveWriter != null ? List.of(exclusiveWriter) : List.copyOf(writers);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void release(Hold hold) {
+		lock.lock();
+		try {
+			if (hold.released) {
+				return;
+			}
+			hold.released = true;
+			if (hold.exclusive) {
+				exclusiveWriter = null;
+			} else {
+				writers.remove(hold.writer);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.game.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Derives the checkpoint an import can resume from while its batches are committed out of order.
+ *
+ * <p>The parse stage registers every batch in file order, keyed by the line its last row ends on.
+ * Writers complete batches in any order, and the checkpoint only advances over the longest run of
+ * registered batches that are all committed. Everything before the checkpoint is therefore in the db,
+ * batches after it may or may not be, which is why a resumed import writes with duplicates ignored.
+ *
+ * <p>Guarded by a {@link ReentrantLock} rather than a monitor, as a writer saves the checkpoint while holding it and
+ * must not pin its carrier thread when it is a virtual thread.
+ */
+public class ImportCheckpointTracker {
+
+	/**
+	 * Position in the csv file up to which every row has been committed.
+	 *
+	 * @param offset byte offset after the last committed row, 0 if unknown because the parser does not track offsets.
+	 * @param lineNumber line the last committed row ends on, 0 if nothing has been committed.
+	 *        Rows starting on or before it are committed, the row after the offset starts on the next line.
+	 * @param rowId id of the last committed row.
+	 * @param successfulRecords rows saved up to the checkpoint.
+	 * @param failedRecords rows rejected up to the checkpoint.
+	 */
+	public record Checkpoint(long offset, long lineNumber, long rowId, long successfulRecords, long failedRecords) {
+
+		public static final Checkpoint START = new Checkpoint(0, 0, 0, 0, 0);
+	}
+
+	private static class Batch {
+		private final long offset;
+		private boolean committed;
+		private long rowId;
+		private long successfulRecords;
+		private long failedRecords;
+
+		private Batch(long offset) {
+			this.offset = offset;
+		}
+	}
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Map<Long, Batch> pending = new LinkedHashMap<>();
+
+	private final Consumer<Checkpoint> listener;
+
+	private Checkpoint checkpoint;
+
+	/**
+	 * @param start the checkpoint of a previous attempt, or {@link Checkpoint#START}.
+	 * @param listener saves each new checkpoint, called in checkpoint order.
+	 */
+	public ImportCheckpointTracker(Checkpoint start, Consumer<Checkpoint> listener) {
+		this.checkpoint = start;
+		this.listener = listener;
+	}
+
+	/**
+	 * Registers the next batch of the file, must be called in file order.
+	 *
+	 * @param lastLineNumber line the last row of the batch ends on.
+	 * @param endOffset byte offset after the last row of the batch, negative if unknown.
+	 */
+	public void register(long lastLineNumber, long endOffset) {
+		lock.lock();
+		try {
+			pending.put(lastLineNumber, new Batch(endOffset));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Marks a registered batch as committed and advances the checkpoint if possible.
+	 *
+	 * @param lastRowId id of the last row written by the batch, 0 if it wrote none.
+	 */
+	public void complete(long lastLineNumber, long lastRowId, long successfulRecords, long failedRecords) {
+		lock.lock();
+		try {
+			Batch batch = pending.get(lastLineNumber);
+			if (batch == null) {
+				throw new IllegalStateException("Batch ending at line " + lastLineNumber + " was not registered");
+			}
+			batch.committed = true;
+			batch.rowId = lastRowId;
+			batch.successfulRecords = successfulRecords;
+			batch.failedRecords = failedRecords;
+
+			Checkpoint advanced = checkpoint;
+			Iterator<Map.Entry<Long, Batch>> it = pending.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<Long, Batch> head = it.next();
+				Batch done = head.getValue();
+				if (!done.committed) {
+					break;
+				}
+				it.remove();
+				advanced = new Checkpoint(Math.max(0, done.offset), head.getKey(),
+						done.rowId > 0 ? done.rowId : advanced.rowId(),
+						advanced.successfulRecords() + done.successfulRecords,
+						advanced.failedRecords() + done.failedRecords);
+			}
+			if (advanced != checkpoint) {
+				checkpoint = advanced;
+				// saved under the lock so checkpoints reach the db in order
+				listener.accept(advanced);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public Checkpoint getCheckpoint() {
+		lock.lock();
+		try {
+			return checkpoint;
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.game.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.game.model.ImportRowError;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class ImportErrorBatchInsert {
+
+	private static final int MAX_REASON_LENGTH = 500;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Removes the errors recorded after a checkpoint, the rows after it are validated again when the import resumes.
+	 */
+	public int deleteAfterLine(Long importId, long lineNumber) {
+		return jdbcTemplate.update("DELETE FROM import_error WHERE import_id = ? AND line_number > ?", importId, lineNumber);
+	}
+
+	public int[] insertBatch(Long importId, List<ImportRowError> errors) {
+		String sql = "INSERT INTO import_error (import_id, line_number, column_name, reason) VALUES (?, ?, ?, ?)";
+
+		return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ImportRowError error = errors.get(i);
+				ps.setLong(1, importId);
+				ps.setLong(2, error.getLineNumber());
+				ps.setString(3, error.getColumnName());
+				String reason = String.valueOf(error.getReason());
+				ps.setString(4, reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason);
+			}
+			@Override
+			public int getBatchSize() {
+				return errors.size();
+			}
+		});
+	}
+}
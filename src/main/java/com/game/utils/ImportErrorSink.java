@@ -0,0 +1,178 @@
+package com.game.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.game.model.ImportRowError;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the rows rejected by one import and writes them, off the import threads, to a side file
+ * and to the {@code import_error} table.
+ *
+ * <p>Import threads only enqueue the error. A single background thread drains the queue in batches,
+ * appends each batch to the side file and hands it to the db writer, so an error-heavy file costs
+ * one batched insert per {@code batchSize} errors instead of a round trip per row. A failure to
+ * record errors is logged and never fails the import itself.
+ */
+@Slf4j
+public class ImportErrorSink implements AutoCloseable {
+
+	private static final int QUEUE_CAPACITY = 10_000;
+
+	private static final long POLL_MILLIS = 100;
+
+	private final BlockingQueue<ImportRowError> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+	private final Path errorFile;
+
+	private final Consumer<List<ImportRowError>> dbWriter;
+
+	private final int batchSize;
+
+	private final boolean append;
+
+	private final Thread drainer;
+
+	private volatile boolean closed;
+
+	private BufferedWriter writer;
+
+	/**
+	 * @param errorFile side file receiving one csv line per rejected row, created on the first error.
+	 * @param dbWriter writes a batch of errors to the import_error table.
+	 * @param batchSize maximum number of errors written in one batch.
+	 * @param append true to add to the side file of a previous attempt of the same import.
+	 */
+	public ImportErrorSink(Path errorFile, Consumer<List<ImportRowError>> dbWriter, int batchSize, boolean append) {
+		this.errorFile = errorFile;
+		this.dbWriter = dbWriter;
+		this.batchSize = batchSize;
+		this.append = append;
+		this.drainer = new Thread(this::drain, "import-error-sink");
+		this.drainer.setDaemon(true);
+		this.drainer.start();
+	}
+
+	/**
+	 * Queues a rejected row, only blocks if the background thread is far behind.
+	 */
+	public void reject(long lineNumber, String columnName, String reason) {
+		reject(ImportRowError.builder()
+				.lineNumber(lineNumber)
+				.columnName(columnName)
+				.reason(reason)
+				.build());
+	}
+
+	/**
+	 * Queues a rejected row. An interrupt does not lose the row: it is queued all the same and the interrupt is
+	 * re-asserted for the caller to stop at its next check.
+	 */
+	public void reject(ImportRowError error) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				queue.put(error);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the side file, or null if no row has been rejected.
+	 */
+	public Path getErrorFile() {
+		return writer != null ? errorFile : null;
+	}
+
+	/**
+	 * Writes out the errors still queued and stops the background thread.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		try {
+			drainer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void drain() {
+		List<ImportRowError> batch = new ArrayList<>(batchSize);
+		try {
+			while (!closed || !queue.isEmpty()) {
+				ImportRowError first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				write(batch);
+				batch = new ArrayList<>(batchSize);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			closeWriter();
+		}
+	}
+
+	private void write(List<ImportRowError> batch) {
+		try {
+			if (writer == null) {
+				Files.createDirectories(errorFile.getParent());
+				boolean header = !append || !Files.exists(errorFile) || Files.size(errorFile) == 0;
+				writer = append
+						? Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+						: Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8);
+				if (header) {
+					writer.write("line_number,column_name,reason\n");
+				}
+			}
+			for (ImportRowError error : batch) {
+				writer.write(Long.toString(error.getLineNumber()));
+				writer.write(',');
+				writer.write(error.getColumnName() != null ? error.getColumnName() : "");
+				writer.write(",\"");
+				writer.write(String.valueOf(error.getReason()).replace("\"", "\"\""));
+				writer.write("\"\n");
+			}
+			writer.flush();
+		} catch (IOException e) {
+			log.warn("Error writing rejected rows to {}: {}", errorFile, e.getMessage());
+		}
+		try {
+			dbWriter.accept(batch);
+		} catch (Exception e) {
+			log.warn("Error saving {} rejected row(s) to db: {}", batch.size(), e.getMessage());
+		}
+	}
+
+	private void closeWriter() {
+		if (writer != null) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				log.warn("Error closing {}: {}", errorFile, e.getMessage());
+			}
+		}
+	}
+}
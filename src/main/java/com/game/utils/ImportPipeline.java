@@ -0,0 +1,240 @@
+package com.game.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Staged import pipeline: parse -> validate/map -> write.
+ *
+ * <p>The caller thread is the parse stage and hands batches to {@link #submit(List)}.
+ * Mapper threads turn each parsed batch into a mapped batch, e.g. validated entities, and writer
+ * threads save the mapped batches to the db. The stages are joined by bounded queues, so when the writers fall
+ * behind the mappers block, and when the mappers block the parser blocks as well. Memory use
+ * is therefore capped at roughly {@code 2 * queueCapacity} batches regardless of the file size.
+ *
+ * <p>Writers spend most of their time waiting for the db, so they can run on virtual threads created by the
+ * writer thread factory while the cpu bound mappers keep platform threads.
+ *
+ * <p>One pipeline is created per import job and must be closed, which shuts down its threads
+ * even when the import fails half way.
+ *
+ * @param <T> the type of row produced by the parse stage
+ * @param <R> the type of batch produced by the mapper stage
+ */
+@Slf4j
+public class ImportPipeline<T, R> implements AutoCloseable {
+
+	private static final long POLL_MILLIS = 100;
+
+	private final List<T> endOfParsed = new ArrayList<>(0);
+
+	private final Object endOfMapped = new Object();
+
+	private final BlockingQueue<List<T>> parsedQueue;
+
+	private final BlockingQueue<Object> mappedQueue;
+
+	private final Function<List<T>, R> mapper;
+
+	private final Consumer<R> writer;
+
+	private final int mapperThreads;
+
+	private final int writerThreads;
+
+	private final ExecutorService mapperExecutor;
+
+	private final ExecutorService writerExecutor;
+
+	private final CountDownLatch mappersDone;
+
+	private final CountDownLatch writersDone;
+
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	private final AtomicInteger activeMappers = new AtomicInteger();
+
+	private final AtomicInteger activeWriters = new AtomicInteger();
+
+	/**
+	 * @param mapperThreads number of threads validating and mapping parsed batches.
+	 * @param writerThreads number of threads writing mapped batches to the db.
+	 * @param queueCapacity maximum number of batches buffered between two stages.
+	 * @param mapper validates and maps a parsed batch, a null result is not passed to the writers.
+	 * @param writer writes a mapped batch to the db.
+	 */
+	public ImportPipeline(int mapperThreads, int writerThreads, int queueCapacity,
+			Function<List<T>, R> mapper, Consumer<R> writer) {
+		this(mapperThreads, writerThreads, queueCapacity, mapper, writer, Executors.defaultThreadFactory());
+	}
+
+	/**
+	 * @param writerThreadFactory creates the writer threads.
+	 */
+	public ImportPipeline(int mapperThreads, int writerThreads, int queueCapacity,
+			Function<List<T>, R> mapper, Consumer<R> writer, ThreadFactory writerThreadFactory) {
+		this.mapperThreads = mapperThreads;
+		this.writerThreads = writerThreads;
+		this.mapper = mapper;
+		this.writer = writer;
+		this.parsedQueue = new ArrayBlockingQueue<>(queueCapacity);
+		this.mappedQueue = new ArrayBlockingQueue<>(queueCapacity);
+		this.mappersDone = new CountDownLatch(mapperThreads);
+		this.writersDone = new CountDownLatch(writerThreads);
+		this.mapperExecutor = Executors.newFixedThreadPool(mapperThreads);
+		this.writerExecutor = Executors.newFixedThreadPool(writerThreads, writerThreadFactory);
+		for (int i = 0; i < mapperThreads; i++) {
+			mapperExecutor.execute(this::runMapper);
+		}
+		for (int i = 0; i < writerThreads; i++) {
+			writerExecutor.execute(this::runWriter);
+		}
+	}
+
+	/**
+	 * Hands a parsed batch to the mapper stage, blocking while the stage is full.
+	 *
+	 * @throws IllegalStateException if a downstream stage has failed.
+	 */
+	public void submit(List<T> batch) throws InterruptedException {
+		if (!batch.isEmpty()) {
+			put(parsedQueue, batch);
+		}
+	}
+
+	/**
+	 * Signals the end of input and waits for every submitted batch to be written.
+	 *
+	 * @throws IllegalStateException if any stage has failed.
+	 */
+	public void finish() throws InterruptedException {
+		for (int i = 0; i < mapperThreads; i++) {
+			put(parsedQueue, endOfParsed);
+		}
+		await(mappersDone);
+		for (int i = 0; i < writerThreads; i++) {
+			put(mappedQueue, endOfMapped);
+		}
+		await(writersDone);
+		throwIfFailed();
+	}
+
+	/**
+	 * Aborts the pipeline, any thread blocked in {@link #submit(List)} or {@link #finish()} fails fast.
+	 */
+	public void abort(Throwable cause) {
+		if (failure.compareAndSet(null, cause)) {
+			mapperExecutor.shutdownNow();
+			writerExecutor.shutdownNow();
+		}
+	}
+
+	@Override
+	public void close() {
+		mapperExecutor.shutdownNow();
+		writerExecutor.shutdownNow();
+		try {
+			if (!mapperExecutor.awaitTermination(1, TimeUnit.MINUTES)
+					|| !writerExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+				log.warn("Import pipeline threads did not terminate in time");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public int getParsedQueueSize() {
+		return parsedQueue.size();
+	}
+
+	public int getMappedQueueSize() {
+		return mappedQueue.size();
+	}
+
+	/** @return the number of mapper threads working on a batch, not waiting for one. */
+	public int getActiveMappers() {
+		return activeMappers.get();
+	}
+
+	/** @return the number of writer threads working on a batch, not waiting for one. */
+	public int getActiveWriters() {
+		return activeWriters.get();
+	}
+
+	private void runMapper() {
+		try {
+			List<T> batch;
+			while ((batch = parsedQueue.take()) != endOfParsed) {
+				R mapped;
+				activeMappers.incrementAndGet();
+				try {
+					mapped = mapper.apply(batch);
+				} finally {
+					activeMappers.decrementAndGet();
+				}
+				if (mapped != null) {
+					put(mappedQueue, mapped);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Throwable t) {
+			abort(t);
+		} finally {
+			mappersDone.countDown();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void runWriter() {
+		try {
+			Object batch;
+			while ((batch = mappedQueue.take()) != endOfMapped) {
+				activeWriters.incrementAndGet();
+				try {
+					writer.accept((R) batch);
+				} finally {
+					activeWriters.decrementAndGet();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Throwable t) {
+			abort(t);
+		} finally {
+			writersDone.countDown();
+		}
+	}
+
+	private <E> void put(BlockingQueue<E> queue, E item) throws InterruptedException {
+		while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+			throwIfFailed();
+		}
+	}
+
+	private void await(CountDownLatch latch) throws InterruptedException {
+		while (!latch.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+			throwIfFailed();
+		}
+	}
+
+	private void throwIfFailed() {
+		Throwable cause = failure.get();
+		if (cause != null) {
+			throw new IllegalStateException("Import pipeline aborted: " + cause.getMessage(), cause);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.game.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live counters of a running import job.
+ * Updated by the import threads, read by the progress endpoint and periodically flushed to {@code csv_import_info}.
+ */
+@Slf4j
+public class ImportProgress {
+
+	private final AtomicLong parsedRecords = new AtomicLong();
+
+	private final AtomicLong successfulRecords = new AtomicLong();
+
+	private final AtomicLong failedRecords = new AtomicLong();
+
+	private final AtomicLong processedBytes = new AtomicLong();
+
+	private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+
+	@Getter
+	private final long fileSize;
+
+	@Getter
+	private volatile long startNanos;
+
+	@Getter
+	private volatile boolean cancelled;
+
+	public ImportProgress(long fileSize) {
+		this.fileSize = fileSize;
+	}
+
+	public void start() {
+		startNanos = System.nanoTime();
+	}
+
+	public void addParsed(long count) {
+		parsedRecords.addAndGet(count);
+	}
+
+	public void addSuccessful(long count) {
+		successfulRecords.addAndGet(count);
+	}
+
+	public void addFailed(long count) {
+		failedRecords.addAndGet(count);
+	}
+
+	/**
+	 * Counts bytes skipped without reading them, e.g. the part of the file before a resume checkpoint.
+	 */
+	public void addProcessedBytes(long count) {
+		processedBytes.addAndGet(count);
+	}
+
+	public long getParsedRecords() {
+		return parsedRecords.get();
+	}
+
+	public long getSuccessfulRecords() {
+		return successfulRecords.get();
+	}
+
+	public long getFailedRecords() {
+		return failedRecords.get();
+	}
+
+	public long getProcessedBytes() {
+		return processedBytes.get();
+	}
+
+	/**
+	 * @return the rows parsed per second since the job started, 0 if it has not started yet.
+	 */
+	public double getRowsPerSecond() {
+		double seconds = elapsedSeconds();
+		return seconds > 0 ? parsedRecords.get() / seconds : 0;
+	}
+
+	/**
+	 * Estimates the remaining time from the share of the file read so far.
+	 *
+	 * @return the estimated seconds until the job finishes, or null if it cannot be estimated yet.
+	 */
+	public Long getEtaSeconds() {
+		long read = processedBytes.get();
+		double seconds = elapsedSeconds();
+		if (read <= 0 || seconds <= 0 || fileSize <= 0) {
+			return null;
+		}
+		return Math.round(seconds * Math.max(0, fileSize - read) / read);
+	}
+
+	/**
+	 * Wraps the input so that every byte read is counted towards the processed bytes.
+	 */
+	public InputStream track(InputStream in) {
+		return new FilterInputStream(in) {
+			@Override
+			public int read() throws IOException {
+				int b = super.read();
+				if (b >= 0) {
+					processedBytes.incrementAndGet();
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				int n = super.read(buffer, offset, length);
+				if (n > 0) {
+					processedBytes.addAndGet(n);
+				}
+				return n;
+			}
+		};
+	}
+
+	/**
+	 * Registers an action run when the job is cancelled, immediately if it already is.
+	 */
+	public void onCancel(Runnable hook) {
+		cancelHooks.add(hook);
+		if (cancelled) {
+			runHook(hook);
+		}
+	}
+
+	public void cancel() {
+		cancelled = true;
+		cancelHooks.forEach(this::runHook);
+	}
+
+	private void runHook(Runnable hook) {
+		try {
+			hook.run();
+		} catch (Exception e) {
+			log.warn("Error running import cancel hook: {}", e.getMessage(), e);
+		}
+	}
+
+	private double elapsedSeconds() {
+		long start = startNanos;
+		return start == 0 ? 0 : (System.nanoTime() - start) / 1_000_000_000.0;
+	}
+}
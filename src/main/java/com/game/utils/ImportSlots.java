@@ -0,0 +1,37 @@
+package com.game.utils;
+
+import java.util.concurrent.Semaphore;
+
+import org.springframework.stereotype.Service;
+
+import com.game.config.ImportProperties;
+
+/**
+ * Caps the imports running at the same time to {@code game.import.max-concurrent-jobs}, queued jobs and streamed
+ * imports alike. A queued job waits for its slot on its executor thread, a streamed import runs on the request
+ * thread and is refused when no slot is free.
+ */
+@Service
+public class ImportSlots {
+
+	private final Semaphore permits;
+
+	public ImportSlots(ImportProperties properties) {
+		this.permits = new Semaphore(Math.max(1, properties.getMaxConcurrentJobs()), true);
+	}
+
+	public void acquire() throws InterruptedException {
+		permits.acquire();
+	}
+
+	/**
+	 * @return true if a slot was free and is now taken.
+	 */
+	public boolean tryAcquire() {
+		return permits.tryAcquire();
+	}
+
+	public void release() {
+		permits.release();
+	}
+}
@@ -0,0 +1,208 @@
+package com.game.utils;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import com.game.config.ImportProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sizes the batches of one import and limits how many of them are written at the same time.
+ *
+ * <p>Every batch written reports its row count and write latency. The latency includes the waits for row
+ * and rollup locks. Once per window of a few batches, an adaptive import adjusts both values:
+ * <ul>
+ * <li>The batch size increases additively while the mean latency stays under the target. It is halved
+ * once the latency goes over the target, so a commit never holds its locks for long.</li>
+ * <li>The writer limit climbs one writer at a time, in the direction that last raised the rows per second,
+ * and turns back when the throughput drops. It is halved when the latency is more than twice the target,
+ * as the db is then saturated.</li>
+ * </ul>
+ * Writers also take a permit of the {@link ImportWriterBudget} shared by all the imports. A non adaptive import
+ * keeps the configured batch size and writer count.
+ *
+ * <p>The writers wait on a {@link ReentrantLock} rather than a monitor, so a virtual thread writer waiting for its
+ * slot does not pin its carrier thread on Java 21.
+ */
+@Slf4j
+public class ImportWriteTuner {
+
+	private static final int MIN_WINDOW_BATCHES = 4;
+
+	/** Relative throughput change below which a window counts as flat. */
+	private static final double TOLERANCE = 0.05;
+
+	private final ImportWriterBudget budget;
+
+	private final LongSupplier nanoClock;
+
+	private final boolean adaptive;
+
+	private final int minBatchSize;
+
+	private final int maxBatchSize;
+
+	private final int batchSizeStep;
+
+	private final long targetNanos;
+
+	private final int maxWriters;
+
+	// guards the writer limit and counters and the window below
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition writerFreed = lock.newCondition();
+
+	private volatile int batchSize;
+
+	private int writerLimit;
+
+	private int activeWriters;
+
+	private int direction = 1;
+
+	private double lastThroughput;
+
+	private long windowStart;
+
+	private int windowBatches;
+
+	private long windowRows;
+
+	private long windowNanos;
+
+	public ImportWriteTuner(ImportProperties properties, ImportWriterBudget budget) {
+		this(properties, budget, System::nanoTime);
+	}
+
+	/**
+	 * @param nanoClock the clock measuring the throughput of a window.
+	 */
+	public ImportWriteTuner(ImportProperties properties, ImportWriterBudget budget, LongSupplier nanoClock) {
+		this.budget = budget;
+		this.nanoClock = nanoClock;
+		this.adaptive = properties.isAdaptive();
+		this.minBatchSize = Math.min(properties.getMinBatchSize(), properties.getBatchSize());
+		this.maxBatchSize = Math.max(properties.getMaxBatchSize(), properties.getBatchSize());
+		this.batchSizeStep = Math.max(1, properties.getBatchSize() / 4);
+		this.targetNanos = properties.getTargetBatchMillis() * 1_000_000;
+		this.maxWriters = Math.max(1, Math.min(properties.getWriterThreads(), budget.getMaxWriters()));
+		this.batchSize = properties.getBatchSize();
+		this.writerLimit = maxWriters;
+		this.windowStart = nanoClock.getAsLong();
+	}
+
+	/**
+	 * @return the number of rows the parser should put in its next batch.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return the number of batches the import may write at the same time.
+	 */
+	public int getWriterLimit() {
+		lock.lock();
+		try {
+			return writerLimit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for a writer slot of this import, then for a connection of the budget.
+	 * {@link #release(int, long)} must follow.
+	 */
+	public void acquire() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (activeWriters >= writerLimit) {
+				writerFreed.await();
+			}
+			activeWriters++;
+		} finally {
+			lock.unlock();
+		}
+		try {
+			budget.acquire();
+		} catch (InterruptedException e) {
+			freeWriter();
+			throw e;
+		}
+	}
+
+	/**
+	 * Frees the writer slot and records the batch written with it.
+	 *
+	 * @param rows the rows of the batch, 0 if the write failed.
+	 * @param nanos the time the write took.
+	 */
+	public void release(int rows, long nanos) {
+		budget.release();
+		lock.lock();
+		try {
+			activeWriters--;
+			if (rows > 0) {
+				record(rows, nanos);
+			}
+			writerFreed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void freeWriter() {
+		lock.lock();
+		try {
+			activeWriters--;
+			writerFreed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void record(int rows, long nanos) {
+		windowBatches++;
+		windowRows += rows;
+		windowNanos += nanos;
+		if (!adaptive || windowBatches < Math.max(MIN_WINDOW_BATCHES, writerLimit * 2)) {
+			return;
+		}
+		long now = nanoClock.getAsLong();
+		double throughput = windowRows * 1e9 / Math.max(1, now - windowStart);
+		long meanNanos = windowNanos / windowBatches;
+
+		int previousBatchSize = batchSize;
+		batchSize = meanNanos > targetNanos
+				? Math.max(minBatchSize, batchSize / 2)
+				: Math.min(maxBatchSize, batchSize + batchSizeStep);
+
+		int previousLimit = writerLimit;
+		if (meanNanos > 2 * targetNanos) {
+			writerLimit = Math.max(1, writerLimit / 2);
+			direction = 1;
+		} else if (lastThroughput > 0 && throughput < lastThroughput * (1 - TOLERANCE)) {
+			direction = -direction;
+			writerLimit = clampWriters(writerLimit + direction);
+		} else if (lastThroughput == 0 || throughput > lastThroughput * (1 + TOLERANCE)) {
+			writerLimit = clampWriters(writerLimit + direction);
+		}
+		if (batchSize != previousBatchSize || writerLimit != previousLimit) {
+			log.debug("Import tuned to batches of {} rows and {} writer(s), {} rows/s, {} ms per batch",
+					batchSize, writerLimit, (long) throughput, meanNanos / 1_000_000);
+		}
+		lastThroughput = throughput;
+		windowStart = now;
+		windowBatches = 0;
+		windowRows = 0;
+		windowNanos = 0;
+	}
+
+	private int clampWriters(int writers) {
+		return Math.max(1, Math.min(maxWriters, writers));
+	}
+}
@@ -0,0 +1,64 @@
+package com.game.utils;
+
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Service;
+
+import com.game.config.ImportProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caps the batches all the imports write at the same time to a share of the write pool, each batch holding one
+ * connection for its transaction, so running imports leave connections to the other writes. The queries read
+ * from a pool of their own, see {@link com.game.config.DataSourceConfig}.
+ */
+@Slf4j
+@Service
+public class ImportWriterBudget {
+
+	/** Hikari's default pool size, used if the pool size cannot be read. */
+	private static final int DEFAULT_POOL_SIZE = 10;
+
+	private final int maxWriters;
+
+	private final Semaphore permits;
+
+	public ImportWriterBudget(DataSource dataSource, ImportProperties properties) {
+		int poolSize = writePoolSize(dataSource);
+		this.maxWriters = Math.max(1, (int) (poolSize * properties.getMaxPoolShare()));
+		this.permits = new Semaphore(maxWriters, true);
+		log.info("Imports write with at most {} of the {} db connections", maxWriters, poolSize);
+	}
+
+	/**
+	 * @return the number of batches all the imports may write at the same time.
+	 */
+	public int getMaxWriters() {
+		return maxWriters;
+	}
+
+	public void acquire() throws InterruptedException {
+		permits.acquire();
+	}
+
+	public void release() {
+		permits.release();
+	}
+
+	/**
+	 * The data source of the app hands out the connections of the writes from the write pool, which it unwraps to.
+	 */
+	private static int writePoolSize(DataSource dataSource) {
+		try {
+			return dataSource.isWrapperFor(HikariDataSource.class)
+					? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+		} catch (SQLException e) {
+			return DEFAULT_POOL_SIZE;
+		}
+	}
+}
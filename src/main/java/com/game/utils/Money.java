@@ -0,0 +1,60 @@
+package com.game.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amounts held as a {@code long} number of cents, the scale of the game_sales DECIMAL columns.
+ *
+ * <p>Prices travel through the import, the batch writer and the in-app sums as cents, so they cost no
+ * object per value and add exactly. {@link BigDecimal} is only used at the edges, to read the csv and
+ * request parameters and to write the api responses.
+ */
+public final class Money {
+
+	public static final int SCALE = 2;
+
+	private Money() {
+	}
+
+	/**
+	 * Rounds half up, as mysql does when storing a value with more decimals into a DECIMAL(n, 2) column.
+	 *
+	 * @throws ArithmeticException if the amount does not fit in a long number of cents.
+	 */
+	public static long toCents(BigDecimal amount) {
+		return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Rounds a bound of a range to whole cents, CEILING for a lower bound and FLOOR for an upper bound,
+	 * so the range of cents holds the same stored amounts. Clamps bounds beyond the range of a long.
+	 */
+	public static long toCentsBound(BigDecimal amount, RoundingMode roundingMode) {
+		BigDecimal cents = amount.movePointRight(SCALE).setScale(0, roundingMode);
+		if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+			return Long.MAX_VALUE;
+		}
+		return cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0 ? Long.MIN_VALUE : cents.longValue();
+	}
+
+	public static BigDecimal toBigDecimal(long cents) {
+		return BigDecimal.valueOf(cents, SCALE);
+	}
+
+	/**
+	 * @return the amount with two decimals, e.g. {@code 12.30} or {@code -0.05}, as {@link BigDecimal#toPlainString()}.
+	 */
+	public static String toString(long cents) {
+		StringBuilder builder = new StringBuilder(24);
+		if (cents < 0) {
+			builder.append('-');
+		}
+		int fraction = (int) Math.abs(cents % 100);
+		builder.append(Math.abs(cents / 100)).append('.');
+		if (fraction < 10) {
+			builder.append('0');
+		}
+		return builder.append(fraction).toString();
+	}
+}
@@ -0,0 +1,55 @@
+package com.game.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.game.config.ReadDataSourceProperties;
+import com.game.enums.ReadConsistency;
+
+/**
+ * Tells whether the read-only transactions may go to the read replica, following
+ * {@code game.datasource.read-consistency}. With AFTER_IMPORT, they read the primary while an import runs and
+ * until {@code game.datasource.replica-lag-millis} after the last one ended.
+ */
+@Service
+public class ReplicaReadGuard {
+
+	private final ReadDataSourceProperties properties;
+
+	private final AtomicInteger runningImports = new AtomicInteger();
+
+	// System.nanoTime() until which the replica may miss the rows of the last import
+	private volatile long primaryUntil;
+
+	public ReplicaReadGuard(ReadDataSourceProperties properties) {
+		this.properties = properties;
+		this.primaryUntil = System.nanoTime();
+	}
+
+	public void importStarted() {
+		runningImports.incrementAndGet();
+	}
+
+	public void importFinished() {
+		primaryUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getReplicaLagMillis());
+		runningImports.decrementAndGet();
+	}
+
+	/**
+	 * @return true if a read-only transaction starting now reads a replica, not the primary.
+	 */
+	public boolean readsReplica() {
+		return StringUtils.hasText(properties.getReplicaUrl()) && isReplicaReadable();
+	}
+
+	/**
+	 * @return true if a read-only transaction starting now may read the replica.
+	 */
+	public boolean isReplicaReadable() {
+		return properties.getReadConsistency() == ReadConsistency.EVENTUAL
+				|| runningImports.get() == 0 && System.nanoTime() - primaryUntil >= 0;
+	}
+}
@@ -0,0 +1,157 @@
+package com.game.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Passes a game sales csv through unchanged and keeps the first and last day of sale of its rows, for the imports
+ * that hand the bytes to the db without parsing them and must then rebuild the daily rollup of those days.
+ *
+ * <p>The date_of_sale is the last column, so only the tail of each line is kept and read when the line ends.
+ * Lines not ending with a {@code yyyy-MM-dd HH:mm:ss} date, the header for instance, are ignored.
+ */
+public class SaleDayRangeInputStream extends FilterInputStream {
+
+	private static final String DATE_TIME = "yyyy-MM-dd HH:mm:ss";
+
+	// the date, a closing quote and a carriage return
+	private static final int TAIL = DATE_TIME.length() + 2;
+
+	private final byte[] tail = new byte[TAIL];
+
+	private long lineLength;
+
+	private boolean ended;
+
+	private LocalDate firstDay;
+
+	private LocalDate lastDay;
+
+	public SaleDayRangeInputStream(InputStream in) {
+		super(in);
+	}
+
+	/**
+	 * @return the earliest day of sale read so far, null if no row had one.
+	 */
+	public LocalDate getFirstDay() {
+		return firstDay;
+	}
+
+	/**
+	 * @return the latest day of sale read so far, null if no row had one.
+	 */
+	public LocalDate getLastDay() {
+		return lastDay;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b >= 0) {
+			scan((byte) b);
+		} else {
+			endOfInput();
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		int n = super.read(buffer, offset, length);
+		for (int i = 0; i < n; i++) {
+			scan(buffer[offset + i]);
+		}
+		if (n < 0) {
+			endOfInput();
+		}
+		return n;
+	}
+
+	/** Skipped bytes would escape the scan, so they are read instead. */
+	@Override
+	public long skip(long n) throws IOException {
+		byte[] skipped = new byte[(int) Math.min(n, 8192)];
+		long total = 0;
+		int read;
+		while (total < n && (read = read(skipped, 0, (int) Math.min(skipped.length, n - total))) > 0) {
+			total += read;
+		}
+		return total;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	private void scan(byte b) {
+		if (b == '\n') {
+			endLine();
+		} else {
+			tail[(int) (lineLength++ % TAIL)] = b;
+		}
+	}
+
+	private void endOfInput() {
+		if (!ended && lineLength > 0) {
+			endLine(); // last line without a line feed
+		}
+		ended = true;
+	}
+
+	private void endLine() {
+		long end = lineLength;
+		if (end > 0 && tailByte(end - 1) == '\r') {
+			end--;
+		}
+		if (end > 0 && tailByte(end - 1) == '"') {
+			end--;
+		}
+		long start = end - DATE_TIME.length(); // still in the tail, which holds the last TAIL bytes of the line
+		lineLength = 0;
+		if (start < 0) {
+			return;
+		}
+		int year = digits(start, 4);
+		int month = digits(start + 5, 2);
+		int day = digits(start + 8, 2);
+		if (year < 0 || month < 0 || day < 0 || tailByte(start + 4) != '-' || tailByte(start + 7) != '-') {
+			return;
+		}
+		boolean earlier = firstDay == null || year * 10000 + month * 100 + day < key(firstDay);
+		boolean later = lastDay == null || year * 10000 + month * 100 + day > key(lastDay);
+		if (earlier || later) {
+			try {
+				LocalDate saleDay = LocalDate.of(year, month, day);
+				firstDay = earlier ? saleDay : firstDay;
+				lastDay = later ? saleDay : lastDay;
+			} catch (DateTimeException e) {
+				// not a day, the db rejects the row
+			}
+		}
+	}
+
+	private int digits(long position, int count) {
+		int value = 0;
+		for (int i = 0; i < count; i++) {
+			byte b = tailByte(position + i);
+			if (b < '0' || b > '9') {
+				return -1;
+			}
+			value = value * 10 + b - '0';
+		}
+		return value;
+	}
+
+	private byte tailByte(long position) {
+		return tail[(int) (position % TAIL)];
+	}
+
+	private static int key(LocalDate day) {
+		return day.getYear() * 10000 + day.getMonthValue() * 100 + day.getDayOfMonth();
+	}
+}
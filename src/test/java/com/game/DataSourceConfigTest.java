@@ -0,0 +1,78 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.game.utils.ImportWriterBudget;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * The pool each transaction takes its connection from, with the transaction manager of the app on H2.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:pools;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.datasource.hikari.maximum-pool-size=6",
+		"game.datasource.read-pool-size=3",
+		"game.import.max-pool-share=0.5" })
+class DataSourceConfigTest {
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	@Qualifier("writeDataSource")
+	private HikariDataSource writeDataSource;
+
+	@Autowired
+	@Qualifier("readDataSource")
+	private HikariDataSource readDataSource;
+
+	@Autowired
+	private ImportWriterBudget importWriterBudget;
+
+	@Test
+	void testReadOnlyTransactionsTakeTheReadPoolAndTheOthersTheWritePool() {
+		assertEquals("write", writeDataSource.getPoolName());
+		assertEquals("read", readDataSource.getPoolName());
+
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.executeWithoutResult(status -> {
+			jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+			assertEquals(1, activeConnections(readDataSource));
+			assertEquals(0, activeConnections(writeDataSource));
+		});
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+			assertEquals(0, activeConnections(readDataSource));
+			assertEquals(1, activeConnections(writeDataSource));
+		});
+	}
+
+	@Test
+	void testWriterBudgetIsAShareOfTheWritePool() {
+		assertEquals(6, writeDataSource.getMaximumPoolSize());
+		assertEquals(3, importWriterBudget.getMaxWriters());
+	}
+
+	private static int activeConnections(HikariDataSource dataSource) {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		return pool != null ? pool.getActiveConnections() : 0; // not started until its first connection
+	}
+}
@@ -0,0 +1,213 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.game.config.ColumnarStoreProperties;
+import com.game.entity.GameSales;
+import com.game.enums.BulkWriteEngine;
+import com.game.enums.DuplicateMode;
+import com.game.model.ImportRowError;
+import com.game.utils.BulkWriter;
+import com.game.utils.GameSalesBatchInsert;
+import com.game.utils.GameSalesColumnarStore;
+import com.game.utils.GameSalesDailyRollup;
+import com.game.utils.GameSalesInsertWriter;
+import com.game.utils.GameSalesMetrics;
+import com.game.utils.GameSalesPartitions;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The batches written to a partitioned game_sales, keyed on (id, date_of_sale), in H2 in MySQL mode.
+ */
+public class GameSalesBatchInsertTest {
+
+	private static final LocalDateTime JANUARY = LocalDateTime.of(2025, 1, 15, 10, 0);
+
+	private static final LocalDateTime FEBRUARY = LocalDateTime.of(2025, 2, 15, 10, 0);
+
+	private HikariDataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void createTables() {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:batch_insert;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		dataSource = new HikariDataSource(config);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE game_sales (id INT NOT NULL, game_no INT NOT NULL, "
+				+ "game_name VARCHAR(20) NOT NULL, game_code VARCHAR(5) NOT NULL, type TINYINT NOT NULL, "
+				+ "cost_price DECIMAL(10, 2) NOT NULL, tax DECIMAL(3, 2) NOT NULL, sale_price DECIMAL(10, 2) NOT NULL, "
+				+ "date_of_sale DATETIME(0) NOT NULL, PRIMARY KEY (id, date_of_sale))");
+		jdbcTemplate.execute("CREATE TABLE game_sales_daily_rollup (sale_date DATE NOT NULL, game_no INT NOT NULL, "
+				+ "total_count BIGINT NOT NULL DEFAULT 0, total_sales DECIMAL(20, 2) NOT NULL DEFAULT 0, "
+				+ "PRIMARY KEY (sale_date, game_no))");
+	}
+
+	@AfterEach
+	void dropTables() {
+		jdbcTemplate.execute("DROP ALL OBJECTS");
+		dataSource.close();
+	}
+
+	@Test
+	void testFailRejectsAnIdStoredWithAnotherDateAndARepeatedOne() {
+		GameSalesBatchInsert batchInsert = batchInsert(new GameSalesInsertWriter(jdbcTemplate));
+		assertEquals(List.of(), batchInsert.insertBatch(List.of(row(1, 1, JANUARY, 1000)), DuplicateMode.FAIL,
+				BulkWriteEngine.BATCH_INSERT));
+
+		List<ImportRowError> rejected = batchInsert.insertBatch(List.of(row(2, 1, FEBRUARY, 2000),
+				row(3, 2, JANUARY, 3000), row(4, 2, FEBRUARY, 4000)), DuplicateMode.FAIL, BulkWriteEngine.BATCH_INSERT);
+
+		assertEquals(List.of(2L, 4L), rejected.stream().map(ImportRowError::getLineNumber).toList());
+		assertEquals("Duplicate entry '1' for key 'game_sales.PRIMARY'", rejected.get(0).getReason());
+		assertEquals(List.of(Map.of("ID", 1, "DATE_OF_SALE", JANUARY), Map.of("ID", 2, "DATE_OF_SALE", JANUARY)),
+				storedIds());
+	}
+
+	@Test
+	void testIgnoreKeepsTheStoredRowOfAnId() {
+		GameSalesBatchInsert batchInsert = batchInsert(new GameSalesInsertWriter(jdbcTemplate));
+		batchInsert.insertBatch(List.of(row(1, 1, JANUARY, 1000)), DuplicateMode.IGNORE, BulkWriteEngine.BATCH_INSERT);
+
+		List<ImportRowError> rejected = batchInsert.insertBatch(List.of(row(2, 1, FEBRUARY, 2000),
+				row(3, 2, FEBRUARY, 3000), row(4, 2, JANUARY, 4000)), DuplicateMode.IGNORE, BulkWriteEngine.BATCH_INSERT);
+
+		assertEquals(List.of(), rejected);
+		assertEquals(List.of(Map.of("ID", 1, "DATE_OF_SALE", JANUARY), Map.of("ID", 2, "DATE_OF_SALE", FEBRUARY)),
+				storedIds());
+		assertEquals(List.of(1L, 1L), rollupCounts());
+	}
+
+	@Test
+	void testUpsertMovesAnIdToTheDayOfItsLastRow() {
+		GameSalesBatchInsert batchInsert = batchInsert(new GameSalesInsertWriter(jdbcTemplate));
+		batchInsert.insertBatch(List.of(row(1, 1, JANUARY, 1000)), DuplicateMode.UPSERT, BulkWriteEngine.BATCH_INSERT);
+
+		List<ImportRowError> rejected = batchInsert.insertBatch(List.of(row(2, 1, JANUARY.plusHours(1), 2000),
+				row(3, 1, FEBRUARY, 3000)), DuplicateMode.UPSERT, BulkWriteEngine.BATCH_INSERT);
+
+		assertEquals(List.of(), rejected);
+		assertEquals(List.of(Map.of("ID", 1, "DATE_OF_SALE", FEBRUARY)), storedIds());
+		assertEquals(30.00, jdbcTemplate.queryForObject("SELECT sale_price FROM game_sales", Double.class));
+		// the january row left its day
+		assertEquals(List.of(0L, 1L), rollupCounts());
+	}
+
+	@Test
+	void testARejectedBatchIsBisectedDownToItsFailingRows() {
+		GameSalesInsertWriter insertWriter = new GameSalesInsertWriter(jdbcTemplate);
+		List<Integer> writes = new ArrayList<>();
+		BulkWriter countingWriter = new BulkWriter() {
+			@Override
+			public BulkWriteEngine getEngine() {
+				return BulkWriteEngine.BATCH_INSERT;
+			}
+
+			@Override
+			public void write(List<GameSales> gameSalesList, DuplicateMode duplicateMode) {
+				writes.add(gameSalesList.size());
+				insertWriter.write(gameSalesList, duplicateMode);
+			}
+		};
+		List<GameSales> rows = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			rows.add(row(i + 2, i + 1, JANUARY.plusMinutes(i), 1000));
+		}
+		rows.get(2).setGameName("A game name too long for its column");
+		rows.get(5).setGameName("A game name too long for its column");
+
+		List<ImportRowError> rejected = batchInsert(countingWriter).insertBatch(rows, DuplicateMode.FAIL,
+				BulkWriteEngine.BATCH_INSERT);
+
+		assertEquals(List.of(4L, 7L), rejected.stream().map(ImportRowError::getLineNumber).toList());
+		assertTrue(rejected.get(0).getReason().contains("too long"), rejected.get(0).getReason());
+		// halves of halves down to the single rows, the halves holding no failing row are written at once
+		assertEquals(List.of(8, 4, 2, 2, 1, 1, 4, 2, 1, 1, 2), writes);
+		assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_sales", Integer.class));
+		assertEquals(List.of(6L), rollupCounts());
+	}
+
+	@Test
+	void testABatchRolledBackByALockConflictIsRetried() {
+		GameSalesInsertWriter insertWriter = new GameSalesInsertWriter(jdbcTemplate);
+		AtomicInteger writes = new AtomicInteger();
+		BulkWriter deadlockOnce = new BulkWriter() {
+			@Override
+			public BulkWriteEngine getEngine() {
+				return BulkWriteEngine.BATCH_INSERT;
+			}
+
+			@Override
+			public void write(List<GameSales> gameSalesList, DuplicateMode duplicateMode) {
+				insertWriter.write(gameSalesList, duplicateMode);
+				if (writes.incrementAndGet() == 1) {
+					throw new PessimisticLockingFailureException("Deadlock found when trying to get lock");
+				}
+			}
+		};
+
+		List<ImportRowError> rejected = batchInsert(deadlockOnce).insertBatch(List.of(row(1, 1, JANUARY, 1000)),
+				DuplicateMode.FAIL, BulkWriteEngine.BATCH_INSERT);
+
+		assertEquals(List.of(), rejected);
+		assertEquals(2, writes.get());
+		assertEquals(List.of(Map.of("ID", 1, "DATE_OF_SALE", JANUARY)), storedIds());
+		assertEquals(List.of(1L), rollupCounts());
+	}
+
+	private GameSalesBatchInsert batchInsert(BulkWriter writer) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		GameSalesPartitions partitions = mock(GameSalesPartitions.class);
+		when(partitions.isPartitioned()).thenReturn(true);
+		return new GameSalesBatchInsert(jdbcTemplate, transactionTemplate,
+				new GameSalesDailyRollup(jdbcTemplate, transactionTemplate),
+				new GameSalesColumnarStore(jdbcTemplate, new ColumnarStoreProperties(), new SyncTaskExecutor()),
+				new GameSalesMetrics(new SimpleMeterRegistry()), partitions, List.of(writer));
+	}
+
+	private List<Map<String, Object>> storedIds() {
+		return jdbcTemplate.query("SELECT id, date_of_sale FROM game_sales ORDER BY id, date_of_sale",
+				(rs, i) -> Map.of("ID", rs.getInt(1), "DATE_OF_SALE", rs.getTimestamp(2).toLocalDateTime()));
+	}
+
+	private List<Long> rollupCounts() {
+		return jdbcTemplate.queryForList("SELECT total_count FROM game_sales_daily_rollup ORDER BY sale_date", Long.class);
+	}
+
+	private static GameSales row(long lineNumber, long id, LocalDateTime dateOfSale, long salePrice) {
+		GameSales row = new GameSales();
+		row.setLineNumber(lineNumber);
+		row.setId(id);
+		row.setGameNo(1);
+		row.setGameName("Game 1");
+		row.setGameCode("G1");
+		row.setType(1);
+		row.setCostPrice(500);
+		row.setTax(900);
+		row.setSalePrice(salePrice);
+		row.setDateOfSale(dateOfSale);
+		return row;
+	}
+}
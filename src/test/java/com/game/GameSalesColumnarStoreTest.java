@@ -0,0 +1,113 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.game.config.ColumnarStoreProperties;
+import com.game.entity.GameSales;
+import com.game.enums.DuplicateMode;
+import com.game.enums.ReportGranularity;
+import com.game.model.GameSalesReportDto;
+import com.game.utils.GameSalesColumnarStore;
+import com.game.utils.Money;
+
+public class GameSalesColumnarStoreTest {
+
+	private GameSalesColumnarStore store;
+
+	/** Loads rows 1 (game 1, Monday 2025-04-07 10:15) and 2 (game 2, Sunday 2025-04-13 23:59:59). */
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void loadStore() throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.next()).thenReturn(true, true, false);
+		when(rs.getLong(1)).thenReturn(1L, 2L);
+		when(rs.getInt(2)).thenReturn(1, 2);
+		when(rs.getInt(3)).thenReturn(1, 2);
+		when(rs.getBigDecimal(4)).thenReturn(new BigDecimal("10.00"), new BigDecimal("20.00"));
+		when(rs.getBigDecimal(5)).thenReturn(new BigDecimal("10.90"), new BigDecimal("21.80"));
+		when(rs.getObject(6, LocalDateTime.class)).thenReturn(LocalDateTime.of(2025, 4, 7, 10, 15),
+				LocalDateTime.of(2025, 4, 13, 23, 59, 59));
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.executeQuery()).thenReturn(rs);
+		Connection con = mock(Connection.class);
+		when(con.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+				.thenAnswer(invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(con));
+
+		ColumnarStoreProperties properties = new ColumnarStoreProperties();
+		properties.setEnabled(true);
+		properties.setInitialCapacity(1);
+		store = new GameSalesColumnarStore(jdbcTemplate, properties, Runnable::run);
+		store.reload();
+		assertTrue(store.getStatus().isReady());
+	}
+
+	@Test
+	void testTotalsAndCountsMatchTheLoadedRows() {
+		List<GameSalesReportDto> weeks = store.getTotalSales(LocalDateTime.of(2025, 4, 1, 0, 0),
+				LocalDateTime.of(2025, 4, 30, 23, 59, 59), null, ReportGranularity.WEEK).get();
+		assertEquals(1, weeks.size());
+		assertEquals(Timestamp.valueOf(LocalDateTime.of(2025, 4, 7, 0, 0)).getTime(), weeks.get(0).getDateOfSale().getTime());
+		assertEquals(2, weeks.get(0).getTotalCount());
+		assertEquals(new BigDecimal("32.70"), weeks.get(0).getTotalSales());
+
+		List<GameSalesReportDto> hours = store.getTotalSales(LocalDateTime.of(2025, 4, 7, 10, 30),
+				LocalDateTime.of(2025, 4, 13, 23, 59, 59), 2, ReportGranularity.HOUR).get();
+		assertEquals(1, hours.size());
+		assertEquals(new BigDecimal("21.80"), hours.get(0).getTotalSales());
+
+		assertEquals(2, store.count(null, null, null, null).getAsLong());
+		assertEquals(1, store.count(null, null, new BigDecimal("10.901"), null).getAsLong());
+		assertEquals(1, store.count(LocalDateTime.of(2025, 4, 7, 10, 15), LocalDateTime.of(2025, 4, 8, 0, 0),
+				null, new BigDecimal("10.90")).getAsLong());
+	}
+
+	@Test
+	void testAppliedBatchesFollowTheDuplicateMode() {
+		GameSales existing = row(2, "21.80");
+		store.applyBatch(List.of(row(2, "99.00"), row(3, "5.00"), row(3, "6.00")), List.of(existing), DuplicateMode.IGNORE);
+		assertEquals(3, store.getStatus().getRows());
+		assertEquals(new BigDecimal("37.70"), totalSales());
+
+		store.applyBatch(List.of(row(2, "1.00"), row(4, "2.00")), List.of(existing), DuplicateMode.UPSERT);
+		assertEquals(4, store.getStatus().getRows());
+		assertEquals(new BigDecimal("18.90"), totalSales());
+		assertEquals(1, store.count(null, null, null, new BigDecimal("1.00")).getAsLong());
+	}
+
+	private BigDecimal totalSales() {
+		return store.getTotalSales(LocalDateTime.of(2025, 4, 1, 0, 0), LocalDateTime.of(2025, 4, 30, 23, 59, 59), null,
+				ReportGranularity.MONTH).get().get(0).getTotalSales();
+	}
+
+	private static GameSales row(long id, String salePrice) {
+		GameSales row = new GameSales();
+		row.setId(id);
+		row.setGameNo(3);
+		row.setType(1);
+		row.setCostPrice(100);
+		row.setSalePrice(Money.toCents(new BigDecimal(salePrice)));
+		row.setDateOfSale(LocalDateTime.of(2025, 4, 20, 12, 0));
+		return row;
+	}
+}
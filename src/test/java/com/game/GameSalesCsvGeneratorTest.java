@@ -0,0 +1,82 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.model.GameSalesCsvRow;
+import com.game.utils.GameSalesCsvGenerator;
+import com.game.utils.GameSalesCsvParser;
+import com.game.utils.GameSalesDtoValidator;
+
+public class GameSalesCsvGeneratorTest {
+
+	@Test
+	void testOutputDependsOnTheSeedOnly() throws IOException {
+		byte[] oneThread = generate(options().threads(1).build());
+		assertArrayEquals(oneThread, generate(options().threads(4).build()));
+		try (InputStream in = GameSalesCsvGenerator.openStream(options().threads(3).build())) {
+			assertArrayEquals(oneThread, in.readAllBytes());
+		}
+		assertFalse(Arrays.equals(oneThread, generate(options().seed(8).build())));
+	}
+
+	@Test
+	void testRowsAreValidUnlessAskedOtherwise() throws IOException {
+		int valid = 0;
+		try (GameSalesCsvParser parser = new GameSalesCsvParser(new ByteArrayInputStream(generate(options().build())))) {
+			for (GameSalesCsvRow row = parser.next(); row != null; row = parser.next(), valid++) {
+				assertEquals(valid + 1, row.getDto().getId());
+				assertTrue(GameSalesDtoValidator.isValid(row.getDto()));
+				assertTrue(!row.getDto().getDateOfSale().toLocalDate().isBefore(LocalDate.of(2025, 4, 1)));
+				assertTrue(row.getDto().getDateOfSale().toLocalDate().isBefore(LocalDate.of(2025, 4, 3)));
+			}
+		}
+		assertEquals(1000, valid);
+
+		int rejected = 0;
+		try (GameSalesCsvParser parser = new GameSalesCsvParser(
+				new ByteArrayInputStream(generate(options().invalidRatio(1).build())))) {
+			for (GameSalesCsvRow row = parser.next(); row != null; row = parser.next()) {
+				if (row.getDto() == null || !GameSalesDtoValidator.isValid(row.getDto())) {
+					rejected++;
+				}
+			}
+		}
+		assertEquals(1000, rejected);
+	}
+
+	@Test
+	void testGamesAboveTheValidatedGameNoAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> generate(options().games(101).build()));
+	}
+
+	private static GameSalesCsvGenerator.Options.OptionsBuilder options() {
+		return GameSalesCsvGenerator.Options.builder()
+				.rows(1000)
+				.fromDate(LocalDate.of(2025, 4, 1))
+				.toDate(LocalDate.of(2025, 4, 2))
+				.zipfExponent(1.1)
+				.seed(7)
+				.threads(2)
+				.shardRows(64);
+	}
+
+	private static byte[] generate(GameSalesCsvGenerator.Options options) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GameSalesCsvGenerator.generate(options, Channels.newChannel(out));
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,74 @@
+package com.game;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.game.config.ImportProperties;
+import com.game.entity.CsvImportInfo;
+import com.game.service.GameSalesDbService;
+import com.game.utils.GameSalesCsvLoader;
+import com.game.utils.GameSalesLoadData;
+import com.game.utils.GameSalesPartitions;
+import com.game.utils.ImportProgress;
+
+/**
+ * A LOAD DATA import of a file storing id 1 again under another date than the one stored.
+ */
+public class GameSalesCsvLoaderTest {
+
+	private static final String CSV = "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n"
+			+ "1,1,Game 1,G1,1,50.00,9.00,54.50,2025-05-01 10:00:00\n";
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private final GameSalesDbService gameSalesDbService = mock(GameSalesDbService.class);
+
+	private final GameSalesPartitions partitions = mock(GameSalesPartitions.class);
+
+	private final CsvImportInfo importInfo = CsvImportInfo.builder().id(7L).build();
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testTheImportIsRefusedOnAPartitionedTable() {
+		when(partitions.isPartitioned()).thenReturn(true);
+
+		loader().loadCsv(csv(), importInfo, new ImportProgress(CSV.length()));
+
+		verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+		verify(gameSalesDbService).updateFailedInfoToDb(importInfo, "A LOAD DATA import cannot keep the ids of a "
+				+ "partitioned game_sales unique, import the file with the staging or batch import");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testTheFileIsLoadedIntoAnUnpartitionedTable() {
+		// keyed on the id alone, the db skips the row
+		when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(0);
+
+		loader().loadCsv(csv(), importInfo, new ImportProgress(CSV.length()));
+
+		verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+		verify(gameSalesDbService, never()).updateFailedInfoToDb(any(), anyString());
+		verify(gameSalesDbService).updateSuccessInfoToDb(importInfo, 0, 0, 0);
+	}
+
+	private GameSalesCsvLoader loader() {
+		return new GameSalesCsvLoader(new GameSalesLoadData(jdbcTemplate, gameSalesDbService, partitions),
+				gameSalesDbService, new ImportProperties());
+	}
+
+	private static ByteArrayInputStream csv() {
+		return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,172 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.game.model.GameSalesCsvRow;
+import com.game.utils.ByteBufferInputStream;
+import com.game.utils.CommonsGameSalesRowReader;
+import com.game.utils.CsvChunkSplitter;
+import com.game.utils.GameSalesCsvParser;
+import com.game.utils.GameSalesRowReader;
+
+public class GameSalesCsvParserTest {
+
+	private static final String HEADER = "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n";
+
+	private static final String CSV = HEADER
+			+ "1,10,Game One,A01,1,90.00,9.0,98.10,2025-04-01 10:00:00\n"
+			+ "2,20,\"Game, Two\",B02,2,10,9,10.90,2025-04-02 23:59:59\r\n"
+			+ "3,30,\"Say \"\"Hi\"\"\",C03,1,-1.5,9.00,+0.5,2025-04-03 00:00:00\n"
+			+ "4,40,\"Multi\nLine\",D04,1,1.,9,.5,2025-02-30 12:00:00\n"
+			+ "5,abc,Bad Number,E05,1,1,9,1,2025-04-05 00:00:00\n"
+			+ "6,60,Bad Date,F06,1,1,9,1,2025-13-01 00:00:00\n"
+			+ "7,70,Exponent,G07,1,1E1,9,1,2025-04-07 00:00:00\n"
+			+ "8,80,Short Row\n"
+			+ "9,90,No Newline,I09,2,5.55,9,6.05,2025-04-09 09:09:09";
+
+	// quotes inside unquoted fields are literals, only a quote opening a field starts a quoted one
+	private static final String BARE_QUOTES_CSV = HEADER
+			+ "1,10,Say \"Hi,A01,1,90.00,9.0,98.10,2025-04-01 10:00:00\n"
+			+ "2,20,Game Two,B02,2,10,9,10.90,2025-04-02 23:59:59\n"
+			+ "3,30,\"Quoted \"\"Three\"\"\",C03,1,1,9,1,2025-04-03 00:00:00\n"
+			+ "4,40,Four\",D04,1,1,9,1,2025-04-04 00:00:00\n"
+			+ "5,50,\"Multi\nLine\",E05,1,1,9,1,2025-04-05 00:00:00\n"
+			+ "6,60,6\" Disc,F06,1,1,9,1,2025-04-06 00:00:00\n"
+			+ "7,70,Seven,G07,1,1,9,1,2025-04-07 00:00:00\n";
+
+	@Test
+	void testParsesSameRowsAsCommonsCsv() throws IOException {
+		assertParsesSameRowsAsCommonsCsv(CSV);
+	}
+
+	@Test
+	void testABareQuoteInAnUnquotedFieldIsALiteral() throws IOException {
+		assertParsesSameRowsAsCommonsCsv(BARE_QUOTES_CSV);
+		List<GameSalesCsvRow> rows = readAll(new GameSalesCsvParser(stream(BARE_QUOTES_CSV), 16));
+		assertEquals(7, rows.size());
+		assertEquals("Say \"Hi", rows.get(0).getDto().getGameName());
+		assertEquals("Four\"", rows.get(3).getDto().getGameName());
+		assertEquals("6\" Disc", rows.get(5).getDto().getGameName());
+		assertEquals(9, rows.get(6).getLineNumber());
+	}
+
+	@Test
+	void testDecodesFieldsAndLineNumbers() throws IOException {
+		List<GameSalesCsvRow> rows = readAll(new GameSalesCsvParser(stream(CSV), 16));
+		assertEquals(9, rows.size());
+		assertEquals("Game, Two", rows.get(1).getDto().getGameName());
+		assertEquals("Say \"Hi\"", rows.get(2).getDto().getGameName());
+		assertEquals(new BigDecimal("-1.5"), rows.get(2).getDto().getCostPrice());
+		assertEquals(new BigDecimal("10.90"), rows.get(1).getDto().getSalePrice());
+		assertEquals(LocalDateTime.of(2025, 2, 28, 12, 0), rows.get(3).getDto().getDateOfSale());
+		assertEquals(new BigDecimal("1E1"), rows.get(6).getDto().getCostPrice());
+		assertNull(rows.get(7).getDto());
+		assertEquals(5, rows.get(3).getLineNumber());
+		assertEquals(7, rows.get(4).getLineNumber());
+		assertEquals(11, rows.get(8).getLineNumber());
+	}
+
+	@Test
+	void testChunksParseSameRowsAsWholeFile(@TempDir Path tempDir) throws IOException {
+		assertEquals(readAll(new GameSalesCsvParser(stream(CSV))), readChunks(tempDir, CSV));
+	}
+
+	@Test
+	void testChunksEndOnRowBoundariesAfterABareQuote(@TempDir Path tempDir) throws IOException {
+		List<GameSalesCsvRow> expected = readAll(new CommonsGameSalesRowReader(stream(BARE_QUOTES_CSV)));
+		List<GameSalesCsvRow> actual = readChunks(tempDir, BARE_QUOTES_CSV);
+		assertEquals(expected.stream().map(GameSalesCsvRow::getDto).toList(),
+				actual.stream().map(GameSalesCsvRow::getDto).toList());
+		assertEquals(expected.stream().map(GameSalesCsvRow::getLineNumber).toList(),
+				actual.stream().map(GameSalesCsvRow::getLineNumber).toList());
+	}
+
+	@Test
+	void testResumesFromRowEndOffset() throws IOException {
+		byte[] bytes = CSV.getBytes(StandardCharsets.UTF_8);
+		List<GameSalesCsvRow> rows = readAll(new GameSalesCsvParser(stream(CSV), 16));
+		assertEquals(bytes.length, rows.get(rows.size() - 1).getEndOffset());
+		GameSalesCsvRow checkpoint = rows.get(3); // quoted field spanning two lines
+		assertEquals(checkpoint.getLineNumber() + 1, checkpoint.getLastLineNumber());
+		int offset = (int) checkpoint.getEndOffset();
+		List<GameSalesCsvRow> resumed = readAll(new GameSalesCsvParser(
+				new ByteArrayInputStream(bytes, offset, bytes.length - offset), 16, false, checkpoint.getLastLineNumber() + 1, offset));
+		assertEquals(rows.subList(4, rows.size()), resumed);
+		for (int i = 0; i < resumed.size(); i++) {
+			assertEquals(rows.get(i + 4).getEndOffset(), resumed.get(i).getEndOffset());
+		}
+	}
+
+	@Test
+	void testRejectsUnexpectedHeader() {
+		assertThrows(IOException.class, () -> new GameSalesCsvParser(stream("game_no,id\n1,2\n")));
+	}
+
+	private static void assertParsesSameRowsAsCommonsCsv(String csv) throws IOException {
+		List<GameSalesCsvRow> expected = readAll(new CommonsGameSalesRowReader(stream(csv)));
+		List<GameSalesCsvRow> actual = readAll(new GameSalesCsvParser(stream(csv), 16));
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getDto(), actual.get(i).getDto(), "Row " + (i + 1));
+			assertEquals(expected.get(i).getLineNumber(), actual.get(i).getLineNumber(), "Row " + (i + 1));
+			if (expected.get(i).getDto() == null) {
+				assertNotNull(actual.get(i).getError(), "Row " + (i + 1) + " should fail");
+			}
+		}
+	}
+
+	/**
+	 * Splits the csv in chunks of about 40 bytes and parses each apart, as the parallel import does.
+	 */
+	private static List<GameSalesCsvRow> readChunks(Path tempDir, String csv) throws IOException {
+		Path csvFile = tempDir.resolve("game_sales.csv");
+		Files.writeString(csvFile, csv);
+		List<GameSalesCsvRow> rows = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+			List<CsvChunkSplitter.Chunk> chunks = CsvChunkSplitter.split(channel, 40);
+			assertTrue(chunks.size() > 1, "File should be split");
+			for (CsvChunkSplitter.Chunk chunk : chunks) {
+				ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.length());
+				rows.addAll(readAll(new GameSalesCsvParser(new ByteBufferInputStream(region), 16,
+						chunk.start() == 0, chunk.firstLineNumber(), chunk.start())));
+			}
+		}
+		return rows;
+	}
+
+	private static InputStream stream(String csv) {
+		return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<GameSalesCsvRow> readAll(GameSalesRowReader reader) throws IOException {
+		List<GameSalesCsvRow> rows = new ArrayList<>();
+		try (reader) {
+			GameSalesCsvRow row;
+			while ((row = reader.next()) != null) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+}
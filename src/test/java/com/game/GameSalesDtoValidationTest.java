@@ -1,17 +1,22 @@
 package com.game;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.game.enums.GameTypeEnums;
 import com.game.model.GameSalesDto;
+import com.game.utils.GameSalesDtoValidator;
 
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
@@ -44,6 +49,67 @@ public class GameSalesDtoValidationTest {
         violations.forEach(v -> System.out.println("Violation: " + v.getMessage()));
     }
     
+    @Test
+    void testCompiledValidatorMatchesAnnotations() {
+        List<Consumer<GameSalesDto>> mutations = List.of(
+                dto -> {},
+                dto -> dto.setId(0),
+                dto -> dto.setGameNo(0),
+                dto -> dto.setGameNo(1),
+                dto -> dto.setGameNo(100),
+                dto -> dto.setGameNo(111),
+                dto -> dto.setGameName(null),
+                dto -> dto.setGameName(""),
+                dto -> dto.setGameName(" \t "),
+                dto -> dto.setGameName("12345678901234567890"),
+                dto -> dto.setGameName("123456789012345678901"),
+                dto -> dto.setGameName("                     "),
+                dto -> dto.setGameCode(null),
+                dto -> dto.setGameCode("ABCDE"),
+                dto -> dto.setGameCode("ABCDEF"),
+                dto -> dto.setType(0),
+                dto -> dto.setType(2),
+                dto -> dto.setType(3),
+                dto -> dto.setCostPrice(null),
+                dto -> dto.setCostPrice(new BigDecimal("100.00")),
+                dto -> dto.setCostPrice(new BigDecimal("100.01")),
+                dto -> dto.setCostPrice(new BigDecimal("0.00")),
+                dto -> dto.setCostPrice(new BigDecimal("-0.01")),
+                dto -> dto.setTax(null),
+                dto -> dto.setTax(new BigDecimal("9.00")),
+                dto -> dto.setTax(new BigDecimal("8.99")),
+                dto -> dto.setTax(new BigDecimal("9.01")),
+                dto -> dto.setSalePrice(null),
+                dto -> dto.setSalePrice(new BigDecimal("-1")),
+                dto -> dto.setSalePrice(new BigDecimal("1000000")),
+                dto -> dto.setDateOfSale(null),
+                dto -> {
+                    dto.setId(-1);
+                    dto.setGameNo(-5);
+                    dto.setGameName(null);
+                    dto.setGameCode("TOOLONG");
+                    dto.setType(9);
+                    dto.setCostPrice(new BigDecimal("-3"));
+                    dto.setTax(BigDecimal.ZERO);
+                    dto.setSalePrice(new BigDecimal("-3"));
+                    dto.setDateOfSale(null);
+                });
+        for (Consumer<GameSalesDto> mutation : mutations) {
+            GameSalesDto gameSalesDto = getMockData();
+            mutation.accept(gameSalesDto);
+            List<String> expected = validator.validate(gameSalesDto).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.toList());
+            List<String> actual = GameSalesDtoValidator.validate(gameSalesDto).stream()
+                    .map(GameSalesDtoValidator.Violation::message)
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals(expected, actual, "Messages should match for " + gameSalesDto);
+            assertEquals(expected.isEmpty(), GameSalesDtoValidator.isValid(gameSalesDto), "Validity should match for " + gameSalesDto);
+        }
+    }
+
     private GameSalesDto getMockData() {
     	GameSalesDto gameSalesDto = 
         		GameSalesDto.builder()
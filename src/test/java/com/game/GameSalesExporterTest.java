@@ -0,0 +1,151 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.config.ExportProperties;
+import com.game.enums.ExportFormat;
+import com.game.utils.GameSalesExporter;
+
+/**
+ * The rows written by {@link GameSalesExporter}, the streaming result set of Connector/J being mocked.
+ */
+public class GameSalesExporterTest {
+
+	private static final LocalDateTime DATE = LocalDateTime.of(2025, 4, 1, 10, 30);
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private final Connection con = mock(Connection.class);
+
+	private final PreparedStatement ps = mock(PreparedStatement.class);
+
+	private final ResultSet rs = mock(ResultSet.class);
+
+	/** The size of the output each time the exporter asked for the next row. */
+	private final List<Integer> writtenAtNext = new ArrayList<>();
+
+	@Test
+	void testCsvHasTheColumnsOfTheImportFile() throws Exception {
+		rows(2, null);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long exported = exporter(65536).export(DATE, DATE.plusDays(1), new BigDecimal("10"), null, ExportFormat.CSV, out);
+
+		assertEquals(2, exported);
+		assertEquals("id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n"
+				+ "1,1,\"Game, 1\",G1,1,50.00,9.00,54.50,2025-04-01 10:30:00\n"
+				+ "2,2,\"Game, 2\",G2,1,50.00,9.00,54.50,2025-04-01 10:30:00\n",
+				out.toString(StandardCharsets.UTF_8));
+		verify(con).prepareStatement("SELECT id, game_no, game_name, game_code, type, cost_price, tax, sale_price, "
+				+ "date_of_sale FROM game_sales WHERE date_of_sale BETWEEN ? AND ? AND sale_price >= ? "
+				+ "ORDER BY date_of_sale, id", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		verify(ps).setObject(3, new BigDecimal("10"));
+		verify(ps).setFetchSize(Integer.MIN_VALUE);
+	}
+
+	@Test
+	void testRowsReachTheOutputWhileTheyAreRead() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		rows(2000, out);
+
+		long exported = exporter(1024).export(null, null, null, null, ExportFormat.NDJSON, out);
+
+		assertEquals(2000, exported);
+		// written as the buffers fill, not once the last row is read
+		assertEquals(0, (int) writtenAtNext.get(0));
+		assertTrue(writtenAtNext.get(1000) > 0, "nothing written after 1000 rows");
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2000, lines.length);
+		assertEquals("{\"id\":1,\"gameNo\":1,\"gameName\":\"Game, 1\",\"gameCode\":\"G1\",\"type\":1,\"costPrice\":50.00,"
+				+ "\"tax\":9.00,\"salePrice\":54.50,\"dateOfSale\":\"2025-04-01 10:30:00\"}", lines[0]);
+		verify(con).prepareStatement("SELECT id, game_no, game_name, game_code, type, cost_price, tax, sale_price, "
+				+ "date_of_sale FROM game_sales ORDER BY id", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+	}
+
+	@Test
+	void testAGoneClientCancelsTheQuery() throws Exception {
+		rows(2000, null);
+		AtomicInteger written = new AtomicInteger();
+		OutputStream gone = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (written.addAndGet(len) > 4096) {
+					throw new IOException("Broken pipe");
+				}
+			}
+		};
+
+		IOException e = assertThrows(IOException.class,
+				() -> exporter(1024).export(null, null, null, null, ExportFormat.CSV, gone));
+
+		assertEquals("Broken pipe", e.getMessage());
+		verify(ps).cancel();
+		verify(rs).close();
+	}
+
+	/**
+	 * Mocks a result set of {@code count} rows.
+	 *
+	 * @param out the output whose size is recorded at each {@code next()}, null not to record it.
+	 */
+	@SuppressWarnings("unchecked")
+	private void rows(int count, ByteArrayOutputStream out) throws Exception {
+		when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+				.thenAnswer(invocation -> ((ConnectionCallback<Long>) invocation.getArgument(0)).doInConnection(con));
+		when(con.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+		when(ps.executeQuery()).thenReturn(rs);
+		AtomicInteger row = new AtomicInteger();
+		when(rs.next()).thenAnswer(invocation -> {
+			if (out != null) {
+				writtenAtNext.add(out.size());
+			}
+			return row.incrementAndGet() <= count;
+		});
+		when(rs.getLong(1)).thenAnswer(invocation -> (long) row.get());
+		when(rs.getInt(2)).thenAnswer(invocation -> row.get());
+		when(rs.getString(3)).thenAnswer(invocation -> "Game, " + row.get());
+		when(rs.getString(4)).thenAnswer(invocation -> "G" + row.get());
+		when(rs.getInt(5)).thenReturn(1);
+		when(rs.getBigDecimal(6)).thenReturn(new BigDecimal("50.00"));
+		when(rs.getBigDecimal(7)).thenReturn(new BigDecimal("9.00"));
+		when(rs.getBigDecimal(8)).thenReturn(new BigDecimal("54.50"));
+		when(rs.getObject(9, LocalDateTime.class)).thenReturn(DATE);
+	}
+
+	private GameSalesExporter exporter(int bufferSize) {
+		ExportProperties properties = new ExportProperties();
+		properties.setBufferSize(bufferSize);
+		return new GameSalesExporter(jdbcTemplate, new ObjectMapper(), properties);
+	}
+}
@@ -0,0 +1,42 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.entity.GameSales;
+import com.game.utils.GameSalesLoadDataWriter;
+
+public class GameSalesLoadDataWriterTest {
+
+	@Test
+	void testEncodesRowsAsTabSeparatedLines() {
+		List<GameSales> rows = List.of(
+				row(1, "Game One", "A01", 9000, 900, 9810, LocalDateTime.of(2025, 4, 1, 10, 0)),
+				row(2, "Tab\tNew\nLine \\ é", "B02", -150, 0, 5, LocalDateTime.of(2025, 4, 2, 23, 59, 59)));
+
+		String lines = new String(GameSalesLoadDataWriter.encode(rows), StandardCharsets.UTF_8);
+
+		assertEquals("1\t10\tGame One\tA01\t1\t9000\t900\t9810\t2025-04-01 10:00:00\n"
+				+ "2\t10\tTab\\tNew\\nLine \\\\ é\tB02\t1\t-150\t0\t5\t2025-04-02 23:59:59\n", lines);
+	}
+
+	private static GameSales row(long id, String gameName, String gameCode, long costPrice, long tax, long salePrice,
+			LocalDateTime dateOfSale) {
+		GameSales row = new GameSales();
+		row.setId(id);
+		row.setGameNo(10);
+		row.setGameName(gameName);
+		row.setGameCode(gameCode);
+		row.setType(1);
+		row.setCostPrice(costPrice);
+		row.setTax(tax);
+		row.setSalePrice(salePrice);
+		row.setDateOfSale(dateOfSale);
+		return row;
+	}
+}
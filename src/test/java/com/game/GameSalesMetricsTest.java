@@ -0,0 +1,70 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.enums.ImportStage;
+import com.game.enums.ReportGranularity;
+import com.game.utils.GameSalesMetrics;
+import com.game.utils.ImportPipeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class GameSalesMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final GameSalesMetrics metrics = new GameSalesMetrics(registry);
+
+	@Test
+	void testGaugesFollowTheTrackedPipelines() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try (ImportPipeline<Integer, List<Integer>> pipeline = new ImportPipeline<>(1, 1, 4, batch -> batch, batch -> {
+			writing.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		})) {
+			try (GameSalesMetrics.Registration tracked = metrics.track(pipeline)) {
+				pipeline.submit(List.of(1, 2));
+				writing.await();
+				assertEquals(1, activeThreads("write"));
+				assertEquals(0, activeThreads("map"));
+				release.countDown();
+				pipeline.finish();
+			}
+			assertEquals(0, activeThreads("write"));
+		}
+	}
+
+	@Test
+	void testRowsAndQueriesAreTagged() {
+		metrics.addParsedRows(10);
+		metrics.addFailedRows(2);
+		metrics.recordWrittenBatch(8, 1);
+		metrics.recordStage(ImportStage.WRITE, 1_000_000);
+		assertEquals(10, registry.get("game.import.rows").tag("result", "parsed").counter().count());
+		assertEquals(7, registry.get("game.import.rows").tag("result", "successful").counter().count());
+		assertEquals(3, registry.get("game.import.rows").tag("result", "failed").counter().count());
+		assertEquals(8, registry.get("game.import.batch.size").summary().totalAmount());
+		assertEquals(1, registry.get("game.import.stage").tag("stage", "write").timer().count());
+
+		metrics.timeGameSalesQuery(true, false, true, () -> null);
+		metrics.timeGameSalesQuery(false, false, false, () -> null);
+		metrics.timeTotalSalesQuery(true, ReportGranularity.WEEK, () -> null);
+		assertEquals(1, registry.get("game.query.sales").tags("filters", "date", "pagination", "keyset").timer().count());
+		assertEquals(1, registry.get("game.query.sales").tags("filters", "none", "pagination", "offset").timer().count());
+		assertEquals(1, registry.get("game.query.totals").tags("filters", "date+game", "granularity", "week").timer().count());
+	}
+
+	private double activeThreads(String stage) {
+		return registry.get("game.import.threads.active").tag("stage", stage).gauge().value();
+	}
+}
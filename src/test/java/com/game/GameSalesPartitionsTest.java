@@ -0,0 +1,161 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.game.config.PartitionProperties;
+import com.game.model.SalesPartitionDto;
+import com.game.utils.GameSalesPartitions;
+
+/**
+ * The partition statements of {@link GameSalesPartitions}, information_schema.PARTITIONS being mocked.
+ */
+public class GameSalesPartitionsTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	@Test
+	void testListParsesTheBoundsOfTheRangePartitions() throws Exception {
+		GameSalesPartitions partitions = partitions(1,
+				new String[] { "p202412", "'2025-01-01 00:00:00'" },
+				new String[] { "p202501", "'2025-02-01'" },
+				new String[] { "pmax", "MAXVALUE" });
+
+		List<SalesPartitionDto> list = partitions.list();
+
+		assertEquals(List.of("p202412", "p202501", "pmax"), list.stream().map(SalesPartitionDto::getName).toList());
+		assertEquals(LocalDate.of(2025, 1, 1), list.get(0).getBefore());
+		assertEquals(LocalDate.of(2025, 2, 1), list.get(1).getBefore());
+		assertNull(list.get(2).getBefore());
+		assertTrue(partitions.isPartitioned());
+	}
+
+	@Test
+	void testCreateAheadSplitsTheComingMonthsOutOfPmax() throws Exception {
+		YearMonth now = YearMonth.now();
+		GameSalesPartitions partitions = partitions(2,
+				new String[] { name(now.minusMonths(1)), "'" + now.atDay(1) + " 00:00:00'" },
+				new String[] { "pmax", "MAXVALUE" });
+
+		List<String> created = partitions.createAhead();
+
+		assertEquals(List.of(name(now), name(now.plusMonths(1)), name(now.plusMonths(2))), created);
+		verify(jdbcTemplate).execute("ALTER TABLE game_sales REORGANIZE PARTITION pmax INTO ("
+				+ definition(now) + ", " + definition(now.plusMonths(1)) + ", " + definition(now.plusMonths(2))
+				+ ", PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+	}
+
+	@Test
+	void testCreateAheadStartsAPmaxOnlyTableAtItsOldestSale() throws Exception {
+		YearMonth now = YearMonth.now();
+		GameSalesPartitions partitions = partitions(0, new String[] { "pmax", "MAXVALUE" });
+		when(jdbcTemplate.queryForObject("SELECT MIN(date_of_sale) FROM game_sales PARTITION (pmax)", Timestamp.class))
+				.thenReturn(Timestamp.valueOf(now.minusMonths(1).atDay(20).atStartOfDay()));
+
+		List<String> created = partitions.createAhead();
+
+		assertEquals(List.of(name(now.minusMonths(1)), name(now)), created);
+		verify(jdbcTemplate).execute("ALTER TABLE game_sales REORGANIZE PARTITION pmax INTO ("
+				+ definition(now.minusMonths(1)) + ", " + definition(now) + ", PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+	}
+
+	@Test
+	void testCreateAheadAddsPartitionsWithoutPmax() throws Exception {
+		YearMonth now = YearMonth.now();
+		GameSalesPartitions partitions = partitions(1,
+				new String[] { name(now), "'" + now.plusMonths(1).atDay(1) + " 00:00:00'" });
+
+		assertEquals(List.of(name(now.plusMonths(1))), partitions.createAhead());
+		verify(jdbcTemplate).execute("ALTER TABLE game_sales ADD PARTITION (" + definition(now.plusMonths(1)) + ")");
+	}
+
+	@Test
+	void testCreateAheadDoesNothingOnceTheMonthsExist() throws Exception {
+		YearMonth now = YearMonth.now();
+		GameSalesPartitions partitions = partitions(0,
+				new String[] { name(now), "'" + now.plusMonths(1).atDay(1) + " 00:00:00'" },
+				new String[] { "pmax", "MAXVALUE" });
+
+		assertEquals(List.of(), partitions.createAhead());
+		verify(jdbcTemplate, never()).execute(anyString());
+	}
+
+	@Test
+	void testDropBeforeDropsThePartitionsEndingByTheDay() throws Exception {
+		GameSalesPartitions partitions = partitions(1,
+				new String[] { "p202412", "'2025-01-01 00:00:00'" },
+				new String[] { "p202501", "'2025-02-01 00:00:00'" },
+				new String[] { "p202502", "'2025-03-01 00:00:00'" },
+				new String[] { "pmax", "MAXVALUE" });
+
+		assertEquals(List.of("p202412", "p202501"), partitions.dropBefore(LocalDate.of(2025, 2, 1)));
+		verify(jdbcTemplate).execute("ALTER TABLE game_sales DROP PARTITION p202412, p202501");
+
+		assertEquals(List.of(), partitions.dropBefore(LocalDate.of(2024, 12, 31)));
+	}
+
+	@Test
+	void testAnUnpartitionedTableIsLeftAlone() throws Exception {
+		GameSalesPartitions partitions = partitions(1);
+
+		assertFalse(partitions.isPartitioned());
+		assertEquals(List.of(), partitions.createAhead());
+		assertEquals(List.of(), partitions.dropBefore(LocalDate.of(2025, 2, 1)));
+		verify(jdbcTemplate, never()).execute(anyString());
+	}
+
+	/**
+	 * @param rows the name and description of each partition, as information_schema.PARTITIONS lists them.
+	 */
+	@SuppressWarnings("unchecked")
+	private GameSalesPartitions partitions(int monthsAhead, String[]... rows) throws Exception {
+		when(jdbcTemplate.query(eq(listSql()), any(RowMapper.class))).thenAnswer(invocation -> {
+			RowMapper<SalesPartitionDto> mapper = invocation.getArgument(1);
+			List<SalesPartitionDto> partitions = new ArrayList<>();
+			for (int i = 0; i < rows.length; i++) {
+				ResultSet rs = mock(ResultSet.class);
+				when(rs.getString(1)).thenReturn(rows[i][0]);
+				when(rs.getString(2)).thenReturn(rows[i][1]);
+				partitions.add(mapper.mapRow(rs, i));
+			}
+			return partitions;
+		});
+		PartitionProperties properties = new PartitionProperties();
+		properties.setMonthsAhead(monthsAhead);
+		return new GameSalesPartitions(jdbcTemplate, properties);
+	}
+
+	private static String listSql() {
+		return "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS "
+				+ "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game_sales' "
+				+ "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+	}
+
+	private static String name(YearMonth month) {
+		return String.format("p%d%02d", month.getYear(), month.getMonthValue());
+	}
+
+	private static String definition(YearMonth month) {
+		return "PARTITION " + name(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+	}
+}
@@ -0,0 +1,90 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.config.ReadDataSourceProperties;
+import com.game.config.ReportCacheProperties;
+import com.game.enums.ReportGranularity;
+import com.game.model.GameSalesReportDto;
+import com.game.model.ReportCacheStatsDto;
+import com.game.utils.GameSalesReportCache;
+
+public class GameSalesReportCacheTest {
+
+	private static final LocalDateTime APRIL_1 = LocalDateTime.of(2025, 4, 1, 0, 0);
+
+	private static final LocalDateTime APRIL_30 = LocalDateTime.of(2025, 4, 30, 23, 59, 59);
+
+	private static final LocalDateTime MAY_1 = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+	private static final LocalDateTime MAY_31 = LocalDateTime.of(2025, 5, 31, 23, 59, 59);
+
+	@Test
+	void testInvalidateOnlyDropsOverlappingReports() {
+		GameSalesReportCache cache = new GameSalesReportCache(new ReportCacheProperties(), new ReadDataSourceProperties());
+		AtomicInteger queries = new AtomicInteger();
+
+		cache.get(APRIL_1, APRIL_30, null, ReportGranularity.DAY, () -> report(queries));
+		cache.get(MAY_1, MAY_31, null, ReportGranularity.DAY, () -> report(queries));
+		cache.get(APRIL_1, APRIL_30, null, ReportGranularity.DAY, () -> report(queries));
+		assertEquals(2, queries.get());
+
+		cache.invalidate(LocalDateTime.of(2025, 5, 10, 8, 0), LocalDateTime.of(2025, 5, 12, 9, 0));
+		cache.get(APRIL_1, APRIL_30, null, ReportGranularity.DAY, () -> report(queries));
+		cache.get(MAY_1, MAY_31, null, ReportGranularity.DAY, () -> report(queries));
+		assertEquals(3, queries.get());
+
+		ReportCacheStatsDto stats = cache.getStats();
+		assertEquals(2, stats.getHits());
+		assertEquals(3, stats.getMisses());
+		assertEquals(1, stats.getInvalidations());
+		assertEquals(2, stats.getSize());
+	}
+
+	@Test
+	void testReportInvalidatedWhileComputedIsNotCached() {
+		GameSalesReportCache cache = new GameSalesReportCache(new ReportCacheProperties(), new ReadDataSourceProperties());
+		AtomicInteger queries = new AtomicInteger();
+
+		cache.get(APRIL_1, APRIL_30, 7, ReportGranularity.WEEK, () -> {
+			cache.invalidate(APRIL_30, APRIL_30);
+			return report(queries);
+		});
+		cache.get(APRIL_1, APRIL_30, 7, ReportGranularity.WEEK, () -> report(queries));
+		assertEquals(2, queries.get());
+		cache.get(APRIL_1, APRIL_30, 7, ReportGranularity.WEEK, () -> report(queries));
+		assertEquals(2, queries.get());
+	}
+
+	@Test
+	void testReportComputedWhileTheReplicaLagsIsNotCached() throws Exception {
+		ReadDataSourceProperties readProperties = new ReadDataSourceProperties();
+		readProperties.setReplicaUrl("jdbc:mysql://replica/game_sales");
+		readProperties.setReplicaLagMillis(100);
+		GameSalesReportCache cache = new GameSalesReportCache(new ReportCacheProperties(), readProperties);
+		AtomicInteger queries = new AtomicInteger();
+
+		cache.invalidate(APRIL_30, APRIL_30);
+		cache.get(APRIL_1, APRIL_30, null, ReportGranularity.DAY, () -> report(queries));
+		cache.get(APRIL_1, APRIL_30, null, ReportGranularity.DAY, () -> report(queries));
+		cache.get(MAY_1, MAY_31, null, ReportGranularity.DAY, () -> report(queries));
+		cache.get(MAY_1, MAY_31, null, ReportGranularity.DAY, () -> report(queries));
+		assertEquals(3, queries.get()); // may was not invalidated
+
+		Thread.sleep(150);
+		cache.get(APRIL_1, APRIL_30, null, ReportGranularity.DAY, () -> report(queries));
+		cache.get(APRIL_1, APRIL_30, null, ReportGranularity.DAY, () -> report(queries));
+		assertEquals(4, queries.get());
+	}
+
+	private static List<GameSalesReportDto> report(AtomicInteger queries) {
+		queries.incrementAndGet();
+		return List.of(GameSalesReportDto.builder().totalCount(1).build());
+	}
+}
@@ -0,0 +1,211 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.game.config.ColumnarStoreProperties;
+import com.game.entity.GameSales;
+import com.game.enums.DuplicateMode;
+import com.game.enums.ReportGranularity;
+import com.game.model.GameSalesReportDto;
+import com.game.utils.GameSalesColumnarStore;
+import com.game.utils.GameSalesReportQuery;
+import com.game.utils.Money;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The totals of {@link GameSalesReportQuery}, summed from the daily rollup and the partial first and last days of
+ * game_sales in H2 in MySQL mode, and of {@link GameSalesColumnarStore} holding the same rows, against the totals of
+ * the rows in the range grouped in java.
+ */
+public class GameSalesReportQueryTest {
+
+	/** Around the end of March 2025, whose 30th is a Sunday and 31st a Monday. */
+	private static final List<GameSales> ROWS = List.of(
+			row(1, 1, "10.00", LocalDateTime.of(2025, 3, 29, 12, 0)),
+			row(2, 2, "20.00", LocalDateTime.of(2025, 3, 30, 23, 59, 59)),
+			row(3, 1, "1.10", LocalDateTime.of(2025, 3, 31, 0, 0)),
+			row(4, 2, "2.20", LocalDateTime.of(2025, 3, 31, 9, 59, 59)),
+			row(5, 1, "3.30", LocalDateTime.of(2025, 3, 31, 10, 0)),
+			row(6, 1, "4.40", LocalDateTime.of(2025, 3, 31, 23, 59, 59)),
+			row(7, 2, "5.50", LocalDateTime.of(2025, 4, 1, 0, 0)),
+			row(8, 1, "6.60", LocalDateTime.of(2025, 4, 1, 12, 30)),
+			row(9, 1, "7.70", LocalDateTime.of(2025, 4, 6, 23, 59, 59)),
+			row(10, 2, "8.80", LocalDateTime.of(2025, 4, 7, 8, 0)),
+			row(11, 1, "9.90", LocalDateTime.of(2025, 4, 7, 8, 0, 1)));
+
+	private HikariDataSource dataSource;
+
+	private GameSalesReportQuery reportQuery;
+
+	private GameSalesColumnarStore store;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void loadRows() throws Exception {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:report_query;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		dataSource = new HikariDataSource(config);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		// the columns the reports read, sale_hour as H2 computes it
+		jdbcTemplate.execute("CREATE TABLE game_sales (id INT NOT NULL, game_no INT NOT NULL, "
+				+ "sale_price DECIMAL(10, 2) NOT NULL, date_of_sale DATETIME(0) NOT NULL, "
+				+ "sale_hour DATETIME GENERATED ALWAYS AS (DATE_TRUNC(HOUR, date_of_sale)), PRIMARY KEY (id, date_of_sale))");
+		jdbcTemplate.execute("CREATE TABLE game_sales_daily_rollup (sale_date DATE NOT NULL, game_no INT NOT NULL, "
+				+ "total_count BIGINT NOT NULL, total_sales DECIMAL(20, 2) NOT NULL, PRIMARY KEY (sale_date, game_no))");
+		for (GameSales row : ROWS) {
+			jdbcTemplate.update("INSERT INTO game_sales (id, game_no, sale_price, date_of_sale) VALUES (?, ?, ?, ?)",
+					row.getId(), row.getGameNo(), Money.toBigDecimal(row.getSalePrice()), row.getDateOfSale());
+		}
+		jdbcTemplate.execute("INSERT INTO game_sales_daily_rollup (sale_date, game_no, total_count, total_sales) "
+				+ "SELECT DATE(date_of_sale), game_no, COUNT(*), SUM(sale_price) FROM game_sales "
+				+ "GROUP BY DATE(date_of_sale), game_no");
+		// H2 has no INTERVAL of an expression, the week and month buckets are rewritten to its DATEADD
+		reportQuery = new GameSalesReportQuery(new JdbcTemplate(dataSource) {
+			@Override
+			public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+				return super.query(sql.replaceAll("\\(([\\w.]+) - INTERVAL WEEKDAY\\(\\1\\) DAY\\)",
+						"DATEADD(DAY, 1 - ISO_DAY_OF_WEEK($1), $1)")
+						.replaceAll("\\(([\\w.]+) - INTERVAL \\(DAYOFMONTH\\(\\1\\) - 1\\) DAY\\)",
+								"DATEADD(DAY, 1 - DAY_OF_MONTH($1), $1)"), rowMapper, args);
+			}
+		});
+
+		// an empty load, then the rows as a committed batch
+		ResultSet rs = mock(ResultSet.class);
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.executeQuery()).thenReturn(rs);
+		Connection con = mock(Connection.class);
+		when(con.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+		JdbcTemplate loadTemplate = mock(JdbcTemplate.class);
+		when(loadTemplate.execute(any(ConnectionCallback.class)))
+				.thenAnswer(invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(con));
+		ColumnarStoreProperties properties = new ColumnarStoreProperties();
+		properties.setEnabled(true);
+		properties.setInitialCapacity(1);
+		store = new GameSalesColumnarStore(loadTemplate, properties, Runnable::run);
+		store.reload();
+		store.applyBatch(ROWS, List.of(), DuplicateMode.FAIL);
+		assertTrue(store.getStatus().isReady());
+	}
+
+	@AfterEach
+	void dropTables() {
+		new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+		dataSource.close();
+	}
+
+	@Test
+	void testRangesStartingOrEndingWithinADay() {
+		// from the second of row 5 to that of row 10, across the end of the month and of a week
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 10, 0), LocalDateTime.of(2025, 4, 7, 8, 0));
+		// a fractional start begins at the next second
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 9, 59, 59, 500_000_000), LocalDateTime.of(2025, 4, 7, 8, 0, 0, 500_000_000));
+		assertSameTotals(LocalDateTime.of(2025, 3, 29, 12, 0, 1), LocalDateTime.of(2025, 4, 6, 23, 59, 58));
+		// ends at the midnight starting the last day, whose only whole day is none
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 12, 0), LocalDateTime.of(2025, 4, 1, 0, 0));
+	}
+
+	@Test
+	void testRangesWithinASingleDay() {
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 0, 0), LocalDateTime.of(2025, 3, 31, 9, 59, 59));
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 9, 0), LocalDateTime.of(2025, 3, 31, 23, 0));
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 10, 0), LocalDateTime.of(2025, 3, 31, 10, 0));
+		assertSameTotals(LocalDateTime.of(2025, 4, 2, 0, 0), LocalDateTime.of(2025, 4, 2, 23, 59, 59));
+	}
+
+	@Test
+	void testRangesOfWholeDays() {
+		assertSameTotals(LocalDateTime.of(2025, 3, 29, 0, 0), LocalDateTime.of(2025, 4, 7, 23, 59, 59));
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 0, 0), LocalDateTime.of(2025, 4, 6, 23, 59, 59));
+		assertSameTotals(LocalDateTime.of(2025, 3, 30, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0));
+	}
+
+	@Test
+	void testAnEmptyRange() {
+		for (ReportGranularity granularity : ReportGranularity.values()) {
+			assertEquals(List.of(), reportQuery.getTotalSales(LocalDateTime.of(2025, 3, 31, 12, 0),
+					LocalDateTime.of(2025, 3, 31, 11, 0), null, granularity));
+		}
+		assertSameTotals(LocalDateTime.of(2025, 3, 31, 10, 0, 1), LocalDateTime.of(2025, 3, 31, 23, 59, 58));
+	}
+
+	/**
+	 * Checks both paths against the rows, for every granularity, over all games and game 1.
+	 */
+	private void assertSameTotals(LocalDateTime fromDate, LocalDateTime toDate) {
+		for (ReportGranularity granularity : ReportGranularity.values()) {
+			for (Integer gameNo : new Integer[] { null, 1 }) {
+				String message = granularity + " totals of game " + gameNo + " from " + fromDate + " to " + toDate;
+				List<GameSalesReportDto> expected = expectedTotals(fromDate, toDate, gameNo, granularity);
+				assertEquals(expected, reportQuery.getTotalSales(fromDate, toDate, gameNo, granularity), message);
+				assertEquals(expected, store.getTotalSales(fromDate, toDate, gameNo, granularity).get(), message);
+			}
+		}
+	}
+
+	private static List<GameSalesReportDto> expectedTotals(LocalDateTime fromDate, LocalDateTime toDate, Integer gameNo,
+			ReportGranularity granularity) {
+		Map<LocalDateTime, long[]> totals = new TreeMap<>();
+		for (GameSales row : ROWS) {
+			LocalDateTime date = row.getDateOfSale();
+			if (!date.isBefore(fromDate) && !date.isAfter(toDate) && (gameNo == null || row.getGameNo() == gameNo)) {
+				LocalDateTime bucket = switch (granularity) {
+					case HOUR -> date.truncatedTo(ChronoUnit.HOURS);
+					case DAY -> date.truncatedTo(ChronoUnit.DAYS);
+					case WEEK -> date.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+					case MONTH -> date.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+				};
+				long[] total = totals.computeIfAbsent(bucket, key -> new long[2]);
+				total[0]++;
+				total[1] += row.getSalePrice();
+			}
+		}
+		List<GameSalesReportDto> report = new ArrayList<>();
+		totals.forEach((bucket, total) -> report.add(GameSalesReportDto.builder()
+				.dateOfSale(new Date(Timestamp.valueOf(bucket).getTime()))
+				.totalCount(total[0])
+				.totalSales(Money.toBigDecimal(total[1]))
+				.build()));
+		return report;
+	}
+
+	private static GameSales row(long id, int gameNo, String salePrice, LocalDateTime dateOfSale) {
+		GameSales row = new GameSales();
+		row.setId(id);
+		row.setGameNo(gameNo);
+		row.setType(1);
+		row.setCostPrice(100);
+		row.setSalePrice(Money.toCents(new BigDecimal(salePrice)));
+		row.setDateOfSale(dateOfSale);
+		return row;
+	}
+}
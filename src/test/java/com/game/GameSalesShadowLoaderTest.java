@@ -0,0 +1,57 @@
+package com.game;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.game.config.ImportProperties;
+import com.game.entity.CsvImportInfo;
+import com.game.service.GameSalesDbService;
+import com.game.utils.GameSalesLoadData;
+import com.game.utils.GameSalesPartitions;
+import com.game.utils.GameSalesShadowLoader;
+import com.game.utils.ImportProgress;
+
+/**
+ * A shadow import of a file storing id 1 again under another date than the one stored.
+ */
+public class GameSalesShadowLoaderTest {
+
+	private static final String CSV = "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n"
+			+ "1,1,Game 1,G1,1,50.00,9.00,54.50,2025-05-01 10:00:00\n";
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private final GameSalesDbService gameSalesDbService = mock(GameSalesDbService.class);
+
+	private final GameSalesPartitions partitions = mock(GameSalesPartitions.class);
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testTheImportIsRefusedOnAPartitionedTable() {
+		when(partitions.isPartitioned()).thenReturn(true);
+		CsvImportInfo importInfo = CsvImportInfo.builder().id(7L).build();
+
+		GameSalesShadowLoader loader = new GameSalesShadowLoader(jdbcTemplate,
+				new GameSalesLoadData(jdbcTemplate, gameSalesDbService, partitions), gameSalesDbService,
+				new ImportProperties());
+		loader.loadCsv(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), importInfo,
+				new ImportProgress(CSV.length()));
+
+		// no shadow table, no LOAD DATA and no swap
+		verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE"));
+		verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+		verify(gameSalesDbService).updateFailedInfoToDb(importInfo, "A shadow import cannot keep the ids of a "
+				+ "partitioned game_sales unique, import the file with the staging or batch import");
+	}
+}
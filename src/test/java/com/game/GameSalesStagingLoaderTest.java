@@ -0,0 +1,117 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.game.config.ImportProperties;
+import com.game.entity.CsvImportInfo;
+import com.game.service.GameSalesDbService;
+import com.game.utils.GameSalesLoadData;
+import com.game.utils.GameSalesPartitions;
+import com.game.utils.GameSalesStagingLoader;
+import com.game.utils.ImportProgress;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+/**
+ * The statements of a staging import in FAIL mode whose id 1 another import stores after the duplicate check, the
+ * db being mocked.
+ */
+public class GameSalesStagingLoaderTest {
+
+	private static final String CSV = "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n"
+			+ "1,1,Game 1,G1,1,50.00,9.00,54.50,2025-05-01 10:00:00\n"
+			+ "2,1,Game 1,G1,1,50.00,9.00,54.50,2025-05-01 10:00:00\n";
+
+	private static final String TABLE = "game_sales_staging_7";
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+	private final GameSalesDbService gameSalesDbService = mock(GameSalesDbService.class);
+
+	/** The statements run, and where the merge transaction begins and commits. */
+	private final List<String> events = new ArrayList<>();
+
+	private boolean inTransaction;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testAnIdStoredSinceTheCheckIsRejectedInTheMergeTransaction() throws Exception {
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.unwrap(JdbcStatement.class)).thenReturn(mock(JdbcStatement.class));
+		List<String> prepared = new ArrayList<>();
+		Connection con = mock(Connection.class);
+		when(con.prepareStatement(anyString())).thenAnswer(invocation -> {
+			prepared.add(invocation.getArgument(0));
+			events.add(invocation.getArgument(0));
+			return ps;
+		});
+		when(ps.executeUpdate()).thenAnswer(invocation -> {
+			String sql = prepared.get(prepared.size() - 1);
+			if (sql.startsWith("LOAD DATA")) {
+				return 2;
+			}
+			// the row of id 1 the second check finds stored
+			return inTransaction && sql.startsWith("DELETE s FROM " + TABLE + " s JOIN import_error") ? 1 : 0;
+		});
+		when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+				.thenAnswer(invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(con));
+		when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenAnswer(invocation -> {
+			events.add(invocation.getArgument(0));
+			return 2;
+		});
+		when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class))).thenAnswer(invocation -> {
+			events.add(invocation.getArgument(0));
+			return new LocalDate[] { LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 1) };
+		});
+		when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+			events.add("BEGIN");
+			inTransaction = true;
+			Object result = ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null);
+			inTransaction = false;
+			events.add("COMMIT");
+			return result;
+		});
+		CsvImportInfo importInfo = CsvImportInfo.builder().id(7L).build();
+		ImportProgress progress = new ImportProgress(CSV.length());
+
+		GameSalesStagingLoader loader = new GameSalesStagingLoader(jdbcTemplate,
+				new GameSalesLoadData(jdbcTemplate, gameSalesDbService, mock(GameSalesPartitions.class)),
+				transactionTemplate, gameSalesDbService, new ImportProperties());
+		loader.loadCsv(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), importInfo, progress);
+
+		List<String> transaction = events.subList(events.indexOf("BEGIN") + 1, events.indexOf("COMMIT"));
+		assertEquals(5, transaction.size(), transaction.toString());
+		assertEquals("SELECT COUNT(*) FROM " + TABLE + " s STRAIGHT_JOIN game_sales g ON g.id = CAST(s.id AS SIGNED) "
+				+ "FOR UPDATE OF g", transaction.get(0));
+		assertTrue(transaction.get(1).startsWith("INSERT INTO import_error") && transaction.get(1).contains(
+				"EXISTS (SELECT 1 FROM game_sales g WHERE g.id = CAST(s.id AS SIGNED))"), transaction.get(1));
+		assertTrue(transaction.get(2).startsWith("DELETE s FROM " + TABLE + " s JOIN import_error"), transaction.get(2));
+		assertTrue(transaction.get(4).startsWith("INSERT INTO game_sales"), transaction.get(4));
+		assertEquals(1, progress.getSuccessfulRecords());
+		assertEquals(1, progress.getFailedRecords());
+		verify(gameSalesDbService).updateSuccessInfoToDb(importInfo, 2, 1, 1);
+	}
+}
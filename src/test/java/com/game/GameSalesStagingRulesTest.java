@@ -0,0 +1,142 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.game.model.GameSalesCsvRow;
+import com.game.utils.CommonsGameSalesRowReader;
+import com.game.utils.GameSalesDtoValidator;
+import com.game.utils.GameSalesStagingRules;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The same csv rows checked by the batch import, parsed then validated by {@link GameSalesDtoValidator}, and by
+ * the sql rules of the staging import over a staging table in H2 in MySQL mode.
+ */
+public class GameSalesStagingRulesTest {
+
+	private static final String DATE = "2025-01-15 10:00:00";
+
+	private static final String CSV = "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n"
+			+ "1,1,Game 1,G1,1,50.00,9.00,54.50," + DATE + "\n"
+			+ "0,0,Game 1,G1,1,50.00,9.00,54.50," + DATE + "\n"
+			+ "3,101,Game 1,G1,1,50.00,9.00,54.50," + DATE + "\n"
+			+ "4,100,,G1,1,50.00,9.00,54.50," + DATE + "\n"
+			+ "5,1,   ,\t ,1,50.00,9.00,54.50," + DATE + "\n"
+			+ "6,1,A game name far too long,TOOLONG,1,50.00,9.00,54.50," + DATE + "\n"
+			+ "7,1,\u007f,\u00a0,1,50.00,9.00,54.50," + DATE + "\n"
+			+ "8,1,Game 1,G1,3,50.00,9.00,54.50," + DATE + "\n"
+			+ "9,1,Game 1,G1,0,100.01,8.99,-0.01," + DATE + "\n"
+			+ "10,1,Game 1,G1,2,-1,9,0," + DATE + "\n"
+			+ "11,1,\" Game 11 \",G11,1,100.0,9.000,+5," + DATE + "\n"
+			+ "12,1,Twenty characters ok,12345,1,0,9.0,99999999.99," + DATE + "\n";
+
+	private HikariDataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void createStagingTable() throws Exception {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:staging_rules;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		dataSource = new HikariDataSource(config);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE staging (line_number BIGINT PRIMARY KEY, "
+				+ "id VARCHAR(255), game_no VARCHAR(255), game_name VARCHAR(255), game_code VARCHAR(255), "
+				+ "type VARCHAR(255), cost_price VARCHAR(255), tax VARCHAR(255), sale_price VARCHAR(255), "
+				+ "date_of_sale VARCHAR(255))");
+		// the values as LOAD DATA stores them in the text columns
+		try (CSVParser parser = CSVParser.parse(new StringReader(CSV),
+				CSVFormat.RFC4180.builder().setHeader().setSkipHeaderRecord(true).get())) {
+			for (CSVRecord record : parser) {
+				List<Object> values = new ArrayList<>();
+				values.add(record.getRecordNumber() + 1);
+				record.forEach(values::add);
+				jdbcTemplate.update("INSERT INTO staging VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", values.toArray());
+			}
+		}
+	}
+
+	@AfterEach
+	void dropStagingTable() {
+		jdbcTemplate.execute("DROP ALL OBJECTS");
+		dataSource.close();
+	}
+
+	@Test
+	void testTheRowsParseInBothPaths() throws Exception {
+		assertEquals(Map.of(), problems(GameSalesStagingRules.PARSE));
+		try (CommonsGameSalesRowReader reader = new CommonsGameSalesRowReader(csv())) {
+			for (GameSalesCsvRow row = reader.next(); row != null; row = reader.next()) {
+				assertEquals(null, row.getError(), "line " + row.getLineNumber());
+			}
+		}
+	}
+
+	@Test
+	void testTheSqlRulesReportTheViolationsOfTheValidator() throws Exception {
+		Map<Long, Set<String>> expected = new TreeMap<>();
+		try (CommonsGameSalesRowReader reader = new CommonsGameSalesRowReader(csv())) {
+			for (GameSalesCsvRow row = reader.next(); row != null; row = reader.next()) {
+				for (GameSalesDtoValidator.Violation violation : GameSalesDtoValidator.validate(row.getDto())) {
+					expected.computeIfAbsent(row.getLineNumber(), line -> new TreeSet<>())
+							.add(violation.column() + ": " + violation.message());
+				}
+			}
+		}
+
+		Map<Long, Set<String>> actual = problems(GameSalesStagingRules.VALIDATION);
+
+		assertEquals(expected, actual);
+		// every constraint is broken by some row, DEL and a no-break space are not blank as String.trim() keeps them
+		assertEquals(Set.of(3L, 4L, 5L, 6L, 7L, 9L, 10L, 11L), expected.keySet());
+		assertEquals(14, expected.values().stream().mapToInt(Set::size).sum());
+	}
+
+	@Test
+	void testASalePriceRoundedBeyondItsColumnIsRejected() {
+		jdbcTemplate.execute("DELETE FROM staging");
+		jdbcTemplate.update("INSERT INTO staging VALUES (2, '1', '1', 'Game 1', 'G1', '1', '50', '9', '99999999.994', ?), "
+				+ "(3, '2', '1', 'Game 2', 'G2', '1', '50', '9', '99999999.995', ?)", DATE, DATE);
+
+		assertEquals(Map.of(3L, Set.of("sale_price: Out of range value for column 'sale_price'")),
+				problems(GameSalesStagingRules.VALIDATION));
+	}
+
+	/**
+	 * @return the problems each rule finds, as column: reason, by line.
+	 */
+	private Map<Long, Set<String>> problems(List<GameSalesStagingRules.Rule> rules) {
+		Map<Long, Set<String>> problems = new TreeMap<>();
+		for (GameSalesStagingRules.Rule rule : rules) {
+			jdbcTemplate.query("SELECT line_number, LEFT(" + rule.reason() + ", 500) FROM staging s WHERE "
+					+ rule.where("staging"), rs -> {
+						problems.computeIfAbsent(rs.getLong(1), line -> new TreeSet<>())
+								.add(rule.column() + ": " + rs.getString(2));
+					}, rule.args().toArray());
+		}
+		return problems;
+	}
+
+	private static ByteArrayInputStream csv() {
+		return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+	}
+}
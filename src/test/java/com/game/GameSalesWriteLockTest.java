@@ -0,0 +1,71 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.game.config.ReadDataSourceProperties;
+import com.game.entity.GameSales;
+import com.game.exception.ImportConflictException;
+import com.game.service.CsvImportService;
+import com.game.service.GameSalesDbService;
+import com.game.service.impl.GameSalesServiceImpl;
+import com.game.utils.GameSalesWriteLock;
+import com.game.utils.ReplicaReadGuard;
+
+public class GameSalesWriteLockTest {
+
+	private final GameSalesWriteLock writeLock = new GameSalesWriteLock();
+
+	@Test
+	void testSyncImportIsRefusedWhileAShadowImportRuns() {
+		CsvImportService csvImportService = mock(CsvImportService.class);
+		GameSalesDbService dbService = mock(GameSalesDbService.class);
+		when(csvImportService.importCsv(any())).thenReturn(List.of(new GameSales()));
+		GameSalesServiceImpl service = new GameSalesServiceImpl(csvImportService, dbService,
+				new ReplicaReadGuard(new ReadDataSourceProperties()), writeLock);
+		MockMultipartFile file = new MockMultipartFile("file", "sales.csv", "text/csv",
+				"id,game_no\n".getBytes(StandardCharsets.UTF_8));
+
+		GameSalesWriteLock.Hold shadow = writeLock.acquireExclusive("shadow import of big.csv");
+		ImportConflictException e = assertThrows(ImportConflictException.class, () -> service.importCsvDataToDb(file));
+		assertTrue(e.getMessage().contains("shadow import of big.csv"), e.getMessage());
+		verify(csvImportService, never()).importCsv(any());
+		verify(dbService, never()).saveGameSalesToDb(any());
+
+		shadow.close();
+		assertTrue(service.importCsvDataToDb(file));
+		verify(dbService).saveGameSalesToDb(any());
+		assertEquals(List.of(), writeLock.getWriters());
+	}
+
+	@Test
+	void testShadowImportWaitsForEverySharedWriter() {
+		GameSalesWriteLock.Hold queued = writeLock.acquireShared("import of a.csv");
+		GameSalesWriteLock.Hold purge = writeLock.acquireShared("partition maintenance");
+		assertThrows(ImportConflictException.class, () -> writeLock.acquireExclusive("shadow import of big.csv"));
+
+		queued.close();
+		queued.close(); // a second release must not free the other hold
+		assertEquals(List.of("partition maintenance"), writeLock.getWriters());
+		assertThrows(ImportConflictException.class, () -> writeLock.acquireExclusive("shadow import of big.csv"));
+
+		purge.close();
+		try (GameSalesWriteLock.Hold shadow = writeLock.acquireExclusive("shadow import of big.csv")) {
+			assertThrows(ImportConflictException.class, () -> writeLock.acquireExclusive("shadow import of other.csv"));
+			assertThrows(ImportConflictException.class, () -> writeLock.acquireShared("partition maintenance"));
+		}
+		writeLock.acquireShared("partition maintenance").close();
+	}
+}
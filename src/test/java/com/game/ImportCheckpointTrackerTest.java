@@ -0,0 +1,44 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.utils.ImportCheckpointTracker;
+import com.game.utils.ImportCheckpointTracker.Checkpoint;
+
+public class ImportCheckpointTrackerTest {
+
+	@Test
+	void testCheckpointOnlyAdvancesOverCommittedPrefix() {
+		List<Checkpoint> saved = new ArrayList<>();
+		ImportCheckpointTracker tracker = new ImportCheckpointTracker(Checkpoint.START, saved::add);
+		tracker.register(10, 100);
+		tracker.register(20, 200);
+		tracker.register(30, 300);
+
+		tracker.complete(20, 19, 10, 0);
+		assertTrue(saved.isEmpty(), "Batch ending at line 10 is not committed yet");
+
+		tracker.complete(10, 9, 8, 1);
+		assertEquals(new Checkpoint(200, 20, 19, 18, 1), tracker.getCheckpoint());
+		assertEquals(List.of(tracker.getCheckpoint()), saved);
+
+		tracker.complete(30, 0, 0, 10);
+		assertEquals(new Checkpoint(300, 30, 19, 18, 11), tracker.getCheckpoint());
+		assertEquals(2, saved.size());
+	}
+
+	@Test
+	void testResumedCheckpointKeepsPreviousCounts() {
+		ImportCheckpointTracker tracker = new ImportCheckpointTracker(new Checkpoint(500, 50, 49, 40, 9), checkpoint -> {
+		});
+		tracker.register(60, -1);
+		tracker.complete(60, 59, 10, 0);
+		assertEquals(new Checkpoint(0, 60, 59, 50, 9), tracker.getCheckpoint());
+	}
+}
@@ -0,0 +1,71 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.game.model.ImportRowError;
+import com.game.utils.ImportErrorSink;
+
+public class ImportErrorSinkTest {
+
+	@TempDir
+	Path dir;
+
+	private final List<List<ImportRowError>> dbBatches = new CopyOnWriteArrayList<>();
+
+	@Test
+	void testErrorsGoToTheSideFileAndTheDbInBatches() throws Exception {
+		Path errorFile = dir.resolve("errors").resolve("import_1_errors.csv");
+		try (ImportErrorSink sink = new ImportErrorSink(errorFile, dbBatches::add, 2, false)) {
+			assertNull(sink.getErrorFile());
+			for (int line = 2; line <= 6; line++) {
+				sink.reject(line, "game_name", "Game Name cannot be \"blank\"");
+			}
+		}
+
+		assertTrue(dbBatches.stream().allMatch(batch -> batch.size() <= 2));
+		assertEquals(List.of(2L, 3L, 4L, 5L, 6L), dbBatches.stream().flatMap(List::stream)
+				.map(ImportRowError::getLineNumber).toList());
+		List<String> lines = Files.readAllLines(errorFile);
+		assertEquals(6, lines.size());
+		assertEquals("line_number,column_name,reason", lines.get(0));
+		assertEquals("2,game_name,\"Game Name cannot be \"\"blank\"\"\"", lines.get(1));
+	}
+
+	@Test
+	void testAnInterruptedRejectKeepsTheRowAndTheInterrupt() throws Exception {
+		Path errorFile = dir.resolve("import_2_errors.csv");
+		try (ImportErrorSink sink = new ImportErrorSink(errorFile, dbBatches::add, 10, false)) {
+			Thread.currentThread().interrupt();
+			sink.reject(7, "id", "Duplicate entry '7' for key 'game_sales.PRIMARY'");
+			assertTrue(Thread.interrupted());
+		}
+
+		assertEquals(List.of(7L), dbBatches.stream().flatMap(List::stream).map(ImportRowError::getLineNumber).toList());
+		assertEquals(2, Files.readAllLines(errorFile).size());
+	}
+
+	@Test
+	void testAResumedImportAppendsWithoutASecondHeader() throws Exception {
+		Path errorFile = dir.resolve("import_3_errors.csv");
+		try (ImportErrorSink sink = new ImportErrorSink(errorFile, dbBatches::add, 10, false)) {
+			sink.reject(2, "type", "Type should be 1 (Online) or 2 (Offline)");
+		}
+		try (ImportErrorSink sink = new ImportErrorSink(errorFile, dbBatches::add, 10, true)) {
+			sink.reject(9, "tax", "Tax should be exactly 9%");
+		}
+
+		List<String> lines = Files.readAllLines(errorFile);
+		assertEquals(3, lines.size());
+		assertTrue(lines.get(2).startsWith("9,tax,"));
+	}
+}
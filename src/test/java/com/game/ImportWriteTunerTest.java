@@ -0,0 +1,76 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.config.ImportProperties;
+import com.game.utils.ImportWriteTuner;
+import com.game.utils.ImportWriterBudget;
+
+public class ImportWriteTunerTest {
+
+	private static final long MILLIS = 1_000_000;
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void testBatchSizeGrowsUnderTheTargetAndHalvesOverIt() throws Exception {
+		ImportWriteTuner tuner = tuner(true, 4);
+		writeWindow(tuner, 8, 100 * MILLIS, 1000);
+		assertEquals(1250, tuner.getBatchSize());
+
+		writeWindow(tuner, 8, 600 * MILLIS, 1000);
+		assertEquals(625, tuner.getBatchSize());
+
+		writeWindow(tuner, 8, 1200 * MILLIS, 1000);
+		assertEquals(312, tuner.getBatchSize());
+		assertEquals(2, tuner.getWriterLimit());
+	}
+
+	@Test
+	void testWritersClimbWhileThroughputRisesAndTurnBackWhenItDrops() throws Exception {
+		ImportWriteTuner tuner = tuner(true, 4);
+		writeWindow(tuner, 8, 100 * MILLIS, 1000);
+		assertEquals(4, tuner.getWriterLimit()); // already at the cap of the budget
+
+		writeWindow(tuner, 8, 100 * MILLIS, 500);
+		assertEquals(3, tuner.getWriterLimit());
+		writeWindow(tuner, 6, 100 * MILLIS, 700);
+		assertEquals(2, tuner.getWriterLimit());
+		writeWindow(tuner, 4, 100 * MILLIS, 400);
+		assertEquals(3, tuner.getWriterLimit());
+		writeWindow(tuner, 6, 100 * MILLIS, 400);
+		assertEquals(3, tuner.getWriterLimit());
+
+		ImportWriteTuner fixed = tuner(false, 4);
+		writeWindow(fixed, 8, 1200 * MILLIS, 1000);
+		assertEquals(1000, fixed.getBatchSize());
+		assertEquals(4, fixed.getWriterLimit());
+	}
+
+	/**
+	 * Writes a window of batches of the current batch size, each taking {@code nanos}, at the given
+	 * rows per second.
+	 */
+	private void writeWindow(ImportWriteTuner tuner, int batches, long nanos, long rowsPerSecond) throws Exception {
+		int rows = tuner.getBatchSize();
+		for (int i = 0; i < batches; i++) {
+			tuner.acquire();
+			clock.addAndGet(rows * 1_000_000_000L / rowsPerSecond);
+			tuner.release(rows, nanos);
+		}
+	}
+
+	private ImportWriteTuner tuner(boolean adaptive, int maxWriters) {
+		ImportProperties properties = new ImportProperties();
+		properties.setAdaptive(adaptive);
+		ImportWriterBudget budget = mock(ImportWriterBudget.class);
+		when(budget.getMaxWriters()).thenReturn(maxWriters);
+		return new ImportWriteTuner(properties, budget, clock::get);
+	}
+}
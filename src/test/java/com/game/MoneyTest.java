@@ -0,0 +1,57 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.utils.Money;
+
+public class MoneyTest {
+
+	@Test
+	void testCentsRoundTripThroughBigDecimalAndText() {
+		Random random = new Random(42);
+		long[] edges = {0, 1, -1, 9, 10, 99, 100, 101, -99, -100, 9_999_999_999L, Long.MAX_VALUE, Long.MIN_VALUE};
+		for (int i = 0; i < 100_000 + edges.length; i++) {
+			long cents = i < edges.length ? edges[i] : random.nextLong() >> random.nextInt(64);
+			BigDecimal amount = Money.toBigDecimal(cents);
+			assertEquals(2, amount.scale());
+			assertEquals(cents, Money.toCents(amount));
+			assertEquals(amount.toPlainString(), Money.toString(cents));
+			assertEquals(cents, Money.toCents(new BigDecimal(Money.toString(cents))));
+		}
+	}
+
+	@Test
+	void testRoundsHalfUpLikeMysqlDecimalColumns() {
+		assertEquals(1230, Money.toCents(new BigDecimal("12.3")));
+		assertEquals(1200, Money.toCents(new BigDecimal("12")));
+		assertEquals(1, Money.toCents(new BigDecimal("0.005")));
+		assertEquals(-1, Money.toCents(new BigDecimal("-0.005")));
+		assertEquals(0, Money.toCents(new BigDecimal("0.004999")));
+		assertEquals(200, Money.toCents(new BigDecimal("1.995")));
+		assertEquals(-200, Money.toCents(new BigDecimal("-1.995")));
+		assertEquals(9810, Money.toCents(new BigDecimal("98.1")));
+		assertEquals(1000, Money.toCents(new BigDecimal("1E1")));
+		assertEquals(0, Money.toCents(new BigDecimal("2.5E-3")));
+		assertEquals(0, Money.toCents(new BigDecimal("0.00000000000000000000049")));
+		assertEquals(0, Money.toCents(new BigDecimal("0.0000000000000000000005")));
+		assertEquals(Long.MAX_VALUE, Money.toCents(new BigDecimal("92233720368547758.07")));
+		assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("92233720368547758.08")));
+		assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("-92233720368547758.09")));
+	}
+
+	@Test
+	void testRangeBoundsKeepTheSameStoredAmounts() {
+		assertEquals(1091, Money.toCentsBound(new BigDecimal("10.901"), RoundingMode.CEILING));
+		assertEquals(1090, Money.toCentsBound(new BigDecimal("10.909"), RoundingMode.FLOOR));
+		assertEquals(-1090, Money.toCentsBound(new BigDecimal("-10.909"), RoundingMode.CEILING));
+		assertEquals(Long.MAX_VALUE, Money.toCentsBound(new BigDecimal("1E30"), RoundingMode.FLOOR));
+		assertEquals(Long.MIN_VALUE, Money.toCentsBound(new BigDecimal("-1E30"), RoundingMode.CEILING));
+	}
+}
@@ -0,0 +1,60 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.config.ReadDataSourceProperties;
+import com.game.enums.ReadConsistency;
+import com.game.utils.ReplicaReadGuard;
+
+public class ReplicaReadGuardTest {
+
+	@Test
+	void testAfterImportReadsThePrimaryWhileAnImportRunsAndDuringTheLag() throws Exception {
+		ReplicaReadGuard guard = guard(ReadConsistency.AFTER_IMPORT, 50);
+		assertTrue(guard.isReplicaReadable());
+
+		guard.importStarted();
+		guard.importStarted();
+		assertFalse(guard.isReplicaReadable());
+		guard.importFinished();
+		assertFalse(guard.isReplicaReadable()); // the other one still runs
+		guard.importFinished();
+		assertFalse(guard.isReplicaReadable());
+
+		Thread.sleep(100);
+		assertTrue(guard.isReplicaReadable());
+	}
+
+	@Test
+	void testEventualAlwaysReadsTheReplica() {
+		ReplicaReadGuard guard = guard(ReadConsistency.EVENTUAL, 60000);
+		guard.importStarted();
+		assertTrue(guard.isReplicaReadable());
+		guard.importFinished();
+		assertTrue(guard.isReplicaReadable());
+	}
+
+	@Test
+	void testReadsTheReplicaOnlyWhenOneIsConfigured() {
+		ReplicaReadGuard noReplica = guard(ReadConsistency.EVENTUAL, 0);
+		assertFalse(noReplica.readsReplica());
+
+		ReadDataSourceProperties properties = new ReadDataSourceProperties();
+		properties.setReplicaUrl("jdbc:mysql://replica/game_sales");
+		properties.setReplicaLagMillis(60000);
+		ReplicaReadGuard guard = new ReplicaReadGuard(properties);
+		assertTrue(guard.readsReplica());
+		guard.importStarted();
+		assertFalse(guard.readsReplica());
+	}
+
+	private static ReplicaReadGuard guard(ReadConsistency consistency, long lagMillis) {
+		ReadDataSourceProperties properties = new ReadDataSourceProperties();
+		properties.setReadConsistency(consistency);
+		properties.setReplicaLagMillis(lagMillis);
+		return new ReplicaReadGuard(properties);
+	}
+}
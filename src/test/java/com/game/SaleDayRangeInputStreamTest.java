@@ -0,0 +1,58 @@
+package com.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.game.utils.SaleDayRangeInputStream;
+
+public class SaleDayRangeInputStreamTest {
+
+	private static final String CSV = "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n"
+			+ "1,10,Game One,A01,1,90.00,9.0,98.10,2025-04-03 10:00:00\n"
+			+ "2,20,\"Game, Two\",B02,2,10,9,10.90,\"2025-03-30 23:59:59\"\r\n"
+			+ "3,30,Bad Date,C03,1,1,9,1,2025-02-30 00:00:00\n"
+			+ "4,40,Short Row\n"
+			+ "5,50,No Newline,E05,2,5.55,9,6.05,2025-04-09 09:09:09";
+
+	@Test
+	void testKeepsFirstAndLastDayOfSale() throws IOException {
+		byte[] bytes = CSV.getBytes(StandardCharsets.UTF_8);
+		SaleDayRangeInputStream in = new SaleDayRangeInputStream(new ByteArrayInputStream(bytes));
+		byte[] read = readInSmallChunks(in);
+
+		assertArrayEquals(bytes, read);
+		assertEquals(LocalDate.of(2025, 3, 30), in.getFirstDay());
+		assertEquals(LocalDate.of(2025, 4, 9), in.getLastDay());
+	}
+
+	@Test
+	void testNoDaysWithoutRows() throws IOException {
+		SaleDayRangeInputStream in = new SaleDayRangeInputStream(
+				new ByteArrayInputStream("id,game_no,date_of_sale\n".getBytes(StandardCharsets.UTF_8)));
+		in.readAllBytes();
+
+		assertNull(in.getFirstDay());
+		assertNull(in.getLastDay());
+	}
+
+	/** Reads a few bytes at a time, so lines span several reads. */
+	private static byte[] readInSmallChunks(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[7];
+		int n;
+		while ((n = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+}